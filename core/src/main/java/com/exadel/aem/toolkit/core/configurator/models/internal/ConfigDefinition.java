@@ -28,6 +28,7 @@ import org.apache.sling.api.resource.Resource;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.ServiceReference;
 import org.osgi.service.cm.Configuration;
 import org.osgi.service.cm.ConfigurationAdmin;
 import org.osgi.service.metatype.AttributeDefinition;
@@ -40,6 +41,7 @@ import com.adobe.granite.ui.components.ExpressionCustomizer;
 
 import com.exadel.aem.toolkit.core.CoreConstants;
 import com.exadel.aem.toolkit.core.configurator.ConfiguratorConstants;
+import com.exadel.aem.toolkit.core.configurator.services.MetaTypeIndex;
 import com.exadel.aem.toolkit.core.configurator.utils.PermissionUtil;
 import com.exadel.aem.toolkit.core.configurator.utils.RequestUtil;
 
@@ -286,13 +288,58 @@ public class ConfigDefinition {
 
     /**
      * Called from {@link ConfigDefinition#from(HttpServletRequest)} to create a {@code ConfigDefinition} instance based
-     * on the configuration PID
+     * on the configuration PID. The {@link MetaTypeIndex} service is used if available. Otherwise, or if the index
+     * does not contain the requested definition, the MetaType information of all the bundles is scanned
      * @param pid The configuration PID. A non-blank value is expected
      * @param context The {@link BundleContext} instance
      * @return The {@code ConfigDefinition} instance; or an empty instance if the configuration with the specified PID
      * does not exist
      */
     private static ConfigDefinition from(String pid, BundleContext context) {
+        ServiceReference<MetaTypeIndex> indexReference = context.getServiceReference(MetaTypeIndex.class);
+        MetaTypeIndex index = indexReference != null ? context.getService(indexReference) : null;
+        if (index == null) {
+            return fromBundles(pid, context);
+        }
+        try {
+            ConfigDefinition result = from(pid, index);
+            return result != null ? result : fromBundles(pid, context);
+        } finally {
+            context.ungetService(indexReference);
+        }
+    }
+
+    /**
+     * Called from {@link ConfigDefinition#from(String, BundleContext)} to create a {@code ConfigDefinition} instance
+     * using the MetaType definitions stored in the {@link MetaTypeIndex}
+     * @param pid   The configuration PID. A non-blank value is expected
+     * @param index The {@code MetaTypeIndex} instance
+     * @return The {@code ConfigDefinition} instance; or an empty instance if the configuration with the specified PID
+     * does not exist; or null if the index does not contain the MetaType definition for the configuration
+     */
+    private static ConfigDefinition from(String pid, MetaTypeIndex index) {
+        Configuration configuration = getConfigurationObject(index.getConfigurationAdmin(), pid);
+        if (configuration == null) {
+            return EMPTY;
+        }
+        MetaTypeIndex.Definition definition = index.getDefinition(getMetatypePid(configuration));
+        if (definition == null || definition.getOcd() == null) {
+            // The definition may be provided by a bundle the index has not processed yet
+            return null;
+        }
+        return from(pid, configuration, definition.getOcd(), definition.isFactory() && StringUtils.equals(definition.getPid(), pid));
+    }
+
+    /**
+     * Called from {@link ConfigDefinition#from(String, BundleContext)} to create a {@code ConfigDefinition} instance
+     * by scanning the MetaType information of all the bundles. Used when the {@link MetaTypeIndex} service is not
+     * available or misses the definition
+     * @param pid The configuration PID. A non-blank value is expected
+     * @param context The {@link BundleContext} instance
+     * @return The {@code ConfigDefinition} instance; or an empty instance if the configuration with the specified PID
+     * does not exist
+     */
+    private static ConfigDefinition fromBundles(String pid, BundleContext context) {
         ConfigurationAdmin configurationAdmin;
         MetaTypeService metaTypeService;
         try {
@@ -308,10 +355,7 @@ public class ConfigDefinition {
             return EMPTY;
         }
 
-        boolean isFactoryInstance = StringUtils.isNotEmpty(configuration.getFactoryPid())
-            && !StringUtils.equals(configuration.getPid(), configuration.getFactoryPid());
-        String metatypePid = isFactoryInstance ? configuration.getFactoryPid() : configuration.getPid();
-
+        String metatypePid = getMetatypePid(configuration);
         for (Bundle bundle : context.getBundles()) {
             MetaTypeInformation metaTypeInformation = metaTypeService.getMetaTypeInformation(bundle);
             if (metaTypeInformation == null) {
@@ -324,11 +368,7 @@ public class ConfigDefinition {
                 // Not an error: this actually happens if the configuration is not present in the current bundle
                 continue;
             }
-            ConfigDefinition result = from(configuration, ocd);
-            result.isFactory = ArrayUtils.contains(metaTypeInformation.getFactoryPids(), pid);
-            result.pid = pid;
-            result.factoryPid = configuration.getFactoryPid();
-            return result;
+            return from(pid, configuration, ocd, ArrayUtils.contains(metaTypeInformation.getFactoryPids(), pid));
         }
         return EMPTY;
     }
@@ -336,11 +376,13 @@ public class ConfigDefinition {
     /**
      * Called from {@link ConfigDefinition#from(String, BundleContext)} to create a {@code ConfigDefinition} instance
      * based on the {@link Configuration} and {@link ObjectClassDefinition} objects
+     * @param pid           The configuration PID
      * @param configuration The {@code Configuration} instance. A non-null value is expected
      * @param ocd           The {@code ObjectClassDefinition} instance
+     * @param isFactory     True if the configuration is a factory configuration; false otherwise
      * @return The {@code ConfigDefinition} instance
      */
-    private static ConfigDefinition from(Configuration configuration, ObjectClassDefinition ocd) {
+    private static ConfigDefinition from(String pid, Configuration configuration, ObjectClassDefinition ocd, boolean isFactory) {
         Map<String, Object> configProperties = Collections.emptyMap();
         if (configuration.getProperties() != null) {
             configProperties = Collections.list(configuration.getProperties().keys())
@@ -359,6 +401,9 @@ public class ConfigDefinition {
         }
         result.changeCount = configuration.getChangeCount();
         result.ocd = ocd;
+        result.isFactory = isFactory;
+        result.pid = pid;
+        result.factoryPid = configuration.getFactoryPid();
         return result;
     }
 
@@ -386,6 +431,18 @@ public class ConfigDefinition {
         return result;
     }
 
+    /**
+     * Retrieves the PID under which the MetaType definition of the given configuration is registered. For an instance
+     * of a factory configuration, this is the factory PID
+     * @param configuration The {@link Configuration} instance. A non-null value is expected
+     * @return The string value
+     */
+    private static String getMetatypePid(Configuration configuration) {
+        boolean isFactoryInstance = StringUtils.isNotEmpty(configuration.getFactoryPid())
+            && !StringUtils.equals(configuration.getPid(), configuration.getFactoryPid());
+        return isFactoryInstance ? configuration.getFactoryPid() : configuration.getPid();
+    }
+
     /**
      * Retrieves the OSGi native {@link Configuration} object by its identifier
      * @param configAdmin The {@code ConfigurationAdmin} service instance. A non-null value is expected
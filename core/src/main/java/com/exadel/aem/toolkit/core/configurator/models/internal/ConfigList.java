@@ -25,6 +25,7 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.sling.api.SlingHttpServletRequest;
 import org.apache.sling.models.annotations.Model;
+import org.apache.sling.models.annotations.injectorspecific.InjectionStrategy;
 import org.apache.sling.models.annotations.injectorspecific.OSGiService;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
@@ -38,6 +39,8 @@ import org.osgi.service.metatype.ObjectClassDefinition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.exadel.aem.toolkit.core.configurator.services.MetaTypeIndex;
+
 /**
  * Represents a list of OSGi configurations known to the system
  * <p><u>Note</u>: This class is not a part of the public API and is subject to change. Do not use it in your own code
@@ -53,6 +56,9 @@ public class ConfigList {
     @OSGiService
     private MetaTypeService metaTypeService;
 
+    @OSGiService(injectionStrategy = InjectionStrategy.OPTIONAL)
+    private MetaTypeIndex metaTypeIndex;
+
     private List<ConfigDefinition> configurations;
 
     /**
@@ -64,13 +70,17 @@ public class ConfigList {
             return configurations;
         }
 
-        BundleContext context = FrameworkUtil.getBundle(this.getClass()).getBundleContext();
-        if (context == null) {
-            LOG.error("BundleContext is not available");
-            return Collections.emptyList();
+        Map<String, ConfigDefinition> configDefsMap;
+        if (metaTypeIndex != null) {
+            configDefsMap = createConfigDefinitions(metaTypeIndex);
+        } else {
+            BundleContext context = FrameworkUtil.getBundle(this.getClass()).getBundleContext();
+            if (context == null) {
+                LOG.error("BundleContext is not available");
+                return Collections.emptyList();
+            }
+            configDefsMap = createConfigDefinitions(context);
         }
-
-        Map<String, ConfigDefinition> configDefsMap = createConfigDefinitions(context);
         assignExistingConfigs(configDefsMap);
 
         configurations = configDefsMap.values()
@@ -81,7 +91,23 @@ public class ConfigList {
     }
 
     /**
-     * Creates configuration definitions by scanning OSGi MetaType information of all bundles in the system
+     * Creates configuration definitions out of the OSGi MetaType information stored in the {@link MetaTypeIndex}
+     * @param index The {@code MetaTypeIndex} instance
+     * @return Map of configuration definitions, keyed by PID
+     */
+    private static Map<String, ConfigDefinition> createConfigDefinitions(MetaTypeIndex index) {
+        Map<String, ConfigDefinition> configDefsMap = new HashMap<>();
+        for (MetaTypeIndex.Definition definition : index.getDefinitions().values()) {
+            configDefsMap.put(
+                definition.getPid(),
+                ConfigDefinition.from(definition.getPid(), null, definition.getOcd(), definition.isFactory()));
+        }
+        return configDefsMap;
+    }
+
+    /**
+     * Creates configuration definitions by scanning OSGi MetaType information of all bundles in the system. Used when
+     * the {@link MetaTypeIndex} service is not available
      * @param context The current {@link BundleContext}
      * @return Map of configuration definitions, keyed by PID
      */
@@ -16,13 +16,9 @@ package com.exadel.aem.toolkit.core.configurator.services;
 import java.util.Collections;
 import java.util.Dictionary;
 import java.util.Enumeration;
-import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Objects;
-import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import javax.jcr.Session;
 
 import org.apache.commons.lang3.ArrayUtils;
@@ -67,7 +63,7 @@ public class ConfigChangeListener implements ResourceChangeListener, ExternalRes
 
     private static final Logger LOG = LoggerFactory.getLogger(ConfigChangeListener.class);
 
-    private static final int ASYNC_THREAD_COUNT = 5;
+    private static final int DEFAULT_POOL_SIZE = 5;
 
     private static final String UPDATABLE_CONFIG_TOKEN = "?";
 
@@ -80,7 +76,7 @@ public class ConfigChangeListener implements ResourceChangeListener, ExternalRes
     @Reference
     private transient SlingSettingsService slingSettingsService;
 
-    private ExecutorService asyncExecutor;
+    private ConfigChangeQueue queue;
 
     private ServiceRegistration<ResourceChangeListener> registration;
 
@@ -109,7 +105,11 @@ public class ConfigChangeListener implements ResourceChangeListener, ExternalRes
         if (!config.enabled()) {
             return;
         }
-        asyncExecutor = Executors.newFixedThreadPool(ASYNC_THREAD_COUNT);
+        queue = new ConfigChangeQueue(
+            config.poolSize() > 0 ? config.poolSize() : DEFAULT_POOL_SIZE,
+            config.coalescingWindow(),
+            this::applyChanges);
+        queue.register(context);
         Dictionary<String, Object> properties = new Hashtable<>();
         properties.put(ResourceChangeListener.PATHS, new String[]{ConfiguratorConstants.ROOT_PATH});
         properties.put(ResourceChangeListener.CHANGES, new String[]{"ADDED", "CHANGED", "REMOVED"});
@@ -166,9 +166,9 @@ public class ConfigChangeListener implements ResourceChangeListener, ExternalRes
     @Deactivate
     private void deactivate() {
         LOG.info("Configuration change listener is shutting down");
-        if (asyncExecutor != null) {
-            asyncExecutor.shutdown();
-            asyncExecutor = null;
+        if (queue != null) {
+            queue.shutdown();
+            queue = null;
         }
         if (registration != null) {
             registration.unregister();
@@ -189,13 +189,12 @@ public class ConfigChangeListener implements ResourceChangeListener, ExternalRes
     }
 
     /**
-     * Handles resource change events
+     * Handles resource change events. Relevant changes are put to the queue which applies them in batches, so that
+     * several changes to the same configuration received in a short time are applied once
      * @param list List of resource changes to process
      */
     @Override
     public void onChange(List<ResourceChange> list) {
-        Set<String> configsToReset = new HashSet<>();
-        Set<String> configsToUpdate = new HashSet<>();
         LOG.debug("Received {} resource change(s)", list.size());
         for (ResourceChange change : list) {
             boolean isRelevant = false;
@@ -210,41 +209,41 @@ public class ConfigChangeListener implements ResourceChangeListener, ExternalRes
                     || change.getType() == ResourceChange.ChangeType.CHANGED)
                     && (isDataNode || isPublish)
             ) {
-                configsToUpdate.add(StringUtils.appendIfMissing(change.getPath(), ConfiguratorConstants.SUFFIX_SLASH_DATA));
+                String path = StringUtils.appendIfMissing(change.getPath(), ConfiguratorConstants.SUFFIX_SLASH_DATA);
+                queue.add(extractPid(path), path, false);
                 isRelevant = true;
 
             } else if (change.getType() == ResourceChange.ChangeType.REMOVED
                 && !ConfiguratorConstants.ROOT_PATH.equals(change.getPath())) {
 
-                configsToReset.add(change.getPath());
+                queue.add(extractPid(change.getPath()), change.getPath(), true);
                 isRelevant = true;
             }
             LOG.debug("{} at {}{}", change.getType(), change.getPath(), isRelevant ? " (processable)" : " (ignored)");
         }
-        if (configsToReset.isEmpty() && configsToUpdate.isEmpty()) {
-            return;
-        }
-        asyncExecutor.submit(() -> {
-            try (ResourceResolver resolver = newResolver()) {
-                for (String path : configsToUpdate) {
-                    Resource resource = resolver.getResource(path);
-                    if (resource == null) {
-                        // Config removal may produce a {@code CHANGE} event, but then the resource cannot be found
-                        configsToReset.add(path);
-                    } else {
-                        updateConfiguration(resource);
-                    }
-                }
-                for (String path : configsToReset) {
-                    resetConfiguration(extractPid(path));
-                }
-                if (resolver.hasChanges()) {
-                    resolver.commit();
+    }
+
+    /**
+     * Called by {@link ConfigChangeQueue} to apply a batch of configuration changes using a single resource resolver
+     * @param changes List of changes to apply
+     */
+    private void applyChanges(List<ConfigChangeQueue.Change> changes) {
+        try (ResourceResolver resolver = newResolver()) {
+            for (ConfigChangeQueue.Change change : changes) {
+                Resource resource = change.isRemoval() ? null : resolver.getResource(change.getPath());
+                if (resource == null) {
+                    // Config removal may produce a {@code CHANGE} event, but then the resource cannot be found
+                    resetConfiguration(change.getPid());
+                } else {
+                    updateConfiguration(resource);
                 }
-            } catch (LoginException | PersistenceException e) {
-                LOG.error("Failed to process configuration changes", e);
             }
-        });
+            if (resolver.hasChanges()) {
+                resolver.commit();
+            }
+        } catch (LoginException | PersistenceException e) {
+            LOG.error("Failed to process configuration changes", e);
+        }
     }
 
     /* --------------------
@@ -37,4 +37,23 @@ public @interface ConfigChangeListenerConfiguration {
      */
     @AttributeDefinition(name = "Clean up PIDs", description = "List of configuration PIDs to clean up on startup")
     String[] cleanUp() default {};
+
+    /**
+     * Defines the number of threads used to apply configuration changes
+     * @return Integer value
+     */
+    @AttributeDefinition(
+        name = "Thread pool size",
+        description = "Number of threads used to apply configuration changes")
+    int poolSize() default 5;
+
+    /**
+     * Defines the time during which changes to configurations are collected before being applied. Several changes to
+     * the same configuration received within this time are applied once
+     * @return Integer value representing milliseconds. {@code 0} means that changes are applied without waiting
+     */
+    @AttributeDefinition(
+        name = "Coalescing window",
+        description = "Time during which configuration changes are collected before being applied, in milliseconds")
+    int coalescingWindow() default 200;
 }
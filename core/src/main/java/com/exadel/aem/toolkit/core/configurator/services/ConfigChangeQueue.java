@@ -0,0 +1,337 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.core.configurator.services;
+
+import java.util.ArrayList;
+import java.util.Dictionary;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import javax.management.DynamicMBean;
+import javax.management.NotCompliantMBeanException;
+import javax.management.StandardMBean;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the changes to configurations received by {@link ConfigChangeListener} and applies them in batches. Only the
+ * latest change is kept for every configuration PID, so that a configuration that is changed several times within the
+ * coalescing window is updated once. Changes to the same PID are never applied concurrently. The queue also collects
+ * the statistics of its usage that are exposed via JMX
+ */
+class ConfigChangeQueue implements ConfigChangeQueueMBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConfigChangeQueue.class);
+
+    private static final String JMX_OBJECT_NAME = "com.exadel.aem.toolkit:type=Configurator,name=ConfigChangeQueue";
+    private static final String JMX_OBJECT_NAME_PROPERTY = "jmx.objectname";
+
+    private static final long SHUTDOWN_TIMEOUT = 10L;
+
+    private final long window;
+    private final Consumer<List<Change>> processor;
+    private final ScheduledThreadPoolExecutor executor;
+
+    private final Map<String, Change> pending = new LinkedHashMap<>();
+    private final Set<String> inProgress = new HashSet<>();
+    private boolean isScheduled;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong latency = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchTime = new AtomicLong();
+
+    private ServiceRegistration<DynamicMBean> registration;
+
+    /**
+     * Creates a new queue instance
+     * @param poolSize  Number of threads used to apply changes
+     * @param window    Time during which changes are collected before being applied, in milliseconds
+     * @param processor Routine that applies a batch of changes
+     */
+    ConfigChangeQueue(int poolSize, long window, Consumer<List<Change>> processor) {
+        this.window = Math.max(window, 0L);
+        this.processor = processor;
+        this.executor = new ScheduledThreadPoolExecutor(poolSize);
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /* --------------------
+       Startup and shutdown
+       -------------------- */
+
+    /**
+     * Registers the current instance as a JMX bean
+     * @param context {@code BundleContext} object used to register the bean
+     */
+    void register(BundleContext context) {
+        try {
+            Dictionary<String, Object> beanProperties = new Hashtable<>();
+            beanProperties.put(JMX_OBJECT_NAME_PROPERTY, JMX_OBJECT_NAME);
+            DynamicMBean bean = new StandardMBean(this, ConfigChangeQueueMBean.class);
+            registration = context.registerService(DynamicMBean.class, bean, beanProperties);
+        } catch (NotCompliantMBeanException e) {
+            LOG.warn("Could not register the statistics of the configuration change queue", e);
+        }
+    }
+
+    /**
+     * Unregisters the JMX bean and stops accepting changes for scheduled processing. The batches being applied are
+     * allowed to complete, and then the changes that are still pending are applied in the calling thread without
+     * waiting for the coalescing window to expire
+     */
+    void shutdown() {
+        if (registration != null) {
+            registration.unregister();
+            registration = null;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                LOG.warn("Configuration changes are still being applied after {} seconds", SHUTDOWN_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            LOG.warn("Interrupted while waiting for configuration changes to be applied", e);
+            Thread.currentThread().interrupt();
+        }
+        drain();
+        synchronized (pending) {
+            if (!pending.isEmpty()) {
+                LOG.warn("Discarding {} pending configuration change(s)", pending.size());
+            }
+            pending.clear();
+        }
+    }
+
+    /* --------------
+       Queue handling
+       -------------- */
+
+    /**
+     * Adds a change to the queue. If there is a pending change to the same configuration, it is replaced
+     * @param pid       Configuration PID
+     * @param path      Path to the resource representing the configuration
+     * @param isRemoval True if the configuration is to be reset; false if it is to be updated
+     */
+    void add(String pid, String path, boolean isRemoval) {
+        received.incrementAndGet();
+        synchronized (pending) {
+            Change previous = pending.remove(pid);
+            long since = previous != null ? previous.since : System.nanoTime();
+            if (previous != null) {
+                coalesced.incrementAndGet();
+            }
+            pending.put(pid, new Change(pid, path, isRemoval, since));
+            schedule();
+        }
+    }
+
+    /**
+     * Schedules draining the queue after the coalescing window unless it is already scheduled. Must be called while
+     * holding the lock on {@code pending}
+     */
+    private void schedule() {
+        if (isScheduled || pending.isEmpty()) {
+            return;
+        }
+        try {
+            executor.schedule(this::drain, window, TimeUnit.MILLISECONDS);
+            isScheduled = true;
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Configuration change queue is shut down", e);
+        }
+    }
+
+    /**
+     * Applies the pending changes except for those that relate to configurations being processed by another thread
+     */
+    private void drain() {
+        List<Change> batch = new ArrayList<>();
+        synchronized (pending) {
+            isScheduled = false;
+            Iterator<Change> iterator = pending.values().iterator();
+            while (iterator.hasNext()) {
+                Change change = iterator.next();
+                if (inProgress.add(change.getPid())) {
+                    batch.add(change);
+                    iterator.remove();
+                }
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            processor.accept(batch);
+        } catch (RuntimeException e) {
+            LOG.error("Failed to process configuration changes", e);
+        } finally {
+            long end = System.nanoTime();
+            batches.incrementAndGet();
+            batchTime.addAndGet(end - start);
+            applied.addAndGet(batch.size());
+            batch.forEach(change -> latency.addAndGet(end - change.since));
+            synchronized (pending) {
+                batch.forEach(change -> inProgress.remove(change.getPid()));
+                schedule();
+            }
+        }
+    }
+
+    /* ----------
+       Statistics
+       ---------- */
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getQueueDepth() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getInProgress() {
+        synchronized (pending) {
+            return inProgress.size();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getReceived() {
+        return received.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getApplied() {
+        return applied.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getAverageLatency() {
+        long count = applied.get();
+        return count > 0 ? (double) latency.get() / count / TimeUnit.MILLISECONDS.toNanos(1) : 0d;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getAverageBatchTime() {
+        long count = batches.get();
+        return count > 0 ? (double) batchTime.get() / count / TimeUnit.MILLISECONDS.toNanos(1) : 0d;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        received.set(0);
+        applied.set(0);
+        coalesced.set(0);
+        latency.set(0);
+        batches.set(0);
+        batchTime.set(0);
+    }
+
+    /* ---------------
+       Utility classes
+       --------------- */
+
+    /**
+     * Represents a pending change to a configuration
+     */
+    static class Change {
+        private final String pid;
+        private final String path;
+        private final boolean isRemoval;
+        private final long since;
+
+        /**
+         * Creates a new instance
+         * @param pid       Configuration PID
+         * @param path      Path to the resource representing the configuration
+         * @param isRemoval True if the configuration is to be reset; false if it is to be updated
+         * @param since     Time when the first of the coalesced changes was received, in nanoseconds
+         */
+        private Change(String pid, String path, boolean isRemoval, long since) {
+            this.pid = pid;
+            this.path = path;
+            this.isRemoval = isRemoval;
+            this.since = since;
+        }
+
+        /**
+         * Gets the configuration PID
+         * @return String value
+         */
+        String getPid() {
+            return pid;
+        }
+
+        /**
+         * Gets the path to the resource representing the configuration
+         * @return String value
+         */
+        String getPath() {
+            return path;
+        }
+
+        /**
+         * Gets whether the configuration is to be reset rather than updated
+         * @return True or false
+         */
+        boolean isRemoval() {
+            return isRemoval;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.core.configurator.services;
+
+/**
+ * Exposes the statistics of the queue of configuration changes maintained by {@link ConfigChangeListener} via JMX
+ * <p><u>Note</u>: This class is not a part of the public API and is subject to change. Do not use it in your own
+ * code</p>
+ */
+public interface ConfigChangeQueueMBean {
+
+    /**
+     * Retrieves the number of configurations waiting for their changes to be applied
+     * @return Integer value
+     */
+    int getQueueDepth();
+
+    /**
+     * Retrieves the number of configurations which changes are being applied at the moment
+     * @return Integer value
+     */
+    int getInProgress();
+
+    /**
+     * Retrieves the number of configuration changes received
+     * @return Long value
+     */
+    long getReceived();
+
+    /**
+     * Retrieves the number of configuration changes applied
+     * @return Long value
+     */
+    long getApplied();
+
+    /**
+     * Retrieves the number of configuration changes that were superseded by later changes to the same configuration
+     * before being applied
+     * @return Long value
+     */
+    long getCoalesced();
+
+    /**
+     * Retrieves the average time between receiving a configuration change and applying it
+     * @return Double value representing milliseconds
+     */
+    double getAverageLatency();
+
+    /**
+     * Retrieves the average time spent on applying a batch of configuration changes
+     * @return Double value representing milliseconds
+     */
+    double getAverageBatchTime();
+
+    /**
+     * Resets the statistics
+     */
+    void reset();
+}
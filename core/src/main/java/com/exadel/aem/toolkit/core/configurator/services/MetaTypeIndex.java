@@ -0,0 +1,349 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.core.configurator.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.Constants;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.cm.ConfigurationAdmin;
+import org.osgi.service.cm.ManagedService;
+import org.osgi.service.cm.ManagedServiceFactory;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.metatype.MetaTypeInformation;
+import org.osgi.service.metatype.MetaTypeProvider;
+import org.osgi.service.metatype.MetaTypeService;
+import org.osgi.service.metatype.ObjectClassDefinition;
+import org.osgi.util.tracker.BundleTracker;
+import org.osgi.util.tracker.BundleTrackerCustomizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Maintains an index of OSGi MetaType definitions keyed by configuration PID. The index is populated on activation and
+ * kept current as bundles are installed, updated, started, stopped, or uninstalled, and as {@link MetaTypeProvider}
+ * services come and go, so that configuration definitions can be retrieved without scanning all the bundles in the
+ * system
+ * <p><u>Note</u>: This class is not a part of the public API and is subject to change. Do not use it in your own
+ * code</p>
+ */
+@Component(
+    service = MetaTypeIndex.class,
+    immediate = true
+)
+public class MetaTypeIndex implements BundleTrackerCustomizer<List<MetaTypeIndex.Definition>>, ServiceListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MetaTypeIndex.class);
+
+    private static final int TRACKED_STATES = Bundle.INSTALLED | Bundle.RESOLVED | Bundle.STARTING | Bundle.ACTIVE | Bundle.STOPPING;
+
+    private static final int[] TRACKED_EVENTS = {BundleEvent.UPDATED, BundleEvent.RESOLVED, BundleEvent.STARTED, BundleEvent.STOPPED};
+
+    private static final String PROVIDER_FILTER = "(|"
+        + "(" + Constants.OBJECTCLASS + "=" + MetaTypeProvider.class.getName() + ")"
+        + "(" + Constants.OBJECTCLASS + "=" + ManagedService.class.getName() + ")"
+        + "(" + Constants.OBJECTCLASS + "=" + ManagedServiceFactory.class.getName() + ")"
+        + "(" + MetaTypeProvider.METATYPE_PID + "=*)"
+        + "(" + MetaTypeProvider.METATYPE_FACTORY_PID + "=*))";
+
+    @Reference
+    private transient ConfigurationAdmin configurationAdmin;
+
+    @Reference
+    private transient MetaTypeService metaTypeService;
+
+    private final Map<String, Definition> definitions = new ConcurrentHashMap<>();
+
+    private BundleContext context;
+    private volatile BundleTracker<List<Definition>> tracker;
+
+    /* --------------------
+       Startup and shutdown
+       -------------------- */
+
+    /**
+     * Initializes the instance, reading MetaType definitions of the bundles present in the system
+     * @param context Bundle context to use for tracking bundles and services
+     */
+    @Activate
+    void activate(BundleContext context) {
+        this.context = context;
+        try {
+            context.addServiceListener(this, PROVIDER_FILTER);
+        } catch (InvalidSyntaxException e) {
+            LOG.error("Could not track MetaType providers", e);
+        }
+        tracker = new BundleTracker<>(context, TRACKED_STATES, this);
+        tracker.open();
+        LOG.debug("MetaType index is populated with {} definitions", definitions.size());
+    }
+
+    /**
+     * Stops tracking bundles and services and clears the index
+     */
+    @Deactivate
+    void deactivate() {
+        if (context != null) {
+            context.removeServiceListener(this);
+            context = null;
+        }
+        if (tracker != null) {
+            tracker.close();
+            tracker = null;
+        }
+        definitions.clear();
+    }
+
+    /* ---------
+       Accessors
+       --------- */
+
+    /**
+     * Gets the {@link ConfigurationAdmin} service used together with the index
+     * @return {@code ConfigurationAdmin} instance
+     */
+    public ConfigurationAdmin getConfigurationAdmin() {
+        return configurationAdmin;
+    }
+
+    /**
+     * Retrieves the MetaType definition for the given PID
+     * @param pid The configuration PID or factory PID
+     * @return {@link Definition} instance; or null if there is no MetaType definition for the PID
+     */
+    public Definition getDefinition(String pid) {
+        return pid != null ? definitions.get(pid) : null;
+    }
+
+    /**
+     * Retrieves all the MetaType definitions known to the system
+     * @return Unmodifiable map of {@link Definition} instances, keyed by PID
+     */
+    public Map<String, Definition> getDefinitions() {
+        return Collections.unmodifiableMap(new HashMap<>(definitions));
+    }
+
+    /**
+     * Retrieves MetaType definitions for the given PIDs in one pass
+     * @param pids Collection of configuration PIDs or factory PIDs
+     * @return Map of {@link Definition} instances, keyed by PID. PIDs that have no MetaType definition are skipped
+     */
+    public Map<String, Definition> getDefinitions(Collection<String> pids) {
+        Map<String, Definition> result = new HashMap<>();
+        for (String pid : pids) {
+            Definition definition = getDefinition(pid);
+            if (definition != null) {
+                result.put(pid, definition);
+            }
+        }
+        return result;
+    }
+
+    /* ---------------
+       Bundle tracking
+       --------------- */
+
+    /**
+     * Called by the {@link BundleTracker} when a bundle is first encountered. Indexes MetaType definitions of the bundle
+     * @param bundle The {@link Bundle} being added
+     * @param event  The {@link BundleEvent} that triggered the call; null if the bundle existed before tracking started
+     * @return The list of definitions that have been indexed. An empty list is returned for a bundle without
+     * definitions so that the bundle stays tracked
+     */
+    @Override
+    public List<Definition> addingBundle(Bundle bundle, BundleEvent event) {
+        List<Definition> result = readDefinitions(bundle);
+        for (Definition definition : result) {
+            definitions.put(definition.getPid(), definition);
+        }
+        return result;
+    }
+
+    /**
+     * Called by the {@link BundleTracker} when a tracked bundle changes its state. Re-indexes MetaType definitions of
+     * the bundle if it has been updated, resolved, started, or stopped. The latter two are needed because a bundle may
+     * expose its definitions via {@link MetaTypeProvider} services that only exist while the bundle is active
+     * @param bundle The {@link Bundle} being modified
+     * @param event  The {@link BundleEvent} that triggered the call
+     * @param object The list of definitions previously indexed for the bundle
+     */
+    @Override
+    public void modifiedBundle(Bundle bundle, BundleEvent event, List<Definition> object) {
+        if (event == null || !ArrayUtils.contains(TRACKED_EVENTS, event.getType())) {
+            return;
+        }
+        reindex(bundle, object);
+    }
+
+    /**
+     * Called by the {@link BundleTracker} when a tracked bundle is uninstalled or tracking stops. Removes MetaType
+     * definitions of the bundle from the index
+     * @param bundle The {@link Bundle} being removed
+     * @param event  The {@link BundleEvent} that triggered the call; may be null
+     * @param object The list of definitions previously indexed for the bundle
+     */
+    @Override
+    public void removedBundle(Bundle bundle, BundleEvent event, List<Definition> object) {
+        synchronized (object) {
+            for (Definition definition : object) {
+                definitions.remove(definition.getPid(), definition);
+            }
+        }
+    }
+
+    /**
+     * Called by the framework when a service that may provide MetaType definitions is registered or modified.
+     * Re-indexes MetaType definitions of the bundle that registered the service
+     * @param event The {@link ServiceEvent} object
+     */
+    @Override
+    public void serviceChanged(ServiceEvent event) {
+        if (event.getType() != ServiceEvent.REGISTERED && event.getType() != ServiceEvent.MODIFIED) {
+            return;
+        }
+        ServiceReference<?> reference = event.getServiceReference();
+        BundleTracker<List<Definition>> currentTracker = tracker;
+        Bundle bundle = reference != null ? reference.getBundle() : null;
+        List<Definition> object = currentTracker != null && bundle != null ? currentTracker.getObject(bundle) : null;
+        if (object != null) {
+            reindex(bundle, object);
+        }
+    }
+
+    /**
+     * Replaces the MetaType definitions previously indexed for the given bundle with the ones currently exposed by it
+     * @param bundle The {@link Bundle} to re-index
+     * @param object The list of definitions previously indexed for the bundle. Updated in place
+     */
+    private void reindex(Bundle bundle, List<Definition> object) {
+        synchronized (object) {
+            removedBundle(bundle, null, object);
+            List<Definition> replacement = addingBundle(bundle, null);
+            object.clear();
+            object.addAll(replacement);
+        }
+    }
+
+    /**
+     * Reads MetaType definitions exposed by the given bundle
+     * @param bundle The {@link Bundle} to read
+     * @return A non-null list of {@link Definition} instances
+     */
+    private List<Definition> readDefinitions(Bundle bundle) {
+        List<Definition> result = new ArrayList<>();
+        MetaTypeInformation metaTypeInformation;
+        try {
+            metaTypeInformation = metaTypeService.getMetaTypeInformation(bundle);
+        } catch (RuntimeException e) {
+            LOG.debug("Could not read MetaType information of bundle {}", bundle.getSymbolicName(), e);
+            return result;
+        }
+        if (metaTypeInformation == null) {
+            return result;
+        }
+        for (String pid : ArrayUtils.nullToEmpty(metaTypeInformation.getPids())) {
+            addDefinition(result, metaTypeInformation, pid, false);
+        }
+        for (String factoryPid : ArrayUtils.nullToEmpty(metaTypeInformation.getFactoryPids())) {
+            addDefinition(result, metaTypeInformation, factoryPid, true);
+        }
+        return result;
+    }
+
+    /**
+     * Called by {@link MetaTypeIndex#readDefinitions(Bundle)} to add a definition for the given PID to the list
+     * @param target              The list of definitions to add to
+     * @param metaTypeInformation {@link MetaTypeInformation} instance of the current bundle
+     * @param pid                 The configuration PID or factory PID
+     * @param isFactory           True if the PID is a factory PID; false otherwise
+     */
+    private static void addDefinition(
+        List<Definition> target,
+        MetaTypeInformation metaTypeInformation,
+        String pid,
+        boolean isFactory) {
+
+        try {
+            ObjectClassDefinition ocd = metaTypeInformation.getObjectClassDefinition(pid, null);
+            target.add(new Definition(pid, ocd, isFactory));
+        } catch (IllegalArgumentException e) {
+            LOG.debug("Could not read MetaType definition for {}", pid, e);
+        }
+    }
+
+    /* ---------------
+       Utility classes
+       --------------- */
+
+    /**
+     * Represents a MetaType definition of a configuration or a factory configuration
+     */
+    public static final class Definition {
+        private final String pid;
+        private final ObjectClassDefinition ocd;
+        private final boolean isFactory;
+
+        /**
+         * Creates a new instance
+         * @param pid       The configuration PID or factory PID
+         * @param ocd       The {@link ObjectClassDefinition} instance; may be null
+         * @param isFactory True if the PID is a factory PID; false otherwise
+         */
+        private Definition(String pid, ObjectClassDefinition ocd, boolean isFactory) {
+            this.pid = pid;
+            this.ocd = ocd;
+            this.isFactory = isFactory;
+        }
+
+        /**
+         * Gets the configuration PID or factory PID
+         * @return The string value
+         */
+        public String getPid() {
+            return pid;
+        }
+
+        /**
+         * Gets the object class definition
+         * @return The nullable {@link ObjectClassDefinition} instance
+         */
+        public ObjectClassDefinition getOcd() {
+            return ocd;
+        }
+
+        /**
+         * Gets whether the definition describes a factory configuration
+         * @return True or false
+         */
+        public boolean isFactory() {
+            return isFactory;
+        }
+    }
+}
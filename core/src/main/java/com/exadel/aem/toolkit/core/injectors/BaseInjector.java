@@ -15,14 +15,18 @@ package com.exadel.aem.toolkit.core.injectors;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Array;
 import java.lang.reflect.Member;
 import java.lang.reflect.Type;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 
 import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.ClassUtils;
 import org.apache.sling.api.SlingHttpServletRequest;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.models.annotations.Default;
@@ -49,6 +53,13 @@ abstract class BaseInjector<T extends Annotation> implements Injector {
     private static final String BRIEF_INJECTION_ERROR_MESSAGE = "Could not inject a value for annotation {}";
     private static final String INJECTION_ERROR_MESSAGE = BRIEF_INJECTION_ERROR_MESSAGE + " at {}#{}";
 
+    private final ClassValue<Map<AnnotatedElement, InjectionPlan<T>>> plans = new ClassValue<Map<AnnotatedElement, InjectionPlan<T>>>() {
+        @Override
+        protected Map<AnnotatedElement, InjectionPlan<T>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     /**
      * Attempts to produce a value that can be further injected by Sling into the given adaptable
      * @param adaptable        A {@link SlingHttpServletRequest} or a {@link Resource} instance
@@ -68,12 +79,13 @@ abstract class BaseInjector<T extends Annotation> implements Injector {
         @Nonnull AnnotatedElement element,
         @Nonnull DisposalCallbackRegistry callbackRegistry) {
 
-        T annotation = getManagedAnnotation(element);
+        InjectionPlan<T> plan = getPlan(element, type);
+        T annotation = plan.getAnnotation();
         if (Objects.isNull(annotation)) {
             return null;
         }
         Injectable rawValue = getValue(adaptable, name, type, annotation);
-        Object value = defaultIfEmpty(rawValue, type, element);
+        Object value = plan.defaultIfEmpty(rawValue);
         if (value == null) {
             logNullValue(element, annotation);
         }
@@ -124,17 +136,46 @@ abstract class BaseInjector<T extends Annotation> implements Injector {
      * @return A nullable value
      */
     final Object defaultIfEmpty(Injectable source, Type type, AnnotatedElement element) {
-        if (source != null && !source.isDefault()) {
-            return source.getValue();
+        return getPlan(element, type).defaultIfEmpty(source);
+    }
+
+    /**
+     * Retrieves the injection plan for the given Java class member. The plan is created once per class member and then
+     * reused for every instance of the model. Elements that are not class members, such as constructor parameters,
+     * are planned anew every time
+     * @param element {@link AnnotatedElement} instance that facades the Java class member and allows retrieving
+     *                annotations
+     * @param type    Type of the receiving Java class member
+     * @return {@link InjectionPlan} object
+     */
+    private InjectionPlan<T> getPlan(AnnotatedElement element, Type type) {
+        if (!(element instanceof Member)) {
+            return createPlan(element, type);
+        }
+        Map<AnnotatedElement, InjectionPlan<T>> classPlans = plans.get(((Member) element).getDeclaringClass());
+        InjectionPlan<T> result = classPlans.get(element);
+        if (result == null || !result.getType().equals(type)) {
+            result = createPlan(element, type);
+            classPlans.put(element, result);
         }
-        if (!element.isAnnotationPresent(Default.class)) {
-            return source != null ? source.getValue() : null;
+        return result;
+    }
+
+    /**
+     * Creates the injection plan for the given Java class member
+     * @param element {@link AnnotatedElement} instance that facades the Java class member and allows retrieving
+     *                annotations
+     * @param type    Type of the receiving Java class member
+     * @return {@link InjectionPlan} object
+     */
+    private InjectionPlan<T> createPlan(AnnotatedElement element, Type type) {
+        T annotation = getManagedAnnotation(element);
+        if (annotation == null || !element.isAnnotationPresent(Default.class)) {
+            return new InjectionPlan<>(annotation, type);
         }
         Object defaultValue = extractDefault(element.getDeclaredAnnotation(Default.class));
-        return CastUtil.toType(
-            defaultValue,
-            type,
-            getValueConverter(type, getManagedAnnotation(element))).getValue();
+        BiFunction<Object, Type, Object> converter = getValueConverter(type, annotation);
+        return new InjectionPlan<>(annotation, type, defaultValue, converter);
     }
 
     /**
@@ -176,4 +217,105 @@ abstract class BaseInjector<T extends Annotation> implements Injector {
             LOG.debug(BRIEF_INJECTION_ERROR_MESSAGE, annotation);
         }
     }
+
+    /* ---------------
+       Utility classes
+       --------------- */
+
+    /**
+     * Represents the data needed to inject a value into a particular Java class member that does not depend on the
+     * adaptable: the annotation handled by the injector and the user-specified default value converted to the type of
+     * the class member
+     * @param <T> The type of annotation handled by the injector
+     */
+    private static final class InjectionPlan<T extends Annotation> {
+        private final T annotation;
+        private final Type type;
+        private final boolean hasDefault;
+        private final Object rawDefault;
+        private final BiFunction<Object, Type, Object> converter;
+        private final Object defaultValue;
+
+        /**
+         * Creates a new instance for a class member that does not have a default value
+         * @param annotation The nullable annotation handled by the injector
+         * @param type       Type of the receiving Java class member
+         */
+        InjectionPlan(T annotation, Type type) {
+            this.annotation = annotation;
+            this.type = type;
+            this.hasDefault = false;
+            this.rawDefault = null;
+            this.converter = null;
+            this.defaultValue = null;
+        }
+
+        /**
+         * Creates a new instance for a class member that has a default value
+         * @param annotation The annotation handled by the injector
+         * @param type       Type of the receiving Java class member
+         * @param rawDefault The value of the {@link Default} annotation
+         * @param converter  A nullable routine used to convert the default value
+         */
+        InjectionPlan(T annotation, Type type, Object rawDefault, BiFunction<Object, Type, Object> converter) {
+            this.annotation = annotation;
+            this.type = type;
+            this.hasDefault = true;
+            this.rawDefault = rawDefault;
+            this.converter = converter;
+            this.defaultValue = CastUtil.toType(rawDefault, type, converter).getValue();
+        }
+
+        /**
+         * Gets the annotation handled by the injector
+         * @return A nullable {@code Annotation} instance
+         */
+        T getAnnotation() {
+            return annotation;
+        }
+
+        /**
+         * Gets the type of the receiving Java class member
+         * @return {@code Type} reference
+         */
+        Type getType() {
+            return type;
+        }
+
+        /**
+         * Unwraps the value retrieved from an injector implementation and replaces it with the default value if needed
+         * @param source The value retrieved from an injector implementation
+         * @return A nullable value
+         */
+        Object defaultIfEmpty(Injectable source) {
+            if (source != null && !source.isDefault()) {
+                return source.getValue();
+            }
+            if (!hasDefault) {
+                return source != null ? source.getValue() : null;
+            }
+            return getDefaultValue();
+        }
+
+        /**
+         * Retrieves the default value. An immutable value is shared between model instances, an array is copied, and
+         * any other value is converted anew so that model instances cannot affect each other
+         * @return A nullable value
+         */
+        private Object getDefaultValue() {
+            if (defaultValue == null
+                || defaultValue instanceof String
+                || defaultValue instanceof Enum
+                || ClassUtils.isPrimitiveWrapper(defaultValue.getClass())) {
+                return defaultValue;
+            }
+            if (defaultValue.getClass().isArray()) {
+                int length = Array.getLength(defaultValue);
+                Object result = Array.newInstance(defaultValue.getClass().getComponentType(), length);
+                System.arraycopy(defaultValue, 0, result, 0, length);
+                return result;
+            }
+            return CastUtil.toType(rawDefault, type, converter).getValue();
+        }
+    }
 }
@@ -15,17 +15,14 @@ package com.exadel.aem.toolkit.core.injectors;
 
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Type;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 import javax.annotation.Nonnull;
 
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.sling.api.SlingHttpServletRequest;
@@ -45,7 +42,9 @@ import com.exadel.aem.toolkit.core.injectors.utils.TypeUtil;
 
 /**
  * Provides injecting into a Sling model a collection of resources or secondary models that are derived from resources
- * according to the type of the underlying array or else the parameter type of the underlying collection
+ * according to the type of the underlying array or else the parameter type of the underlying collection.
+ * <p>Filter predicates are instantiated once per predicate class and are therefore expected to be stateless. The way
+ * child resources are adapted is decided once per injection rather than for every child</p>
  * @see Children
  * @see BaseInjector
  */
@@ -58,6 +57,13 @@ public class ChildrenInjector extends BaseInjector<Children> {
 
     private static final Predicate<Resource> DEFAULT_FILTER = resource -> true;
 
+    private static final ClassValue<AtomicReference<Predicate<Resource>>> FILTERS = new ClassValue<AtomicReference<Predicate<Resource>>>() {
+        @Override
+        protected AtomicReference<Predicate<Resource>> computeValue(Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
+
     @Reference
     private AdapterManager adapterManager;
 
@@ -114,7 +120,9 @@ public class ChildrenInjector extends BaseInjector<Children> {
     }
 
     /**
-     * Retrieves the filtered and adapted list of child objects according to the {@code Children} annotation parameters
+     * Retrieves the filtered and adapted list of child objects according to the {@code Children} annotation parameters.
+     * The target type and the way of adaptation are determined once, and then the children are filtered, decorated,
+     * and adapted in a single pass
      * @param source          Initial {@link SlingHttpServletRequest} or {@link Resource} instance
      * @param currentResource Current {@code Resource}
      * @param type            The {@code Type} to adapt to
@@ -127,75 +135,82 @@ public class ChildrenInjector extends BaseInjector<Children> {
         Type type,
         Children settingsHolder) {
 
-        Predicate<Resource> resourceFilter = getResourceFilter(settingsHolder);
-        List<Resource> filteredChildren = StreamSupport.stream(currentResource.getChildren().spliterator(), false)
-            .filter(resourceFilter)
-            .collect(Collectors.toList());
-        return getAdaptedObjects(source, filteredChildren, type, settingsHolder);
-    }
-
-    /**
-     * Retrieves the list of objects adapted from the initial {@code SlingHttpServletRequest} or {@code Resource} and
-     * the retrieved or constructed child (relative) resources. The adaptation honors the optional properties filter
-     * defined by the {@code prefix} and {@code postfix}
-     * @param source         Initial {@link SlingHttpServletRequest} or {@link Resource} instance
-     * @param childResources Collection of child (relative) resources retrieved or constructed for the current
-     *                       adaptable
-     * @param type           Type (parameter type) of receiving Java collection or array
-     * @param settingsHolder {@code Children} annotation object containing the adaptation settings
-     * @return List of adapted objects
-     */
-    private List<Object> getAdaptedObjects(Object source, List<Resource> childResources, Type type, Children settingsHolder) {
         Class<?> actualType = Object.class.equals(type)
             ? Resource.class
             : getElementTypeOrStandaloneType(type);
         if (actualType == null) {
             return Collections.emptyList();
         }
-        return childResources.stream()
-            .map(resource -> InstantiationUtil.getFilteredResource(resource, settingsHolder.prefix(), settingsHolder.postfix()))
-            .map(resource -> getAdaptedObject(source, resource, actualType))
-            .filter(Objects::nonNull)
-            .collect(Collectors.toList());
-    }
+        boolean isResourceType = Resource.class.equals(actualType) || Object.class.equals(actualType);
+        boolean isRequestAdapter = !isResourceType
+            && source instanceof SlingHttpServletRequest
+            && TypeUtil.isSlingRequestAdapter(modelFactory, actualType);
 
-    /**
-     * Retrieves the object adapted from the initial {@code SlingHttpServletRequest} or {@code Resource} and the
-     * retrieved or constructed child (relative) resource
-     * @param source        Initial {@link SlingHttpServletRequest} or {@link Resource} instance
-     * @param childResource {@code Resource} to be adapted
-     * @param type          Type of the adaptation
-     * @return The object that represents an adapted resource, or null if the adaptation failed
-     */
-    private Object getAdaptedObject(Object source, Resource childResource, Class<?> type) {
-        if (Resource.class.equals(type) || Object.class.equals(type)) {
-            return childResource;
-        }
-        if (source instanceof SlingHttpServletRequest && TypeUtil.isSlingRequestAdapter(modelFactory, type)) {
-            return adapterManager.getAdapter(
-                AdaptationUtil.getRequest((SlingHttpServletRequest) source, childResource),
-                type);
+        Predicate<Resource> resourceFilter = getResourceFilter(settingsHolder);
+        String prefix = settingsHolder.prefix();
+        String postfix = settingsHolder.postfix();
+
+        List<Object> result = new ArrayList<>();
+        for (Resource child : currentResource.getChildren()) {
+            if (!resourceFilter.test(child)) {
+                continue;
+            }
+            Resource filteredChild = InstantiationUtil.getFilteredResource(child, prefix, postfix);
+            Object adapted;
+            if (isResourceType) {
+                adapted = filteredChild;
+            } else if (isRequestAdapter) {
+                adapted = adapterManager.getAdapter(
+                    AdaptationUtil.getRequest((SlingHttpServletRequest) source, filteredChild),
+                    actualType);
+            } else {
+                adapted = filteredChild.adaptTo(actualType);
+            }
+            if (adapted != null) {
+                result.add(adapted);
+            }
         }
-        return childResource.adaptTo(type);
+        return result;
     }
 
     /**
      * Retrieves combined resource predicate that originates from the {@link Children} annotation {@code filter}
-     * parameter
+     * parameter. Predicate instances are created once per class and reused
      * @param annotation {@code Children} annotation object containing the adaptation settings
      * @return {@code List} of initialized predicate functions
      */
     private static Predicate<Resource> getResourceFilter(Children annotation) {
-        if (ArrayUtils.isEmpty(annotation.filters())) {
-            return DEFAULT_FILTER;
+        Predicate<Resource> result = null;
+        for (Class<? extends Predicate<Resource>> filterClass : annotation.filters()) {
+            Predicate<Resource> filter = getResourceFilter(filterClass);
+            if (filter != null) {
+                result = result == null ? filter : result.and(filter);
+            }
+        }
+        return result != null ? result : DEFAULT_FILTER;
+    }
+
+    /**
+     * Retrieves the resource predicate of the given class. The predicate is instantiated once and then reused. If the
+     * instantiation fails, nothing is stored, and the attempt is repeated on the next call
+     * @param type {@code Class} reference representing a resource predicate
+     * @return {@code Predicate} instance, or null if the predicate could not be instantiated
+     */
+    @SuppressWarnings("unchecked")
+    private static Predicate<Resource> getResourceFilter(Class<?> type) {
+        if (!ClassUtils.isAssignable(type, Predicate.class)) {
+            return null;
+        }
+        AtomicReference<Predicate<Resource>> holder = FILTERS.get(type);
+        Predicate<Resource> result = holder.get();
+        if (result != null) {
+            return result;
+        }
+        result = (Predicate<Resource>) InstantiationUtil.getObjectInstance(type);
+        if (result != null && !holder.compareAndSet(null, result)) {
+            result = holder.get();
         }
-        return Arrays.stream(annotation.filters())
-            .filter(cls -> ClassUtils.isAssignable(cls, Predicate.class))
-            .map(InstantiationUtil::getObjectInstance)
-            .filter(Objects::nonNull)
-            .map(filter -> (Predicate<Resource>) filter)
-            .reduce(Predicate::and)
-            .orElse(DEFAULT_FILTER);
+        return result;
     }
 
     /**
@@ -13,22 +13,24 @@
  */
 package com.exadel.aem.toolkit.core.injectors;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Array;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -230,15 +232,15 @@ public class EToolboxListInjector extends BaseInjector<EToolboxList> {
     /**
      * Represents a {@link Set} containing interface-based proxy objects that do not have a proper implementation of
      * {@code hashCode()} and {@code equals()}. This can be, e.g., Sling model instances created out of
-     * {@code @Model}-annotated Java interfaces
+     * {@code @Model}-annotated Java interfaces. Items are compared by the values returned by their getters. The values
+     * are read once per item when it is added, so that membership checks do not require invoking the getters of every
+     * other item
      */
     private static class ProxySet extends AbstractSet<Object> {
 
-        private static final int HASH_SEED = 7;
-        private static final int HASH_FACTOR = 31;
-
-        private final LinkedList<Object> collection;
+        private final Map<ItemKey, Object> items;
         private final Class<?> itemType;
+        private final ItemAccessors accessors;
 
         /**
          * Default constructor
@@ -246,8 +248,10 @@ public class EToolboxListInjector extends BaseInjector<EToolboxList> {
          * @param itemType   {@code Class} reference that presents the type of objects in the set
          */
         private ProxySet(Collection<?> collection, Class<?> itemType) {
-            this.collection = new LinkedList<>(collection);
+            this.items = new LinkedHashMap<>();
             this.itemType = itemType;
+            this.accessors = ItemAccessors.of(itemType);
+            collection.forEach(this::add);
         }
 
         /**
@@ -255,10 +259,15 @@ public class EToolboxListInjector extends BaseInjector<EToolboxList> {
          */
         @Override
         public boolean add(Object value) {
-            if (!contains(value)) {
-                return collection.add(value);
+            if (value != null && !ClassUtils.isAssignable(value.getClass(), itemType)) {
+                throw new ClassCastException("Cannot add " + value.getClass().getName() + " to a set of " + itemType.getName());
+            }
+            ItemKey key = getKey(value);
+            if (items.containsKey(key)) {
+                return false;
             }
-            return false;
+            items.put(key, value);
+            return true;
         }
 
         /**
@@ -266,13 +275,10 @@ public class EToolboxListInjector extends BaseInjector<EToolboxList> {
          */
         @Override
         public boolean contains(Object value) {
-            if (value == null) {
-                return collection.stream().anyMatch(Objects::isNull);
-            }
-            if (!ClassUtils.isAssignable(value.getClass(), itemType)) {
+            if (value != null && !ClassUtils.isAssignable(value.getClass(), itemType)) {
                 return false;
             }
-            return collection.stream().anyMatch(item -> isEqual(item, itemType.cast(value)));
+            return items.containsKey(getKey(value));
         }
 
         /**
@@ -280,13 +286,10 @@ public class EToolboxListInjector extends BaseInjector<EToolboxList> {
          */
         @Override
         public boolean equals(Object value) {
-            if (value == null) {
-                return false;
+            if (value instanceof ProxySet) {
+                return items.keySet().equals(((ProxySet) value).items.keySet());
             }
-            if (!(value instanceof ProxySet)) {
-                return value.equals(this);
-            }
-            return ((ProxySet) value).size() == size() && value.hashCode() == hashCode();
+            return super.equals(value);
         }
 
         /**
@@ -294,14 +297,7 @@ public class EToolboxListInjector extends BaseInjector<EToolboxList> {
          */
         @Override
         public int hashCode() {
-            int code = HASH_SEED;
-            for (Object item : collection) {
-                if (item == null) {
-                    continue;
-                }
-                code = HASH_FACTOR * getHashCode(item);
-            }
-            return code;
+            return items.keySet().hashCode();
         }
 
         /**
@@ -310,7 +306,7 @@ public class EToolboxListInjector extends BaseInjector<EToolboxList> {
         @Nonnull
         @Override
         public Iterator<Object> iterator() {
-            return collection.iterator();
+            return items.values().iterator();
         }
 
         /**
@@ -318,7 +314,7 @@ public class EToolboxListInjector extends BaseInjector<EToolboxList> {
          */
         @Override
         public int size() {
-            return collection.size();
+            return items.size();
         }
 
         /**
@@ -326,20 +322,15 @@ public class EToolboxListInjector extends BaseInjector<EToolboxList> {
          */
         @Override
         public boolean remove(Object value) {
-            if (value == null) {
-                return super.remove(null);
-            }
-            if (!ClassUtils.isAssignable(value.getClass(), itemType)) {
+            if (value != null && !ClassUtils.isAssignable(value.getClass(), itemType)) {
                 return false;
             }
-            Iterator<Object> it = iterator();
-            while (it.hasNext()) {
-                if (isEqual(it.next(), itemType.cast(value))) {
-                    it.remove();
-                    return true;
-                }
+            ItemKey key = getKey(value);
+            if (!items.containsKey(key)) {
+                return false;
             }
-            return false;
+            items.remove(key);
+            return true;
         }
 
         /**
@@ -347,89 +338,169 @@ public class EToolboxListInjector extends BaseInjector<EToolboxList> {
          */
         @Override
         public String toString() {
-            return collection
+            return items
+                .keySet()
                 .stream()
-                .map(this::toString)
+                .map(key -> key.toString(accessors))
                 .collect(Collectors.joining(CoreConstants.SEPARATOR_COMMA));
         }
 
         /**
-         * Retrieves the string representation of the given object provided it cannot return a proper value from its own
-         * {@code .toString()} method
-         * @param value An arbitrary object, typically an item in the collection
-         * @return String value, non-null
+         * Creates a key that represents the given object in the set
+         * @param value An arbitrary nullable object, typically an item in the collection
+         * @return {@link ItemKey} instance
          */
-        private String toString(Object value) {
-            StringBuilder result = new StringBuilder();
-            for (Method method : getInstanceMethods()) {
-                Object invocationResult = getInvocationResult(method, value);
-                if (invocationResult != null) {
-                    result
-                        .append(result.length() > 0 ? CoreConstants.SEPARATOR_COMMA : StringUtils.EMPTY)
-                        .append(method.getName())
-                        .append(CoreConstants.EQUALITY_SIGN)
-                        .append(invocationResult);
-                }
+        private ItemKey getKey(Object value) {
+            return value != null ? new ItemKey(accessors.getValues(value)) : ItemKey.NULL;
+        }
+    }
+
+    /**
+     * Contains the getters of an interface used as the type of items in a {@link ProxySet}. The getters are compiled
+     * into {@link MethodHandle}s once per interface and then shared between all the sets of this type
+     */
+    private static class ItemAccessors {
+
+        private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+        private static final ClassValue<ItemAccessors> CACHE = new ClassValue<ItemAccessors>() {
+            @Override
+            protected ItemAccessors computeValue(Class<?> type) {
+                return new ItemAccessors(type);
             }
-            return result.toString();
+        };
+
+        private final String[] names;
+        private final MethodHandle[] handles;
+
+        /**
+         * Initializes a class instance with the type to introspect. Own public instance methods that have no parameters
+         * are considered getters
+         * @param type {@code Class} reference, usually an interface
+         */
+        private ItemAccessors(Class<?> type) {
+            List<String> methodNames = new ArrayList<>();
+            List<MethodHandle> methodHandles = new ArrayList<>();
+            Arrays.stream(type.getDeclaredMethods())
+                .filter(method -> Modifier.isPublic(method.getModifiers()) && !Modifier.isStatic(method.getModifiers()))
+                .filter(method -> method.getParameterCount() == 0)
+                .filter(method -> Arrays
+                    .stream(Object.class.getDeclaredMethods())
+                    .noneMatch(objectMethod -> objectMethod.getName().equals(method.getName())))
+                .forEach(method -> {
+                    MethodHandle handle = getHandle(method);
+                    if (handle != null) {
+                        methodNames.add(method.getName());
+                        methodHandles.add(handle);
+                    }
+                });
+            this.names = methodNames.toArray(new String[0]);
+            this.handles = methodHandles.toArray(new MethodHandle[0]);
         }
 
         /**
-         * Creates a hash code for the given object provided it cannot return a proper hash code itself
-         * @param value An arbitrary object, typically an item in the collection
-         * @return Integer value
+         * Retrieves the values returned by the getters of the given object. Handles possible exceptions internally
+         * @param value The object to retrieve values from
+         * @return A non-null array of nullable values
          */
-        private int getHashCode(Object value) {
-            int code = HASH_SEED;
-            for (Method method : getInstanceMethods()) {
-                Object invocationResult = getInvocationResult(method, value);
-                if (invocationResult != null) {
-                    code = HASH_FACTOR * code + invocationResult.hashCode();
-                } else {
-                    code = HASH_FACTOR * code;
+        private Object[] getValues(Object value) {
+            Object[] result = new Object[handles.length];
+            for (int i = 0; i < handles.length; i++) {
+                try {
+                    result[i] = (Object) handles[i].invokeExact(value);
+                } catch (Throwable e) {
+                    LOG.warn("Could not invoke {}#{}", value.getClass().getName(), names[i], e);
                 }
             }
-            return code;
+            return result;
         }
 
         /**
-         * Calculates whether the given objects are equal judging by their hash codes. It is implied that objects cannot
-         * return a proper result of calling the {@code .equals()} method themselves
-         * @param first  An arbitrary object, typically an item in the collection
-         * @param second An arbitrary object, typically an item in the collection
-         * @return True or false
+         * Retrieves the {@link ItemAccessors} instance for the given type
+         * @param type {@code Class} reference, usually an interface
+         * @return {@code ItemAccessors} object
          */
-        private boolean isEqual(Object first, Object second) {
-            return getHashCode(first) == getHashCode(second);
+        private static ItemAccessors of(Class<?> type) {
+            return CACHE.get(type);
         }
 
         /**
-         * Retrieves a list of own public instance methods that an item of the current set has
-         * @return A non-null {@code List} instance; can be empty
+         * Creates a {@link MethodHandle} that invokes the given getter with a generic signature
+         * @param method {@code Method} instance
+         * @return {@code MethodHandle} object; or null if the method is not accessible
          */
-        private List<Method> getInstanceMethods() {
-            return Arrays.stream(itemType.getDeclaredMethods())
-                .filter(method -> Modifier.isPublic(method.getModifiers()) && !Modifier.isStatic(method.getModifiers()))
-                .filter(method -> method.getParameterCount() == 0)
-                .filter(method -> Arrays
-                    .stream(Object.class.getDeclaredMethods())
-                    .noneMatch(objectMethod -> objectMethod.getName().equals(method.getName())))
-                .collect(Collectors.toList());
+        private static MethodHandle getHandle(Method method) {
+            try {
+                return MethodHandles.publicLookup().unreflect(method).asType(GETTER_TYPE);
+            } catch (IllegalAccessException e) {
+                LOG.warn("Could not access {}#{}", method.getDeclaringClass().getName(), method.getName(), e);
+                return null;
+            }
         }
+    }
+
+    /**
+     * Represents an item of a {@link ProxySet} by the values of its getters. Two keys are equal if the values are equal
+     */
+    private static class ItemKey {
+
+        private static final ItemKey NULL = new ItemKey(null);
+
+        private final Object[] values;
+        private final int hash;
 
         /**
-         * Invokes the given {@link Method} on the provided object. Handles possible exceptions internally
-         * @param method {@code Method} instance
-         * @param value  The object the method belongs to
-         * @return A nullable value
+         * Creates a new instance
+         * @param values An array of values returned by the getters of an item; or null to represent a null item
          */
-        private static Object getInvocationResult(Method method, Object value) {
-            try {
-                return method.invoke(value);
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                LOG.warn("Could not invoke {}#{}", value.getClass().getName(), method.getName(), e);
+        private ItemKey(Object[] values) {
+            this.values = values;
+            this.hash = Arrays.deepHashCode(values);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
             }
-            return null;
+            if (!(other instanceof ItemKey)) {
+                return false;
+            }
+            ItemKey that = (ItemKey) other;
+            return hash == that.hash && Arrays.deepEquals(values, that.values);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * Retrieves the string representation of the item with the names of the getters provided
+         * @param accessors {@link ItemAccessors} object that stores the names of the getters
+         * @return String value, non-null
+         */
+        private String toString(ItemAccessors accessors) {
+            if (values == null) {
+                return String.valueOf((Object) null);
+            }
+            StringBuilder result = new StringBuilder();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    result
+                        .append(result.length() > 0 ? CoreConstants.SEPARATOR_COMMA : StringUtils.EMPTY)
+                        .append(accessors.names[i])
+                        .append(CoreConstants.EQUALITY_SIGN)
+                        .append(values[i]);
+                }
+            }
+            return result.toString();
         }
     }
 }
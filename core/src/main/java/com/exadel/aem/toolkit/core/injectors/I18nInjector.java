@@ -17,9 +17,11 @@ import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import javax.annotation.Nonnull;
@@ -43,7 +45,9 @@ import com.exadel.aem.toolkit.core.injectors.utils.InstantiationUtil;
 
 /**
  * Provides injecting into a Sling model an {@link com.day.cq.i18n.I18n} object that corresponds to the current locale,
- * or else an internationalized string value
+ * or else an internationalized string value.
+ * <p>Locale detectors are instantiated once per class, and parsed locale tokens are reused. Resource bundles are not
+ * cached here since the {@link ResourceBundleProvider}s maintain their own caches</p>
  * @see I18N
  * @see BaseInjector
  */
@@ -56,6 +60,16 @@ public class I18nInjector extends BaseInjector<I18N> {
 
     private static final Pattern LOCALE_PARTS_SPLITTER = Pattern.compile("[/_-]");
 
+    private static final ClassValue<Function<Object, Locale>> LOCALE_DETECTORS = new ClassValue<Function<Object, Locale>>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected Function<Object, Locale> computeValue(Class<?> type) {
+            return InstantiationUtil.getObjectInstance((Class<? extends Function<Object, Locale>>) type);
+        }
+    };
+
+    private static final Map<String, Locale> LOCALES = new ConcurrentHashMap<>();
+
     @Reference(cardinality = ReferenceCardinality.MULTIPLE)
     private List<ResourceBundleProvider> resourceBundleProviders;
 
@@ -86,7 +100,7 @@ public class I18nInjector extends BaseInjector<I18N> {
     public Injectable getValue(Object adaptable, String name, Type type, I18N annotation) {
         String value = StringUtils.defaultIfEmpty(annotation.value(), name);
 
-        Function<Object, Locale> localeDetector = InstantiationUtil.getObjectInstance(annotation.localeDetector());
+        Function<Object, Locale> localeDetector = getLocaleDetector(annotation.localeDetector());
         Locale locale = StringUtils.isNotBlank(annotation.locale())
             ? getLocale(annotation.locale())
             : getLocale(adaptable, localeDetector);
@@ -102,12 +116,36 @@ public class I18nInjector extends BaseInjector<I18N> {
         return Injectable.EMPTY;
     }
 
+    /**
+     * Retrieves the locale detector of the given type. The detector is instantiated once per type, unless the
+     * instantiation fails, in which case it is attempted again upon the next call
+     * @param type {@code Class} of the locale detector
+     * @return {@code Function} instance; might be null
+     */
+    private static Function<Object, Locale> getLocaleDetector(Class<?> type) {
+        Function<Object, Locale> result = LOCALE_DETECTORS.get(type);
+        if (result == null) {
+            LOCALE_DETECTORS.remove(type);
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves a {@link Locale} object for the provided string token. The token is parsed once, and the result is
+     * reused afterwards
+     * @param value String value parsed to create a {@code Locale}
+     * @return {@code Locale} instance
+     */
+    private static Locale getLocale(String value) {
+        return LOCALES.computeIfAbsent(value, I18nInjector::parseLocale);
+    }
+
     /**
      * Creates a new {@link Locale} object from the provided string token
      * @param value String value parsed to create a {@code Locale}
      * @return {@code Locale} instance
      */
-    private Locale getLocale(String value) {
+    private static Locale parseLocale(String value) {
         String[] parts = LOCALE_PARTS_SPLITTER.split(value, 2);
         if (parts.length == 2) {
             return new Locale(parts[0].toLowerCase(), parts[1].toLowerCase());
@@ -17,12 +17,16 @@ import java.lang.reflect.Array;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 
@@ -44,6 +48,54 @@ public class CastUtil {
     private static final String SIGN_DOUBLE = "d";
     private static final String SIGN_FLOAT = "f";
 
+    private static final List<Class<?>> NUMERIC_SOURCES = Arrays.asList(
+        Byte.class,
+        Short.class,
+        Integer.class,
+        Long.class,
+        Float.class,
+        Double.class);
+
+    private static final Map<Class<?>, Map<Class<?>, Function<Object, Object>>> NUMERIC_CONVERTERS = new HashMap<>();
+    private static final Map<Class<?>, Map<Class<?>, Function<Object, Object>>> ARRAY_CONVERTERS = new HashMap<>();
+
+    static {
+        registerNumericConverters(Integer.class, Number::intValue);
+        registerNumericConverters(Long.class, Number::longValue);
+        registerNumericConverters(Double.class, Number::doubleValue);
+
+        registerArrayConverters(
+            byte[].class,
+            (array, i) -> ((byte[]) array)[i],
+            (array, i) -> ((byte[]) array)[i],
+            (array, i) -> ((byte[]) array)[i]);
+        registerArrayConverters(
+            short[].class,
+            (array, i) -> ((short[]) array)[i],
+            (array, i) -> ((short[]) array)[i],
+            (array, i) -> ((short[]) array)[i]);
+        registerArrayConverters(
+            int[].class,
+            (array, i) -> ((int[]) array)[i],
+            (array, i) -> ((int[]) array)[i],
+            (array, i) -> ((int[]) array)[i]);
+        registerArrayConverters(
+            long[].class,
+            (array, i) -> (int) ((long[]) array)[i],
+            (array, i) -> ((long[]) array)[i],
+            (array, i) -> ((long[]) array)[i]);
+        registerArrayConverters(
+            float[].class,
+            (array, i) -> (int) ((float[]) array)[i],
+            (array, i) -> (long) ((float[]) array)[i],
+            (array, i) -> ((float[]) array)[i]);
+        registerArrayConverters(
+            double[].class,
+            (array, i) -> (int) ((double[]) array)[i],
+            (array, i) -> (long) ((double[]) array)[i],
+            (array, i) -> ((double[]) array)[i]);
+    }
+
     /**
      * Default (instantiation-restricting) constructor
      */
@@ -82,6 +134,13 @@ public class CastUtil {
         Class<?> elementType = TypeUtil.getElementType(type);
         BiFunction<Object, Type, Object> effectiveConverter = converter != null ? converter : CastUtil::toInstanceOfType;
 
+        if (converter == null && TypeUtil.isSupportedCollectionOrArray(type, true)) {
+            Object converted = toNumericArrayOrCollection(value, type, elementType);
+            if (converted != null) {
+                return Injectable.of(converted);
+            }
+        }
+
         if (TypeUtil.isArray(type)) {
             return Injectable.of(toArray(value, elementType, effectiveConverter));
         }
@@ -259,97 +318,48 @@ public class CastUtil {
      * original one if type casting is not possible or not needed
      */
     private static Injectable toNumeric(Object value, Type type) {
-        if (ClassUtils.isAssignable((Class<?>) type, Integer.class)) {
-            return value != null ? toInt(value) : Injectable.fallback(0);
-        }
-        if (ClassUtils.isAssignable((Class<?>) type, Long.class)) {
-            return value != null ? toLong(value) : Injectable.fallback(0L);
-        }
-        if (ClassUtils.isAssignable((Class<?>) type, Double.class)) {
-            return value != null ? toDouble(value) : Injectable.fallback(0d);
-        }
-        return Injectable.of(value);
-    }
-
-    /**
-     * Attempts to cast the given value to {@code int}
-     * @param value An arbitrary non-null value. Java primitive number or a boxed number is expected
-     * @return A {@link Injectable} instance that either contains the transformed value or {@code 0} as the fallback
-     */
-    private static Injectable toInt(Object value) {
-        if (ClassUtils.isAssignable(value.getClass(), Integer.class)) {
-            return Injectable.of(value);
-        }
-        if (ClassUtils.isAssignable(value.getClass(), Byte.class)) {
-            return Injectable.of(((Byte) value).intValue());
-        }
-        if (ClassUtils.isAssignable(value.getClass(), Short.class)) {
-            return Injectable.of(((Short) value).intValue());
-        }
-        if (ClassUtils.isAssignable(value.getClass(), Long.class)) {
-            return Injectable.of(((Long) value).intValue());
-        }
-        if (ClassUtils.isAssignable(value.getClass(), Float.class)) {
-            return Injectable.of(((Float) value).intValue());
-        }
-        if (ClassUtils.isAssignable(value.getClass(), Double.class)) {
-            return Injectable.of(((Double) value).intValue());
-        }
-        return Injectable.fallback(0);
-    }
-
-    /**
-     * Attempts to cast the given value to {@code long}
-     * @param value An arbitrary non-null value. Java primitive number or a boxed number is expected
-     * @return A {@link Injectable} instance that either contains the transformed value or {@code 0L} as the fallback
-     */
-    private static Injectable toLong(Object value) {
-        if (ClassUtils.isAssignable(value.getClass(), Long.class)) {
+        Map<Class<?>, Function<Object, Object>> convertersBySource = NUMERIC_CONVERTERS.get(type);
+        if (convertersBySource == null) {
             return Injectable.of(value);
         }
-        if (ClassUtils.isAssignable(value.getClass(), Byte.class)) {
-            return Injectable.of(((Byte) value).longValue());
-        }
-        if (ClassUtils.isAssignable(value.getClass(), Short.class)) {
-            return Injectable.of(((Short) value).longValue());
-        }
-        if (ClassUtils.isAssignable(value.getClass(), Integer.class)) {
-            return Injectable.of(((Integer) value).longValue());
-        }
-        if (ClassUtils.isAssignable(value.getClass(), Float.class)) {
-            return Injectable.of(((Float) value).longValue());
-        }
-        if (ClassUtils.isAssignable(value.getClass(), Double.class)) {
-            return Injectable.of(((Double) value).longValue());
-        }
-        return toInt(value);
+        Function<Object, Object> converter = value != null ? convertersBySource.get(value.getClass()) : null;
+        return converter != null ? Injectable.of(converter.apply(value)) : Injectable.fallback(0);
     }
 
     /**
-     * Attempts to cast the given value to {@code double}
-     * @param value An arbitrary non-null value, a Java primitive number, or a boxed number is expected
-     * @return A {@link Injectable} instance that either contains the transformed value or {@code 0d} as the fallback
+     * Transforms the given primitive numeric array into an array or a collection of {@code int}, {@code long}, or
+     * {@code double} values without boxing the source values and creating an intermediate collection
+     * @param value       An arbitrary non-null value
+     * @param type        {@link Type} reference; expected to be an array or a supported collection type
+     * @param elementType {@code Class} reference that represents the type of array or collection entries
+     * @return An array or a collection instance; or null if there is no specialized conversion for the given types
      */
-    private static Injectable toDouble(Object value) {
-        if (ClassUtils.isAssignable(value.getClass(), Double.class)) {
-            return Injectable.of(value);
-        }
-        if (ClassUtils.isAssignable(value.getClass(), Byte.class)) {
-            return Injectable.of(((Byte) value).doubleValue());
-        }
-        if (ClassUtils.isAssignable(value.getClass(), Short.class)) {
-            return Injectable.of(((Short) value).doubleValue());
-        }
-        if (ClassUtils.isAssignable(value.getClass(), Integer.class)) {
-            return Injectable.of(((Integer) value).doubleValue());
-        }
-        if (ClassUtils.isAssignable(value.getClass(), Long.class)) {
-            return Injectable.of(((Long) value).doubleValue());
+    private static Object toNumericArrayOrCollection(Object value, Type type, Class<?> elementType) {
+        Class<?> primitiveType = elementType.isPrimitive() ? elementType : ClassUtils.wrapperToPrimitive(elementType);
+        Map<Class<?>, Function<Object, Object>> convertersBySource = ARRAY_CONVERTERS.get(primitiveType);
+        Function<Object, Object> converter = convertersBySource != null ? convertersBySource.get(value.getClass()) : null;
+        if (converter == null) {
+            return null;
+        }
+        Object converted = converter.apply(value);
+        if (TypeUtil.isArray(type) && elementType.isPrimitive()) {
+            return converted;
+        }
+        int length = Array.getLength(converted);
+        if (TypeUtil.isArray(type)) {
+            Object[] result = (Object[]) Array.newInstance(elementType, length);
+            for (int i = 0; i < length; i++) {
+                result[i] = Array.get(converted, i);
+            }
+            return result;
         }
-        if (ClassUtils.isAssignable(value.getClass(), Float.class)) {
-            return Injectable.of(((Float) value).doubleValue());
+        Collection<Object> result = Set.class.equals(TypeUtil.getRawType(type))
+            ? new LinkedHashSet<>(length)
+            : new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            result.add(Array.get(converted, i));
         }
-        return toInt(value);
+        return result;
     }
 
     /**
@@ -366,4 +376,87 @@ public class CastUtil {
         }
         return Injectable.fallback(Array.get(Array.newInstance(elementaryType, 1), 0));
     }
+
+    /* ------------------------
+       Conversion table setup
+       ------------------------ */
+
+    /**
+     * Registers the routines that convert boxed numeric values of every supported type to the given type
+     * @param target    The boxed type to convert to. The matching primitive type is registered as well
+     * @param converter A routine that extracts the value of the required type from a {@code Number}
+     */
+    private static void registerNumericConverters(Class<?> target, Function<Number, Object> converter) {
+        Map<Class<?>, Function<Object, Object>> convertersBySource = new HashMap<>();
+        for (Class<?> source : NUMERIC_SOURCES) {
+            convertersBySource.put(source, source.equals(target) ? Function.identity() : value -> converter.apply((Number) value));
+        }
+        NUMERIC_CONVERTERS.put(target, convertersBySource);
+        NUMERIC_CONVERTERS.put(ClassUtils.wrapperToPrimitive(target), convertersBySource);
+    }
+
+    /**
+     * Registers the routines that convert a primitive array of the given type to arrays of {@code int}, {@code long},
+     * and {@code double}
+     * @param source       The type of the source array
+     * @param intReader    A routine that reads an array element as {@code int}
+     * @param longReader   A routine that reads an array element as {@code long}
+     * @param doubleReader A routine that reads an array element as {@code double}
+     */
+    private static void registerArrayConverters(
+        Class<?> source,
+        IntReader intReader,
+        LongReader longReader,
+        DoubleReader doubleReader) {
+
+        ARRAY_CONVERTERS.computeIfAbsent(int.class, key -> new HashMap<>()).put(source, array -> {
+            int[] result = new int[Array.getLength(array)];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = intReader.read(array, i);
+            }
+            return result;
+        });
+        ARRAY_CONVERTERS.computeIfAbsent(long.class, key -> new HashMap<>()).put(source, array -> {
+            long[] result = new long[Array.getLength(array)];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = longReader.read(array, i);
+            }
+            return result;
+        });
+        ARRAY_CONVERTERS.computeIfAbsent(double.class, key -> new HashMap<>()).put(source, array -> {
+            double[] result = new double[Array.getLength(array)];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = doubleReader.read(array, i);
+            }
+            return result;
+        });
+    }
+
+    /* ---------------
+       Utility classes
+       --------------- */
+
+    /**
+     * Represents a routine that reads an element of a primitive array as {@code int}
+     */
+    @FunctionalInterface
+    private interface IntReader {
+        int read(Object array, int index);
+    }
+
+    /**
+     * Represents a routine that reads an element of a primitive array as {@code long}
+     */
+    @FunctionalInterface
+    private interface LongReader {
+        long read(Object array, int index);
+    }
+
+    /**
+     * Represents a routine that reads an element of a primitive array as {@code double}
+     */
+    @FunctionalInterface
+    private interface DoubleReader {
+        double read(Object array, int index);
+    }
 }
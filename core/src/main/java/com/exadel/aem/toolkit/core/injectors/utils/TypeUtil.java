@@ -35,6 +35,14 @@ import org.apache.sling.models.factory.ModelFactory;
  */
 public class TypeUtil {
 
+    private static final ClassValue<Boolean> REQUEST_ADAPTABLE_MODELS = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            Model model = type.getAnnotation(Model.class);
+            return model != null && ArrayUtils.contains(model.adaptables(), SlingHttpServletRequest.class);
+        }
+    };
+
     /**
      * Default (instantiation-restricting) constructor
      */
@@ -275,7 +283,8 @@ public class TypeUtil {
     }
 
     /**
-     * Gets whether the given {@code type} is a {@code SlingHttpServletRequest} adapter
+     * Gets whether the given {@code type} is a {@code SlingHttpServletRequest} adapter. The list of adaptables declared
+     * by a model class is analyzed once per class
      * @param modelFactory {@link ModelFactory} instance
      * @param type         Type of injectable
      * @return True or false
@@ -288,8 +297,6 @@ public class TypeUtil {
         if (!modelFactory.isModelClass(modelClass)) {
             return false;
         }
-        return ArrayUtils.contains(
-            modelClass.getAnnotation(Model.class).adaptables(),
-            SlingHttpServletRequest.class);
+        return REQUEST_ADAPTABLE_MODELS.get(modelClass);
     }
 }
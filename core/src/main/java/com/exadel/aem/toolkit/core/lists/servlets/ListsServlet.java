@@ -13,11 +13,18 @@
  */
 package com.exadel.aem.toolkit.core.lists.servlets;
 
+import java.util.Dictionary;
+import java.util.HashSet;
+import java.util.Hashtable;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import javax.annotation.Nonnull;
@@ -31,12 +38,19 @@ import org.apache.sling.api.SlingHttpServletResponse;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ResourceResolver;
 import org.apache.sling.api.resource.ResourceWrapper;
+import org.apache.sling.api.resource.observation.ExternalResourceChangeListener;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
 import org.apache.sling.api.scripting.SlingBindings;
 import org.apache.sling.api.scripting.SlingScriptHelper;
 import org.apache.sling.api.servlets.HttpConstants;
 import org.apache.sling.api.servlets.SlingSafeMethodsServlet;
 import org.apache.sling.jcr.resource.api.JcrResourceConstants;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import com.day.cq.commons.jcr.JcrConstants;
 import com.day.cq.wcm.api.NameConstants;
@@ -64,13 +78,63 @@ import com.exadel.aem.toolkit.core.lists.ListConstants;
         "sling.servlet.methods=" + HttpConstants.METHOD_GET
     }
 )
-public class ListsServlet extends SlingSafeMethodsServlet {
+public class ListsServlet extends SlingSafeMethodsServlet implements ResourceChangeListener, ExternalResourceChangeListener {
     private static final String PATH_JCR_CONTENT = CoreConstants.SEPARATOR_SLASH + JcrConstants.JCR_CONTENT;
     private static final String PREFIX_REP = "rep:";
 
+    private static final String OBSERVED_PATH = "/content";
+    private static final int CACHE_SIZE = 1000;
+    private static final float LOAD_FACTOR = 0.75f;
+
     @Reference
     private transient ExpressionResolver expressionResolver;
 
+    private final transient Map<String, Boolean> classifications = new LinkedHashMap<String, Boolean>(CACHE_SIZE, LOAD_FACTOR, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final transient AtomicLong generation = new AtomicLong();
+
+    private transient volatile ServiceRegistration<ResourceChangeListener> registration;
+
+    /* --------------------
+       Startup and shutdown
+       -------------------- */
+
+    /**
+     * Registers the current instance as a listener of content changes so that the cached classification of resources
+     * is kept up to date
+     * @param context {@code BundleContext} object used to register the listener
+     */
+    @Activate
+    void activate(BundleContext context) {
+        Dictionary<String, Object> properties = new Hashtable<>();
+        properties.put(ResourceChangeListener.PATHS, new String[] {OBSERVED_PATH});
+        properties.put(ResourceChangeListener.CHANGES, new String[] {"ADDED", "CHANGED", "REMOVED"});
+        registration = context.registerService(ResourceChangeListener.class, this, properties);
+    }
+
+    /**
+     * Unregisters the content change listener and clears the cached classification of resources
+     */
+    @Deactivate
+    void deactivate() {
+        if (registration != null) {
+            registration.unregister();
+            registration = null;
+        }
+        synchronized (classifications) {
+            classifications.clear();
+        }
+    }
+
+    /* ---------------
+       Request serving
+       --------------- */
+
     /**
      * Processes {@code GET} requests to the current endpoint to add to the {@code SlingHttpServletRequest} a {@code
      * DataSource} object filled with all child pages under the current root path, which are either the lists
@@ -96,24 +160,71 @@ public class ListsServlet extends SlingSafeMethodsServlet {
 
             Resource parent = parentPath != null ? resolver.getResource(parentPath) : null;
             if (parent != null) {
-                List<Resource> resources = getValidChildren(resolver, parent);
-                dataSource = new PagingDataSource(resources, offset, limit, itemResourceType);
+                dataSource = new PagingDataSource(() -> getValidChildren(resolver, parent), offset, limit, itemResourceType);
             }
         }
         request.setAttribute(DataSource.class.getName(), dataSource);
     }
 
     /**
-     * Retrieves the collection of resources which are either Exadel Toolbox Lists or folders that can contain lists.
-     * Service and content nodes are excluded from the output
+     * Retrieves the resources which are either Exadel Toolbox Lists or folders that can contain lists. Service and
+     * content nodes are excluded from the output. The children of the parent are checked lazily as the returned
+     * iterator advances, so that the consumer that needs only a page of the output does not cause the whole parent to be
+     * evaluated
      * @param resolver {@code ResourceResolver} object
      * @param parent   {@code Resource} instance used as the source of markup
-     * @return List of {@code Resource} objects
+     * @return {@code Iterator} over {@code Resource} objects
      */
-    private List<Resource> getValidChildren(ResourceResolver resolver, Resource parent) {
+    private Iterator<Resource> getValidChildren(ResourceResolver resolver, Resource parent) {
         return getChildrenStream(parent)
-            .filter(resource -> !isServiceNode(resource) && (isFolder(resource) || containsResource(resource) || isList(resolver, resource)))
-            .collect(Collectors.toList());
+            .filter(resource -> !isServiceNode(resource) && isValid(resolver, resource))
+            .iterator();
+    }
+
+    /**
+     * Checks whether the resource is either an EToolbox List or a folder that can contain lists. The result is cached
+     * per user until the resource or any of its children changes. Only the resources under the observed path are
+     * cached since the changes to other resources are not reported
+     * @param resolver {@code ResourceResolver} object
+     * @param resource {@code Resource} instance
+     * @return True or false
+     */
+    private boolean isValid(ResourceResolver resolver, Resource resource) {
+        if (registration == null || !resource.getPath().startsWith(OBSERVED_PATH + CoreConstants.SEPARATOR_SLASH)) {
+            return isFolder(resource) || containsResource(resource) || isList(resolver, resource);
+        }
+        String key = resource.getPath() + CoreConstants.SEPARATOR_AT + resolver.getUserID();
+        Boolean result;
+        synchronized (classifications) {
+            result = classifications.get(key);
+        }
+        if (result != null) {
+            return result;
+        }
+        long expectedGeneration = generation.get();
+        result = isFolder(resource) || containsResource(resource) || isList(resolver, resource);
+        synchronized (classifications) {
+            if (generation.get() == expectedGeneration) {
+                classifications.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc} Discards the cached classification of the changed resources and their parents
+     */
+    @Override
+    public void onChange(@Nonnull List<ResourceChange> changes) {
+        Set<String> paths = new HashSet<>();
+        for (ResourceChange change : changes) {
+            paths.add(change.getPath());
+            paths.add(StringUtils.substringBeforeLast(change.getPath(), CoreConstants.SEPARATOR_SLASH));
+        }
+        synchronized (classifications) {
+            generation.incrementAndGet();
+            classifications.keySet().removeIf(key -> paths.contains(StringUtils.substringBeforeLast(key, CoreConstants.SEPARATOR_AT)));
+        }
     }
 
     /**
@@ -188,19 +299,19 @@ public class ListsServlet extends SlingSafeMethodsServlet {
      * Implements the {@code DataSource} pattern for displaying matched resources on pages
      */
     private static class PagingDataSource extends AbstractDataSource {
-        private final List<Resource> resources;
+        private final Supplier<Iterator<Resource>> resources;
         private final int offset;
         private final int limit;
         private final String itemResourceType;
 
         /**
          * Initializes a new datasource with the paging capabilities
-         * @param resources        List of resources exposed by this datasource
+         * @param resources        Routine that provides the resources exposed by this datasource
          * @param offset           Paging offset
          * @param limit            Max number of displayed resources
          * @param itemResourceType The exposed resource type
          */
-        private PagingDataSource(List<Resource> resources, int offset, int limit, String itemResourceType) {
+        private PagingDataSource(Supplier<Iterator<Resource>> resources, int offset, int limit, String itemResourceType) {
             this.resources = resources;
             this.offset = offset;
             this.limit = limit;
@@ -211,7 +322,7 @@ public class ListsServlet extends SlingSafeMethodsServlet {
         @Nonnull
         @SuppressWarnings("unchecked")
         public Iterator<Resource> iterator() {
-            Iterator<Resource> it = new PagingIterator<>(resources.iterator(), offset, limit);
+            Iterator<Resource> it = new PagingIterator<>(resources.get(), offset, limit);
 
             return new TransformIterator(it, o -> new ResourceWrapper((Resource) o) {
                 @Nonnull
@@ -0,0 +1,133 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.core.lists.utils;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+
+import org.apache.sling.api.resource.Resource;
+
+/**
+ * Represents an unmodifiable view of EToolbox List entries. List item resources are retrieved from the underlying
+ * iterator only as far as needed, and are adapted to the required type in windows of a fixed size when first accessed.
+ * Entries that cannot be adapted are represented with {@code null} values
+ * @param <T> Type of list entries
+ */
+class LazyList<T> extends AbstractList<T> implements RandomAccess {
+
+    private static final int WINDOW_SIZE = 50;
+
+    private final Iterator<Resource> source;
+    private final Function<Resource, T> mapper;
+    private final List<Resource> resources;
+    private final List<T> items;
+    private final BitSet adapted;
+
+    /**
+     * Creates a new instance
+     * @param source {@code Iterator} over list item resources
+     * @param mapper {@code Function} that converts a list item resource into the object of the required type
+     */
+    LazyList(Iterator<Resource> source, Function<Resource, T> mapper) {
+        this.source = source;
+        this.mapper = mapper;
+        this.resources = new ArrayList<>();
+        this.items = new ArrayList<>();
+        this.adapted = new BitSet();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T get(int index) {
+        if (index < 0 || !fetch(index)) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        if (!adapted.get(index)) {
+            adaptWindow(index);
+        }
+        return items.get(index);
+    }
+
+    /**
+     * {@inheritDoc} Retrieving the size requires that all the list item resources are retrieved, but none of them
+     * is adapted
+     */
+    @Override
+    public int size() {
+        fetch(Integer.MAX_VALUE);
+        return resources.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int cursor;
+
+            @Override
+            public boolean hasNext() {
+                return fetch(cursor);
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(cursor++);
+            }
+        };
+    }
+
+    /**
+     * Retrieves list item resources from the underlying iterator until the given index is reached
+     * @param index Index of the required entry
+     * @return True if the entry with the given index exists; otherwise, false
+     */
+    private boolean fetch(int index) {
+        while (resources.size() <= index && source.hasNext()) {
+            resources.add(source.next());
+            items.add(null);
+        }
+        return index < resources.size();
+    }
+
+    /**
+     * Adapts the entries of the window that contains the given index
+     * @param index Index of the required entry
+     */
+    private void adaptWindow(int index) {
+        int start = index - index % WINDOW_SIZE;
+        fetch(start + WINDOW_SIZE - 1);
+        int end = Math.min(start + WINDOW_SIZE, resources.size());
+        for (int i = start; i < end; i++) {
+            if (!adapted.get(i)) {
+                items.set(i, mapper.apply(resources.get(i)));
+            }
+        }
+        adapted.set(start, end);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.core.lists.utils;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+
+import org.apache.sling.api.resource.Resource;
+
+/**
+ * Represents an unmodifiable key-value view of EToolbox List entries. The view is backed by an index of list item
+ * resources keyed by the value of a property. A resource is adapted to the required type only when its value is first
+ * requested. Entries that cannot be adapted are represented with {@code null} values
+ * @param <T> Type of map values
+ */
+class LazyMap<T> extends AbstractMap<String, T> {
+
+    private final Map<String, Resource> index;
+    private final Function<Resource, T> mapper;
+    private final Map<String, T> values;
+
+    /**
+     * Creates a new instance
+     * @param index  {@code Map} of list item resources keyed by the value of a property
+     * @param mapper {@code Function} that converts a list item resource into the object of the required type
+     */
+    LazyMap(Map<String, Resource> index, Function<Resource, T> mapper) {
+        this.index = index;
+        this.mapper = mapper;
+        this.values = new HashMap<>();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T get(Object key) {
+        Resource resource = index.get(key);
+        if (resource == null) {
+            return null;
+        }
+        if (!values.containsKey(key)) {
+            values.put((String) key, mapper.apply(resource));
+        }
+        return values.get(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public Set<Entry<String, T>> entrySet() {
+        return new AbstractSet<Entry<String, T>>() {
+            @Nonnull
+            @Override
+            public Iterator<Entry<String, T>> iterator() {
+                Iterator<String> keys = index.keySet().iterator();
+                return new Iterator<Entry<String, T>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return keys.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, T> next() {
+                        String key = keys.next();
+                        return new SimpleImmutableEntry<>(key, get(key));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return index.size();
+            }
+        };
+    }
+}
@@ -13,8 +13,10 @@
  */
 package com.exadel.aem.toolkit.core.lists.utils;
 
+import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +25,7 @@ import java.util.Optional;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -31,14 +34,17 @@ import javax.annotation.Nullable;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.sling.api.resource.PersistenceException;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ValueMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.day.cq.commons.jcr.JcrConstants;
+import com.day.cq.wcm.api.NameConstants;
 import com.day.cq.wcm.api.Page;
 import com.day.cq.wcm.api.PageManager;
 import com.day.cq.wcm.api.WCMException;
@@ -53,7 +59,13 @@ public class ListHelper {
 
     private static final Logger LOG = LoggerFactory.getLogger(ListHelper.class);
 
+    private static final String CACHE_PROPERTY = ListHelper.class.getName();
+    private static final String CACHE_KEY_INDEX = "index:";
+    private static final String CACHE_KEY_LIST = "list:";
+    private static final String CACHE_KEY_MAP = "map:";
+
     private static final String MESSAGE_CANNOT_CREATE_LIST = "Cannot create a list";
+    private static final String MESSAGE_CANNOT_RETRIEVE_LIST = "Cannot retrieve a list at {}. Resource not found";
     private static final String MESSAGE_CANNOT_RETRIEVE_MAP = "Cannot retrieve a map";
     private static final String MESSAGE_NO_ITEMS = "The list at {} is empty. No items available";
 
@@ -112,6 +124,61 @@ public class ListHelper {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves a portion of list entries stored under given {@code path} adapted to the provided {@code itemType}.
+     * Only the entries that fall within the requested portion are adapted
+     * @param resourceResolver Sling {@code ResourceResolver} instance used to access the list
+     * @param path             JCR path of the items list
+     * @param itemType         {@code Class} reference representing the type of entries required
+     * @param offset           Number of list entries to skip
+     * @param limit            Maximal number of list entries to retrieve
+     * @param <T>              Type of list entries. Must be one adaptable from a Sling {@code Resource}
+     * @return List of {@code <T>}-typed instances. If the path provided is invalid or cannot be resolved, or else
+     * a non-adaptable {@code itemType} is given, an empty list is returned
+     */
+    @Nonnull
+    public static <T> List<T> getList(ResourceResolver resourceResolver, String path, Class<T> itemType, int offset, int limit) {
+        if (resourceResolver == null || StringUtils.isBlank(path) || itemType == null || offset < 0 || limit < 0) {
+            return reportInvalidArguments("Cannot retrieve a list", Collections.emptyList());
+        }
+        return getItemsStream(resourceResolver, path)
+            .skip(offset)
+            .limit(limit)
+            .map(getMapperFunction(itemType))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Retrieves an unmodifiable view of list entries stored under given {@code path} adapted to the provided
+     * {@code itemType}. Entries are retrieved and adapted on demand, so that the consumer that needs only a part of
+     * a large list does not pay for the whole of it. The view is cached for the lifetime of the given
+     * {@code ResourceResolver} and is reused by subsequent calls until the modification stamp of the list page or of the list node changes
+     * @param resourceResolver Sling {@code ResourceResolver} instance used to access the list
+     * @param path             JCR path of the items list
+     * @param itemType         {@code Class} reference representing the type of entries required
+     * @param <T>              Type of list entries. Must be one adaptable from a Sling {@code Resource}
+     * @return List of {@code <T>}-typed instances. Entries that cannot be adapted are represented with {@code null}
+     * values. If the path provided is invalid or cannot be resolved, an empty list is returned
+     */
+    @Nonnull
+    public static <T> List<T> getLazyList(ResourceResolver resourceResolver, String path, Class<T> itemType) {
+        if (resourceResolver == null || StringUtils.isBlank(path) || itemType == null) {
+            return reportInvalidArguments("Cannot retrieve a list", Collections.emptyList());
+        }
+        Page page = getListPage(resourceResolver, path);
+        Resource listResource = getListResource(page);
+        if (listResource == null) {
+            LOG.error(MESSAGE_CANNOT_RETRIEVE_LIST, path);
+            return Collections.emptyList();
+        }
+        return getCached(
+            resourceResolver,
+            new ListState(page, listResource),
+            CACHE_KEY_LIST + itemType.getName(),
+            () -> new LazyList<>(listResource.listChildren(), getMapperFunction(itemType)));
+    }
+
     /**
      * Retrieves a collection of list entries stored under given {@code path} that is transformed into a key-value map.
      * The keys represent {@code jcr:title} property of the underlying resource while the values are the underlying
@@ -181,9 +248,49 @@ public class ListHelper {
         if (resourceResolver == null || StringUtils.isAnyBlank(path, keyName) || itemType == null) {
             return reportInvalidArguments(MESSAGE_CANNOT_RETRIEVE_MAP, Collections.emptyMap());
         }
+        if (Resource.class.equals(itemType) || Object.class.equals(itemType)) {
+            Map<String, T> result = new LinkedHashMap<>();
+            Page page = getListPage(resourceResolver, path);
+            getIndex(resourceResolver, path, keyName, new ListState(page, getListResource(page)))
+                .forEach((key, resource) -> result.put(key, itemType.cast(resource)));
+            return result;
+        }
         return getMapInternal(resourceResolver, path, keyName, getMapperFunction(itemType));
     }
 
+    /**
+     * Retrieves an unmodifiable key-value view of list entries stored under given {@code path}. Keys represent the
+     * attribute of the underlying resources specified by the given {@code keyName}. Values are the underlying resources
+     * adapted to the provided {@code itemType} model on demand. If several items have the same key, the last one is
+     * effective. The view is cached for the lifetime of the given {@code ResourceResolver} and is reused by subsequent
+     * calls until the modification stamp of the list page or of the list node changes
+     * @param resourceResolver Sling {@code ResourceResolver} instance used to access the list
+     * @param path             JCR path of the items list
+     * @param keyName          Item resource property that manifests the key of the resulting map
+     * @param itemType         {@code Class} reference representing the type of map values required
+     * @param <T>              Type of map values; must be one adaptable from a Sling {@code Resource}
+     * @return Map containing {@code <T>}-typed instances. Entries that cannot be adapted are represented with
+     * {@code null} values. If the path provided is invalid or cannot be resolved, an empty map is returned
+     */
+    @Nonnull
+    public static <T> Map<String, T> getLazyMap(ResourceResolver resourceResolver, String path, String keyName, Class<T> itemType) {
+        if (resourceResolver == null || StringUtils.isAnyBlank(path, keyName) || itemType == null) {
+            return reportInvalidArguments(MESSAGE_CANNOT_RETRIEVE_MAP, Collections.emptyMap());
+        }
+        Page page = getListPage(resourceResolver, path);
+        Resource listResource = getListResource(page);
+        if (listResource == null) {
+            LOG.error(MESSAGE_CANNOT_RETRIEVE_LIST, path);
+            return Collections.emptyMap();
+        }
+        ListState state = new ListState(page, listResource);
+        return getCached(
+            resourceResolver,
+            state,
+            CACHE_KEY_MAP + keyName + CoreConstants.SEPARATOR_SLASH + itemType.getName(),
+            () -> new LazyMap<>(getIndex(resourceResolver, path, keyName, state), getMapperFunction(itemType)));
+    }
+
 
     /* ----------------
        Creating methods
@@ -279,6 +386,7 @@ public class ListHelper {
                 resourceResolver.delete(pageResource);
             }
 
+            evictCached(resourceResolver, path);
             listPage = ListPageUtil.createPage(resourceResolver, path);
             Resource contentResource = listPage.getContentResource();
             Resource list = contentResource != null ? contentResource.getChild(CoreConstants.NN_LIST) : null;
@@ -339,9 +447,9 @@ public class ListHelper {
         if (resourceResolver == null) {
             return Stream.empty();
         }
-        Resource listResource = getListResource(resourceResolver, path);
+        Resource listResource = getListResource(getListPage(resourceResolver, path));
         if (listResource == null) {
-            LOG.error("Cannot retrieve a list at {}. Resource not found", path);
+            LOG.error(MESSAGE_CANNOT_RETRIEVE_LIST, path);
             return Stream.empty();
         }
         return StreamSupport.stream(
@@ -350,18 +458,89 @@ public class ListHelper {
     }
 
     /**
-     * Retrieves an Exadel Toolbox List page resource by the provided JCR {@code path}
-     * @param resourceResolver {@code ResourceResolver} used to retrieve the resource
+     * Retrieves an index of list item resources under the provided path keyed by the values of the {@code keyName}
+     * property. If several items have the same key, the last one is effective. The index is cached for the lifetime of
+     * the given {@code ResourceResolver} until the modification stamp of the list page or of the list node changes
+     * @param resourceResolver Sling {@code ResourceResolver} instance used to access the list
+     * @param path             JCR path of the items list
+     * @param keyName          Item resource property that holds the key
+     * @param state            {@link ListState} object computed for the list in the current call
+     * @return Unmodifiable map of resources; can be empty
+     */
+    private static Map<String, Resource> getIndex(ResourceResolver resourceResolver, String path, String keyName, ListState state) {
+        return getCached(
+            resourceResolver,
+            state,
+            CACHE_KEY_INDEX + keyName,
+            () -> Collections.unmodifiableMap(getMapInternal(resourceResolver, path, keyName, Function.identity())));
+    }
+
+    /**
+     * Retrieves a value stored in the cache bound to the given {@code ResourceResolver}, or else creates the value and
+     * stores it. A stored value is effective while the version of the list stays the same. Values are not cached for a
+     * list that has no modification stamps
+     * @param resourceResolver Sling {@code ResourceResolver} instance that holds the cache
+     * @param state            {@link ListState} object computed for the list in the current call
+     * @param key              String value that identifies the value within the list
+     * @param factory          {@code Supplier} that creates the value
+     * @param <V>              Type of the value
+     * @return The cached or newly created value
+     */
+    @SuppressWarnings("unchecked")
+    private static <V> V getCached(ResourceResolver resourceResolver, ListState state, String key, Supplier<V> factory) {
+        if (state.getVersion() == null) {
+            return factory.get();
+        }
+        Map<String, ImmutablePair<String, Object>> cache = (Map<String, ImmutablePair<String, Object>>) resourceResolver
+            .getPropertyMap()
+            .computeIfAbsent(CACHE_PROPERTY, k -> new HashMap<String, ImmutablePair<String, Object>>());
+        String effectiveKey = state.getPath() + CoreConstants.SEPARATOR_COLON + key;
+        ImmutablePair<String, Object> entry = cache.get(effectiveKey);
+        if (entry != null && entry.getLeft().equals(state.getVersion())) {
+            return (V) entry.getRight();
+        }
+        V result = factory.get();
+        cache.put(effectiveKey, new ImmutablePair<>(state.getVersion(), result));
+        return result;
+    }
+
+    /**
+     * Removes the values stored for the list with the given path from the cache bound to the given
+     * {@code ResourceResolver}
+     * @param resourceResolver Sling {@code ResourceResolver} instance that holds the cache
+     * @param path             JCR path of the items list
+     */
+    @SuppressWarnings("unchecked")
+    private static void evictCached(ResourceResolver resourceResolver, String path) {
+        Map<String, ?> cache = (Map<String, ?>) resourceResolver.getPropertyMap().get(CACHE_PROPERTY);
+        if (cache != null) {
+            cache.keySet().removeIf(key -> key.startsWith(path + CoreConstants.SEPARATOR_COLON));
+        }
+    }
+
+    /**
+     * Retrieves an Exadel Toolbox List page by the provided JCR {@code path}
+     * @param resourceResolver {@code ResourceResolver} used to retrieve the page
      * @param path             JCR path of the items list
-     * @return {@code Resource object, or null if the resource resolver is missing or the path in unresolvable}
+     * @return {@code Page} object, or null if the resource resolver is missing or the path in unresolvable
      */
-    private static Resource getListResource(ResourceResolver resourceResolver, String path) {
+    private static Page getListPage(ResourceResolver resourceResolver, String path) {
         if (resourceResolver == null || StringUtils.isBlank(path)) {
             return null;
         }
         return Optional.of(resourceResolver)
             .map(resolver -> resolver.adaptTo(PageManager.class))
             .map(pageManager -> pageManager.getPage(path))
+            .orElse(null);
+    }
+
+    /**
+     * Retrieves the resource that contains entries of an Exadel Toolbox List
+     * @param page The list {@link Page}; can be null
+     * @return {@code Resource} object, or null if the page is missing or does not contain a list
+     */
+    private static Resource getListResource(Page page) {
+        return Optional.ofNullable(page)
             .map(Page::getContentResource)
             .map(contentRes -> contentRes.getChild(CoreConstants.NN_LIST))
             .orElse(null);
@@ -399,4 +578,64 @@ public class ListHelper {
     private static void reportNoItems(String path) {
         LOG.warn(MESSAGE_NO_ITEMS, path);
     }
+
+    /* ---------------
+       Service classes
+       --------------- */
+
+    /**
+     * Represents the version of a list that a cached value depends on. The version is made of the modification stamps
+     * of the list page and of the list node, so that it is computed without traversing the list items
+     */
+    private static class ListState {
+
+        private final String path;
+        private final String version;
+
+        /**
+         * Creates a new {@link ListState} instance
+         * @param page         The list {@link Page}; can be null
+         * @param listResource The resource that contains the list items; can be null
+         */
+        ListState(Page page, Resource listResource) {
+            this.path = page != null ? page.getPath() : null;
+            if (page == null || listResource == null) {
+                this.version = null;
+                return;
+            }
+            ValueMap listProperties = listResource.getValueMap();
+            Calendar pageLastModified = page.getLastModified();
+            Calendar listLastModified = ObjectUtils.defaultIfNull(
+                listProperties.get(NameConstants.PN_PAGE_LAST_MOD, Calendar.class),
+                listProperties.get(JcrConstants.JCR_LASTMODIFIED, Calendar.class));
+            this.version = pageLastModified != null || listLastModified != null
+                ? getTimeInMillis(pageLastModified) + CoreConstants.SEPARATOR_COLON + getTimeInMillis(listLastModified)
+                : null;
+        }
+
+        /**
+         * Retrieves the path of the list page
+         * @return String value; can be null
+         */
+        String getPath() {
+            return path;
+        }
+
+        /**
+         * Retrieves the version of the list
+         * @return String value, or null if the list has no modification stamps
+         */
+        String getVersion() {
+            return version;
+        }
+
+        /**
+         * Converts the given modification stamp into a string
+         * @param value {@code Calendar} object; can be null
+         * @return String value
+         */
+        private static String getTimeInMillis(Calendar value) {
+            return value != null ? String.valueOf(value.getTimeInMillis()) : StringUtils.EMPTY;
+        }
+    }
 }
@@ -0,0 +1,399 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.core.optionprovider.services.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Dictionary;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import javax.management.DynamicMBean;
+import javax.management.NotCompliantMBeanException;
+import javax.management.StandardMBean;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.observation.ExternalResourceChangeListener;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
+import org.apache.sling.api.wrappers.ValueMapDecorator;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.exadel.aem.toolkit.core.CoreConstants;
+
+/**
+ * Stores the option lists built by {@link OptionProviderServiceImpl} so that the same datasource requested with the
+ * same parameters is not built anew. A cached list is removed when a resource it has been built from changes in the
+ * repository, or when its time-to-live is over. The cache also collects the statistics of its usage that are exposed
+ * via JMX
+ */
+class OptionCache implements OptionCacheMBean, ResourceChangeListener, ExternalResourceChangeListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OptionCache.class);
+
+    private static final String JMX_OBJECT_NAME = "com.exadel.aem.toolkit:type=OptionProvider,name=OptionCache";
+    private static final String JMX_OBJECT_NAME_PROPERTY = "jmx.objectname";
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final int maxSize;
+    private final long ttl;
+    private final String[] paths;
+    private final Map<Object, Entry> entries;
+    private final LongSupplier clock;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong builds = new AtomicLong();
+    private final AtomicLong buildTime = new AtomicLong();
+
+    private final List<ServiceRegistration<?>> registrations = new ArrayList<>();
+
+    /**
+     * Creates a new cache instance
+     * @param config {@link OptionProviderServiceConfiguration} object containing the cache settings
+     */
+    OptionCache(OptionProviderServiceConfiguration config) {
+        this(config, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a new cache instance that uses the given source of the current time
+     * @param config {@link OptionProviderServiceConfiguration} object containing the cache settings
+     * @param clock  {@code LongSupplier} that provides the current time in milliseconds
+     */
+    OptionCache(OptionProviderServiceConfiguration config, LongSupplier clock) {
+        this.clock = clock;
+        this.maxSize = config.optionCacheSize();
+        this.ttl = TimeUnit.SECONDS.toMillis(config.optionCacheTtl());
+        this.paths = Arrays.stream(ArrayUtils.nullToEmpty(config.optionCachePaths()))
+            .filter(StringUtils::isNotBlank)
+            .map(path -> StringUtils.removeEnd(path.trim(), CoreConstants.SEPARATOR_SLASH))
+            .map(path -> StringUtils.defaultIfEmpty(path, CoreConstants.SEPARATOR_SLASH))
+            .toArray(String[]::new);
+        this.entries = new LinkedHashMap<>(maxSize, LOAD_FACTOR, true);
+    }
+
+    /* --------------------
+       Startup and shutdown
+       -------------------- */
+
+    /**
+     * Registers the current instance as a listener of changes under the cached paths, and as a JMX bean
+     * @param context {@code BundleContext} object used to register services
+     */
+    void register(BundleContext context) {
+        if (paths.length > 0) {
+            Dictionary<String, Object> listenerProperties = new Hashtable<>();
+            listenerProperties.put(ResourceChangeListener.PATHS, paths);
+            listenerProperties.put(ResourceChangeListener.CHANGES, new String[] {"ADDED", "CHANGED", "REMOVED"});
+            registrations.add(context.registerService(ResourceChangeListener.class, this, listenerProperties));
+        }
+        try {
+            Dictionary<String, Object> beanProperties = new Hashtable<>();
+            beanProperties.put(JMX_OBJECT_NAME_PROPERTY, JMX_OBJECT_NAME);
+            DynamicMBean bean = new StandardMBean(this, OptionCacheMBean.class);
+            registrations.add(context.registerService(DynamicMBean.class, bean, beanProperties));
+        } catch (NotCompliantMBeanException e) {
+            LOG.warn("Could not register the statistics of the option cache", e);
+        }
+    }
+
+    /**
+     * Unregisters the services registered by {@link OptionCache#register(BundleContext)} and clears the cache
+     */
+    void unregister() {
+        registrations.forEach(ServiceRegistration::unregister);
+        registrations.clear();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /* -------------------
+       Cache functionality
+       ------------------- */
+
+    /**
+     * Retrieves the "generation" of the cache. The value changes every time the cache is invalidated. It is used to
+     * make sure that a list that was being built while the repository changed is not stored
+     * @return Long value
+     */
+    long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Retrieves the cached option list for the given key. The options are recreated for the given resource resolver
+     * @param key      An object representing the parameters of the datasource
+     * @param resolver {@code ResourceResolver} of the current request
+     * @return List of {@link Resource} objects, or null if there is no valid cached list
+     */
+    List<Resource> get(Object key, ResourceResolver resolver) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.isExpired(clock.getAsLong())) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.toResources(resolver);
+    }
+
+    /**
+     * Stores the option list for the given key unless the repository has changed since the list started being built,
+     * or some of the resources the list depends on are not observed by the cache. If the cache is full, the least
+     * recently used list is evicted
+     * @param key          An object representing the parameters of the datasource
+     * @param options      List of {@link Resource} objects representing the options
+     * @param dependencies Set of repository paths the options were built from
+     * @param origin       The {@link OptionCache#getGeneration() generation} of the cache the building started at
+     */
+    void put(Object key, List<Resource> options, Set<String> dependencies, long origin) {
+        if (!dependencies.stream().allMatch(this::isObserved)) {
+            return;
+        }
+        Entry entry = new Entry(options, dependencies, clock.getAsLong() + ttl);
+        synchronized (entries) {
+            if (origin != generation.get()) {
+                return;
+            }
+            entries.put(key, entry);
+            Iterator<Object> keys = entries.keySet().iterator();
+            while (entries.size() > maxSize && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * Stores the time spent on building an option list anew
+     * @param nanos Long value representing nanoseconds
+     */
+    void recordBuild(long nanos) {
+        builds.incrementAndGet();
+        buildTime.addAndGet(nanos);
+    }
+
+    /**
+     * {@inheritDoc} Removes the option lists that depend on the changed resources
+     */
+    @Override
+    public void onChange(List<ResourceChange> changes) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (changes.stream().anyMatch(change -> entry.dependsOn(change.getPath()))) {
+                    iterator.remove();
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets whether the changes of the given path are observed by the cache
+     * @param path Repository path
+     * @return True or false
+     */
+    private boolean isObserved(String path) {
+        return Arrays.stream(paths).anyMatch(root -> isSameOrDescendant(path, root));
+    }
+
+    /* ----------
+       Statistics
+       ---------- */
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getHitRate() {
+        long currentHits = hits.get();
+        long total = currentHits + misses.get();
+        return total > 0 ? (double) currentHits / total : 0d;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getAverageBuildTime() {
+        long count = builds.get();
+        return count > 0 ? (double) buildTime.get() / count / TimeUnit.MILLISECONDS.toNanos(1) : 0d;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+        hits.set(0);
+        misses.set(0);
+        invalidations.set(0);
+        builds.set(0);
+        buildTime.set(0);
+    }
+
+    /* ---------------
+       Utility methods
+       --------------- */
+
+    /**
+     * Gets whether the given path is the same as the other path or belongs to its subtree
+     * @param path   Repository path to test
+     * @param parent Repository path of the presumed ancestor
+     * @return True or false
+     */
+    private static boolean isSameOrDescendant(String path, String parent) {
+        if (CoreConstants.SEPARATOR_SLASH.equals(parent)) {
+            return StringUtils.startsWith(path, parent);
+        }
+        return StringUtils.equals(path, parent) || StringUtils.startsWith(path, parent + CoreConstants.SEPARATOR_SLASH);
+    }
+
+    /* ---------------
+       Service classes
+       --------------- */
+
+    /**
+     * Represents a cached option list together with the repository paths it depends on
+     */
+    private static class Entry {
+        private final List<Map<String, Object>> values;
+        private final List<Map<String, Object>> attributes;
+        private final Set<String> dependencies;
+        private final long expiration;
+
+        /**
+         * Creates a new {@link Entry} instance. The data of the options is copied so that the entry does not retain
+         * the resources bound to the resource resolver of the original request
+         * @param options      List of {@link Resource} objects representing the options
+         * @param dependencies Set of repository paths the options were built from
+         * @param expiration   Timestamp in milliseconds the entry expires at
+         */
+        Entry(List<Resource> options, Set<String> dependencies, long expiration) {
+            this.values = new ArrayList<>(options.size());
+            this.attributes = new ArrayList<>(options.size());
+            for (Resource option : options) {
+                Resource attributesChild = option.getChild(CoreConstants.NN_GRANITE_DATA);
+                values.add(new HashMap<>(option.getValueMap()));
+                attributes.add(attributesChild != null ? new HashMap<>(attributesChild.getValueMap()) : null);
+            }
+            this.dependencies = dependencies;
+            this.expiration = expiration;
+        }
+
+        /**
+         * Gets whether the time-to-live of the entry is over
+         * @param now Current time in milliseconds
+         * @return True or false
+         */
+        boolean isExpired(long now) {
+            return now >= expiration;
+        }
+
+        /**
+         * Gets whether the entry must be invalidated due to the change of the resource with the given path. This is
+         * true if the resource is one of the dependencies, belongs to the subtree of a dependency, or is an ancestor
+         * of a dependency
+         * @param path Path of the changed resource
+         * @return True or false
+         */
+        boolean dependsOn(String path) {
+            return dependencies
+                .stream()
+                .anyMatch(dependency -> isSameOrDescendant(path, dependency) || isSameOrDescendant(dependency, path));
+        }
+
+        /**
+         * Recreates the option resources for the given resource resolver
+         * @param resolver {@code ResourceResolver} of the current request
+         * @return List of {@link Resource} objects
+         */
+        List<Resource> toResources(ResourceResolver resolver) {
+            List<Resource> result = new ArrayList<>(values.size());
+            for (int i = 0; i < values.size(); i++) {
+                Map<String, Object> optionAttributes = attributes.get(i);
+                result.add(new OptionResource(
+                    resolver,
+                    new ValueMapDecorator(new HashMap<>(values.get(i))),
+                    optionAttributes != null ? new HashMap<>(optionAttributes) : null));
+            }
+            return result;
+        }
+    }
+}
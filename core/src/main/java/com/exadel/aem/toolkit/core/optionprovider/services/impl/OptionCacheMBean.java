@@ -0,0 +1,63 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.core.optionprovider.services.impl;
+
+/**
+ * Exposes the statistics of the option cache maintained by {@link OptionProviderServiceImpl} via JMX
+ * <p><u>Note</u>: This class is not a part of the public API and is subject to change. Do not use it in your own
+ * code</p>
+ */
+public interface OptionCacheMBean {
+
+    /**
+     * Retrieves the number of option lists currently stored in the cache
+     * @return Integer value
+     */
+    int getSize();
+
+    /**
+     * Retrieves the number of requests served from the cache
+     * @return Long value
+     */
+    long getHits();
+
+    /**
+     * Retrieves the number of requests for which the option list was built anew
+     * @return Long value
+     */
+    long getMisses();
+
+    /**
+     * Retrieves the share of requests served from the cache
+     * @return Double value in the range from {@code 0} to {@code 1}
+     */
+    double getHitRate();
+
+    /**
+     * Retrieves the number of option lists removed from the cache due to changes in the repository
+     * @return Long value
+     */
+    long getInvalidations();
+
+    /**
+     * Retrieves the average time spent on building an option list anew
+     * @return Double value representing milliseconds
+     */
+    double getAverageBuildTime();
+
+    /**
+     * Removes all the option lists from the cache and resets the statistics
+     */
+    void clear();
+}
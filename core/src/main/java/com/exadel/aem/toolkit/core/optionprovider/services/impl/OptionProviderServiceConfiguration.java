@@ -0,0 +1,101 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.core.optionprovider.services.impl;
+
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+
+/**
+ * Defines configuration properties for {@link OptionProviderServiceImpl}
+ * <p><u>Note</u>: This class is not a part of the public API and is subject to change. Do not use it in your own
+ * code</p>
+ */
+@ObjectClassDefinition(name = "EToolbox Authoring Kit - Option Provider")
+public @interface OptionProviderServiceConfiguration {
+
+    /**
+     * Defines the maximal number of simultaneous connections to HTTP option sources
+     * @return Integer value
+     */
+    @AttributeDefinition(
+        name = "HTTP connections",
+        description = "Maximal number of simultaneous connections to HTTP option sources")
+    int httpMaxConnections() default 20;
+
+    /**
+     * Defines the maximal number of simultaneous connections to a single HTTP option source host
+     * @return Integer value
+     */
+    @AttributeDefinition(
+        name = "HTTP connections per host",
+        description = "Maximal number of simultaneous connections to a single HTTP option source host")
+    int httpMaxConnectionsPerRoute() default 10;
+
+    /**
+     * Defines the timeout for connecting to and reading from HTTP option sources
+     * @return Integer value representing milliseconds
+     */
+    @AttributeDefinition(
+        name = "HTTP timeout",
+        description = "Timeout for connecting to and reading from HTTP option sources, in milliseconds")
+    int httpTimeout() default 10_000;
+
+    /**
+     * Defines the maximal number of HTTP option source responses kept in the cache
+     * @return Integer value. {@code 0} means that the responses are not cached
+     */
+    @AttributeDefinition(
+        name = "HTTP cache size",
+        description = "Maximal number of HTTP option source responses kept in the cache. Set to 0 to disable caching")
+    int httpCacheSize() default 100;
+
+    /**
+     * Defines the maximal time an HTTP option source response is kept in the cache. A shorter time is used if the
+     * response specifies it via the {@code Cache-Control} header
+     * @return Integer value representing seconds. {@code 0} means that the responses are not cached
+     */
+    @AttributeDefinition(
+        name = "HTTP cache TTL",
+        description = "Maximal time an HTTP option source response is kept in the cache, in seconds. Set to 0 to disable caching")
+    int httpCacheTtl() default 60;
+
+    /**
+     * Defines the maximal number of option lists kept in the cache
+     * @return Integer value. {@code 0} means that the option lists are not cached
+     */
+    @AttributeDefinition(
+        name = "Option cache size",
+        description = "Maximal number of option lists kept in the cache. Set to 0 to disable caching")
+    int optionCacheSize() default 500;
+
+    /**
+     * Defines the maximal time an option list is kept in the cache. Option lists built from the repository content are
+     * removed earlier if the content changes
+     * @return Integer value representing seconds. {@code 0} means that the option lists are not cached
+     */
+    @AttributeDefinition(
+        name = "Option cache TTL",
+        description = "Maximal time an option list is kept in the cache, in seconds. Set to 0 to disable caching")
+    int optionCacheTtl() default 600;
+
+    /**
+     * Defines the repository paths observed for changes in order to invalidate cached option lists. Option lists
+     * built from resources outside these paths are not cached
+     * @return Array of strings
+     */
+    @AttributeDefinition(
+        name = "Option cache paths",
+        description = "Repository paths observed for changes. Option lists built from resources outside these paths are not cached")
+    String[] optionCachePaths() default {"/apps", "/conf", "/content", "/etc", "/libs"};
+}
@@ -14,9 +14,13 @@
 package com.exadel.aem.toolkit.core.optionprovider.services.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -30,14 +34,19 @@ import org.apache.sling.api.SlingHttpServletRequest;
 import org.apache.sling.api.resource.NonExistingResource;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ResourceResolver;
+import org.osgi.framework.BundleContext;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.metatype.annotations.Designate;
 import com.day.cq.commons.jcr.JcrConstants;
 
 import com.exadel.aem.toolkit.core.CoreConstants;
 import com.exadel.aem.toolkit.core.optionprovider.OptionProviderConstants;
 import com.exadel.aem.toolkit.core.optionprovider.services.OptionProviderService;
 import com.exadel.aem.toolkit.core.optionprovider.services.impl.resolvers.OptionSourceResolvers;
-import com.exadel.aem.toolkit.core.optionprovider.utils.PatternUtil;
+import com.exadel.aem.toolkit.core.optionprovider.utils.PatternMatcher;
 import com.exadel.aem.toolkit.core.optionprovider.utils.ResourceTypeUtil;
 
 /**
@@ -47,20 +56,102 @@ import com.exadel.aem.toolkit.core.optionprovider.utils.ResourceTypeUtil;
  * code</p>
  */
 @Component(service = OptionProviderService.class)
+@Designate(ocd = OptionProviderServiceConfiguration.class)
 public class OptionProviderServiceImpl implements OptionProviderService {
 
+    private volatile OptionCache cache;
+
+    /* --------------------
+       Startup and shutdown
+       -------------------- */
+
+    /**
+     * Applies the service configuration to the option source resolvers and creates the cache of option lists. The cache
+     * created upon a previous activation is unregistered first, so that its JMX bean does not clash with the new one
+     * @param context Bundle context to use for registering the cache services
+     * @param config  {@link OptionProviderServiceConfiguration} object
+     */
+    @Activate
+    @Modified
+    void activate(BundleContext context, OptionProviderServiceConfiguration config) {
+        OptionSourceResolvers.configure(config);
+        OptionCache oldCache = cache;
+        cache = null;
+        if (oldCache != null) {
+            oldCache.unregister();
+        }
+        if (config.optionCacheSize() > 0 && config.optionCacheTtl() > 0) {
+            OptionCache newCache = new OptionCache(config);
+            newCache.register(context);
+            cache = newCache;
+        }
+    }
+
+    /**
+     * Releases the connections and caches held by the option source resolvers and removes the cache of option lists
+     */
+    @Deactivate
+    void deactivate() {
+        OptionSourceResolvers.close();
+        if (cache != null) {
+            cache.unregister();
+            cache = null;
+        }
+    }
+
+    /* --------------
+       Option listing
+       -------------- */
+
     /**
      * {@inheritDoc}
      */
     @Nonnull
     @Override
     public List<Resource> getOptions(SlingHttpServletRequest request) {
+        // Parse user-specified datasource settings from the request and/or underlying "datasource" resource
+        OptionSourceParameters parameters = OptionSourceParameters.forRequest(request);
+        OptionCache currentCache = cache;
+        if (currentCache == null) {
+            return getOptions(request, parameters, null);
+        }
+
+        // The same parameters may produce different options for a different content resource or a user with
+        // different permissions, so these are considered as well
+        ResourceResolver resourceResolver = request.getResourceResolver();
+        Object key = Arrays.asList(parameters, request.getRequestPathInfo().getSuffix(), resourceResolver.getUserID());
+        List<Resource> cached = currentCache.get(key, resourceResolver);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = currentCache.getGeneration();
+        long start = System.nanoTime();
+        Map<PathParameters, Resource> dataSources = new LinkedHashMap<>();
+        List<Resource> result = getOptions(request, parameters, dataSources);
+        currentCache.recordBuild(System.nanoTime() - start);
+        Set<String> dependencies = getDependencies(request, dataSources);
+        if (dependencies != null) {
+            currentCache.put(key, result, dependencies, generation);
+        }
+        return result;
+    }
+
+    /**
+     * Called from {@link OptionProviderServiceImpl#getOptions(SlingHttpServletRequest)} to build the list of options
+     * according to the given parameters
+     * @param request     Current {@code SlingHttpServletRequest}
+     * @param parameters  {@link OptionSourceParameters} object
+     * @param dataSources A nullable map that receives the resolved datasources per path parameters
+     * @return A non-null list of {@link Resource} objects; might be empty
+     */
+    private List<Resource> getOptions(
+        SlingHttpServletRequest request,
+        OptionSourceParameters parameters,
+        Map<PathParameters, Resource> dataSources) {
+
         Set<Option> options = new LinkedHashSet<>();
         List<Option> result;
 
-        // Parse user-specified datasource settings from the request and/or underlying "datasource" resource,
-        OptionSourceParameters parameters = OptionSourceParameters.forRequest(request);
-
         // For each of the paths, except for the fallback path, try to retrieve a list of options
         PathParameters fallbackPathParameters = null;
         for (PathParameters pathParametersInstance : parameters.getPathParameters()) {
@@ -69,12 +160,18 @@ public class OptionProviderServiceImpl implements OptionProviderService {
                 continue;
             }
             Resource dataResource = OptionSourceResolvers.resolve(request, pathParametersInstance);
+            if (dataSources != null) {
+                dataSources.put(pathParametersInstance, dataResource);
+            }
             options.addAll(getOptions(dataResource, pathParametersInstance));
         }
 
         // Now process the fallback path in case there are still no options
         if (options.isEmpty() && fallbackPathParameters != null) {
             Resource dataResource = OptionSourceResolvers.resolve(request, fallbackPathParameters);
+            if (dataSources != null) {
+                dataSources.put(fallbackPathParameters, dataResource);
+            }
             options.addAll(getOptions(dataResource, fallbackPathParameters));
         }
 
@@ -94,7 +191,7 @@ public class OptionProviderServiceImpl implements OptionProviderService {
             options));
 
         // Remove options that are specified in the "exclude" parameter
-        removeExcludedOptions(result, parameters.getExcludedOptions());
+        removeExcludedOptions(result, parameters.getExcludeMatcher());
 
         // Set "selected" flag to appropriate option(s) if "selected value" parameter is specified
         if (StringUtils.isNotBlank(parameters.getSelectedValue())) {
@@ -112,8 +209,26 @@ public class OptionProviderServiceImpl implements OptionProviderService {
     }
 
     /**
-     * Called from {@link OptionProviderServiceImpl#getOptions(SlingHttpServletRequest)} to extract a list of
-     * {@link Option} items from the particular datasource
+     * Collects the repository paths the options built from the given datasources depend on
+     * @param request     Current {@code SlingHttpServletRequest}
+     * @param dataSources Map of resolved datasources per path parameters
+     * @return Set of paths, or null if the options must not be cached
+     */
+    private static Set<String> getDependencies(SlingHttpServletRequest request, Map<PathParameters, Resource> dataSources) {
+        Set<String> result = new HashSet<>();
+        for (Map.Entry<PathParameters, Resource> entry : dataSources.entrySet()) {
+            Set<String> dependencies = OptionSourceResolvers.getDependencies(request, entry.getKey(), entry.getValue());
+            if (dependencies == null) {
+                return null;
+            }
+            result.addAll(dependencies);
+        }
+        return result;
+    }
+
+    /**
+     * Called from {@link OptionProviderServiceImpl#getOptions(SlingHttpServletRequest, OptionSourceParameters, Map)}
+     * to extract a list of {@link Option} items from the particular datasource
      * @param dataSource A nullable {@code Resource} instance representing selected datasource
      * @param parameters Path-related user settings that came with the request
      * @return A non-null list of {@link Option} objects; might be empty
@@ -181,18 +296,14 @@ public class OptionProviderServiceImpl implements OptionProviderService {
      * Browses through the provided list of options and removes the items that match the user-provided {@code exclude}
      * setting
      * @param options        Collection of {@code Option} objects to test
-     * @param excludeStrings Value of the user-specified {@code exclude} setting
+     * @param excludeMatcher {@link PatternMatcher} compiled from the user-specified {@code exclude} setting
      */
-    private static void removeExcludedOptions(List<Option> options, List<String> excludeStrings) {
-        if (CollectionUtils.isEmpty(options) || CollectionUtils.isEmpty(excludeStrings)) {
+    private static void removeExcludedOptions(List<Option> options, PatternMatcher excludeMatcher) {
+        if (CollectionUtils.isEmpty(options) || excludeMatcher == null || excludeMatcher.isEmpty()) {
             return;
         }
-        List<Option> excludedOptions = options
-            .stream()
-            .filter(option -> PatternUtil.isMatch(option.getName(), excludeStrings)
-                || PatternUtil.isMatch(option.getValue(), excludeStrings)
-                || PatternUtil.isMatch(option.getText(), excludeStrings))
-            .collect(Collectors.toList());
-        options.removeAll(excludedOptions);
+        options.removeIf(option -> excludeMatcher.isMatch(option.getName())
+            || excludeMatcher.isMatch(option.getValue())
+            || excludeMatcher.isMatch(option.getText()));
     }
 }
@@ -21,6 +21,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
@@ -40,6 +41,7 @@ import com.exadel.aem.toolkit.api.annotations.meta.ResourceTypes;
 import com.exadel.aem.toolkit.api.annotations.meta.StringTransformation;
 import com.exadel.aem.toolkit.core.CoreConstants;
 import com.exadel.aem.toolkit.core.optionprovider.services.OptionProviderService;
+import com.exadel.aem.toolkit.core.optionprovider.utils.PatternMatcher;
 
 /**
  * Parses and serves user-specified settings for arranging a datasource for the current request
@@ -67,6 +69,7 @@ public class OptionSourceParameters {
     private List<Pair<String, String>> appendedOptions;
     private List<Pair<String, String>> prependedOptions;
     private List<String> excludeOptions;
+    private PatternMatcher excludeMatcher;
     private String selectedValue;
     private boolean sorted;
 
@@ -109,6 +112,14 @@ public class OptionSourceParameters {
         return excludeOptions;
     }
 
+    /**
+     * Gets the user-specified {@code exclude} setting value compiled for matching option names, values, and texts
+     * @return {@link PatternMatcher} object
+     */
+    PatternMatcher getExcludeMatcher() {
+        return excludeMatcher;
+    }
+
     /**
      * Gets the user-specified {@code selectedValue} setting value
      * @return String value
@@ -125,6 +136,38 @@ public class OptionSourceParameters {
         return sorted;
     }
 
+    /**
+     * Implements {@link Object#equals(Object)} to make sure two instances are equal when they have the same settings.
+     * This allows using the parameters as a part of a cache key
+     * @param obj Object to compare to
+     * @return True or false
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof OptionSourceParameters)) {
+            return false;
+        }
+        OptionSourceParameters other = (OptionSourceParameters) obj;
+        return sorted == other.sorted
+            && Objects.equals(pathParameters, other.pathParameters)
+            && Objects.equals(appendedOptions, other.appendedOptions)
+            && Objects.equals(prependedOptions, other.prependedOptions)
+            && Objects.equals(excludeOptions, other.excludeOptions)
+            && Objects.equals(selectedValue, other.selectedValue);
+    }
+
+    /**
+     * Implements {@link Object#hashCode()} to accompany the current object's {@code equals()} override
+     * @return Hash code as generated for this instance's settings
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(pathParameters, appendedOptions, prependedOptions, excludeOptions, selectedValue, sorted);
+    }
+
     /* ---------------
        Factory methods
        --------------- */
@@ -180,6 +223,7 @@ public class OptionSourceParameters {
         result.appendedOptions = toNameValuePairs(repository.get(CoreConstants.PN_APPEND, String[].class), false);
         result.prependedOptions = toNameValuePairs(repository.get(CoreConstants.PN_PREPEND, String[].class), false);
         result.excludeOptions = toList(repository.get(QUERY_KEY_EXCLUDE_OPTIONS, String[].class));
+        result.excludeMatcher = PatternMatcher.compile(result.excludeOptions);
 
         result.selectedValue = repository.get(CoreConstants.PN_SELECTED, String.class);
         result.sorted = repository.get(QUERY_KEY_SORTED, Boolean.FALSE.toString()).equalsIgnoreCase(Boolean.TRUE.toString());
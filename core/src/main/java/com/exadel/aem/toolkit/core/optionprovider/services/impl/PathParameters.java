@@ -14,6 +14,7 @@
 package com.exadel.aem.toolkit.core.optionprovider.services.impl;
 
 import java.util.List;
+import java.util.Objects;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -112,6 +113,40 @@ public class PathParameters {
         return fallback;
     }
 
+    /**
+     * Implements {@link Object#equals(Object)} to make sure two instances are equal when they have the same settings.
+     * This allows using the parameters as a part of a cache key
+     * @param obj Object to compare to
+     * @return True or false
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof PathParameters)) {
+            return false;
+        }
+        PathParameters other = (PathParameters) obj;
+        return fallback == other.fallback
+            && Objects.equals(path, other.path)
+            && Objects.equals(textMember, other.textMember)
+            && Objects.equals(valueMember, other.valueMember)
+            && Objects.equals(attributes, other.attributes)
+            && Objects.equals(attributeMembers, other.attributeMembers)
+            && textTransform == other.textTransform
+            && valueTransform == other.valueTransform;
+    }
+
+    /**
+     * Implements {@link Object#hashCode()} to accompany the current object's {@code equals()} override
+     * @return Hash code as generated for this instance's settings
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(path, textMember, valueMember, attributes, attributeMembers, textTransform, valueTransform, fallback);
+    }
+
     /**
      * Gets a builder for a new {@link PathParameters} instance
      * @return {@code DataSourcePathParameter} object
@@ -0,0 +1,290 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.core.optionprovider.services.impl.resolvers;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.sling.api.resource.ValueMap;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleListener;
+import org.osgi.framework.FrameworkUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Used by {@link ClassOptionSourceResolver} to look up classes by name without sweeping all the installed bundles on
+ * every request. Keeps the found classes together with the option lists built from them, provided that the classes
+ * expose only constant values. An entry is dropped when the bundle the class was loaded from, or the bundle that
+ * defines the class, is updated, unresolved, or uninstalled
+ */
+class ClassIndex implements BundleListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClassIndex.class);
+
+    private static final long NO_BUNDLE = -1L;
+
+    private final BundleContext context;
+    private final ConcurrentMap<String, Entry> entries;
+    private final AtomicLong generation;
+
+    /**
+     * Creates a new class instance
+     * @param context {@link BundleContext} used to enumerate bundles and to receive bundle events
+     */
+    ClassIndex(BundleContext context) {
+        this.context = context;
+        this.entries = new ConcurrentHashMap<>();
+        this.generation = new AtomicLong();
+    }
+
+    /* ---------
+       Lifecycle
+       --------- */
+
+    /**
+     * Retrieves the {@link BundleContext} this index is bound to
+     * @return {@code BundleContext} object
+     */
+    BundleContext getContext() {
+        return context;
+    }
+
+    /**
+     * Starts listening to bundle events
+     */
+    void open() {
+        context.addBundleListener(this);
+    }
+
+    /**
+     * Stops listening to bundle events and clears the index
+     */
+    void close() {
+        try {
+            context.removeBundleListener(this);
+        } catch (IllegalStateException e) {
+            LOG.debug("Bundle context is no longer valid", e);
+        }
+        entries.clear();
+    }
+
+    /**
+     * Called by the OSGi framework when the state of a bundle changes. Drops the entries that depend on the bundle
+     * @param event {@link BundleEvent} object
+     */
+    @Override
+    public void bundleChanged(BundleEvent event) {
+        if (event.getType() != BundleEvent.UPDATED
+            && event.getType() != BundleEvent.UNRESOLVED
+            && event.getType() != BundleEvent.UNINSTALLED) {
+            return;
+        }
+        long bundleId = event.getBundle().getBundleId();
+        generation.incrementAndGet();
+        entries.values().removeIf(entry -> entry.dependsOn(bundleId));
+    }
+
+    /* ------
+       Lookup
+       ------ */
+
+    /**
+     * Retrieves the index entry for a class with the given name. If the class is not indexed yet, the available bundles
+     * are searched for it
+     * @param name A fully qualified name of the class
+     * @return {@link Entry} object, or null if no bundle can load the class
+     */
+    Entry get(String name) {
+        Entry result = entries.get(name);
+        if (result != null) {
+            return result;
+        }
+        long expectedGeneration = generation.get();
+        result = find(name);
+        if (result == null) {
+            return null; // Not indexed because a bundle containing the class can be installed later
+        }
+        Entry existing = entries.putIfAbsent(name, result);
+        if (existing != null) {
+            return existing;
+        }
+        if (generation.get() != expectedGeneration) {
+            // A bundle changed while we were searching, so the found class may already be stale
+            entries.remove(name, result);
+        }
+        return result;
+    }
+
+    /**
+     * Searches the available bundles for a class with the given name
+     * @param name A fully qualified name of the class
+     * @return {@link Entry} object, or null if no bundle can load the class
+     */
+    private Entry find(String name) {
+        Stream<Bundle> bundles = ArrayUtils.isNotEmpty(context.getBundles())
+            ? Arrays.stream(context.getBundles())
+            : Stream.of(context.getBundle());
+        return bundles
+            .filter(Objects::nonNull)
+            .map(bundle -> createEntry(bundle, name))
+            .filter(Objects::nonNull)
+            .findFirst()
+            .orElse(null);
+    }
+
+    /**
+     * Attempts to retrieve a class by name from the given OSGi bundle and wrap it into an index entry
+     * @param bundle The current {@link Bundle}
+     * @param name   A fully qualified name of the class
+     * @return {@link Entry} object, or null if the bundle cannot load the class
+     */
+    private static Entry createEntry(Bundle bundle, String name) {
+        Class<?> type;
+        try {
+            type = bundle.loadClass(name);
+        } catch (ClassNotFoundException e) {
+            return null; // Not an exception because a class with the name can be missing in an arbitrary bundle
+        }
+        if (type == null) {
+            return null;
+        }
+        Bundle owner = FrameworkUtil.getBundle(type);
+        return new Entry(type, bundle.getBundleId(), owner != null ? owner.getBundleId() : NO_BUNDLE);
+    }
+
+    /* ---------------
+       Utility classes
+       --------------- */
+
+    /**
+     * Represents a class found in one of the bundles together with the option lists built from it. Option lists are
+     * kept only for a class whose public static fields are all final and hold primitive or string values. Options built
+     * from other classes, including enums whose getters can return varying values, are read anew upon every call
+     */
+    static class Entry {
+        private final Class<?> type;
+        private final long loaderId;
+        private final long ownerId;
+        private final boolean isConstant;
+        private final ConcurrentMap<List<String>, List<Map<String, Object>>> options;
+
+        /**
+         * Creates a new instance
+         * @param type     {@code Class} reference
+         * @param loaderId ID of the bundle the class was loaded from
+         * @param ownerId  ID of the bundle that defines the class, or {@code -1} if unknown
+         */
+        private Entry(Class<?> type, long loaderId, long ownerId) {
+            this.type = type;
+            this.loaderId = loaderId;
+            this.ownerId = ownerId;
+            this.isConstant = isConstant(type);
+            this.options = new ConcurrentHashMap<>();
+        }
+
+        /**
+         * Retrieves the indexed class
+         * @return {@code Class} reference
+         */
+        Class<?> getType() {
+            return type;
+        }
+
+        /**
+         * Gets whether the options built from the indexed class stay the same for the lifetime of the class
+         * @return True or false
+         */
+        boolean isConstant() {
+            return isConstant;
+        }
+
+        /**
+         * Retrieves the list of options built from the indexed class with the given parameters. If the class exposes
+         * only constant values, the list is built on the first call and then reused. Otherwise, the list is built
+         * upon every call so that the current values are reported
+         * @param key     A list of strings representing the parameters the options depend upon
+         * @param builder A routine that builds the options
+         * @return A list of property maps. The maps must not be modified by the caller
+         */
+        List<Map<String, Object>> getOptions(List<String> key, Supplier<List<ValueMap>> builder) {
+            if (!isConstant) {
+                return toOptions(builder.get());
+            }
+            return options.computeIfAbsent(key, k -> toOptions(builder.get()));
+        }
+
+        /**
+         * Gets whether this entry becomes stale when the bundle with the given ID changes
+         * @param bundleId ID of the bundle
+         * @return True or false
+         */
+        private boolean dependsOn(long bundleId) {
+            return loaderId == bundleId || ownerId == bundleId;
+        }
+
+        /**
+         * Gets whether the options built from the given class stay the same for the lifetime of the class. This is true
+         * for a class that is not an enum and whose public static fields are all final and have either a primitive or a
+         * string type
+         * @param type {@code Class} reference
+         * @return True or false
+         */
+        private static boolean isConstant(Class<?> type) {
+            if (type.isEnum()) {
+                return false;
+            }
+            return Arrays.stream(type.getFields())
+                .filter(field -> Modifier.isStatic(field.getModifiers()))
+                .allMatch(Entry::isConstant);
+        }
+
+        /**
+         * Gets whether the given static field holds a constant value
+         * @param field {@link Field} object
+         * @return True or false
+         */
+        private static boolean isConstant(Field field) {
+            return Modifier.isFinal(field.getModifiers())
+                && (field.getType().isPrimitive() || String.class.equals(field.getType()));
+        }
+
+        /**
+         * Converts the given value maps into a read-only list of property maps
+         * @param valueMaps A list of {@link ValueMap} objects
+         * @return A list of property maps
+         */
+        private static List<Map<String, Object>> toOptions(List<ValueMap> valueMaps) {
+            return valueMaps
+                .stream()
+                .map(valueMap -> Collections.unmodifiableMap(new LinkedHashMap<>(valueMap)))
+                .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
+        }
+    }
+}
@@ -14,22 +14,31 @@
 package com.exadel.aem.toolkit.core.optionprovider.services.impl.resolvers;
 
 import java.util.Arrays;
-import java.util.Objects;
-import java.util.stream.Stream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
-import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.sling.api.SlingHttpServletRequest;
 import org.apache.sling.api.resource.Resource;
-import org.osgi.framework.Bundle;
+import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.api.wrappers.ValueMapDecorator;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.FrameworkUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.day.cq.commons.jcr.JcrConstants;
+import com.adobe.granite.ui.components.ds.ValueMapResource;
 
+import com.exadel.aem.toolkit.core.optionprovider.OptionProviderConstants;
 import com.exadel.aem.toolkit.core.optionprovider.services.impl.PathParameters;
 
 /**
- * Implements {@link OptionSourceResolver} to extract the content of Java classes into option data sources
+ * Implements {@link OptionSourceResolver} to extract the content of Java classes into option data sources. Found
+ * classes, and the options built from the classes that expose only constants, are kept in a {@link ClassIndex} so that
+ * the installed bundles are not searched on every request
  */
 class ClassOptionSourceResolver implements OptionSourceResolver {
 
@@ -38,54 +47,107 @@ class ClassOptionSourceResolver implements OptionSourceResolver {
     static final String EXCEPTION_COULD_NOT_INVOKE = "Could not invoke {}#{}";
     private static final String EXCEPTION_CLASS_NOT_FOUND = "Could not retrieve a class by the name {}";
 
+    private volatile ClassIndex index;
+
     /**
      * {@inheritDoc}
      */
     @Override
     public Resource resolve(SlingHttpServletRequest request, PathParameters params) {
-        BundleContext effectiveBundleContext = request.getAttribute(BundleContext.class.getName()) != null
-            ? (BundleContext) request.getAttribute(BundleContext.class.getName())
-            : FrameworkUtil.getBundle(ClassOptionSourceResolver.class).getBundleContext();
-        Class<?> sourceClass = getClass(effectiveBundleContext, params.getPath());
-        if (sourceClass == null) {
+        ClassIndex.Entry entry = getIndex(getBundleContext(request)).get(params.getPath());
+        if (entry == null) {
             LOG.error(EXCEPTION_CLASS_NOT_FOUND, params.getPath());
             return null;
         }
-        if (sourceClass.isEnum()) {
-            return new EnumResolverHelper(sourceClass).resolve(request);
+        Class<?> sourceClass = entry.getType();
+        List<Map<String, Object>> options = sourceClass.isEnum()
+            ? entry.getOptions(Collections.emptyList(), () -> new EnumResolverHelper(sourceClass).resolve())
+            : entry.getOptions(
+                Arrays.asList(params.getTextMember(), params.getValueMember()),
+                () -> new ConstantsResolverHelper(sourceClass, params).resolve());
+        return createDataSource(request, options);
+    }
+
+    /**
+     * Gets whether the options built from the class specified by the given parameters stay the same for the lifetime
+     * of the class and therefore can be cached. This is false for a class that is not found
+     * @param request {@link SlingHttpServletRequest} instance
+     * @param params  {@link PathParameters} object containing the name of the class
+     * @return True or false
+     */
+    boolean isConstant(SlingHttpServletRequest request, PathParameters params) {
+        ClassIndex.Entry entry = getIndex(getBundleContext(request)).get(params.getPath());
+        return entry != null && entry.isConstant();
+    }
+
+    /**
+     * Stops tracking bundles and discards the found classes and the options built from them
+     */
+    synchronized void close() {
+        if (index != null) {
+            index.close();
+            index = null;
         }
-        return new ConstantsResolverHelper(sourceClass, params).resolve(request);
     }
 
     /**
-     * Attempts to retrieve a class by name from any of the available OSGi bundles
+     * Retrieves the {@link ClassIndex} bound to the given {@code BundleContext}. If the current index is bound to a
+     * different context, it is replaced
      * @param context {@link BundleContext} instance
-     * @param name    A fully qualified name of the class
-     * @return A nullable {@code Class} reference
+     * @return {@code ClassIndex} object
      */
-    private static Class<?> getClass(BundleContext context, String name) {
-        Stream<Bundle> bundles = ArrayUtils.isNotEmpty(context.getBundles())
-            ? Arrays.stream(context.getBundles())
-            : Stream.of(context.getBundle());
-        return bundles
-            .filter(Objects::nonNull)
-            .map(bundle -> getClass(bundle, name))
-            .filter(Objects::nonNull)
-            .findFirst()
-            .orElse(null);
+    private ClassIndex getIndex(BundleContext context) {
+        ClassIndex result = index;
+        if (result != null && result.getContext() == context) {
+            return result;
+        }
+        synchronized (this) {
+            if (index != null && index.getContext() == context) {
+                return index;
+            }
+            close();
+            result = new ClassIndex(context);
+            result.open();
+            index = result;
+            return result;
+        }
     }
 
     /**
-     * Attempts to retrieve a class by name from the given OSGi bundle
-     * @param bundle The current {@link Bundle}
-     * @param name   A fully qualified name of the class
-     * @return A nullable {@code Class} reference
+     * Retrieves the {@code BundleContext} used to search for classes. A context passed in a request attribute takes
+     * precedence over the context of the current bundle
+     * @param request {@link SlingHttpServletRequest} instance
+     * @return {@link BundleContext} instance
      */
-    private static Class<?> getClass(Bundle bundle, String name) {
-        try {
-            return bundle.loadClass(name);
-        } catch (ClassNotFoundException e) {
-            return null; // Not an exception because a class with the name can be missing in an arbitrary bundle
-        }
+    private static BundleContext getBundleContext(SlingHttpServletRequest request) {
+        return request.getAttribute(BundleContext.class.getName()) != null
+            ? (BundleContext) request.getAttribute(BundleContext.class.getName())
+            : FrameworkUtil.getBundle(ClassOptionSourceResolver.class).getBundleContext();
+    }
+
+    /**
+     * Creates an options data source out of the given property maps
+     * @param request {@link SlingHttpServletRequest} object that we use to create an options data source
+     * @param options A list of property maps, one per option
+     * @return A non-null {@code Resource} object
+     */
+    private static Resource createDataSource(SlingHttpServletRequest request, List<Map<String, Object>> options) {
+        List<Resource> children = options
+            .stream()
+            .map(properties -> {
+                ValueMap valueMap = new ValueMapDecorator(new HashMap<>(properties));
+                return new ValueMapResource(
+                    request.getResourceResolver(),
+                    valueMap.get(OptionProviderConstants.PARAMETER_NAME, String.class),
+                    JcrConstants.NT_UNSTRUCTURED,
+                    valueMap);
+            })
+            .collect(Collectors.toList());
+        return new ValueMapResource(
+            request.getResourceResolver(),
+            StringUtils.EMPTY,
+            JcrConstants.NT_UNSTRUCTURED,
+            new ValueMapDecorator(Collections.emptyMap()),
+            children);
     }
 }
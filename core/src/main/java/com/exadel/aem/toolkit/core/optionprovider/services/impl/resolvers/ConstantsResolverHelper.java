@@ -17,7 +17,6 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,14 +25,11 @@ import java.util.stream.Collectors;
 import org.apache.commons.collections4.IterableUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
-import org.apache.sling.api.SlingHttpServletRequest;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ValueMap;
-import org.apache.sling.api.wrappers.ValueMapDecorator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.day.cq.commons.jcr.JcrConstants;
-import com.adobe.granite.ui.components.ds.ValueMapResource;
 
 import com.exadel.aem.toolkit.core.CoreConstants;
 import com.exadel.aem.toolkit.core.optionprovider.OptionProviderConstants;
@@ -62,11 +58,10 @@ class ConstantsResolverHelper {
     }
 
     /**
-     * Creates an options data source based on the set of constants from a Java class
-     * @param request {@link SlingHttpServletRequest} object that we use to create an options data source
-     * @return A non-null {@code Resource} object
+     * Creates the list of options based on the set of constants from a Java class
+     * @return A non-null list of {@code ValueMap} objects, one per option
      */
-    Resource resolve(SlingHttpServletRequest request) {
+    List<ValueMap> resolve() {
         List<ValueMap> individualFieldValueMaps = Arrays.stream(source.getFields())
             .filter(field -> Modifier.isPublic(field.getModifiers()) && Modifier.isStatic(field.getModifiers()))
             .map(field -> new ValueMapBuilder()
@@ -75,23 +70,7 @@ class ConstantsResolverHelper {
                 .put(CoreConstants.PN_VALUE, getFieldInvocationResult(field))
                 .build())
             .collect(Collectors.toList());
-        List<ValueMap> pairedValueMaps = reduce(individualFieldValueMaps, pathParameters);
-
-        List<Resource> dataSourceOptions = pairedValueMaps
-            .stream()
-            .map(valueMap -> new ValueMapResource(
-                request.getResourceResolver(),
-                valueMap.get(OptionProviderConstants.PARAMETER_NAME, String.class),
-                JcrConstants.NT_UNSTRUCTURED,
-                valueMap))
-            .collect(Collectors.toList());
-
-        return new ValueMapResource(
-            request.getResourceResolver(),
-            StringUtils.EMPTY,
-            JcrConstants.NT_UNSTRUCTURED,
-            new ValueMapDecorator(Collections.emptyMap()),
-            dataSourceOptions);
+        return reduce(individualFieldValueMaps, pathParameters);
     }
 
     /**
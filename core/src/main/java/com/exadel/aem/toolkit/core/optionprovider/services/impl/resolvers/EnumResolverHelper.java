@@ -19,20 +19,15 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.lang3.StringUtils;
-import org.apache.sling.api.SlingHttpServletRequest;
-import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ValueMap;
 import org.apache.sling.api.wrappers.ValueMapDecorator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.day.cq.commons.jcr.JcrConstants;
-import com.adobe.granite.ui.components.ds.ValueMapResource;
 
 import com.exadel.aem.toolkit.core.CoreConstants;
 import com.exadel.aem.toolkit.core.optionprovider.OptionProviderConstants;
@@ -57,26 +52,15 @@ class EnumResolverHelper {
     }
 
     /**
-     * Creates an options data source based on the set of constants from an {@link Enum}
-     * @param request {@link SlingHttpServletRequest} object that we use to create an options data source
-     * @return A non-null {@code Resource} object
+     * Creates the list of options based on the set of constants from an {@link Enum}
+     * @return A non-null list of {@code ValueMap} objects, one per option
      */
-    Resource resolve(SlingHttpServletRequest request) {
-        List<Resource> children = new ArrayList<>();
+    List<ValueMap> resolve() {
+        List<ValueMap> result = new ArrayList<>();
         for (Object enumConstant : source.getEnumConstants()) {
-            ValueMap valueMap = new ValueMapDecorator(buildPropertyMap(enumConstant));
-            children.add(new ValueMapResource(
-                request.getResourceResolver(),
-                valueMap.get(OptionProviderConstants.PARAMETER_NAME, String.class),
-                JcrConstants.NT_UNSTRUCTURED,
-                new ValueMapDecorator(buildPropertyMap(enumConstant))));
+            result.add(new ValueMapDecorator(buildPropertyMap(enumConstant)));
         }
-        return new ValueMapResource(
-            request.getResourceResolver(),
-            StringUtils.EMPTY,
-            JcrConstants.NT_UNSTRUCTURED,
-            new ValueMapDecorator(Collections.emptyMap()),
-            children);
+        return result;
     }
 
     /**
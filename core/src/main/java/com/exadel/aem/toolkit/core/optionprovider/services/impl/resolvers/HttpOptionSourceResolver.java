@@ -1,45 +1,48 @@
-/*
- * Licensed under the Apache License, Version 2.0 (the "License").
- * You may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
 package com.exadel.aem.toolkit.core.optionprovider.services.impl.resolvers;
 
-import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.entity.ContentType;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 import org.apache.sling.api.SlingHttpServletRequest;
 import org.apache.sling.api.resource.Resource;
@@ -49,35 +52,63 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.day.cq.commons.jcr.JcrConstants;
 import com.adobe.granite.ui.components.ds.ValueMapResource;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.exadel.aem.toolkit.core.CoreConstants;
+import com.exadel.aem.toolkit.core.optionprovider.services.impl.OptionProviderServiceConfiguration;
 import com.exadel.aem.toolkit.core.optionprovider.services.impl.PathParameters;
-import com.exadel.aem.toolkit.core.utils.ObjectConversionUtil;
 
 /**
- * Implements {@link OptionSourceResolver} to facilitate extracting option data sources from HTTP endpoints
+ * Implements {@link OptionSourceResolver} to facilitate extracting option data sources from HTTP endpoints. The
+ * requests are performed with a shared pooled HTTP client. Responses are cached for a limited time with respect to their
+ * {@code Cache-Control} and {@code ETag} headers, and concurrent requests to the same endpoint are served with a single
+ * upstream call
  */
 class HttpOptionSourceResolver implements OptionSourceResolver {
 
     private static final Logger LOG = LoggerFactory.getLogger(HttpOptionSourceResolver.class);
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private static final Pattern INTERNAL_PATH_PATTERN = Pattern.compile(".+\\.json/(.+)$", Pattern.CASE_INSENSITIVE);
 
     private static final String HTTP_USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) "
         + "AppleWebKit/537.36 (KHTML, like Gecko) Chrome/100.0.4896.75 Safari/537.36";
-    private static final int HTTP_TIMEOUT = 10_000;
+    private static final int DEFAULT_MAX_CONNECTIONS = 20;
+    private static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 10;
+    private static final int DEFAULT_TIMEOUT = 10_000;
+    private static final int DEFAULT_CACHE_SIZE = 100;
+    private static final int DEFAULT_CACHE_TTL = 60;
+    private static final float CACHE_LOAD_FACTOR = 0.75f;
+
+    private static final String CACHE_CONTROL_MAX_AGE = "max-age";
+    private static final String CACHE_CONTROL_SHARED_MAX_AGE = "s-maxage";
+    private static final String CACHE_CONTROL_NO_CACHE = "no-cache";
+    private static final String CACHE_CONTROL_NO_STORE = "no-store";
+    private static final String CACHE_CONTROL_PRIVATE = "private";
 
     private static final String EXCEPTION_COULD_NOT_PARSE = "Could not parse URI {}";
     private static final String EXCEPTION_NO_RESPONSE = "Could not get a response from {}";
     private static final String EXCEPTION_JSON = "Could not read or navigate the JSON tree";
+    private static final String EXCEPTION_CLOSE = "Could not close the HTTP client";
 
-    private HttpClientWrapper httpClient;
+    private final boolean isClientPredefined;
+    private final LongSupplier clock;
+    private final Map<String, CachedResponse> cache;
+    private final ConcurrentMap<String, CompletableFuture<CachedResponse>> pendingRequests;
+
+    private volatile SharedClient httpClient;
+    private volatile OptionProviderServiceConfiguration config;
 
     /**
      * Default constructor
      */
     HttpOptionSourceResolver() {
+        this(null);
     }
 
     /**
@@ -85,7 +116,65 @@ class HttpOptionSourceResolver implements OptionSourceResolver {
      * @param httpClient {@code HttpClient} instance
      */
     HttpOptionSourceResolver(HttpClient httpClient) {
-        this.httpClient = new HttpClientWrapper(httpClient);
+        this(httpClient, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a new class instance with the pre-defined {@link HttpClient} and the given source of the current time
+     * (useful for testing)
+     * @param httpClient {@code HttpClient} instance
+     * @param clock      {@code LongSupplier} that provides the current time in milliseconds
+     */
+    HttpOptionSourceResolver(HttpClient httpClient, LongSupplier clock) {
+        this.httpClient = httpClient != null ? new SharedClient(httpClient) : null;
+        this.isClientPredefined = httpClient != null;
+        this.clock = clock;
+        this.cache = new LinkedHashMap<>(DEFAULT_CACHE_SIZE, CACHE_LOAD_FACTOR, true);
+        this.pendingRequests = new ConcurrentHashMap<>();
+    }
+
+    /* ----------------------
+       Settings and lifecycle
+       ---------------------- */
+
+    /**
+     * Assigns the settings of the HTTP client and the response cache. The existing HTTP client, unless it was passed
+     * via the constructor, is replaced with a new one and closed as soon as the requests it is serving complete. The
+     * cache is cleared
+     * @param value {@link OptionProviderServiceConfiguration} object
+     */
+    synchronized void configure(OptionProviderServiceConfiguration value) {
+        config = value;
+        reset(true);
+    }
+
+    /**
+     * Releases the HTTP client, unless it was passed via the constructor, and clears the response cache. The client is
+     * closed as soon as the requests it is serving complete
+     */
+    synchronized void close() {
+        reset(false);
+    }
+
+    /**
+     * Called by {@link HttpOptionSourceResolver#configure(OptionProviderServiceConfiguration)} and
+     * {@link HttpOptionSourceResolver#close()} to swap the HTTP client and clear the response cache. The new client is
+     * put in place first so that the subsequent requests do not reach the previous one; the previous client is closed
+     * once it has no requests in flight
+     * @param reopen True to create a new client right away; false to leave it to be created upon the next request
+     */
+    private void reset(boolean reopen) {
+        synchronized (cache) {
+            cache.clear();
+        }
+        if (isClientPredefined) {
+            return;
+        }
+        SharedClient previous = httpClient;
+        httpClient = reopen ? new SharedClient(createHttpClient(config)) : null;
+        if (previous != null) {
+            previous.retire();
+        }
     }
 
     /**
@@ -103,29 +192,124 @@ class HttpOptionSourceResolver implements OptionSourceResolver {
             LOG.error(EXCEPTION_COULD_NOT_PARSE, path, e);
             return null;
         }
-        String content = getResponseContent(uri);
-        JsonNode jsonNode = parseJson(content, internalPath);
+        JsonNode jsonNode = getJson(uri, internalPath);
         return jsonNode != null ? createResource(request, CoreConstants.SEPARATOR_SLASH + internalPath, jsonNode) : null;
     }
 
+    /* --------------------
+       Caching and pooling
+       -------------------- */
+
+    /**
+     * Retrieves the JSON node located at the given internal path of the payload of the given endpoint. The node is
+     * taken from the cache if possible. Otherwise, the endpoint is requested, and the concurrent calls for the same
+     * node wait for the result of this request
+     * @param uri          Location of the endpoint
+     * @param internalPath An optional slash-delimited string representing the path to a nested JSON node
+     * @return {@code JsonNode} object or null
+     */
+    private JsonNode getJson(URI uri, String internalPath) {
+        String key = uri + CoreConstants.SEPARATOR_SLASH + internalPath;
+        CachedResponse cached = getCachedResponse(key);
+        if (cached != null && !cached.isExpired(clock.getAsLong())) {
+            return cached.getNode();
+        }
+        CompletableFuture<CachedResponse> request = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> pendingRequest = pendingRequests.putIfAbsent(key, request);
+        if (pendingRequest != null) {
+            try {
+                CachedResponse response = pendingRequest.join();
+                return response != null ? response.getNode() : null;
+            } catch (CompletionException e) {
+                LOG.error(EXCEPTION_NO_RESPONSE, uri, e.getCause());
+                return null;
+            }
+        }
+        try {
+            CachedResponse response = getResponse(uri, internalPath, cached);
+            if (response != null && response.isCacheable(clock.getAsLong())) {
+                putCachedResponse(key, response);
+            }
+            request.complete(response);
+            return response != null ? response.getNode() : null;
+        } catch (RuntimeException e) {
+            request.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingRequests.remove(key, request);
+        }
+    }
+
+    /**
+     * Retrieves a cached response by its key
+     * @param key String value representing the endpoint and the internal path
+     * @return {@link CachedResponse} object, or null if there is no cached response. The response can be expired
+     */
+    private CachedResponse getCachedResponse(String key) {
+        synchronized (cache) {
+            return cache.get(key);
+        }
+    }
+
+    /**
+     * Stores the response in the cache unless caching is disabled. If the cache is full, the least recently used
+     * response is evicted
+     * @param key      String value representing the endpoint and the internal path
+     * @param response {@link CachedResponse} object
+     */
+    private void putCachedResponse(String key, CachedResponse response) {
+        int cacheSize = config != null ? config.httpCacheSize() : DEFAULT_CACHE_SIZE;
+        if (cacheSize <= 0) {
+            return;
+        }
+        synchronized (cache) {
+            cache.put(key, response);
+            Iterator<String> keys = cache.keySet().iterator();
+            while (cache.size() > cacheSize && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * Retrieves the shared HTTP client, creating it if needed, and marks it as being in use. The client uses a pool of
+     * connections so that the connections to the same endpoint are reused between requests. The caller must invoke
+     * {@link SharedClient#release()} when the response is consumed
+     * @return {@link SharedClient} instance
+     */
+    private SharedClient acquireHttpClient() {
+        while (true) {
+            SharedClient result = httpClient;
+            if (result == null) {
+                synchronized (this) {
+                    if (httpClient == null) {
+                        httpClient = new SharedClient(createHttpClient(config));
+                    }
+                    result = httpClient;
+                }
+            }
+            if (result.acquire()) {
+                return result;
+            }
+            // The client has been closed by a concurrent reset. Retry with the client that replaced it
+        }
+    }
+
     /* ------------------------
        HTTP response processing
        ------------------------ */
 
     /**
-     * Attempts an HTTP request to the given endpoint and retrieves the payload of the response
-     * @param uri Location of the endpoint
-     * @return String value; can be an empty string
+     * Attempts an HTTP request to the given endpoint and retrieves the JSON node located at the given internal path of
+     * the payload. If a previously cached response has an entity tag, the request is made conditional
+     * @param uri          Location of the endpoint
+     * @param internalPath An optional slash-delimited string representing the path to a nested JSON node
+     * @param stale        A nullable {@link CachedResponse} object representing the expired cached response
+     * @return {@code CachedResponse} object, or null if the request failed
      */
     @SuppressWarnings("java:S2647") // Basic authentication is allowed on purpose
-    private String getResponseContent(URI uri) {
-        RequestConfig requestConfig = RequestConfig
-            .custom()
-            .setConnectTimeout(HTTP_TIMEOUT)
-            .setConnectionRequestTimeout(HTTP_TIMEOUT)
-            .setSocketTimeout(HTTP_TIMEOUT)
-            .build();
-
+    private CachedResponse getResponse(URI uri, String internalPath, CachedResponse stale) {
         HttpGet httpGet = new HttpGet(uri.toString());
         httpGet.setHeader(HttpHeaders.USER_AGENT, HTTP_USER_AGENT);
         httpGet.setHeader(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_FORM_URLENCODED.getMimeType());
@@ -134,12 +318,22 @@ class HttpOptionSourceResolver implements OptionSourceResolver {
                 HttpHeaders.AUTHORIZATION,
                 "Basic " + Base64.getEncoder().encodeToString((uri.getUserInfo()).getBytes(StandardCharsets.ISO_8859_1)));
         }
+        if (stale != null && stale.getETag() != null) {
+            httpGet.setHeader(HttpHeaders.IF_NONE_MATCH, stale.getETag());
+        }
 
+        SharedClient client = acquireHttpClient();
         HttpResponse httpResponse = null;
-
-        try (HttpClientWrapper http = getCloseableHttpClient(requestConfig)) {
-            httpResponse = http.getClient().execute(httpGet);
-            return EntityUtils.toString(httpResponse.getEntity());
+        try {
+            httpResponse = client.get().execute(httpGet);
+            int status = httpResponse.getStatusLine() != null ? httpResponse.getStatusLine().getStatusCode() : HttpStatus.SC_OK;
+            long expiration = getExpiration(httpResponse, status);
+            if (status == HttpStatus.SC_NOT_MODIFIED && stale != null) {
+                return new CachedResponse(stale.getNode(), stale.getETag(), expiration);
+            }
+            JsonNode node = parseJson(httpResponse.getEntity(), internalPath);
+            Header eTag = status == HttpStatus.SC_OK ? httpResponse.getFirstHeader(HttpHeaders.ETAG) : null;
+            return new CachedResponse(node, eTag != null ? eTag.getValue() : null, expiration);
         } catch (IOException e) {
             LOG.error(EXCEPTION_NO_RESPONSE, uri, e);
         } finally {
@@ -147,51 +341,145 @@ class HttpOptionSourceResolver implements OptionSourceResolver {
                 EntityUtils.consumeQuietly(httpResponse.getEntity());
             }
             httpGet.releaseConnection();
+            client.release();
         }
-        return StringUtils.EMPTY;
+        return null;
     }
 
     /**
-     * Provides a wrapper over an {@link HttpClient} eligible for use in the {@code try-with-resources} pattern. This
-     * routine may use an HTTP client directly assigned to the current class (e.g., in a test case) or else construct a
-     * new one based on the given config
-     * @param requestConfig Describes the parameters of the HTTP client if created anew
-     * @return A {@link Closeable} object
+     * Computes the moment the given response expires. The configured cache TTL is used unless the {@code Cache-Control}
+     * header of the response specifies a shorter time or forbids caching
+     * @param httpResponse {@link HttpResponse} object
+     * @param status       HTTP status of the response
+     * @return Long value representing a timestamp in milliseconds; {@code 0} if the response must not be cached, or a
+     * timestamp in the past if the response must be revalidated before reuse
      */
-    private HttpClientWrapper getCloseableHttpClient(RequestConfig requestConfig) {
-        if (httpClient == null) {
-            return new HttpClientWrapper(HttpClientBuilder.create().setDefaultRequestConfig(requestConfig).build());
+    private long getExpiration(HttpResponse httpResponse, int status) {
+        int ttl = config != null ? config.httpCacheTtl() : DEFAULT_CACHE_TTL;
+        if (ttl <= 0 || (status != HttpStatus.SC_OK && status != HttpStatus.SC_NOT_MODIFIED)) {
+            return 0L;
         }
-        return httpClient;
+        long maxAge = ttl;
+        long sharedMaxAge = -1L;
+        for (Header header : httpResponse.getHeaders(HttpHeaders.CACHE_CONTROL)) {
+            for (HeaderElement directive : header.getElements()) {
+                String name = StringUtils.lowerCase(directive.getName());
+                if (StringUtils.equalsAny(name, CACHE_CONTROL_NO_STORE, CACHE_CONTROL_PRIVATE)) {
+                    return 0L;
+                } else if (CACHE_CONTROL_NO_CACHE.equals(name)) {
+                    maxAge = -1L;
+                } else if (CACHE_CONTROL_MAX_AGE.equals(name) && maxAge >= 0) {
+                    maxAge = Math.min(maxAge, NumberUtils.toLong(directive.getValue(), 0L));
+                } else if (CACHE_CONTROL_SHARED_MAX_AGE.equals(name)) {
+                    sharedMaxAge = NumberUtils.toLong(directive.getValue(), 0L);
+                }
+            }
+        }
+        if (sharedMaxAge >= 0 && maxAge >= 0) {
+            maxAge = Math.min(maxAge, sharedMaxAge);
+        }
+        return clock.getAsLong() + TimeUnit.SECONDS.toMillis(maxAge);
     }
 
     /**
-     * Parses the provided string into a {@link JsonNode} entity; traverses to a nested subnode if {@code suffix} is
-     * provided
-     * @param source String value representing the parseable content
-     * @param suffix An optional slash-delimited string representing the path to a nested JSON subnode
+     * Parses the content of the provided HTTP entity in a streaming manner, skipping straight to the nested node
+     * specified by {@code suffix}. Only the target node is read into memory
+     * @param entity {@link HttpEntity} object representing the payload of a response
+     * @param suffix An optional slash-delimited string representing the path to a nested JSON node
      * @return {@code JsonNode} object or null
+     * @throws IOException if the content of the entity cannot be read
      */
-    private static JsonNode parseJson(String source, String suffix) {
-        try {
-            JsonNode jsonNode = ObjectConversionUtil.toNodeTree(source);
-            if (StringUtils.isBlank(suffix) || jsonNode == null) {
-                return jsonNode;
+    private static JsonNode parseJson(HttpEntity entity, String suffix) throws IOException {
+        if (entity == null) {
+            return null;
+        }
+        Charset charset = getCharset(entity);
+        try (
+            InputStream input = entity.getContent();
+            JsonParser parser = charset != null
+                ? OBJECT_MAPPER.getFactory().createParser(new InputStreamReader(input, charset))
+                : OBJECT_MAPPER.getFactory().createParser(input)
+        ) {
+            if (parser.nextToken() == null) {
+                return null;
             }
-            String[] pathChunks = suffix.split(CoreConstants.SEPARATOR_SLASH);
-            for (String field : pathChunks) {
-                jsonNode = jsonNode.get(field);
-                if (jsonNode == null) {
-                    break;
+            if (StringUtils.isNotBlank(suffix)) {
+                for (String field : suffix.split(CoreConstants.SEPARATOR_SLASH)) {
+                    if (!moveToField(parser, field)) {
+                        return null;
+                    }
                 }
             }
-            return jsonNode;
-        } catch (IOException e) {
+            return parser.readValueAsTree();
+        } catch (JsonProcessingException e) {
             LOG.error(EXCEPTION_JSON, e);
         }
         return null;
     }
 
+    /**
+     * Called by {@link HttpOptionSourceResolver#parseJson(HttpEntity, String)} to move the parser from the start of
+     * a JSON object to the value of the field with the given name. Other fields are skipped without being read into
+     * memory
+     * @param parser {@link JsonParser} instance positioned at the start of a JSON object
+     * @param field  Name of the field to find
+     * @return True if the parser is positioned at the value of the field; otherwise, false
+     * @throws IOException if the JSON content cannot be read
+     */
+    private static boolean moveToField(JsonParser parser, String field) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            if (field.equals(name)) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    /**
+     * Retrieves the charset declared in the {@code Content-Type} header of the given entity
+     * @param entity {@link HttpEntity} object
+     * @return {@code Charset} object, or null if the charset is not declared or is not valid. In this case, the charset
+     * is detected from the content
+     */
+    private static Charset getCharset(HttpEntity entity) {
+        try {
+            ContentType contentType = ContentType.get(entity);
+            return contentType != null ? contentType.getCharset() : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a new HTTP client that uses a pool of connections
+     * @param config A nullable {@link OptionProviderServiceConfiguration} object. If not specified, the defaults are
+     *               used
+     * @return {@code HttpClient} instance
+     */
+    private static HttpClient createHttpClient(OptionProviderServiceConfiguration config) {
+        int timeout = config != null ? config.httpTimeout() : DEFAULT_TIMEOUT;
+        RequestConfig requestConfig = RequestConfig
+            .custom()
+            .setConnectTimeout(timeout)
+            .setConnectionRequestTimeout(timeout)
+            .setSocketTimeout(timeout)
+            .build();
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(config != null ? config.httpMaxConnections() : DEFAULT_MAX_CONNECTIONS);
+        connectionManager.setDefaultMaxPerRoute(config != null ? config.httpMaxConnectionsPerRoute() : DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+        return HttpClientBuilder
+            .create()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .build();
+    }
+
     /* -----------------
        Resource creation
        ----------------- */
@@ -281,36 +569,137 @@ class HttpOptionSourceResolver implements OptionSourceResolver {
        --------------- */
 
     /**
-     * Decorates an instance {@link HttpClient} to make sure it can be used in the {@code try-with-resources} pattern
+     * Represents the JSON node retrieved from an HTTP endpoint together with the data needed to decide whether it can
+     * be reused
      */
-    private static class HttpClientWrapper implements Closeable {
+    private static class CachedResponse {
+
+        private final JsonNode node;
+        private final String eTag;
+        private final long expiration;
+
+        /**
+         * Creates a new {@link CachedResponse} instance
+         * @param node       A nullable {@link JsonNode} object
+         * @param eTag       A nullable entity tag of the response
+         * @param expiration Timestamp in milliseconds the response expires at
+         */
+        CachedResponse(JsonNode node, String eTag, long expiration) {
+            this.node = node;
+            this.eTag = eTag;
+            this.expiration = expiration;
+        }
+
+        /**
+         * Retrieves the JSON node
+         * @return A nullable {@code JsonNode} object
+         */
+        JsonNode getNode() {
+            return node;
+        }
+
+        /**
+         * Retrieves the entity tag of the response
+         * @return A nullable string value
+         */
+        String getETag() {
+            return eTag;
+        }
+
+        /**
+         * Gets whether the response must be revalidated before reuse
+         * @param now Current time in milliseconds
+         * @return True or false
+         */
+        boolean isExpired(long now) {
+            return now >= expiration;
+        }
+
+        /**
+         * Gets whether the response can be stored in the cache, either for reuse or for revalidation
+         * @param now Current time in milliseconds
+         * @return True or false
+         */
+        boolean isCacheable(long now) {
+            return expiration > 0 && (eTag != null || !isExpired(now));
+        }
+    }
+
+    /**
+     * Wraps the HTTP client shared between requests and keeps track of the requests being served so that a retired
+     * client is closed only after the last of them completes
+     */
+    private static class SharedClient {
+
+        private static final int CLOSED = -1;
 
         private final HttpClient client;
+        private final AtomicInteger usages;
+        private volatile boolean retired;
 
         /**
-         * Default constructor
-         * @param client A {@code HttpClient} instance
+         * Creates a new {@link SharedClient} instance
+         * @param client {@code HttpClient} object
          */
-        HttpClientWrapper(HttpClient client) {
+        SharedClient(HttpClient client) {
             this.client = client;
+            this.usages = new AtomicInteger();
         }
 
         /**
-         * Retrieves the {@code HttpClient} associated with this instance
-         * @return A {@code HttpClient} object
+         * Retrieves the wrapped HTTP client
+         * @return {@code HttpClient} object
          */
-        public HttpClient getClient() {
+        HttpClient get() {
             return client;
         }
 
         /**
-         * Closes the wrapped {@code HttpClient} if possible
-         * @throws IOException if the underlying stream can not be properly closed
+         * Marks the client as being used by one more request
+         * @return True if the client can be used; false if it has already been closed
          */
-        @Override
-        public void close() throws IOException {
-            if (client instanceof CloseableHttpClient) {
+        boolean acquire() {
+            int count;
+            do {
+                count = usages.get();
+                if (count == CLOSED) {
+                    return false;
+                }
+            } while (!usages.compareAndSet(count, count + 1));
+            return true;
+        }
+
+        /**
+         * Marks the client as no longer used by a request. If the client is retired and this was the last request, the
+         * client is closed
+         */
+        void release() {
+            if (usages.decrementAndGet() == 0 && retired) {
+                closeIfIdle();
+            }
+        }
+
+        /**
+         * Marks the client as replaced. The client is closed immediately if there are no requests in flight, or else
+         * upon the completion of the last of them
+         */
+        void retire() {
+            retired = true;
+            closeIfIdle();
+        }
+
+        /**
+         * Called by {@link SharedClient#release()} and {@link SharedClient#retire()} to close the client if it is not
+         * used by any request
+         */
+        private void closeIfIdle() {
+            if (!usages.compareAndSet(0, CLOSED) || !(client instanceof CloseableHttpClient)) {
+                return;
+            }
+            try {
                 ((CloseableHttpClient) client).close();
+            } catch (IOException e) {
+                LOG.error(EXCEPTION_CLOSE, e);
             }
         }
     }
@@ -15,15 +15,19 @@ package com.exadel.aem.toolkit.core.optionprovider.services.impl.resolvers;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.HashSet;
+import java.util.Set;
 import javax.lang.model.SourceVersion;
 
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.sling.api.SlingHttpServletRequest;
+import org.apache.sling.api.resource.NonExistingResource;
 import org.apache.sling.api.resource.Resource;
 
 import com.exadel.aem.toolkit.core.CoreConstants;
 import com.exadel.aem.toolkit.core.optionprovider.services.OptionProviderService;
+import com.exadel.aem.toolkit.core.optionprovider.services.impl.OptionProviderServiceConfiguration;
 import com.exadel.aem.toolkit.core.optionprovider.services.impl.PathParameters;
 import com.exadel.aem.toolkit.core.utils.ObjectConversionUtil;
 
@@ -36,8 +40,8 @@ import com.exadel.aem.toolkit.core.utils.ObjectConversionUtil;
  * @see OptionSourceResolver
  */
 public class OptionSourceResolvers {
-    private static final OptionSourceResolver CLASS_RESOLVER = new ClassOptionSourceResolver();
-    private static final OptionSourceResolver HTTP_RESOLVER = new HttpOptionSourceResolver();
+    private static final ClassOptionSourceResolver CLASS_RESOLVER = new ClassOptionSourceResolver();
+    private static final HttpOptionSourceResolver HTTP_RESOLVER = new HttpOptionSourceResolver();
     private static final OptionSourceResolver INLINE_RESOLVER = new InlineOptionSourceResolver();
     private static final OptionSourceResolver JCR_RESOLVER = new JcrOptionSourceResolver();
 
@@ -47,6 +51,26 @@ public class OptionSourceResolvers {
     private OptionSourceResolvers() {
     }
 
+    /* ---------
+       Lifecycle
+       --------- */
+
+    /**
+     * Applies the given settings to the resolvers that maintain connections or caches
+     * @param config {@link OptionProviderServiceConfiguration} object
+     */
+    public static void configure(OptionProviderServiceConfiguration config) {
+        HTTP_RESOLVER.configure(config);
+    }
+
+    /**
+     * Releases the connections and caches maintained by the resolvers
+     */
+    public static void close() {
+        CLASS_RESOLVER.close();
+        HTTP_RESOLVER.close();
+    }
+
     /* ----------
        Resolution
        ---------- */
@@ -70,6 +94,44 @@ public class OptionSourceResolvers {
         return effectiveResolver.resolve(request, params);
     }
 
+    /**
+     * Retrieves the repository paths that the option datasource for the given parameters is built from, so that the
+     * options can be cached until the content under these paths changes
+     * @param request    {@link SlingHttpServletRequest} instance
+     * @param params     {@link PathParameters} object containing the path to resolve
+     * @param dataSource A nullable {@link Resource} previously retrieved with
+     *                   {@link OptionSourceResolvers#resolve(SlingHttpServletRequest, PathParameters)}
+     * @return Set of paths; an empty set if the datasource does not depend on the repository content; or null if the
+     * datasource must not be cached, e.g., because it is retrieved from an HTTP endpoint or built from a class that
+     * exposes values which can change
+     */
+    public static Set<String> getDependencies(SlingHttpServletRequest request, PathParameters params, Resource dataSource) {
+        if (request.getAttribute(OptionSourceResolver.class.getName()) != null) {
+            return null;
+        }
+        OptionSourceResolver resolver = getResolver(params);
+        if (resolver == HTTP_RESOLVER || (resolver == CLASS_RESOLVER && !CLASS_RESOLVER.isConstant(request, params))) {
+            return null;
+        }
+        Set<String> result = new HashSet<>();
+        if (resolver != JCR_RESOLVER || StringUtils.isBlank(params.getPath())) {
+            return result;
+        }
+        String referencePath = StringUtils.substringBefore(params.getPath(), CoreConstants.SEPARATOR_AT);
+        String contentPath = request.getRequestPathInfo().getSuffix();
+        if (referencePath.startsWith(CoreConstants.SEPARATOR_SLASH)) {
+            result.add(referencePath);
+        }
+        if (StringUtils.isNotEmpty(contentPath)
+            && (!referencePath.startsWith(CoreConstants.SEPARATOR_SLASH) || params.getPath().contains(CoreConstants.SEPARATOR_AT))) {
+            result.add(contentPath);
+        }
+        if (dataSource != null && !(dataSource instanceof NonExistingResource)) {
+            result.add(dataSource.getPath());
+        }
+        return result;
+    }
+
     /* ---------------------
        Picking up a resolver
        --------------------- */
@@ -0,0 +1,216 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.core.optionprovider.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.exadel.aem.toolkit.core.CoreConstants;
+
+/**
+ * Represents a set of string patterns (strings with wildcards) compiled for repeated matching. Exact values are kept
+ * in a hash set, prefixes and suffixes are kept in character tries, and the rest are kept in a list of fragments to
+ * look for. This way, a value is tested against all the patterns in a single pass without allocating substrings. The
+ * matching rules are the same as in {@link PatternUtil#isMatch(String, String)}
+ * <p><u>Note</u>: This class is not a part of the public API and is subject to change. Do not use it in your own
+ * code</p>
+ */
+public class PatternMatcher {
+
+    private static final PatternMatcher EMPTY = new PatternMatcher();
+
+    private final Set<String> exactValues = new HashSet<>();
+    private final TrieNode prefixes = new TrieNode();
+    private final TrieNode suffixes = new TrieNode();
+    private final List<String> fragments = new ArrayList<>();
+    private boolean matchesAll;
+    private boolean isEmpty = true;
+
+    /**
+     * Default (instantiation-preventing) constructor
+     */
+    private PatternMatcher() {
+    }
+
+    /**
+     * Gets whether this instance contains no patterns and therefore matches nothing
+     * @return True or false
+     */
+    public boolean isEmpty() {
+        return isEmpty;
+    }
+
+    /**
+     * Gets whether the given string matches at least one of the compiled patterns
+     * @param value A nullable string value
+     * @return True or false
+     */
+    public boolean isMatch(String value) {
+        if (isEmpty || StringUtils.isEmpty(value)) {
+            return false;
+        }
+        if (matchesAll || exactValues.contains(value)) {
+            return true;
+        }
+        if (prefixes.matchesStart(value) || suffixes.matchesEnd(value)) {
+            return true;
+        }
+        for (String fragment : fragments) {
+            if (value.contains(fragment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the given pattern to the current instance
+     * @param pattern A nullable string pattern
+     */
+    private void add(String pattern) {
+        if (StringUtils.isEmpty(pattern)) {
+            return;
+        }
+        isEmpty = false;
+        boolean isStartWildcard = pattern.startsWith(CoreConstants.WILDCARD);
+        boolean isEndWildcard = pattern.endsWith(CoreConstants.WILDCARD);
+        if (CoreConstants.WILDCARD.equals(pattern)) {
+            matchesAll = true;
+        } else if (isStartWildcard && isEndWildcard) {
+            String fragment = pattern.substring(1, pattern.length() - 1);
+            if (fragment.isEmpty()) {
+                matchesAll = true;
+            } else {
+                fragments.add(fragment);
+            }
+        } else if (isStartWildcard) {
+            suffixes.addReversed(pattern.substring(1));
+        } else if (isEndWildcard) {
+            prefixes.add(pattern.substring(0, pattern.length() - 1));
+        } else {
+            exactValues.add(pattern);
+        }
+    }
+
+    /* ---------------
+       Factory methods
+       --------------- */
+
+    /**
+     * Creates a new {@link PatternMatcher} out of the provided patterns
+     * @param patterns A nullable collection of patterns
+     * @return {@code PatternMatcher} object
+     */
+    public static PatternMatcher compile(Collection<String> patterns) {
+        if (patterns == null || patterns.isEmpty()) {
+            return EMPTY;
+        }
+        PatternMatcher result = new PatternMatcher();
+        patterns.forEach(result::add);
+        return result.isEmpty() ? EMPTY : result;
+    }
+
+    /* ---------------
+       Utility classes
+       --------------- */
+
+    /**
+     * Represents a node of a character trie used to match prefixes or suffixes
+     */
+    private static class TrieNode {
+        private Map<Character, TrieNode> children;
+        private boolean isTerminal;
+
+        /**
+         * Adds the given string to the trie
+         * @param value A non-empty string
+         */
+        void add(String value) {
+            TrieNode current = this;
+            for (int i = 0; i < value.length(); i++) {
+                current = current.getOrCreateChild(value.charAt(i));
+            }
+            current.isTerminal = true;
+        }
+
+        /**
+         * Adds the given string to the trie in reverse order of characters
+         * @param value A non-empty string
+         */
+        void addReversed(String value) {
+            TrieNode current = this;
+            for (int i = value.length() - 1; i >= 0; i--) {
+                current = current.getOrCreateChild(value.charAt(i));
+            }
+            current.isTerminal = true;
+        }
+
+        /**
+         * Gets whether the given value starts with any of the strings stored in the trie
+         * @param value A non-null string
+         * @return True or false
+         */
+        boolean matchesStart(String value) {
+            TrieNode current = this;
+            for (int i = 0; i < value.length() && current.children != null; i++) {
+                current = current.children.get(value.charAt(i));
+                if (current == null) {
+                    return false;
+                }
+                if (current.isTerminal) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Gets whether the given value ends with any of the strings stored in the trie in reverse order
+         * @param value A non-null string
+         * @return True or false
+         */
+        boolean matchesEnd(String value) {
+            TrieNode current = this;
+            for (int i = value.length() - 1; i >= 0 && current.children != null; i--) {
+                current = current.children.get(value.charAt(i));
+                if (current == null) {
+                    return false;
+                }
+                if (current.isTerminal) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Retrieves the child node for the given character, creating it if missing
+         * @param key Character value
+         * @return {@code TrieNode} object
+         */
+        private TrieNode getOrCreateChild(char key) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+            return children.computeIfAbsent(key, k -> new TrieNode());
+        }
+    }
+}
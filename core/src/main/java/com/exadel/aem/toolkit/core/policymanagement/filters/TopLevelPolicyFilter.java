@@ -17,7 +17,14 @@ package com.exadel.aem.toolkit.core.policymanagement.filters;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
@@ -30,8 +37,17 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.sling.api.SlingHttpServletRequest;
 import org.apache.sling.api.request.RequestPathInfo;
 import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.observation.ExternalResourceChangeListener;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
 import org.apache.sling.engine.EngineConstants;
+import org.osgi.framework.BundleContext;
 import org.osgi.framework.Constants;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Deactivate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import com.day.cq.wcm.api.Page;
 import com.day.cq.wcm.api.components.Component;
 import com.day.cq.wcm.api.components.ComponentEditConfig;
@@ -48,6 +64,7 @@ import com.exadel.aem.toolkit.core.policymanagement.models.PageInfo;
  */
 
 @org.osgi.service.component.annotations.Component(
+    service = Filter.class,
     property = {
         Constants.SERVICE_RANKING + ":Integer=" + Integer.MIN_VALUE,
         EngineConstants.SLING_FILTER_SCOPE + CoreConstants.EQUALITY_SIGN + EngineConstants.FILTER_SCOPE_COMPONENT,
@@ -55,7 +72,9 @@ import com.exadel.aem.toolkit.core.policymanagement.models.PageInfo;
         EngineConstants.SLING_FILTER_PATTERN + "=/mnt/overlay/wcm/core/content/(editor|editors/template)/jcr:content"
     }
 )
-public class TopLevelPolicyFilter implements Filter {
+public class TopLevelPolicyFilter implements Filter, ResourceChangeListener, ExternalResourceChangeListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TopLevelPolicyFilter.class);
 
     private static final String SCRIPT_SOURCE = "policy-management/eakApplyTopLevelPolicy.js";
     private static final String META_TAG_FORMAT = "<meta name=\"cq:template\" content=\"%s\">";
@@ -64,6 +83,53 @@ public class TopLevelPolicyFilter implements Filter {
     private static final String OPENING_BRACKET_QUOTE = "('";
     private static final String CLOSING_BRACKET_QUOTE = "')";
 
+    private static final String[] OBSERVED_PATHS = new String[] {"/apps", "/conf"};
+    private static final int CACHE_SIZE = 500;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final Map<String, String> scriptTags = new LinkedHashMap<String, String>(CACHE_SIZE, LOAD_FACTOR, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile String scriptSource;
+
+    private ServiceRegistration<ResourceChangeListener> registration;
+
+    /* --------------------
+       Startup and shutdown
+       -------------------- */
+
+    /**
+     * Reads the stored script template and registers the current instance as a listener of changes to component
+     * definitions and policies so that the rendered scripts are kept up to date
+     * @param context {@code BundleContext} object used to register the listener
+     */
+    @Activate
+    void activate(BundleContext context) {
+        scriptSource = readScriptSource();
+        Dictionary<String, Object> properties = new Hashtable<>();
+        properties.put(ResourceChangeListener.PATHS, OBSERVED_PATHS);
+        properties.put(ResourceChangeListener.CHANGES, new String[] {"ADDED", "CHANGED", "REMOVED"});
+        registration = context.registerService(ResourceChangeListener.class, this, properties);
+    }
+
+    /**
+     * Unregisters the content change listener and clears the rendered scripts
+     */
+    @Deactivate
+    void deactivate() {
+        if (registration != null) {
+            registration.unregister();
+            registration = null;
+        }
+        clearCache();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -87,18 +153,11 @@ public class TopLevelPolicyFilter implements Filter {
 
         PageInfo pageInfo = getPageInfo(request);
 
-        String rules = Optional.ofNullable(pageInfo)
+        String scriptNodeText = Optional.ofNullable(pageInfo)
             .map(PageInfo::getResourceType)
-            .map(resourceResolver::getResource)
-            .map(resource -> resource.adaptTo(Component.class))
-            .map(Component::getDeclaredChildEditConfig)
-            .map(ComponentEditConfig::getListeners)
-            .map(map -> map.get(CoreConstants.PN_UPDATE_COMPONENT_LIST))
-            .map(TopLevelPolicyFilter::extractListenersJsonObject)
+            .map(resourceType -> getScriptTagText(resourceResolver, resourceType))
             .orElse(StringUtils.EMPTY);
 
-        String scriptNodeText = StringUtils.isNotBlank(rules) ? getScriptTagText(rules) : StringUtils.EMPTY;
-
         if (pageInfo != null && StringUtils.isNotEmpty(pageInfo.getTemplate())) {
             servletResponse.getWriter().println(String.format(META_TAG_FORMAT, pageInfo.getTemplate()));
         }
@@ -118,6 +177,25 @@ public class TopLevelPolicyFilter implements Filter {
         // Not implemented
     }
 
+    /**
+     * {@inheritDoc} Discards the rendered scripts since a change to a component definition or a policy may affect any
+     * of them
+     */
+    @Override
+    public void onChange(@Nonnull List<ResourceChange> changes) {
+        clearCache();
+    }
+
+    /**
+     * Clears the rendered scripts
+     */
+    private void clearCache() {
+        synchronized (scriptTags) {
+            generation.incrementAndGet();
+            scriptTags.clear();
+        }
+    }
+
     /**
      * Retrieves the {@link PageInfo} object that describes the target page of the current request, if there are any
      * @param request {@code SlingHttpServletRequest} instance
@@ -135,19 +213,67 @@ public class TopLevelPolicyFilter implements Filter {
     }
 
     /**
-     * Reads the stored script template and retrieves an embeddable {@code <script/>} tag populated with the
-     * given policy rules
-     * @param rules String value representing policy rules
-     * @return String value or null if the bundle resource is not present
-     * @throws IOException if reading the bundle resource failed
+     * Retrieves an embeddable {@code <script/>} tag populated with the policy rules of the given page component. The
+     * result is cached per resource type until a component definition or a policy changes
+     * @param resolver     {@code ResourceResolver} instance
+     * @param resourceType Resource type of the page component
+     * @return String value; an empty string if there are no rules or the script template is not present
+     */
+    private String getScriptTagText(ResourceResolver resolver, String resourceType) {
+        String result;
+        synchronized (scriptTags) {
+            result = scriptTags.get(resourceType);
+        }
+        if (result != null) {
+            return result;
+        }
+        long expectedGeneration = generation.get();
+        result = renderScriptTag(resolver, resourceType);
+        synchronized (scriptTags) {
+            if (generation.get() == expectedGeneration) {
+                scriptTags.put(resourceType, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Renders an embeddable {@code <script/>} tag populated with the policy rules of the given page component
+     * @param resolver     {@code ResourceResolver} instance
+     * @param resourceType Resource type of the page component
+     * @return String value; an empty string if there are no rules or the script template is not present
+     */
+    private String renderScriptTag(ResourceResolver resolver, String resourceType) {
+        String template = scriptSource;
+        if (template == null) {
+            return StringUtils.EMPTY;
+        }
+        String rules = Optional.ofNullable(resolver.getResource(resourceType))
+            .map(resource -> resource.adaptTo(Component.class))
+            .map(Component::getDeclaredChildEditConfig)
+            .map(ComponentEditConfig::getListeners)
+            .map(map -> map.get(CoreConstants.PN_UPDATE_COMPONENT_LIST))
+            .map(TopLevelPolicyFilter::extractListenersJsonObject)
+            .orElse(StringUtils.EMPTY);
+        return StringUtils.isNotBlank(rules)
+            ? String.format(SCRIPT_TAG_FORMAT, String.format(template, rules))
+            : StringUtils.EMPTY;
+    }
+
+    /**
+     * Reads the stored script template
+     * @return String value or null if the bundle resource is not present or cannot be read
      */
-    private static String getScriptTagText(String rules) throws IOException {
+    private static String readScriptSource() {
         try (InputStream inputStream = TopLevelPolicyFilter.class.getClassLoader().getResourceAsStream(SCRIPT_SOURCE)) {
             if (inputStream == null) {
+                LOG.error("Script template {} not found", SCRIPT_SOURCE);
                 return null;
             }
-            String scriptSource = IOUtils.toString(inputStream, StandardCharsets.UTF_8.name());
-            return String.format(SCRIPT_TAG_FORMAT, String.format(scriptSource, rules));
+            return IOUtils.toString(inputStream, StandardCharsets.UTF_8.name());
+        } catch (IOException e) {
+            LOG.error("Could not read script template {}", SCRIPT_SOURCE, e);
+            return null;
         }
     }
 
@@ -22,11 +22,13 @@ import com.exadel.aem.toolkit.core.configurator.models.internal.ConfigDefinition
 import com.exadel.aem.toolkit.core.configurator.models.internal.RenderConditionTest;
 import com.exadel.aem.toolkit.core.configurator.services.ConfigChangeListenerTest;
 import com.exadel.aem.toolkit.core.configurator.services.ConfigDataUtilTest;
+import com.exadel.aem.toolkit.core.configurator.services.MetaTypeIndexTest;
 import com.exadel.aem.toolkit.core.configurator.servlets.form.ConfigDataSourceTest;
 import com.exadel.aem.toolkit.core.configurator.servlets.form.FieldUtilTest;
 import com.exadel.aem.toolkit.core.configurator.servlets.form.ValueUtilTest;
 import com.exadel.aem.toolkit.core.configurator.servlets.replication.ReplicationServletTest;
 import com.exadel.aem.toolkit.core.configurator.utils.PermissionUtilTest;
+import com.exadel.aem.toolkit.core.injectors.BaseInjectorTest;
 import com.exadel.aem.toolkit.core.injectors.ChildInjectorTest;
 import com.exadel.aem.toolkit.core.injectors.ChildrenInjectorTest;
 import com.exadel.aem.toolkit.core.injectors.EToolboxListInjectorTest;
@@ -36,6 +38,7 @@ import com.exadel.aem.toolkit.core.injectors.RequestAttributeInjectorTest;
 import com.exadel.aem.toolkit.core.injectors.RequestParamInjectorTest;
 import com.exadel.aem.toolkit.core.injectors.RequestSelectorsInjectorTest;
 import com.exadel.aem.toolkit.core.injectors.RequestSuffixInjectorTest;
+import com.exadel.aem.toolkit.core.injectors.utils.CastUtilTest;
 import com.exadel.aem.toolkit.core.injectors.utils.FilteredResourceDecoratorTest;
 import com.exadel.aem.toolkit.core.lists.models.ListItemTest;
 import com.exadel.aem.toolkit.core.lists.servlets.ItemComponentsServletTest;
@@ -43,11 +46,14 @@ import com.exadel.aem.toolkit.core.lists.servlets.ListsServletTest;
 import com.exadel.aem.toolkit.core.lists.utils.ListHelperTest;
 import com.exadel.aem.toolkit.core.lists.utils.ListPageUtilTest;
 import com.exadel.aem.toolkit.core.lists.utils.ListResourceUtilTest;
+import com.exadel.aem.toolkit.core.optionprovider.services.impl.OptionCacheTest;
+import com.exadel.aem.toolkit.core.optionprovider.services.impl.resolvers.ClassIndexTest;
 import com.exadel.aem.toolkit.core.optionprovider.services.impl.resolvers.OptionProviderConstantsTest;
 import com.exadel.aem.toolkit.core.optionprovider.services.impl.resolvers.OptionProviderEnumsTest;
 import com.exadel.aem.toolkit.core.optionprovider.services.impl.resolvers.OptionProviderHttpTest;
 import com.exadel.aem.toolkit.core.optionprovider.services.impl.resolvers.OptionProviderInlineOptionsTest;
 import com.exadel.aem.toolkit.core.optionprovider.services.impl.resolvers.OptionProviderTest;
+import com.exadel.aem.toolkit.core.optionprovider.utils.PatternMatcherTest;
 import com.exadel.aem.toolkit.core.policymanagement.filters.TopLevelPolicyFilterTest;
 
 /**
@@ -74,13 +80,18 @@ import com.exadel.aem.toolkit.core.policymanagement.filters.TopLevelPolicyFilter
     ChildInjectorTest.class,
     ChildrenInjectorTest.class,
     EnumValueInjectorTest.class,
+    BaseInjectorTest.class,
     FilteredResourceDecoratorTest.class,
+    CastUtilTest.class,
 
     OptionProviderTest.class,
     OptionProviderHttpTest.class,
     OptionProviderEnumsTest.class,
     OptionProviderConstantsTest.class,
     OptionProviderInlineOptionsTest.class,
+    OptionCacheTest.class,
+    ClassIndexTest.class,
+    PatternMatcherTest.class,
 
     ConfigChangeListenerTest.class,
     ConfigDataSourceTest.class,
@@ -89,6 +100,7 @@ import com.exadel.aem.toolkit.core.policymanagement.filters.TopLevelPolicyFilter
     ReplicationServletTest.class,
     RenderConditionTest.class,
     FieldUtilTest.class,
+    MetaTypeIndexTest.class,
     PermissionUtilTest.class,
     ValueUtilTest.class,
 
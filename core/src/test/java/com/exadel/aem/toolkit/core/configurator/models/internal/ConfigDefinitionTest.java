@@ -53,6 +53,7 @@ import static org.junit.Assert.assertTrue;
 import com.exadel.aem.toolkit.core.AemContextFactory;
 import com.exadel.aem.toolkit.core.CoreConstants;
 import com.exadel.aem.toolkit.core.configurator.ConfiguratorConstants;
+import com.exadel.aem.toolkit.core.configurator.services.MetaTypeIndex;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ConfigDefinitionTest {
@@ -322,16 +323,37 @@ public class ConfigDefinitionTest {
         assertEquals("com.example.factory~zzz", parent.getChildren().get(2).getPid());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldFallBackToBundlesWhenDefinitionIsNotIndexed() throws Exception {
+        BundleContext bundleContext = setUpMocksForConfig();
+
+        MetaTypeIndex index = Mockito.mock(MetaTypeIndex.class);
+        Mockito.when(index.getConfigurationAdmin()).thenReturn(configurationAdmin);
+        ServiceReference<MetaTypeIndex> indexReference = Mockito.mock(ServiceReference.class);
+        Mockito.when(bundleContext.getServiceReference(Mockito.eq(MetaTypeIndex.class))).thenReturn(indexReference);
+        Mockito.when(bundleContext.getService(indexReference)).thenReturn(index);
+
+        ((MockRequestPathInfo) context.request().getRequestPathInfo()).setSuffix(CoreConstants.SEPARATOR_SLASH + TEST_PID);
+        ConfigDefinition result = ConfigDefinition.from(context.request());
+
+        assertNotNull(result);
+        assertTrue(result.isValid());
+        assertEquals(CONFIG_NAME, result.getName());
+        Mockito.verify(index).getDefinition(TEST_PID);
+        Mockito.verify(bundleContext).ungetService(indexReference);
+    }
+
     /* ---------------
        Utility methods
        --------------- */
 
-    private void setUpMocksForConfig() throws Exception {
-        setUpMocksForConfig(false);
+    private BundleContext setUpMocksForConfig() throws Exception {
+        return setUpMocksForConfig(false);
     }
 
-    private void setUpMocksForConfig(boolean isFactory) throws Exception {
-        setUpBundleContext();
+    private BundleContext setUpMocksForConfig(boolean isFactory) throws Exception {
+        BundleContext result = setUpBundleContext();
 
         Mockito.when(ocd.getName()).thenReturn(CONFIG_NAME);
         Mockito.when(ocd.getDescription()).thenReturn(CONFIG_DESCRIPTION);
@@ -348,6 +370,7 @@ public class ConfigDefinitionTest {
         Mockito.when(metaTypeInformation.getObjectClassDefinition(Mockito.eq(pid), Mockito.isNull())).thenReturn(ocd);
         Mockito.when(metaTypeInformation.getFactoryPids()).thenReturn(isFactory ? new String[] {pid} : new String[0]);
         Mockito.when(metaTypeService.getMetaTypeInformation(Mockito.any(Bundle.class))).thenReturn(metaTypeInformation);
+        return result;
     }
 
     private void setUpMocksForFactoryInstanceConfig() throws Exception {
@@ -367,7 +390,7 @@ public class ConfigDefinitionTest {
     }
 
     @SuppressWarnings("unchecked")
-    private void setUpBundleContext() {
+    private BundleContext setUpBundleContext() {
         BundleContext mockBundleContext = Mockito.mock(BundleContext.class);
 
         ServiceReference<ConfigurationAdmin> mockConfigAdminRef = Mockito.mock(ServiceReference.class);
@@ -381,6 +404,7 @@ public class ConfigDefinitionTest {
         Mockito.when(mockBundleContext.getBundles()).thenReturn(new Bundle[]{Mockito.mock(Bundle.class)});
 
         context.request().setAttribute(BundleContext.class.getName(), mockBundleContext);
+        return mockBundleContext;
     }
 
     private void createConfigurationInRepository(boolean published) throws PersistenceException {
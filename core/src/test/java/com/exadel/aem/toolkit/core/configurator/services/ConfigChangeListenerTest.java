@@ -57,6 +57,8 @@ public class ConfigChangeListenerTest {
 
     private static final String TEST_PID = "com.example.test.Config";
 
+    private static final int LONG_COALESCING_WINDOW = 60_000;
+
     @Rule
     public AemContext context = AemContextFactory.newInstance();
 
@@ -155,6 +157,31 @@ public class ConfigChangeListenerTest {
         Mockito.verify(mockConfig).update(new Hashtable<>(Collections.singletonMap("test.property", "original.value")));
     }
 
+    @Test
+    public void shouldCoalesceChangesToSameConfiguration() throws Throwable {
+        Configuration mockConfig = buildMockConfiguration("test.property$backup$", "original.value");
+        ConfigurationAdmin mockConfigurationAdmin = buildMockConfigurationAdmin(mockConfig);
+
+        ResourceChange change = new JcrResourceChange(
+            ResourceChange.ChangeType.REMOVED,
+            ConfiguratorConstants.ROOT_PATH + CoreConstants.SEPARATOR_SLASH + TEST_PID + ConfiguratorConstants.SUFFIX_SLASH_DATA,
+            false,
+            null);
+
+        ConfigChangeListenerConfiguration config = Mockito.mock(ConfigChangeListenerConfiguration.class);
+        Mockito.when(config.enabled()).thenReturn(true);
+        Mockito.when(config.coalescingWindow()).thenReturn(LONG_COALESCING_WINDOW);
+        ConfigChangeListener configChangeListener = registerInjectActivateListener(mockConfigurationAdmin, config);
+        configChangeListener.onChange(Arrays.asList(change, change));
+        configChangeListener.onChange(Collections.singletonList(change));
+        Mockito.verify(mockConfig, Mockito.never()).update(Mockito.any());
+
+        // The coalescing window does not expire within the test. The pending changes are applied upon deactivation
+        PrivateAccessor.invoke(configChangeListener, "deactivate", new Class[0], new Object[0]);
+        Mockito.verify(mockConfigurationAdmin, Mockito.times(1)).getConfiguration(TEST_PID, null);
+        Mockito.verify(mockConfig, Mockito.times(1)).update(Mockito.any());
+    }
+
     @Test
     public void shouldIgnoreNonAccountableChanges() throws IOException, NoSuchFieldException, InterruptedException {
         ResourceChange rootChange = new JcrResourceChange(
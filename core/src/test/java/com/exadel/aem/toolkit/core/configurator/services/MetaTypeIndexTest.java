@@ -0,0 +1,139 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.core.configurator.services;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleEvent;
+import org.osgi.service.cm.ConfigurationAdmin;
+import org.osgi.service.metatype.MetaTypeInformation;
+import org.osgi.service.metatype.MetaTypeService;
+import org.osgi.service.metatype.ObjectClassDefinition;
+import io.wcm.testing.mock.aem.junit.AemContext;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.exadel.aem.toolkit.core.AemContextFactory;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MetaTypeIndexTest {
+
+    private static final String TEST_PID = "com.example.test.Config";
+    private static final String FACTORY_PID = "com.example.test.FactoryConfig";
+    private static final String PROVIDED_PID = "com.example.test.ProvidedConfig";
+
+    @Rule
+    public AemContext context = AemContextFactory.newInstance();
+
+    @Mock
+    private ConfigurationAdmin configurationAdmin;
+
+    @Mock
+    private MetaTypeService metaTypeService;
+
+    @Mock
+    private MetaTypeInformation metaTypeInformation;
+
+    @Mock
+    private ObjectClassDefinition ocd;
+
+    @Mock
+    private ObjectClassDefinition factoryOcd;
+
+    @Before
+    public void setUp() {
+        Mockito.when(metaTypeInformation.getPids()).thenReturn(new String[] {TEST_PID});
+        Mockito.when(metaTypeInformation.getFactoryPids()).thenReturn(new String[] {FACTORY_PID});
+        Mockito.when(metaTypeInformation.getObjectClassDefinition(Mockito.eq(TEST_PID), Mockito.isNull())).thenReturn(ocd);
+        Mockito.when(metaTypeInformation.getObjectClassDefinition(Mockito.eq(FACTORY_PID), Mockito.isNull())).thenReturn(factoryOcd);
+        Mockito.when(metaTypeService.getMetaTypeInformation(Mockito.any(Bundle.class))).thenReturn(metaTypeInformation);
+
+        context.registerService(ConfigurationAdmin.class, configurationAdmin);
+        context.registerService(MetaTypeService.class, metaTypeService);
+    }
+
+    @Test
+    public void shouldIndexDefinitionsOfAddedBundle() {
+        MetaTypeIndex index = context.registerInjectActivateService(new MetaTypeIndex());
+        index.addingBundle(Mockito.mock(Bundle.class), null);
+
+        assertSame(configurationAdmin, index.getConfigurationAdmin());
+
+        MetaTypeIndex.Definition definition = index.getDefinition(TEST_PID);
+        assertNotNull(definition);
+        assertSame(ocd, definition.getOcd());
+        assertFalse(definition.isFactory());
+
+        MetaTypeIndex.Definition factoryDefinition = index.getDefinition(FACTORY_PID);
+        assertNotNull(factoryDefinition);
+        assertSame(factoryOcd, factoryDefinition.getOcd());
+        assertTrue(factoryDefinition.isFactory());
+
+        assertNull(index.getDefinition("com.example.test.Missing"));
+        assertEquals(2, index.getDefinitions().size());
+
+        Map<String, MetaTypeIndex.Definition> batch = index.getDefinitions(Arrays.asList(TEST_PID, "com.example.test.Missing"));
+        assertEquals(1, batch.size());
+        assertSame(definition, batch.get(TEST_PID));
+    }
+
+    @Test
+    public void shouldRemoveDefinitionsOfRemovedBundle() {
+        MetaTypeIndex index = context.registerInjectActivateService(new MetaTypeIndex());
+        Bundle bundle = Mockito.mock(Bundle.class);
+
+        List<MetaTypeIndex.Definition> definitions = index.addingBundle(bundle, null);
+        assertEquals(2, definitions.size());
+
+        index.removedBundle(bundle, null, definitions);
+        assertNull(index.getDefinition(TEST_PID));
+        assertNull(index.getDefinition(FACTORY_PID));
+        assertTrue(index.getDefinitions().isEmpty());
+    }
+
+    @Test
+    public void shouldReindexDefinitionsOfStartedBundle() {
+        MetaTypeIndex index = context.registerInjectActivateService(new MetaTypeIndex());
+        Bundle bundle = Mockito.mock(Bundle.class);
+        List<MetaTypeIndex.Definition> definitions = index.addingBundle(bundle, null);
+
+        // The definition is exposed by a MetaTypeProvider service that is registered when the bundle starts
+        Mockito.when(metaTypeInformation.getPids()).thenReturn(new String[] {TEST_PID, PROVIDED_PID});
+        Mockito.when(metaTypeInformation.getObjectClassDefinition(Mockito.eq(PROVIDED_PID), Mockito.isNull())).thenReturn(ocd);
+
+        index.modifiedBundle(bundle, new BundleEvent(BundleEvent.STARTING, bundle), definitions);
+        assertNull(index.getDefinition(PROVIDED_PID));
+
+        index.modifiedBundle(bundle, new BundleEvent(BundleEvent.STARTED, bundle), definitions);
+        assertNotNull(index.getDefinition(PROVIDED_PID));
+        assertEquals(3, definitions.size());
+
+        index.removedBundle(bundle, null, definitions);
+        assertTrue(index.getDefinitions().isEmpty());
+    }
+}
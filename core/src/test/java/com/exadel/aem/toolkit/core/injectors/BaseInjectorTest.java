@@ -0,0 +1,123 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.core.injectors;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+import org.apache.sling.models.annotations.Default;
+import org.apache.sling.models.spi.DisposalCallbackRegistry;
+import org.junit.Test;
+import org.mockito.Mockito;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+public class BaseInjectorTest {
+
+    private static final int[] DEFAULT_NUMBERS = {42, 43, 44};
+    private static final List<String> DEFAULT_STRINGS = Arrays.asList("Hello", "World");
+
+    private final DisposalCallbackRegistry callbackRegistry = Mockito.mock(DisposalCallbackRegistry.class);
+
+    @Test
+    public void shouldNotShareDefaultArrays() throws NoSuchFieldException {
+        TestInjector injector = new TestInjector();
+        Field field = DefaultValues.class.getDeclaredField("numbers");
+
+        int[] first = (int[]) getValue(injector, field);
+        assertArrayEquals(DEFAULT_NUMBERS, first);
+        first[0] = 0;
+
+        int[] second = (int[]) getValue(injector, field);
+        assertNotSame(first, second);
+        assertArrayEquals(DEFAULT_NUMBERS, second);
+        assertArrayEquals(DEFAULT_NUMBERS, (int[]) getValue(injector, DefaultValues.class.getDeclaredField("sameNumbers")));
+        assertArrayEquals(DEFAULT_NUMBERS, (int[]) getValue(new TestInjector(), field));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldNotShareDefaultCollections() throws NoSuchFieldException {
+        TestInjector injector = new TestInjector();
+        Field field = DefaultValues.class.getDeclaredField("strings");
+
+        List<String> first = (List<String>) getValue(injector, field);
+        assertEquals(DEFAULT_STRINGS, first);
+        first.clear();
+
+        List<String> second = (List<String>) getValue(injector, field);
+        assertNotSame(first, second);
+        assertEquals(DEFAULT_STRINGS, second);
+        assertEquals(DEFAULT_STRINGS, getValue(injector, DefaultValues.class.getDeclaredField("sameStrings")));
+        assertEquals(DEFAULT_STRINGS, getValue(new TestInjector(), field));
+    }
+
+    private Object getValue(TestInjector injector, Field field) {
+        return injector.getValue(new Object(), field.getName(), field.getGenericType(), field, callbackRegistry);
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.FIELD)
+    private @interface Managed {
+    }
+
+    private static class TestInjector extends BaseInjector<Managed> {
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return "test";
+        }
+
+        @Nonnull
+        @Override
+        Injectable getValue(Object adaptable, String name, Type type, Managed annotation) {
+            return Injectable.EMPTY;
+        }
+
+        @Override
+        Managed getManagedAnnotation(AnnotatedElement element) {
+            return element.getDeclaredAnnotation(Managed.class);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class DefaultValues {
+
+        @Managed
+        @Default(intValues = {42, 43, 44})
+        private int[] numbers;
+
+        @Managed
+        @Default(intValues = {42, 43, 44})
+        private int[] sameNumbers;
+
+        @Managed
+        @Default(values = {"Hello", "World"})
+        private List<String> strings;
+
+        @Managed
+        @Default(values = {"Hello", "World"})
+        private List<String> sameStrings;
+    }
+}
@@ -41,6 +41,9 @@ import com.exadel.aem.toolkit.core.injectors.models.children.InjectedWithFilters
 import com.exadel.aem.toolkit.core.injectors.models.children.InjectedWithPostfix;
 import com.exadel.aem.toolkit.core.injectors.models.children.InjectedWithPrefix;
 import com.exadel.aem.toolkit.core.injectors.models.children.InjectedWithPrefixPostfix;
+import com.exadel.aem.toolkit.core.injectors.models.children.InjectedWithReusedFilters;
+import com.exadel.aem.toolkit.core.injectors.models.children.filters.CountingFilter;
+import com.exadel.aem.toolkit.core.injectors.models.children.filters.FailingFilter;
 import com.exadel.aem.toolkit.core.lists.models.SimpleListItem;
 
 public class ChildrenInjectorTest {
@@ -341,6 +344,36 @@ public class ChildrenInjectorTest {
         assertEquals(EXPECTED_VALUE_SEQUENCE.get(0), model.getSupplier().getByRestypeFilter().get(0).getValue());
     }
 
+    @Test
+    public void shouldReuseFilterInstances() {
+        for (int i = 0; i < 2; i++) {
+            InjectedWithReusedFilters model = context.request().adaptTo(InjectedWithReusedFilters.class);
+            assertNotNull(model);
+            assertNotNull(model.getByCountingFilter());
+            assertEquals(model.getUnfiltered().size(), model.getByCountingFilter().size());
+        }
+        assertEquals(1, CountingFilter.getInstances());
+    }
+
+    @Test
+    public void shouldRetryFailedFilterInstantiation() {
+        FailingFilter.setFailing(true);
+        try {
+            InjectedWithReusedFilters model = context.request().adaptTo(InjectedWithReusedFilters.class);
+            assertNotNull(model);
+            assertNotNull(model.getByFailingFilter());
+            assertEquals(model.getUnfiltered().size(), model.getByFailingFilter().size());
+        } finally {
+            FailingFilter.setFailing(false);
+        }
+
+        InjectedWithReusedFilters model = context.request().adaptTo(InjectedWithReusedFilters.class);
+        assertNotNull(model);
+        assertNotNull(model.getByFailingFilter());
+        assertEquals(1, model.getByFailingFilter().size());
+        assertEquals("list_item_1", model.getByFailingFilter().get(0).getName());
+    }
+
     /* ---------------
        Service methods
        --------------- */
@@ -13,9 +13,15 @@
  */
 package com.exadel.aem.toolkit.core.injectors;
 
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.sling.api.adapter.Adaptable;
@@ -26,7 +32,10 @@ import org.junit.Test;
 import com.day.cq.commons.jcr.JcrConstants;
 import io.wcm.testing.mock.aem.junit.AemContext;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import com.exadel.aem.toolkit.core.AemContextFactory;
@@ -261,6 +270,58 @@ public class EToolboxListInjectorTest {
         }
     }
 
+    @Test
+    public void shouldCollapseDuplicatesInSetOfProxies() throws ReflectiveOperationException {
+        List<SimpleListItem> items = ListHelper.getList(context.resourceResolver(), SIMPLE_LIST_PATH);
+        List<SimpleListItem> sameItems = ListHelper.getList(context.resourceResolver(), SIMPLE_LIST_PATH);
+        List<Object> source = new ArrayList<>(items);
+        source.addAll(sameItems);
+
+        Set<Object> set = newProxySet(source);
+        assertEquals(items.size(), set.size());
+        assertFalse(set.add(sameItems.get(0)));
+        assertTrue(set.contains(sameItems.get(1)));
+        assertTrue(set.remove(sameItems.get(2)));
+        assertFalse(set.contains(items.get(2)));
+        assertEquals(items.size() - 1, set.size());
+    }
+
+    @Test
+    public void shouldCompareSetsOfProxiesByContent() throws ReflectiveOperationException {
+        List<SimpleListItem> items = ListHelper.getList(context.resourceResolver(), SIMPLE_LIST_PATH);
+        List<SimpleListItem> sameItems = new ArrayList<>(ListHelper.getList(context.resourceResolver(), SIMPLE_LIST_PATH));
+        Collections.reverse(sameItems);
+
+        Set<Object> set = newProxySet(items);
+        Set<Object> sameSet = newProxySet(sameItems);
+        assertEquals(set, sameSet);
+        assertEquals(sameSet, set);
+        assertEquals(set.hashCode(), sameSet.hashCode());
+
+        Set<Object> regularSet = new LinkedHashSet<>(items);
+        assertEquals(set, regularSet);
+        assertEquals(regularSet, set);
+
+        Set<Object> smallerSet = newProxySet(items.subList(1, items.size()));
+        assertNotEquals(set, smallerSet);
+        assertNotEquals(smallerSet, set);
+    }
+
+    @Test
+    public void shouldKeepInsertionOrderInSetOfProxies() throws ReflectiveOperationException {
+        List<SimpleListItem> items = ListHelper.getList(context.resourceResolver(), SIMPLE_LIST_PATH);
+        List<SimpleListItem> reversedItems = new ArrayList<>(ListHelper.getList(context.resourceResolver(), SIMPLE_LIST_PATH));
+        Collections.reverse(reversedItems);
+        List<Object> source = new ArrayList<>(items);
+        source.addAll(reversedItems);
+
+        Set<Object> set = newProxySet(source);
+        assertEquals(
+            items.stream().map(SimpleListItem::getTitle).collect(Collectors.toList()),
+            set.stream().map(item -> ((SimpleListItem) item).getTitle()).collect(Collectors.toList()));
+        assertSame(items.get(0), set.iterator().next());
+    }
+
     /* ---------------
        Service methods
        --------------- */
@@ -278,4 +339,13 @@ public class EToolboxListInjectorTest {
     private static <T> void assertEntitiesEqual(T expected, T actual) {
         assertEquals(expected, actual);
     }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Object> newProxySet(Collection<?> items) throws ReflectiveOperationException {
+        Constructor<?> constructor = Class
+            .forName(EToolboxListInjector.class.getName() + "$ProxySet")
+            .getDeclaredConstructor(Collection.class, Class.class);
+        constructor.setAccessible(true);
+        return (Set<Object>) constructor.newInstance(items, SimpleListItem.class);
+    }
 }
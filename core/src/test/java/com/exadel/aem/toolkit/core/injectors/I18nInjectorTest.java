@@ -23,10 +23,12 @@ import org.junit.Rule;
 import org.junit.Test;
 import io.wcm.testing.mock.aem.junit.AemContext;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 
 import com.exadel.aem.toolkit.core.AemContextFactory;
 import com.exadel.aem.toolkit.core.CoreConstants;
+import com.exadel.aem.toolkit.core.injectors.models.i18n.Detectors;
 import com.exadel.aem.toolkit.core.injectors.models.i18n.I18nInterface;
 import com.exadel.aem.toolkit.core.injectors.models.i18n.Objects;
 import com.exadel.aem.toolkit.core.injectors.models.i18n.Strings;
@@ -140,4 +142,20 @@ public class I18nInjectorTest {
         assertEquals(TRANSLATED_FIELD_NAME, model.getValue());
         assertEquals(TRANSLATED_STRING, model.getNamedValue());
     }
+
+    @Test
+    public void shouldReuseLocaleDetectors() {
+        Detectors first = context.request().getResource().adaptTo(Detectors.class);
+        Detectors second = context.request().getResource().adaptTo(Detectors.class);
+        assertNotNull(first);
+        assertNotNull(second);
+
+        assertEquals(TRANSLATED_STRING, first.getCountedValue());
+        assertEquals(TRANSLATED_STRING, second.getCountedValue());
+        assertEquals(1, Detectors.CountingLocaleDetector.INSTANCES.get());
+
+        // A detector that failed to instantiate is not remembered, so the instantiation is retried
+        assertNotEquals(TRANSLATED_STRING, first.getFailedValue());
+        assertEquals(TRANSLATED_STRING, second.getFailedValue());
+    }
 }
@@ -0,0 +1,56 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.core.injectors.models.children;
+
+import java.util.List;
+import javax.annotation.Nullable;
+
+import org.apache.sling.api.SlingHttpServletRequest;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.models.annotations.DefaultInjectionStrategy;
+import org.apache.sling.models.annotations.Model;
+
+import com.exadel.aem.toolkit.api.annotations.injectors.Children;
+import com.exadel.aem.toolkit.core.injectors.models.children.filters.CountingFilter;
+import com.exadel.aem.toolkit.core.injectors.models.children.filters.FailingFilter;
+
+@Model(
+    adaptables = {SlingHttpServletRequest.class, Resource.class},
+    defaultInjectionStrategy = DefaultInjectionStrategy.OPTIONAL)
+public class InjectedWithReusedFilters {
+
+    @Children(name = Constants.CHILDREN_PATH)
+    private List<Resource> unfiltered;
+
+    @Children(name = Constants.CHILDREN_PATH, filters = CountingFilter.class)
+    private List<Resource> byCountingFilter;
+
+    @Children(name = Constants.CHILDREN_PATH, filters = FailingFilter.class)
+    private List<Resource> byFailingFilter;
+
+    @Nullable
+    public List<Resource> getUnfiltered() {
+        return unfiltered;
+    }
+
+    @Nullable
+    public List<Resource> getByCountingFilter() {
+        return byCountingFilter;
+    }
+
+    @Nullable
+    public List<Resource> getByFailingFilter() {
+        return byFailingFilter;
+    }
+}
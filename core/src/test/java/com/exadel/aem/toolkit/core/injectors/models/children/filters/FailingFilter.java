@@ -0,0 +1,38 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.core.injectors.models.children.filters;
+
+import java.util.function.Predicate;
+
+import org.apache.sling.api.resource.Resource;
+
+public class FailingFilter implements Predicate<Resource> {
+
+    private static volatile boolean failing;
+
+    public FailingFilter() {
+        if (failing) {
+            throw new IllegalStateException("Filter is not available");
+        }
+    }
+
+    @Override
+    public boolean test(Resource resource) {
+        return resource.getName().equals("list_item_1");
+    }
+
+    public static void setFailing(boolean value) {
+        failing = value;
+    }
+}
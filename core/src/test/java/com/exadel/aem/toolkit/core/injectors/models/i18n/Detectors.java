@@ -0,0 +1,64 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.core.injectors.models.i18n;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.sling.api.SlingHttpServletRequest;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.models.annotations.DefaultInjectionStrategy;
+import org.apache.sling.models.annotations.Model;
+
+import com.exadel.aem.toolkit.api.annotations.injectors.I18N;
+
+@Model(
+    adaptables = {SlingHttpServletRequest.class, Resource.class},
+    defaultInjectionStrategy = DefaultInjectionStrategy.OPTIONAL)
+public class Detectors {
+
+    private static final String SOURCE_STRING = "Hello world";
+
+    @I18N(value = SOURCE_STRING, localeDetector = CountingLocaleDetector.class)
+    private String countedValue;
+
+    @I18N(value = SOURCE_STRING, localeDetector = FailingLocaleDetector.class)
+    private String failedValue;
+
+    public String getCountedValue() {
+        return countedValue;
+    }
+
+    public String getFailedValue() {
+        return failedValue;
+    }
+
+    public static class CountingLocaleDetector extends LocaleDetector {
+        public static final AtomicInteger INSTANCES = new AtomicInteger();
+
+        public CountingLocaleDetector() {
+            INSTANCES.incrementAndGet();
+        }
+    }
+
+    public static class FailingLocaleDetector extends LocaleDetector {
+        public static final AtomicBoolean FAIL = new AtomicBoolean(true);
+
+        public FailingLocaleDetector() {
+            if (FAIL.getAndSet(false)) {
+                throw new IllegalStateException();
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.core.injectors.utils;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang3.reflect.TypeUtils;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.exadel.aem.toolkit.core.injectors.Injectable;
+
+public class CastUtilTest {
+
+    private static final double DELTA = 0.001d;
+
+    @Test
+    public void shouldConvertBoxedNumbers() {
+        assertEquals(42, CastUtil.toType(42L, int.class).getValue());
+        assertEquals(42, CastUtil.toType((short) 42, Integer.class).getValue());
+        assertEquals(42L, CastUtil.toType((byte) 42, long.class).getValue());
+        assertEquals(42L, CastUtil.toType(42.9d, Long.class).getValue());
+        assertEquals(42.5d, CastUtil.toType(42.5f, double.class).getValue());
+        assertEquals(42d, CastUtil.toType(42, Double.class).getValue());
+        assertEquals(42, CastUtil.toType("42", int.class).getValue());
+        assertEquals(42.5d, CastUtil.toType("42.5", Double.class).getValue());
+    }
+
+    @Test
+    public void shouldKeepNumbersOfUnmanagedTypes() {
+        assertEquals(42L, CastUtil.toType(42L, float.class).getValue());
+        assertEquals(42, CastUtil.toType(42, Short.class).getValue());
+    }
+
+    @Test
+    public void shouldFallBackForNonNumericValues() {
+        Injectable result = CastUtil.toType(Boolean.TRUE, int.class);
+        assertTrue(result.isDefault());
+        assertEquals(0, result.getValue());
+    }
+
+    @Test
+    public void shouldConvertPrimitiveArraysToPrimitiveArrays() {
+        assertArrayEquals(new int[] {1, 2, 3}, (int[]) CastUtil.toType(new long[] {1L, 2L, 3L}, int[].class).getValue());
+        assertArrayEquals(new int[] {1, 2}, (int[]) CastUtil.toType(new double[] {1.9d, 2.1d}, int[].class).getValue());
+        assertArrayEquals(new long[] {1L, 2L}, (long[]) CastUtil.toType(new byte[] {1, 2}, long[].class).getValue());
+        assertArrayEquals(
+            new double[] {1.5d, 2d},
+            (double[]) CastUtil.toType(new float[] {1.5f, 2f}, double[].class).getValue(),
+            DELTA);
+    }
+
+    @Test
+    public void shouldConvertPrimitiveArraysToWrapperArraysAndCollections() {
+        assertArrayEquals(new Integer[] {1, 2}, (Integer[]) CastUtil.toType(new short[] {1, 2}, Integer[].class).getValue());
+        assertArrayEquals(new Long[] {1L, 2L}, (Long[]) CastUtil.toType(new int[] {1, 2}, Long[].class).getValue());
+
+        Object list = CastUtil.toType(new long[] {1L, 2L, 2L}, TypeUtils.parameterize(List.class, Integer.class)).getValue();
+        assertEquals(Arrays.asList(1, 2, 2), list);
+
+        Object set = CastUtil.toType(new long[] {1L, 2L, 2L}, TypeUtils.parameterize(Set.class, Double.class)).getValue();
+        assertTrue(set instanceof LinkedHashSet);
+        assertEquals(Arrays.asList(1d, 2d), Arrays.asList(((Set<?>) set).toArray()));
+    }
+
+    @Test
+    public void shouldConvertBoxedArraysElementWise() {
+        assertArrayEquals(new int[] {1, 2}, (int[]) CastUtil.toType(new Long[] {1L, 2L}, int[].class).getValue());
+        assertArrayEquals(new Double[] {1d, 2.5d}, (Double[]) CastUtil.toType(new Object[] {1, "2.5"}, Double[].class).getValue());
+    }
+
+    @Test
+    public void shouldApplyCustomConverterToPrimitiveArrays() {
+        Object result = CastUtil.toType(
+            new long[] {1L, 2L},
+            Integer[].class,
+            (value, type) -> ((Long) value).intValue() * 2).getValue();
+        assertArrayEquals(new Integer[] {2, 4}, (Integer[]) result);
+    }
+}
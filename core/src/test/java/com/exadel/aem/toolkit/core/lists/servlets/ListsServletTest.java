@@ -15,12 +15,15 @@ package com.exadel.aem.toolkit.core.lists.servlets;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.sling.api.resource.PersistenceException;
 import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.observation.ResourceChange;
 import org.apache.sling.testing.mock.sling.ResourceResolverType;
 import org.junit.Before;
 import org.junit.Rule;
@@ -36,12 +39,15 @@ import io.wcm.testing.mock.aem.junit.AemContext;
 import static org.junit.Assert.assertEquals;
 
 import com.exadel.aem.toolkit.core.AemContextFactory;
+import com.exadel.aem.toolkit.core.CoreConstants;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ListsServletTest {
     private static final String SIMPLE_LIST_PATH = "/content/etoolbox-authoring-kit/lists/simpleList";
     private static final String CUSTOM_LIST_PATH = "/content/etoolbox-authoring-kit/lists/etoolbox-lists/customList";
     private static final String DATASOURCE_PATH = "/datasource";
+    private static final String LISTS_ROOT_PATH = "/content/etoolbox-authoring-kit/lists";
+    private static final String PLAIN_NODE_NAME = "plainNode";
 
     @Rule
     public AemContext context = AemContextFactory.newInstance(ResourceResolverType.JCR_OAK);
@@ -52,31 +58,67 @@ public class ListsServletTest {
     @InjectMocks
     private ListsServlet servlet;
 
+    private int offset;
+    private int limit = 100;
+
     @Before
     public void setUp() {
         context.load().json("/com/exadel/aem/toolkit/core/lists/utils/simpleList.json", SIMPLE_LIST_PATH);
         context.load().json("/com/exadel/aem/toolkit/core/lists/utils/customList.json", CUSTOM_LIST_PATH);
         context.load().json("/com/exadel/aem/toolkit/core/lists/datasource/datasource.json", DATASOURCE_PATH);
 
-        Mockito.when(expressionResolver.resolve("${requestPathInfo.suffix}", Locale.US, String.class, context.request())).thenReturn("/content/etoolbox-authoring-kit/lists");
-        Mockito.when(expressionResolver.resolve("${requestPathInfo.selectors[0]}", Locale.US, Integer.class, context.request())).thenReturn(0);
-        Mockito.when(expressionResolver.resolve("${empty requestPathInfo.selectors[1] ? &quot;41&quot; : requestPathInfo.selectors[1] + 1}", Locale.US, Integer.class, context.request())).thenReturn(100);
+        Mockito.when(expressionResolver.resolve("${requestPathInfo.suffix}", Locale.US, String.class, context.request())).thenReturn(LISTS_ROOT_PATH);
+        Mockito.when(expressionResolver.resolve("${requestPathInfo.selectors[0]}", Locale.US, Integer.class, context.request())).thenAnswer(invocation -> offset);
+        Mockito.when(expressionResolver.resolve("${empty requestPathInfo.selectors[1] ? &quot;41&quot; : requestPathInfo.selectors[1] + 1}", Locale.US, Integer.class, context.request())).thenAnswer(invocation -> limit);
     }
 
     @Test
     public void shouldReturnDataSourceFromContent() {
         List<String> expected = Arrays.asList("simpleList", "etoolbox-lists");
 
+        List<String> actualList = getNames();
+        assertEquals(HttpServletResponse.SC_OK, context.response().getStatus());
+        assertEquals(expected, actualList);
+    }
+
+    @Test
+    public void shouldReturnPageOfDataSource() {
+        offset = 1;
+        limit = 1;
+        assertEquals(Collections.singletonList("etoolbox-lists"), getNames());
+
+        offset = 0;
+        assertEquals(Collections.singletonList("simpleList"), getNames());
+    }
+
+    @Test
+    public void shouldInvalidateCachedClassification() throws PersistenceException {
+        servlet.activate(context.bundleContext());
+        String plainNodePath = LISTS_ROOT_PATH + CoreConstants.SEPARATOR_SLASH + PLAIN_NODE_NAME;
+        context.create().resource(plainNodePath, "jcr:primaryType", "nt:unstructured");
+        assertEquals(Arrays.asList("simpleList", "etoolbox-lists"), getNames());
+
+        // The node becomes a valid container of lists, but the cached classification is in effect until a change is
+        // reported
+        String folderPath = plainNodePath + "/folder";
+        context.create().resource(folderPath, "jcr:primaryType", "nt:folder");
+        assertEquals(Arrays.asList("simpleList", "etoolbox-lists"), getNames());
+
+        servlet.onChange(Collections.singletonList(new ResourceChange(ResourceChange.ChangeType.ADDED, folderPath, false)));
+        assertEquals(Arrays.asList("simpleList", "etoolbox-lists", PLAIN_NODE_NAME), getNames());
+        servlet.deactivate();
+    }
+
+    private List<String> getNames() {
         context.request().setResource(context.resourceResolver().getResource(DATASOURCE_PATH));
         servlet.doGet(context.request(), context.response());
 
         DataSource dataSource = (DataSource) context.request().getAttribute(DataSource.class.getName());
-        List<String> actualList = new ArrayList<>();
+        List<String> result = new ArrayList<>();
         Iterator<Resource> it = dataSource.iterator();
         while (it.hasNext()) {
-            actualList.add(it.next().getName());
+            result.add(it.next().getName());
         }
-        assertEquals(HttpServletResponse.SC_OK, context.response().getStatus());
-        assertEquals(expected, actualList);
+        return result;
     }
 }
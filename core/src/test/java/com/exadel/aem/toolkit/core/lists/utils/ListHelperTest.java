@@ -14,15 +14,20 @@
 package com.exadel.aem.toolkit.core.lists.utils;
 
 import java.beans.Transient;
+import java.util.Arrays;
+import java.util.Calendar;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
 import org.apache.commons.collections4.IterableUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.sling.api.resource.ModifiableValueMap;
+import org.apache.sling.api.resource.PersistenceException;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.models.annotations.DefaultInjectionStrategy;
 import org.apache.sling.models.annotations.Model;
@@ -37,6 +42,9 @@ import io.wcm.testing.mock.aem.junit.AemContext;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import com.exadel.aem.toolkit.core.AemContextFactory;
 import com.exadel.aem.toolkit.core.CoreConstants;
@@ -49,6 +57,8 @@ public class ListHelperTest {
 
     private static final String TEST_RESOURCE_PATH = "/content/test";
     private static final String LIST_ITEM_PATH = "list/listItem";
+    private static final String SIMPLE_LIST_ITEMS_PATH = SIMPLE_LIST_PATH + "/jcr:content/list";
+    private static final long LAST_MODIFIED = 1_000_000L;
 
     @Rule
     public AemContext context = AemContextFactory.newInstance();
@@ -112,6 +122,89 @@ public class ListHelperTest {
         assertEquals(new ItemModel("World", false), actual.get(1));
     }
 
+    @Test
+    public void shouldRetrievePartOfList() {
+        List<SimpleListItem> actual = ListHelper.getList(context.resourceResolver(), SIMPLE_LIST_PATH, SimpleListItem.class, 1, 2);
+        assertEquals(2, actual.size());
+        assertEquals("value2", actual.get(0).getValue());
+        assertEquals("value3", actual.get(1).getValue());
+
+        actual = ListHelper.getList(context.resourceResolver(), SIMPLE_LIST_PATH, SimpleListItem.class, 4, 10);
+        assertEquals(1, actual.size());
+        assertEquals("value4", actual.get(0).getValue());
+    }
+
+    @Test
+    public void shouldRetrieveLazyList() {
+        List<SimpleListItem> actual = ListHelper.getLazyList(context.resourceResolver(), SIMPLE_LIST_PATH, SimpleListItem.class);
+        assertEquals("value3", actual.get(2).getValue());
+        assertEquals(5, actual.size());
+        assertEquals(
+            Arrays.asList("value1", "value2", "value3", "", "value4"),
+            actual.stream().map(SimpleListItem::getValue).collect(Collectors.toList()));
+
+        List<Resource> nonExisting = ListHelper.getLazyList(context.resourceResolver(), "non-existing-path", Resource.class);
+        assertTrue(nonExisting.isEmpty());
+    }
+
+    @Test
+    public void shouldRetrieveLazyMap() {
+        Map<String, ItemModel> actual = ListHelper.getLazyMap(
+            context.resourceResolver(),
+            CUSTOM_LIST_PATH,
+            "textValue",
+            ItemModel.class);
+        assertEquals(2, actual.size());
+        assertTrue(actual.containsKey("World"));
+        assertEquals(new ItemModel("World", false), actual.get("World"));
+        assertEquals(new ItemModel("Hello", true), actual.values().iterator().next());
+    }
+
+    @Test
+    public void shouldRefreshCachedListsUponListModification() throws PersistenceException {
+        // A list that has no modification stamps is not cached
+        List<SimpleListItem> lazyList = ListHelper.getLazyList(context.resourceResolver(), SIMPLE_LIST_PATH, SimpleListItem.class);
+        assertNotSame(lazyList, ListHelper.getLazyList(context.resourceResolver(), SIMPLE_LIST_PATH, SimpleListItem.class));
+
+        setLastModified(LAST_MODIFIED);
+        lazyList = ListHelper.getLazyList(context.resourceResolver(), SIMPLE_LIST_PATH, SimpleListItem.class);
+        Map<String, SimpleListItem> lazyMap = ListHelper.getLazyMap(
+            context.resourceResolver(),
+            SIMPLE_LIST_PATH,
+            JcrConstants.JCR_TITLE,
+            SimpleListItem.class);
+        Map<String, Resource> resourceMap = ListHelper.getResourceMap(context.resourceResolver(), SIMPLE_LIST_PATH);
+        assertSame(lazyList, ListHelper.getLazyList(context.resourceResolver(), SIMPLE_LIST_PATH, SimpleListItem.class));
+        assertSame(
+            lazyMap,
+            ListHelper.getLazyMap(context.resourceResolver(), SIMPLE_LIST_PATH, JcrConstants.JCR_TITLE, SimpleListItem.class));
+        assertEquals("value2", resourceMap.get("key2").getValueMap().get(CoreConstants.PN_VALUE));
+
+        // The items are modified, and the modification stamp of the list node is updated
+        Resource modifiedItem = Objects.requireNonNull(context.resourceResolver().getResource(SIMPLE_LIST_ITEMS_PATH + "/list_item_938979398"));
+        Objects.requireNonNull(modifiedItem.adaptTo(ModifiableValueMap.class)).put(JcrConstants.JCR_TITLE, "key5");
+        Resource removedItem = Objects.requireNonNull(context.resourceResolver().getResource(SIMPLE_LIST_ITEMS_PATH + "/list_item_empty"));
+        context.resourceResolver().delete(removedItem);
+        setLastModified(LAST_MODIFIED + 1);
+
+        List<SimpleListItem> updatedList = ListHelper.getLazyList(context.resourceResolver(), SIMPLE_LIST_PATH, SimpleListItem.class);
+        assertNotSame(lazyList, updatedList);
+        assertEquals(4, updatedList.size());
+        assertEquals("key5", updatedList.get(1).getTitle());
+
+        Map<String, SimpleListItem> updatedLazyMap = ListHelper.getLazyMap(
+            context.resourceResolver(),
+            SIMPLE_LIST_PATH,
+            JcrConstants.JCR_TITLE,
+            SimpleListItem.class);
+        assertNotSame(lazyMap, updatedLazyMap);
+        assertTrue(updatedLazyMap.containsKey("key5"));
+
+        Map<String, Resource> updatedMap = ListHelper.getResourceMap(context.resourceResolver(), SIMPLE_LIST_PATH);
+        assertFalse(updatedMap.containsKey("key2"));
+        assertEquals("value2", updatedMap.get("key5").getValueMap().get(CoreConstants.PN_VALUE));
+    }
+
     @Test
     public void shouldRetrieveBasicMap() {
         Map<String, String> actual = ListHelper.getMap(context.resourceResolver(), SIMPLE_LIST_PATH);
@@ -232,6 +325,14 @@ public class ListHelperTest {
         assertEquals(itemModel.booleanValue, listItem.getValueMap().get("booleanValue", false));
     }
 
+    private void setLastModified(long value) throws PersistenceException {
+        Resource listResource = Objects.requireNonNull(context.resourceResolver().getResource(SIMPLE_LIST_ITEMS_PATH));
+        Calendar lastModified = Calendar.getInstance();
+        lastModified.setTimeInMillis(value);
+        Objects.requireNonNull(listResource.adaptTo(ModifiableValueMap.class)).put(JcrConstants.JCR_LASTMODIFIED, lastModified);
+        context.resourceResolver().commit();
+    }
+
     @Model(adaptables = Resource.class, defaultInjectionStrategy = DefaultInjectionStrategy.OPTIONAL)
     @SuppressWarnings("unused")
     public static class ItemModel {
@@ -0,0 +1,188 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.core.optionprovider.services.impl;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.DynamicMBean;
+import javax.management.StandardMBean;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.testing.mock.sling.servlet.MockRequestPathInfo;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mockito;
+import io.wcm.testing.mock.aem.junit.AemContext;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import com.exadel.aem.toolkit.api.annotations.meta.ResourceTypes;
+import com.exadel.aem.toolkit.core.AemContextFactory;
+import com.exadel.aem.toolkit.core.CoreConstants;
+import com.exadel.aem.toolkit.core.TestConstants;
+
+public class OptionCacheTest {
+
+    private static final String MOCK_DATA = "/com/exadel/aem/toolkit/core/optionprovider/content.json";
+    private static final String RESOURCE_TYPE_PREFIX = "/apps/";
+    private static final String OBJECT_NAME_FILTER = "(jmx.objectname=com.exadel.aem.toolkit:type=OptionProvider,name=OptionCache)";
+
+    private static final String OPTIONS_PATH = "/content/options";
+    private static final String MORE_OPTIONS_PATH = "/content/moreOptions";
+
+    private static final String KEY_1 = "key1";
+    private static final String KEY_2 = "key2";
+    private static final String KEY_3 = "key3";
+
+    private static final int TTL = 10;
+
+    @Rule
+    public final AemContext context = AemContextFactory.newInstance();
+
+    private final AtomicLong time = new AtomicLong();
+
+    private List<Resource> options;
+
+    @Before
+    public void setUp() {
+        context.load().json(MOCK_DATA, TestConstants.ROOT_RESOURCE);
+        context.request().setResource(context.resourceResolver().getResource(TestConstants.ROOT_RESOURCE));
+        ((MockRequestPathInfo) context.request().getRequestPathInfo()).setResourcePath(RESOURCE_TYPE_PREFIX + ResourceTypes.OPTION_PROVIDER);
+        options = Collections.singletonList(context.resourceResolver().getResource(OPTIONS_PATH + "/option1"));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntries() {
+        OptionCache cache = newCache(2);
+        cache.put(KEY_1, options, Collections.singleton(OPTIONS_PATH), cache.getGeneration());
+        cache.put(KEY_2, options, Collections.singleton(OPTIONS_PATH), cache.getGeneration());
+        assertNotNull(cache.get(KEY_1, context.resourceResolver()));
+
+        cache.put(KEY_3, options, Collections.singleton(OPTIONS_PATH), cache.getGeneration());
+        assertEquals(2, cache.getSize());
+        assertNotNull(cache.get(KEY_1, context.resourceResolver()));
+        assertNull(cache.get(KEY_2, context.resourceResolver()));
+        assertNotNull(cache.get(KEY_3, context.resourceResolver()));
+    }
+
+    @Test
+    public void shouldExpireEntries() {
+        OptionCache cache = newCache(2);
+        cache.put(KEY_1, options, Collections.singleton(OPTIONS_PATH), cache.getGeneration());
+
+        time.addAndGet(TimeUnit.SECONDS.toMillis(TTL) - 1);
+        List<Resource> cached = cache.get(KEY_1, context.resourceResolver());
+        assertNotNull(cached);
+        assertEquals("value1", cached.get(0).getValueMap().get(CoreConstants.PN_VALUE));
+
+        time.incrementAndGet();
+        assertNull(cache.get(KEY_1, context.resourceResolver()));
+        assertEquals(0, cache.getSize());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void shouldInvalidateDependentEntries() {
+        OptionCache cache = newCache(2);
+        cache.put(KEY_1, options, Collections.singleton(OPTIONS_PATH), cache.getGeneration());
+        cache.put(KEY_2, options, Collections.singleton(MORE_OPTIONS_PATH), cache.getGeneration());
+
+        cache.onChange(Collections.singletonList(
+            new ResourceChange(ResourceChange.ChangeType.CHANGED, OPTIONS_PATH + "/option1", false)));
+        assertNull(cache.get(KEY_1, context.resourceResolver()));
+        assertNotNull(cache.get(KEY_2, context.resourceResolver()));
+
+        // A change of an ancestor invalidates the entries that depend on its descendants
+        cache.onChange(Collections.singletonList(
+            new ResourceChange(ResourceChange.ChangeType.REMOVED, TestConstants.ROOT_RESOURCE, false)));
+        assertNull(cache.get(KEY_2, context.resourceResolver()));
+        assertEquals(2, cache.getInvalidations());
+    }
+
+    @Test
+    public void shouldNotStoreStaleOrUnobservedEntries() {
+        OptionCache cache = newCache(2);
+        long generation = cache.getGeneration();
+        cache.onChange(Collections.singletonList(
+            new ResourceChange(ResourceChange.ChangeType.ADDED, MORE_OPTIONS_PATH, false)));
+        cache.put(KEY_1, options, Collections.singleton(OPTIONS_PATH), generation);
+        assertNull(cache.get(KEY_1, context.resourceResolver()));
+
+        cache.put(KEY_2, options, Collections.singleton("/var/options"), cache.getGeneration());
+        assertNull(cache.get(KEY_2, context.resourceResolver()));
+    }
+
+    @Test
+    public void shouldComposeKeyOfParametersAndSuffix() {
+        OptionProviderServiceImpl optionProvider = context.registerInjectActivateService(new OptionProviderServiceImpl());
+        OptionCacheMBean statistics = getStatistics();
+
+        context.request().setQueryString("path=/content/options");
+        optionProvider.getOptions(context.request());
+        optionProvider.getOptions(context.request());
+        assertEquals(1, statistics.getHits());
+
+        context.request().setQueryString("path=/content/options&exclude=*more");
+        optionProvider.getOptions(context.request());
+        assertEquals(1, statistics.getHits());
+
+        ((MockRequestPathInfo) context.request().getRequestPathInfo()).setSuffix(OPTIONS_PATH);
+        optionProvider.getOptions(context.request());
+        optionProvider.getOptions(context.request());
+        assertEquals(2, statistics.getHits());
+        assertEquals(3, statistics.getMisses());
+        assertEquals(3, statistics.getSize());
+    }
+
+    @Test
+    public void shouldReplaceRegistrationUponModification() {
+        OptionProviderServiceImpl optionProvider = context.registerInjectActivateService(new OptionProviderServiceImpl());
+        OptionCacheMBean statistics = getStatistics();
+
+        optionProvider.activate(context.bundleContext(), newConfig(2));
+        assertEquals(1, context.getServices(DynamicMBean.class, OBJECT_NAME_FILTER).length);
+        assertNotSame(statistics, getStatistics());
+
+        optionProvider.activate(context.bundleContext(), newConfig(0));
+        assertEquals(0, context.getServices(DynamicMBean.class, OBJECT_NAME_FILTER).length);
+    }
+
+    private OptionCache newCache(int size) {
+        return new OptionCache(newConfig(size), time::get);
+    }
+
+    private OptionCacheMBean getStatistics() {
+        DynamicMBean[] beans = context.getServices(DynamicMBean.class, OBJECT_NAME_FILTER);
+        assertEquals(1, beans.length);
+        return (OptionCacheMBean) ((StandardMBean) beans[0]).getImplementation();
+    }
+
+    private static OptionProviderServiceConfiguration newConfig(int size) {
+        OptionProviderServiceConfiguration config = Mockito.mock(OptionProviderServiceConfiguration.class);
+        Mockito.when(config.optionCacheSize()).thenReturn(size);
+        Mockito.when(config.optionCacheTtl()).thenReturn(TTL);
+        Mockito.when(config.optionCachePaths()).thenReturn(new String[] {TestConstants.ROOT_RESOURCE});
+        Mockito.when(config.httpMaxConnections()).thenReturn(1);
+        Mockito.when(config.httpMaxConnectionsPerRoute()).thenReturn(1);
+        Mockito.when(config.httpTimeout()).thenReturn(1);
+        return config;
+    }
+}
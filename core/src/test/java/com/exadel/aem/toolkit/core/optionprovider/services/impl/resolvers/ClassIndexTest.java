@@ -0,0 +1,160 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.core.optionprovider.services.impl.resolvers;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.api.wrappers.ValueMapDecorator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.exadel.aem.toolkit.core.CoreConstants;
+import com.exadel.aem.toolkit.core.injectors.models.enums.ColorConstants;
+import com.exadel.aem.toolkit.core.injectors.models.enums.Colors;
+
+public class ClassIndexTest {
+
+    private static final long PROVIDING_BUNDLE_ID = 1L;
+    private static final long OTHER_BUNDLE_ID = 2L;
+
+    private static final List<String> OPTIONS_KEY = Collections.singletonList("key");
+
+    private Bundle providingBundle;
+    private Bundle otherBundle;
+    private BundleContext bundleContext;
+    private ClassIndex index;
+
+    @Before
+    public void setUp() throws ClassNotFoundException {
+        otherBundle = Mockito.mock(Bundle.class);
+        Mockito.when(otherBundle.getBundleId()).thenReturn(OTHER_BUNDLE_ID);
+        Mockito.doThrow(ClassNotFoundException.class).when(otherBundle).loadClass(Mockito.anyString());
+
+        providingBundle = Mockito.mock(Bundle.class);
+        Mockito.when(providingBundle.getBundleId()).thenReturn(PROVIDING_BUNDLE_ID);
+        Mockito.doThrow(ClassNotFoundException.class).when(providingBundle).loadClass(Mockito.anyString());
+        Mockito.doReturn(ColorConstants.class).when(providingBundle).loadClass(ColorConstants.class.getName());
+        Mockito.doReturn(Colors.class).when(providingBundle).loadClass(Colors.class.getName());
+        Mockito.doReturn(MutableConstants.class).when(providingBundle).loadClass(MutableConstants.class.getName());
+
+        bundleContext = Mockito.mock(BundleContext.class);
+        Mockito.when(bundleContext.getBundles()).thenReturn(new Bundle[] {otherBundle, providingBundle});
+
+        index = new ClassIndex(bundleContext);
+        index.open();
+    }
+
+    @After
+    public void tearDown() {
+        index.close();
+    }
+
+    @Test
+    public void shouldIndexFoundClasses() throws ClassNotFoundException {
+        ClassIndex.Entry entry = index.get(ColorConstants.class.getName());
+        assertNotNull(entry);
+        assertEquals(ColorConstants.class, entry.getType());
+        assertSame(entry, index.get(ColorConstants.class.getName()));
+        Mockito.verify(providingBundle, Mockito.times(1)).loadClass(ColorConstants.class.getName());
+        Mockito.verify(bundleContext).addBundleListener(index);
+    }
+
+    @Test
+    public void shouldNotIndexMissingClasses() throws ClassNotFoundException {
+        String missingName = ColorConstants.class.getName() + "Missing";
+        assertNull(index.get(missingName));
+        assertNull(index.get(missingName));
+        // The search is repeated because the class can appear in a bundle installed later
+        Mockito.verify(providingBundle, Mockito.times(2)).loadClass(missingName);
+    }
+
+    @Test
+    public void shouldDropEntriesUponBundleEvents() {
+        ClassIndex.Entry entry = index.get(ColorConstants.class.getName());
+
+        index.bundleChanged(new BundleEvent(BundleEvent.STARTED, providingBundle));
+        index.bundleChanged(new BundleEvent(BundleEvent.UPDATED, otherBundle));
+        assertSame(entry, index.get(ColorConstants.class.getName()));
+
+        index.bundleChanged(new BundleEvent(BundleEvent.UPDATED, providingBundle));
+        ClassIndex.Entry updatedEntry = index.get(ColorConstants.class.getName());
+        assertNotSame(entry, updatedEntry);
+
+        index.bundleChanged(new BundleEvent(BundleEvent.UNINSTALLED, providingBundle));
+        assertNotSame(updatedEntry, index.get(ColorConstants.class.getName()));
+    }
+
+    @Test
+    public void shouldCacheOptionsOfConstantClasses() {
+        ClassIndex.Entry entry = index.get(ColorConstants.class.getName());
+        AtomicInteger builds = new AtomicInteger();
+        List<Map<String, Object>> options = entry.getOptions(OPTIONS_KEY, () -> buildOptions(builds, ColorConstants.LABEL_RED));
+        assertSame(options, entry.getOptions(OPTIONS_KEY, () -> buildOptions(builds, ColorConstants.LABEL_RED)));
+        assertEquals(1, builds.get());
+
+        entry.getOptions(Collections.emptyList(), () -> buildOptions(builds, ColorConstants.LABEL_RED));
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    public void shouldReadOptionsOfMutableClassesLive() {
+        ClassIndex.Entry entry = index.get(MutableConstants.class.getName());
+        AtomicInteger builds = new AtomicInteger();
+        assertEquals(
+            "Initial",
+            entry.getOptions(OPTIONS_KEY, () -> buildOptions(builds, MutableConstants.value)).get(0).get(CoreConstants.PN_VALUE));
+        MutableConstants.value = "Modified";
+        assertEquals(
+            "Modified",
+            entry.getOptions(OPTIONS_KEY, () -> buildOptions(builds, MutableConstants.value)).get(0).get(CoreConstants.PN_VALUE));
+        MutableConstants.value = "Initial";
+
+        ClassIndex.Entry enumEntry = index.get(Colors.class.getName());
+        enumEntry.getOptions(OPTIONS_KEY, () -> buildOptions(builds, Colors.RED.toString()));
+        enumEntry.getOptions(OPTIONS_KEY, () -> buildOptions(builds, Colors.RED.toString()));
+        assertEquals(4, builds.get());
+    }
+
+    /* ---------------
+       Service methods
+       --------------- */
+
+    private static List<ValueMap> buildOptions(AtomicInteger counter, String value) {
+        counter.incrementAndGet();
+        return Collections.singletonList(new ValueMapDecorator(Collections.<String, Object>singletonMap(CoreConstants.PN_VALUE, value)));
+    }
+
+    /* ---------------
+       Service classes
+       --------------- */
+
+    public static class MutableConstants {
+        public static final String LABEL = "Label";
+        public static String value = "Initial";
+    }
+}
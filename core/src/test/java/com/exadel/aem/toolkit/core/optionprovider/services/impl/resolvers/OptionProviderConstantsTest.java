@@ -16,6 +16,7 @@ package com.exadel.aem.toolkit.core.optionprovider.services.impl.resolvers;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.testing.mock.sling.servlet.MockRequestPathInfo;
@@ -28,7 +29,10 @@ import org.osgi.framework.BundleContext;
 import io.wcm.testing.mock.aem.junit.AemContext;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
 
 import com.exadel.aem.toolkit.api.annotations.meta.ResourceTypes;
 import com.exadel.aem.toolkit.core.AemContextFactory;
@@ -59,6 +63,7 @@ public class OptionProviderConstantsTest {
 
         Bundle bundle = Mockito.mock(Bundle.class);
         Mockito.doReturn(ColorConstants.class).when(bundle).loadClass(ColorConstants.class.getName());
+        Mockito.doReturn(ClassIndexTest.MutableConstants.class).when(bundle).loadClass(ClassIndexTest.MutableConstants.class.getName());
         BundleContext bundleContext = Mockito.mock(BundleContext.class);
         Mockito.when(bundleContext.getBundle()).thenReturn(bundle);
         context.request().setAttribute(BundleContext.class.getName(), bundleContext);
@@ -103,4 +108,25 @@ public class OptionProviderConstantsTest {
             new String[] {"White", "Black"},
             options.stream().map(Resource::getValueMap).map(vm -> vm.get(CoreConstants.PN_TEXT)).toArray());
     }
+
+    @Test
+    public void shouldNotCacheOptionsOfMutableClasses() {
+        context.request().setQueryString("path=" + ClassIndexTest.MutableConstants.class.getName());
+        try {
+            List<Resource> options = optionProvider.getOptions(context.request());
+            assertTrue(getValues(options).contains("Initial"));
+
+            ClassIndexTest.MutableConstants.value = "Modified";
+            List<Resource> updatedOptions = optionProvider.getOptions(context.request());
+            assertNotSame(options, updatedOptions);
+            assertTrue(getValues(updatedOptions).contains("Modified"));
+            assertFalse(getValues(updatedOptions).contains("Initial"));
+        } finally {
+            ClassIndexTest.MutableConstants.value = "Initial";
+        }
+    }
+
+    private static List<Object> getValues(List<Resource> options) {
+        return options.stream().map(Resource::getValueMap).map(vm -> vm.get(CoreConstants.PN_VALUE)).collect(Collectors.toList());
+    }
 }
@@ -15,17 +15,30 @@ package com.exadel.aem.toolkit.core.optionprovider.services.impl.resolvers;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.HttpVersion;
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.message.BasicHttpResponse;
+import org.apache.sling.api.resource.Resource;
 import org.apache.sling.testing.mock.sling.servlet.MockRequestPathInfo;
 import org.junit.Before;
 import org.junit.Rule;
@@ -33,16 +46,32 @@ import org.junit.Test;
 import org.mockito.Mockito;
 import io.wcm.testing.mock.aem.junit.AemContext;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import com.exadel.aem.toolkit.api.annotations.meta.ResourceTypes;
 import com.exadel.aem.toolkit.core.AemContextFactory;
 import com.exadel.aem.toolkit.core.CoreConstants;
 import com.exadel.aem.toolkit.core.TestConstants;
 import com.exadel.aem.toolkit.core.optionprovider.services.OptionProviderService;
+import com.exadel.aem.toolkit.core.optionprovider.services.impl.OptionProviderServiceConfiguration;
 import com.exadel.aem.toolkit.core.optionprovider.services.impl.OptionProviderServiceImpl;
+import com.exadel.aem.toolkit.core.optionprovider.services.impl.PathParameters;
 
 public class OptionProviderHttpTest {
 
+    private static final String ENDPOINT_1 = "https://acme.com/sample1.json";
+    private static final String ENDPOINT_2 = "https://acme.com/sample2.json";
+    private static final String ENDPOINT_3 = "https://acme.com/sample3.json";
+
+    private static final String RESPONSE_FILE = "httpResponse1.json";
+    private static final String ETAG = "\"v1\"";
+
+    private static final int CACHE_TTL = 60;
+    private static final int MAX_AGE = 10;
+    private static final int SHARED_MAX_AGE = 30;
+
     @Rule
     public final AemContext context = AemContextFactory.newInstance();
 
@@ -108,21 +137,186 @@ public class OptionProviderHttpTest {
                 .toArray());
     }
 
+    @Test
+    public void shouldEvictLeastRecentlyUsedResponses() throws IOException {
+        String json = getMockJson(RESPONSE_FILE);
+        HttpClient mockHttpClient = getMockHttpClient(request -> getMockResponse(HttpStatus.SC_OK, json));
+        HttpOptionSourceResolver resolver = new HttpOptionSourceResolver(mockHttpClient);
+        resolver.configure(getMockConfig(2, CACHE_TTL));
+
+        resolve(resolver, ENDPOINT_1);
+        resolve(resolver, ENDPOINT_2);
+        resolve(resolver, ENDPOINT_1);
+        resolve(resolver, ENDPOINT_3);
+        verifyRequests(mockHttpClient, ENDPOINT_1, 1);
+        verifyRequests(mockHttpClient, ENDPOINT_3, 1);
+
+        // The second endpoint was the least recently used one when the third endpoint was added to the full cache
+        resolve(resolver, ENDPOINT_2);
+        resolve(resolver, ENDPOINT_3);
+        verifyRequests(mockHttpClient, ENDPOINT_2, 2);
+        verifyRequests(mockHttpClient, ENDPOINT_3, 1);
+    }
+
+    @Test
+    public void shouldRevalidateResponsesWithETag() throws IOException {
+        String json = getMockJson(RESPONSE_FILE);
+        List<String> eTags = Collections.synchronizedList(new ArrayList<>());
+        HttpClient mockHttpClient = getMockHttpClient(request -> {
+            Header eTag = request.getFirstHeader(HttpHeaders.IF_NONE_MATCH);
+            eTags.add(eTag != null ? eTag.getValue() : null);
+            HttpResponse response = eTag != null
+                ? getMockResponse(HttpStatus.SC_NOT_MODIFIED, null)
+                : getMockResponse(HttpStatus.SC_OK, json);
+            response.addHeader(HttpHeaders.ETAG, ETAG);
+            response.addHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            return response;
+        });
+        HttpOptionSourceResolver resolver = new HttpOptionSourceResolver(mockHttpClient);
+        resolver.configure(getMockConfig(2, CACHE_TTL));
+
+        assertEquals(3, resolve(resolver, ENDPOINT_1).size());
+        assertEquals(3, resolve(resolver, ENDPOINT_1).size());
+        assertEquals(3, resolve(resolver, ENDPOINT_1).size());
+        assertEquals(Arrays.asList(null, ETAG, ETAG), eTags);
+    }
+
+    @Test
+    public void shouldRespectMaxAge() throws IOException {
+        String json = getMockJson(RESPONSE_FILE);
+        HttpClient mockHttpClient = getMockHttpClient(request -> {
+            HttpResponse response = getMockResponse(HttpStatus.SC_OK, json);
+            response.addHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + MAX_AGE);
+            return response;
+        });
+        AtomicLong time = new AtomicLong();
+        HttpOptionSourceResolver resolver = new HttpOptionSourceResolver(mockHttpClient, time::get);
+        resolver.configure(getMockConfig(2, CACHE_TTL));
+
+        resolve(resolver, ENDPOINT_1);
+        time.addAndGet(TimeUnit.SECONDS.toMillis(MAX_AGE) - 1);
+        resolve(resolver, ENDPOINT_1);
+        verifyRequests(mockHttpClient, ENDPOINT_1, 1);
+
+        time.incrementAndGet();
+        resolve(resolver, ENDPOINT_1);
+        verifyRequests(mockHttpClient, ENDPOINT_1, 2);
+    }
+
+    @Test
+    public void shouldRespectMaxAgeShorterThanSharedMaxAge() throws IOException {
+        String json = getMockJson(RESPONSE_FILE);
+        HttpClient mockHttpClient = getMockHttpClient(request -> {
+            HttpResponse response = getMockResponse(HttpStatus.SC_OK, json);
+            response.addHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + MAX_AGE + ", s-maxage=" + SHARED_MAX_AGE);
+            return response;
+        });
+        AtomicLong time = new AtomicLong();
+        HttpOptionSourceResolver resolver = new HttpOptionSourceResolver(mockHttpClient, time::get);
+        resolver.configure(getMockConfig(2, CACHE_TTL));
+
+        resolve(resolver, ENDPOINT_1);
+        time.addAndGet(TimeUnit.SECONDS.toMillis(MAX_AGE) - 1);
+        resolve(resolver, ENDPOINT_1);
+        verifyRequests(mockHttpClient, ENDPOINT_1, 1);
+
+        // The response must not outlive the "max-age" even though the "s-maxage" is longer
+        time.incrementAndGet();
+        resolve(resolver, ENDPOINT_1);
+        verifyRequests(mockHttpClient, ENDPOINT_1, 2);
+    }
+
+    @Test
+    public void shouldCoalesceConcurrentRequests() throws IOException, InterruptedException {
+        String json = getMockJson(RESPONSE_FILE);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        HttpClient mockHttpClient = getMockHttpClient(request -> {
+            started.countDown();
+            try {
+                assertTrue(proceed.await(1, TimeUnit.MINUTES));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return getMockResponse(HttpStatus.SC_OK, json);
+        });
+        HttpOptionSourceResolver resolver = new HttpOptionSourceResolver(mockHttpClient);
+        // Caching is disabled, so the second caller can only get the result by joining the request in flight
+        resolver.configure(getMockConfig(2, 0));
+
+        AtomicReference<Resource> first = new AtomicReference<>();
+        AtomicReference<Resource> second = new AtomicReference<>();
+        Thread firstThread = new Thread(() -> first.set(resolveResource(resolver, ENDPOINT_1)));
+        Thread secondThread = new Thread(() -> second.set(resolveResource(resolver, ENDPOINT_1)));
+        firstThread.start();
+        assertTrue(started.await(1, TimeUnit.MINUTES));
+        secondThread.start();
+        while (secondThread.isAlive() && secondThread.getState() != Thread.State.WAITING) {
+            Thread.yield();
+        }
+        proceed.countDown();
+        firstThread.join();
+        secondThread.join();
+
+        assertNotNull(first.get());
+        assertNotNull(second.get());
+        verifyRequests(mockHttpClient, ENDPOINT_1, 1);
+    }
+
     /* ---------------
        Service methods
        --------------- */
 
+    private List<Resource> resolve(HttpOptionSourceResolver resolver, String endpoint) {
+        Resource resource = resolveResource(resolver, endpoint);
+        assertNotNull(resource);
+        List<Resource> result = new ArrayList<>();
+        resource.listChildren().forEachRemaining(result::add);
+        return result;
+    }
+
+    private Resource resolveResource(HttpOptionSourceResolver resolver, String endpoint) {
+        return resolver.resolve(context.request(), PathParameters.builder().path(endpoint).build());
+    }
+
+    private static void verifyRequests(HttpClient httpClient, String endpoint, int count) throws IOException {
+        Mockito.verify(httpClient, Mockito.times(count))
+            .execute(Mockito.argThat((HttpUriRequest request) -> endpoint.equals(request.getURI().toString())));
+    }
+
+    private static OptionProviderServiceConfiguration getMockConfig(int cacheSize, int cacheTtl) {
+        OptionProviderServiceConfiguration config = Mockito.mock(OptionProviderServiceConfiguration.class);
+        Mockito.when(config.httpCacheSize()).thenReturn(cacheSize);
+        Mockito.when(config.httpCacheTtl()).thenReturn(cacheTtl);
+        return config;
+    }
+
     private static HttpClient getMockHttpClient(String contentFile) throws IOException {
+        String json = getMockJson(contentFile);
+        return getMockHttpClient(request -> getMockResponse(HttpStatus.SC_OK, json));
+    }
+
+    private static HttpClient getMockHttpClient(Function<HttpUriRequest, HttpResponse> responder) throws IOException {
+        HttpClient mockHttpClient = Mockito.mock(HttpClient.class);
+        Mockito.when(mockHttpClient.execute(Mockito.any(HttpUriRequest.class)))
+            .thenAnswer(invocation -> responder.apply(invocation.getArgument(0)));
+        return mockHttpClient;
+    }
+
+    private static HttpResponse getMockResponse(int status, String json) {
+        HttpResponse mockHttpResponse = new BasicHttpResponse(new HttpVersion(1, 0), status, StringUtils.EMPTY);
+        if (json != null) {
+            mockHttpResponse.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
+        }
+        return mockHttpResponse;
+    }
+
+    private static String getMockJson(String contentFile) throws IOException {
         String mockDataPath = StringUtils.substringBeforeLast(OptionProviderTest.MOCK_DATA, CoreConstants.SEPARATOR_SLASH)
             + CoreConstants.SEPARATOR_SLASH
             + contentFile;
-        String expectedJson = IOUtils.toString(
+        return IOUtils.toString(
             Objects.requireNonNull(OptionProviderHttpTest.class.getResourceAsStream(mockDataPath)),
             StandardCharsets.UTF_8);
-        HttpClient mockHttpClient = Mockito.mock(HttpClient.class);
-        HttpResponse mockHttpResponse = new BasicHttpResponse(new HttpVersion(1, 0), HttpStatus.SC_OK, StringUtils.EMPTY);
-        mockHttpResponse.setEntity(new StringEntity(expectedJson, ContentType.APPLICATION_JSON));
-        Mockito.when(mockHttpClient.execute(Mockito.any())).thenReturn(mockHttpResponse);
-        return mockHttpClient;
     }
 }
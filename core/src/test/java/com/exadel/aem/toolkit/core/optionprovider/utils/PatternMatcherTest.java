@@ -0,0 +1,58 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.core.optionprovider.utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PatternMatcherTest {
+
+    private static final List<String> VALUES = Arrays.asList(
+        null, "", "a", "ab", "abc", "bca", "cab", "xyz", "prefix-value", "value-suffix", "inner-fragment-value", "*");
+
+    @Test
+    public void shouldMatchSameAsPatternUtil() {
+        List<List<String>> patternSets = Arrays.asList(
+            Collections.singletonList("ab"),
+            Arrays.asList("a*", "*a"),
+            Arrays.asList("prefix*", "*suffix", "*fragment*"),
+            Arrays.asList("ab*", "abc*", "*bc", "*c"),
+            Arrays.asList("", null, "xyz"),
+            Collections.singletonList("**"),
+            Collections.singletonList("*"));
+
+        for (List<String> patterns : patternSets) {
+            PatternMatcher matcher = PatternMatcher.compile(patterns);
+            for (String value : VALUES) {
+                assertEquals(
+                    "Mismatch for " + value + " in " + patterns,
+                    PatternUtil.isMatch(value, patterns),
+                    matcher.isMatch(value));
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotMatchWhenEmpty() {
+        assertTrue(PatternMatcher.compile(null).isEmpty());
+        assertTrue(PatternMatcher.compile(Arrays.asList("", null)).isEmpty());
+        assertFalse(PatternMatcher.compile(Collections.emptyList()).isMatch("a"));
+    }
+}
@@ -14,6 +14,7 @@
 package com.exadel.aem.toolkit.core.policymanagement.filters;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Objects;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -22,6 +23,7 @@ import javax.servlet.ServletResponse;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.observation.ResourceChange;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -42,6 +44,7 @@ public class TopLevelPolicyFilterTest {
 
     private TopLevelPolicyFilter topLevelPolicyFilter;
     private MockFilterChain filterChain;
+    private Component mockComponent;
 
     @Before
     public void setUp() {
@@ -51,7 +54,8 @@ public class TopLevelPolicyFilterTest {
         topLevelPolicyFilter = context.registerInjectActivateService(new TopLevelPolicyFilter());
         filterChain = context.registerService(new MockFilterChain());
 
-        context.registerAdapter(Resource.class, Component.class, getMockComponent());
+        mockComponent = getMockComponent();
+        context.registerAdapter(Resource.class, Component.class, mockComponent);
     }
 
     @Test
@@ -64,6 +68,22 @@ public class TopLevelPolicyFilterTest {
         assertTrue(StringUtils.contains(context.response().getOutputAsString(), "window.eakApplyTopLevelPolicy"));
     }
 
+    @Test
+    public void shouldReuseRenderedScript() throws ServletException, IOException {
+        context.requestPathInfo().setResourcePath("/libs/cq/gui/content/editor");
+        context.requestPathInfo().setSuffix("/content/acme/page");
+
+        topLevelPolicyFilter.doFilter(context.request(), context.response(), filterChain);
+        topLevelPolicyFilter.doFilter(context.request(), context.response(), filterChain);
+        Mockito.verify(mockComponent, Mockito.times(1)).getDeclaredChildEditConfig();
+
+        topLevelPolicyFilter.onChange(Collections.singletonList(
+            new ResourceChange(ResourceChange.ChangeType.CHANGED, "/apps/acme/components/pages/generic", false)));
+        topLevelPolicyFilter.doFilter(context.request(), context.response(), filterChain);
+        Mockito.verify(mockComponent, Mockito.times(2)).getDeclaredChildEditConfig();
+        assertTrue(StringUtils.contains(context.response().getOutputAsString(), "window.eakApplyTopLevelPolicy"));
+    }
+
     private Component getMockComponent() {
         Component mockComponent = Mockito.mock(Component.class);
         ComponentEditConfig mockEditConfig = Mockito.mock(ComponentEditConfig.class);
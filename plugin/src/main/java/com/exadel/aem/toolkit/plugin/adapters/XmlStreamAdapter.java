@@ -0,0 +1,180 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.plugin.adapters;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.exadel.aem.toolkit.api.handlers.Adapts;
+import com.exadel.aem.toolkit.api.handlers.Target;
+import com.exadel.aem.toolkit.plugin.runtime.XmlContextHelper;
+import com.exadel.aem.toolkit.plugin.utils.NamingUtil;
+
+/**
+ * Adapts a {@link Target} instance to render it directly into a character stream as an XML document, without building
+ * a DOM {@code Document}. The output is the same as the one produced by serializing the document created with
+ * {@link DomAdapter}: namespace declarations are placed in the root element, attributes are sorted by name, and the
+ * characters that are not preserved by XML parsers in attribute values are escaped
+ */
+@Adapts(Target.class)
+public class XmlStreamAdapter {
+
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>";
+    private static final String NAMESPACE_ATTRIBUTE = "xmlns";
+
+    // A conservative subset of XML names. Names that contain other characters are left to the DOM implementation to
+    // validate
+    private static final Pattern VALID_NAME = Pattern.compile("[A-Za-z_:][A-Za-z0-9_:.-]*");
+
+    private final Target target;
+
+    /**
+     * Constructor per {@link Adapts} contract
+     * @param target {@code Target} object that will be used as a source of data for rendering
+     */
+    public XmlStreamAdapter(Target target) {
+        this.target = target;
+    }
+
+    /**
+     * Gets whether the {@code Target} passed upon class initialization can be rendered by this adapter. A target that
+     * contains custom namespace declarations is not considered streamable because such declarations are reordered and
+     * deduplicated by a DOM serializer. Neither is a target that contains names not known to be valid XML names, so that
+     * such names are reported by the DOM implementation the same way as when streaming is not used
+     * @return True or false
+     */
+    public boolean isStreamable() {
+        return target != null && isStreamable(target);
+    }
+
+    /**
+     * Renders the {@code Target} passed upon class initialization into the given character stream
+     * @param writer {@link Writer} instance
+     * @throws IOException if the data cannot be written
+     */
+    public void writeDocument(Writer writer) throws IOException {
+        writer.write(XML_DECLARATION);
+        writeElement(writer, target, true);
+    }
+
+    /**
+     * Called by {@link XmlStreamAdapter#isStreamable()} to test the given {@code Target} and its descendants
+     * @param current {@code Target} object
+     * @return True or false
+     */
+    private static boolean isStreamable(Target current) {
+        return VALID_NAME.matcher(NamingUtil.getValidNodeName(current.getName())).matches()
+            && current.getAttributes().keySet().stream().allMatch(XmlStreamAdapter::isStreamableAttribute)
+            && current.getChildren().stream().allMatch(XmlStreamAdapter::isStreamable);
+    }
+
+    /**
+     * Called by {@link XmlStreamAdapter#isStreamable(Target)} to test the name of an attribute
+     * @param name Name of the attribute
+     * @return True or false
+     */
+    private static boolean isStreamableAttribute(String name) {
+        return name != null && !StringUtils.startsWith(name, NAMESPACE_ATTRIBUTE) && VALID_NAME.matcher(name).matches();
+    }
+
+    /**
+     * Renders an XML element with the data of the given {@code Target} and then renders its children
+     * @param writer  {@link Writer} instance
+     * @param current {@code Target} object holding the data for rendering
+     * @param isRoot  True to render the document element; false to render an ordinary nested element
+     * @throws IOException if the data cannot be written
+     */
+    private static void writeElement(Writer writer, Target current, boolean isRoot) throws IOException {
+        String name = NamingUtil.getValidNodeName(current.getName());
+        writer.write('<');
+        writer.write(name);
+        if (isRoot) {
+            for (Map.Entry<String, String> entry : new TreeMap<>(XmlContextHelper.NAMESPACES).entrySet()) {
+                writeAttribute(writer, XmlContextHelper.NAMESPACE_PREFIX + entry.getKey(), entry.getValue());
+            }
+        }
+        for (Map.Entry<String, String> entry : new TreeMap<>(current.getAttributes()).entrySet()) {
+            writeAttribute(writer, entry.getKey(), entry.getValue());
+        }
+        if (current.getChildren().isEmpty()) {
+            writer.write("/>");
+            return;
+        }
+        writer.write('>');
+        for (Target child : current.getChildren()) {
+            writeElement(writer, child, false);
+        }
+        writer.write("</");
+        writer.write(name);
+        writer.write('>');
+    }
+
+    /**
+     * Renders an XML attribute
+     * @param writer {@link Writer} instance
+     * @param name   Name of the attribute
+     * @param value  Value of the attribute
+     * @throws IOException if the data cannot be written
+     */
+    private static void writeAttribute(Writer writer, String name, String value) throws IOException {
+        writer.write(' ');
+        writer.write(name);
+        writer.write("=\"");
+        writeEscaped(writer, value);
+        writer.write('"');
+    }
+
+    /**
+     * Renders the given attribute value. Markup characters are replaced with entities. Control characters, including
+     * line breaks and tabs, as well as supplementary characters, are replaced with numeric character references
+     * @param writer {@link Writer} instance
+     * @param value  String value to render
+     * @throws IOException if the data cannot be written
+     */
+    private static void writeEscaped(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        int position = 0;
+        while (position < value.length()) {
+            int codePoint = value.codePointAt(position);
+            position += Character.charCount(codePoint);
+            switch (codePoint) {
+                case '&':
+                    writer.write("&amp;");
+                    break;
+                case '<':
+                    writer.write("&lt;");
+                    break;
+                case '>':
+                    writer.write("&gt;");
+                    break;
+                case '"':
+                    writer.write("&quot;");
+                    break;
+                default:
+                    if (codePoint < ' ' || Character.isSupplementaryCodePoint(codePoint)) {
+                        writer.write("&#" + codePoint + ';');
+                    } else {
+                        writer.write(codePoint);
+                    }
+            }
+        }
+    }
+}
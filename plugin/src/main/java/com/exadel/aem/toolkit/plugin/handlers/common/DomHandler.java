@@ -18,6 +18,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
@@ -60,6 +61,21 @@ public class DomHandler {
 
     }
 
+    /**
+     * Gets whether processing the given {@code Source} within the given scope would modify a DOM {@code Document}. If
+     * not, the document does not need to be built at all, and the data can be rendered in a streaming manner
+     * @param source {@code Source} object used for data retrieval
+     * @param scope  Non-blank string representing an ordinary component part scope
+     * @return True or false
+     */
+    public boolean isApplicable(Source source, String scope) {
+        Class<?> componentClass = source.adaptTo(Class.class);
+        boolean hasCommonProperties = Arrays.stream(componentClass.getAnnotationsByType(CommonProperty.class))
+            .anyMatch(p -> StringUtils.equals(scope, p.scope()));
+        return hasCommonProperties
+            || (Scopes.CQ_DIALOG.equals(scope) && getLegacyDialogHandlers(componentClass).findAny().isPresent());
+    }
+
     /* -----------------
        Common properties
        ----------------- */
@@ -129,13 +145,24 @@ public class DomHandler {
     @SuppressWarnings({"deprecation", "squid:S1905"}) // DialogHandler reference and DialogHandler#accept(Element, Class)
     // method are retained for compatibility and will be removed in a version after 2.0.2
     private static void applyLegacyDialogHandlers(Class<?> componentClass, Element element) {
+        getLegacyDialogHandlers(componentClass).forEach(handler -> handler.accept(element, componentClass));
+    }
+
+    /**
+     * Retrieves legacy handlers (those consuming the pair of {@code Element} and {@code Class<?>} references) that are
+     * referenced by the annotations of the given class
+     * @param componentClass The {@code Class<?>} that a legacy handler processes
+     * @return {@code Stream} of handler instances
+     */
+    @SuppressWarnings("deprecation") // DialogHandler reference is retained for compatibility and will be removed in a
+    // version after 2.0.2
+    private static Stream<DialogHandler> getLegacyDialogHandlers(Class<?> componentClass) {
         List<DialogAnnotation> customAnnotations = getLegacyDialogAnnotations(componentClass);
-        PluginRuntime.context().getReflection().getHandlers().stream()
+        return PluginRuntime.context().getReflection().getHandlers().stream()
             .filter(handler -> handler instanceof DialogHandler)
             .map(handler -> (DialogHandler) handler)
             .filter(handler -> customAnnotations.stream()
-                .anyMatch(annotation -> StringUtils.equals(annotation.source(), handler.getName())))
-            .forEach(handler -> handler.accept(element, componentClass));
+                .anyMatch(annotation -> StringUtils.equals(annotation.source(), handler.getName())));
     }
 
     /**
@@ -133,8 +133,8 @@ public class PlacementHelper {
         PlacementCollisionSolver.resolveFieldMethodNameCoincidences(members.getAvailable());
         Target itemsElement = container.getOrCreateTarget(DialogConstants.NN_ITEMS);
 
-        while (!members.getAvailable().isEmpty()) {
-            Source candidate = members.getAvailable().get(0);
+        Source candidate = members.getFirstAvailable();
+        while (candidate != null) {
             Target newElement = itemsElement.getOrCreateTarget(NamingUtil.stripGetterPrefix(candidate));
 
             // For historic reasons, we allow members annotated with @Place("...") in a single-column buildup without
@@ -157,6 +157,7 @@ public class PlacementHelper {
             // Run handling strictly after checkout so that the involved handlers are informed on the updates
             // of the sources' states
             Handlers.forMember().accept(candidate, newElement);
+            candidate = members.getFirstAvailable();
         }
     }
 
@@ -13,19 +13,32 @@
  */
 package com.exadel.aem.toolkit.plugin.handlers.placement.registries;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
+import org.apache.commons.lang3.tuple.Pair;
+
+import com.exadel.aem.toolkit.api.handlers.MemberSource;
 import com.exadel.aem.toolkit.api.handlers.Source;
 
 /**
  * Collects and manages information on Java class members that can be rendered in a particular container, such as a
  * dialog with its tabs or panels, or else an in-dialog container widget. This registry is designed to be shared among
  * various handlers to avoid rendering the same member several times
+ * <p>Entries are kept in the order of registration and are additionally indexed by the identity of their {@code Source}
+ * objects, so that a member is looked up in constant time. Since an entry never returns to the "available" state once
+ * it has been checked out, the registry remembers the position of the first available entry and does not scan the
+ * entries before it again</p>
  */
 public class MembersRegistry {
 
     private final List<Entry> entries;
+    private final Map<Source, Entry> index;
+    private int firstAvailable;
 
     /**
      * Creates a new independent registry instance
@@ -46,10 +59,11 @@ public class MembersRegistry {
      * @param members  List of additional ("local") {@code Source} objects representing class members
      */
     public MembersRegistry(MembersRegistry upstream, List<Source> members) {
-        entries = members
-            .stream()
-            .map(member -> findMatchOrCreate(upstream, member))
-            .collect(Collectors.toList());
+        entries = new ArrayList<>(members.size());
+        index = new IdentityHashMap<>(members.size() * 2);
+        for (Source member : members) {
+            register(findMatchOrCreate(upstream, member));
+        }
     }
 
     /**
@@ -58,11 +72,24 @@ public class MembersRegistry {
      * @return List of {@code Source}s representing class members; possibly an empty list
      */
     public List<Source> getAvailable() {
-        return entries
-            .stream()
-            .filter(entry -> entry.getState() == EntryState.AVAILABLE)
-            .map(Entry::getMember)
-            .collect(Collectors.toList());
+        List<Source> result = new ArrayList<>();
+        for (int i = skipUnavailable(); i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            if (entry.getState() == EntryState.AVAILABLE) {
+                result.add(entry.getMember());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the first of the members currently available for placement. This is a shortcut for the first element
+     * of {@link MembersRegistry#getAvailable()} that does not require building the whole list
+     * @return {@code Source} object representing a class member, or null if there are no available members
+     */
+    public Source getFirstAvailable() {
+        int position = skipUnavailable();
+        return position < entries.size() ? entries.get(position).getMember() : null;
     }
 
     /**
@@ -72,11 +99,13 @@ public class MembersRegistry {
      * @return List of {@code Source}s representing class members; possibly an empty list
      */
     public List<Source> getAllAvailable() {
-        return entries
-            .stream()
-            .filter(entry -> entry.getState() == EntryState.AVAILABLE || entry.getState() == EntryState.SOFT_CHECKED_OUT)
-            .map(Entry::getMember)
-            .collect(Collectors.toList());
+        List<Source> result = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.getState() == EntryState.AVAILABLE || entry.getState() == EntryState.SOFT_CHECKED_OUT) {
+                result.add(entry.getMember());
+            }
+        }
+        return result;
     }
 
     /**
@@ -85,12 +114,23 @@ public class MembersRegistry {
      * @param members List of additional {@code Source} objects representing class members
      */
     public void add(List<Source> members) {
-        List<Entry> additionalEntries = members
-            .stream()
-            .filter(member -> entries.stream().noneMatch(entry -> entry.isSameMember(member)))
-            .map(Entry::new)
-            .collect(Collectors.toList());
-        entries.addAll(additionalEntries);
+        if (members.isEmpty()) {
+            return;
+        }
+        // Member names can be changed in the course of placement, so the keys are computed on every call
+        Set<Object> existingKeys = new HashSet<>();
+        for (Entry entry : entries) {
+            if (entry.getMember() != null) {
+                existingKeys.add(getKey(entry.getMember()));
+            }
+        }
+        List<Entry> additionalEntries = new ArrayList<>();
+        for (Source member : members) {
+            if (!existingKeys.contains(getKey(member))) {
+                additionalEntries.add(new Entry(member));
+            }
+        }
+        additionalEntries.forEach(this::register);
     }
 
     /**
@@ -98,11 +138,10 @@ public class MembersRegistry {
      * @param member {@code Source} object that represents a class member
      */
     public void checkOut(Source member) {
-        entries
-            .stream()
-            .filter(entry -> entry.getMember().equals(member))
-            .findFirst()
-            .ifPresent(entry -> entry.setState(EntryState.CHECKED_OUT));
+        Entry entry = index.get(member);
+        if (entry != null) {
+            entry.setState(EntryState.CHECKED_OUT);
+        }
     }
 
     /**
@@ -111,17 +150,37 @@ public class MembersRegistry {
      * @param member {@code Source} object that represents a class member
      */
     public void softCheckOut(Source member) {
-        entries
-            .stream()
-            .filter(entry -> entry.getMember().equals(member))
-            .findFirst()
-            .ifPresent(entry -> entry.setState(EntryState.SOFT_CHECKED_OUT));
+        Entry entry = index.get(member);
+        if (entry != null) {
+            entry.setState(EntryState.SOFT_CHECKED_OUT);
+        }
     }
 
     /* ---------------
        Utility methods
        --------------- */
 
+    /**
+     * Appends the given entry to the current registry. If another entry for the same {@code Source} is already
+     * present, the index keeps referring to the earlier one
+     * @param entry {@link Entry} object
+     */
+    private void register(Entry entry) {
+        entries.add(entry);
+        index.putIfAbsent(entry.getMember(), entry);
+    }
+
+    /**
+     * Advances the stored position of the first available entry past the entries that have been checked out
+     * @return The position of the first available entry, or the number of entries if there are no available ones
+     */
+    private int skipUnavailable() {
+        while (firstAvailable < entries.size() && entries.get(firstAvailable).getState() != EntryState.AVAILABLE) {
+            firstAvailable++;
+        }
+        return firstAvailable;
+    }
+
     /**
      * Called from the instance constructor to find correspondences for the given class members in an upstream registry
      * (see {@link MembersRegistry#MembersRegistry(MembersRegistry, List)}). If a particular member is already
@@ -135,13 +194,26 @@ public class MembersRegistry {
         if (upstream == null) {
             return new Entry(member);
         }
-        Entry match = upstream.entries.stream().filter(entry -> entry.member.equals(member)).findFirst().orElse(null);
+        Entry match = upstream.index.get(member);
         if (match != null) {
             return match;
         }
         return new Entry(member);
     }
 
+    /**
+     * Retrieves the key that is equal for the {@code Source} objects considered the same by {@link Source#isSame(Source)}:
+     * the declaring class and name for a class member, or else the {@code Source} object itself
+     * @param member {@code Source} object
+     * @return A non-null key object
+     */
+    private static Object getKey(Source member) {
+        if (member instanceof MemberSource) {
+            return Pair.of(((MemberSource) member).getDeclaringClass(), member.getName());
+        }
+        return member;
+    }
+
     /* ---------------
        Utility classes
        --------------- */
@@ -186,19 +258,6 @@ public class MembersRegistry {
         public void setState(EntryState state) {
             this.state = state;
         }
-
-        /**
-         * Shortcuts {@link Source#isSame(Source)} for the wrapped class field or method to say whether the two {@code
-         * Source} objects represent the same class member
-         * @param other Nullable {@code Source} object
-         * @return True or false
-         */
-        public boolean isSameMember(Source other) {
-            if (getMember() == null) {
-                return false;
-            }
-            return getMember().isSame(other);
-        }
     }
 
     /**
@@ -0,0 +1,543 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.plugin.maven;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.project.MavenProject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+import com.exadel.aem.toolkit.api.annotations.main.WriteMode;
+import com.exadel.aem.toolkit.core.CoreConstants;
+import com.exadel.aem.toolkit.plugin.runtime.ReflectionContextHelper;
+import com.exadel.aem.toolkit.plugin.sources.ComponentSource;
+import com.exadel.aem.toolkit.plugin.utils.DialogConstants;
+import com.exadel.aem.toolkit.plugin.writers.PackageWriter;
+
+/**
+ * Stores fingerprints of AEM component classes between the ToolKit's plugin runs. Used in the incremental mode to skip
+ * the components whose code has not changed since the package was last written to and to drop the entries of the
+ * components that no longer exist. The index is keyed on the class fingerprints and the plugin settings, so it survives
+ * rebuilding of the package. To tell whether the package still holds the markup of a component, a digest of the
+ * component's files is stored along with the fingerprint. The files themselves are kept aside so that the markup of an
+ * unchanged component can be restored without rendering if the package was rebuilt in the meantime
+ */
+class FingerprintIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(DialogConstants.ARTIFACT_NAME);
+
+    private static final String INDEX_DIRECTORY = "etoolbox-authoring-kit";
+    private static final String INDEX_EXTENSION = ".fingerprints";
+    private static final String OUTPUT_EXTENSION = ".output";
+
+    private static final String KEY_SIGNATURE = "signature";
+    private static final String KEY_PREFIX_COMPONENT = "component.";
+    private static final String KEY_PREFIX_DIGEST = "digest.";
+    private static final String VALUE_SEPARATOR = "|";
+
+    private static final String CLASS_FILE_EXTENSION = ".class";
+    private static final String INDEX_COMMENT = "Generated by " + DialogConstants.ARTIFACT_NAME;
+
+    private final Path indexPath;
+    private final Path outputPath;
+    private final String signature;
+    private final Properties storedEntries;
+    private final Properties actualEntries;
+    private final Set<String> relocatedKeys;
+    private final ClassLoader classLoader;
+
+    /**
+     * Initializes a new {@link FingerprintIndex} instance
+     * @param indexPath  {@code Path} to the file the index is persisted to
+     * @param outputPath {@code Path} to the directory the files of the written components are kept in
+     * @param signature  String value summarizing the settings and the set of handlers and validators. If it differs
+     *                   from the stored one, every component is treated as changed
+     */
+    private FingerprintIndex(Path indexPath, Path outputPath, String signature) {
+        this.indexPath = indexPath;
+        this.outputPath = outputPath;
+        this.signature = signature;
+        this.storedEntries = new Properties();
+        this.actualEntries = new Properties();
+        this.relocatedKeys = new HashSet<>();
+        this.classLoader = PluginRuntime.context().getReflection().getClassLoader();
+        load();
+    }
+
+    /* ----------------
+       Instance members
+       ---------------- */
+
+    /**
+     * Computes the fingerprint of the given component. The fingerprint embraces the bytecode of the component class, its
+     * ancestors, nested classes, views and other classes referenced by the annotations and members of the component,
+     * as well as the index signature
+     * @param component {@link ComponentSource} instance
+     * @return String value
+     */
+    String getFingerprint(ComponentSource component) {
+        Hasher hasher = Hashing.sha256().newHasher().putString(signature, StandardCharsets.UTF_8);
+        for (Class<?> referencedClass : getReferencedClasses(component.adaptTo(Class.class))) {
+            hasher.putString(referencedClass.getName(), StandardCharsets.UTF_8);
+            if (referencedClass.getClassLoader() == classLoader) {
+                hasher.putBytes(getBytecode(referencedClass));
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Gets whether the given component has the same fingerprint as recorded during the previous run, and the package
+     * still holds the markup written for it. If the package has been rebuilt since then, the markup of a component created
+     * by the ToolKit ({@link WriteMode#CREATE}) is restored from the files kept aside. If the component is up-to-date,
+     * the entry is carried over to the newly stored index
+     * @param component     {@link ComponentSource} instance
+     * @param fingerprint   The fingerprint computed for the component
+     * @param packageWriter {@link PackageWriter} instance
+     * @return True or false
+     */
+    boolean isUpToDate(ComponentSource component, String fingerprint, PackageWriter packageWriter) {
+        String name = component.adaptTo(Class.class).getName();
+        String storedValue = storedEntries.getProperty(KEY_PREFIX_COMPONENT + name);
+        String storedDigest = storedEntries.getProperty(KEY_PREFIX_DIGEST + name);
+        if (storedDigest == null || !StringUtils.equals(storedValue, toEntryValue(component, fingerprint))) {
+            return false;
+        }
+        if (!storedDigest.equals(getDigest(packageWriter.readEntries(component.getPath())))) {
+            Map<String, byte[]> storedOutput = readOutput(component.getPath());
+            if (component.getWriteMode() != WriteMode.CREATE || !storedDigest.equals(getDigest(storedOutput))) {
+                return false;
+            }
+            LOG.debug("Restoring markup of component {} at {}", name, component.getPath());
+            packageWriter.writeEntries(component.getPath(), storedOutput);
+        }
+        actualEntries.setProperty(KEY_PREFIX_COMPONENT + name, storedValue);
+        actualEntries.setProperty(KEY_PREFIX_DIGEST + name, storedDigest);
+        return true;
+    }
+
+    /**
+     * Records the fingerprint of the component that has been written to the package, together with the digest of the
+     * written files. The files are kept aside for restoring them later. If the component was previously stored at a
+     * different path, the component is marked so that the markup at the former path is removed by {@link
+     * FingerprintIndex#removeStale(Collection, PackageWriter)}
+     * @param component     {@link ComponentSource} instance
+     * @param fingerprint   The fingerprint computed for the component
+     * @param packageWriter {@link PackageWriter} instance
+     */
+    void put(ComponentSource component, String fingerprint, PackageWriter packageWriter) {
+        String name = component.adaptTo(Class.class).getName();
+        String key = KEY_PREFIX_COMPONENT + name;
+        String storedPath = StringUtils.substringBetween(storedEntries.getProperty(key), VALUE_SEPARATOR);
+        if (storedPath != null && !toComparablePath(storedPath).equals(toComparablePath(component.getPath()))) {
+            LOG.debug("Component {} was moved from {} to {}", name, storedPath, component.getPath());
+            relocatedKeys.add(key);
+        }
+        Map<String, byte[]> output = packageWriter.readEntries(component.getPath());
+        actualEntries.setProperty(key, toEntryValue(component, fingerprint));
+        actualEntries.setProperty(KEY_PREFIX_DIGEST + name, getDigest(output));
+        writeOutput(component.getPath(), output);
+    }
+
+    /**
+     * Removes from the package the entries of the components that were recorded during the previous run but are absent
+     * from the current list of components, as well as the entries stored at the former paths of the components that
+     * have been moved to another path. Only the components created by the ToolKit ({@link WriteMode#CREATE}) are
+     * affected; the components merged into the existing markup are reported and left to a full rebuild. A path that is
+     * claimed by any of the current components is never removed, since the markup stored there belongs to the current
+     * component now
+     * @param components    The collection of components processed in the current run
+     * @param packageWriter {@link PackageWriter} instance
+     * @return The number of removed components
+     */
+    int removeStale(Collection<ComponentSource> components, PackageWriter packageWriter) {
+        Set<String> actualKeys = new HashSet<>();
+        Set<String> actualPaths = new HashSet<>();
+        for (ComponentSource component : components) {
+            actualKeys.add(KEY_PREFIX_COMPONENT + component.adaptTo(Class.class).getName());
+            actualPaths.add(toComparablePath(component.getPath()));
+        }
+        int result = 0;
+        for (String key : storedEntries.stringPropertyNames()) {
+            if (!key.startsWith(KEY_PREFIX_COMPONENT) || (actualKeys.contains(key) && !relocatedKeys.contains(key))) {
+                continue;
+            }
+            String writeMode = StringUtils.substringAfterLast(storedEntries.getProperty(key), VALUE_SEPARATOR);
+            String path = StringUtils.substringBetween(storedEntries.getProperty(key), VALUE_SEPARATOR);
+            if (actualPaths.contains(toComparablePath(path))) {
+                LOG.debug("Component {} was removed or moved, but its path {} is used by another component", key, path);
+                continue;
+            }
+            if (!WriteMode.CREATE.name().equals(writeMode)) {
+                LOG.warn("Component {} at {} was removed or moved; run a full build to restore its original markup", key, path);
+                continue;
+            }
+            packageWriter.remove(path);
+            writeOutput(path, Collections.emptyMap());
+            result++;
+        }
+        return result;
+    }
+
+    /**
+     * Stores the index to the file system
+     */
+    void save() {
+        try {
+            actualEntries.setProperty(KEY_SIGNATURE, signature);
+            Files.createDirectories(indexPath.getParent());
+            try (OutputStream output = Files.newOutputStream(indexPath)) {
+                actualEntries.store(output, INDEX_COMMENT);
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not store the fingerprint index {}", indexPath, e);
+        }
+    }
+
+    /**
+     * Reads the stored index. The stored data is discarded if the signature does not match, i.e., the plugin settings
+     * or the set of handlers and validators have changed since the index had been saved
+     */
+    private void load() {
+        if (!Files.isRegularFile(indexPath)) {
+            return;
+        }
+        try (InputStream input = Files.newInputStream(indexPath)) {
+            storedEntries.load(input);
+            if (!StringUtils.equals(storedEntries.getProperty(KEY_SIGNATURE), signature)) {
+                LOG.info("Plugin settings have changed since the previous run. All components will be processed");
+                storedEntries.clear();
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.warn("Could not read the fingerprint index {}", indexPath, e);
+            storedEntries.clear();
+        }
+    }
+
+    /**
+     * Retrieves bytecode of the given class
+     * @param value {@code Class} object
+     * @return Byte array; can be empty if the class file cannot be read
+     */
+    private byte[] getBytecode(Class<?> value) {
+        String resourceName = value.getName().replace('.', '/') + CLASS_FILE_EXTENSION;
+        try (InputStream input = classLoader.getResourceAsStream(resourceName)) {
+            return input != null ? ByteStreams.toByteArray(input) : new byte[0];
+        } catch (IOException e) {
+            LOG.warn("Could not read class {}", value.getName(), e);
+            return new byte[0];
+        }
+    }
+
+    /**
+     * Reads the files that were kept aside for the component with the given path
+     * @param path String value representing the path to the component's folder within the package
+     * @return {@code Map} of file names and contents; can be empty
+     */
+    private Map<String, byte[]> readOutput(String path) {
+        Path directory = getOutputDirectory(path);
+        if (directory == null || !Files.isDirectory(directory)) {
+            return Collections.emptyMap();
+        }
+        Map<String, byte[]> result = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                result.put(file.getFileName().toString(), Files.readAllBytes(file));
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not read the stored markup of component at {}", path, e);
+            return Collections.emptyMap();
+        }
+        return result;
+    }
+
+    /**
+     * Keeps aside the files of the component with the given path, replacing the ones stored previously
+     * @param path    String value representing the path to the component's folder within the package
+     * @param content {@code Map} of file names and contents; can be empty
+     */
+    private void writeOutput(String path, Map<String, byte[]> content) {
+        Path directory = getOutputDirectory(path);
+        if (directory == null) {
+            return;
+        }
+        try {
+            if (Files.isDirectory(directory)) {
+                try (Stream<Path> files = Files.list(directory)) {
+                    for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                        Files.delete(file);
+                    }
+                }
+            }
+            if (content.isEmpty()) {
+                return;
+            }
+            Files.createDirectories(directory);
+            for (Map.Entry<String, byte[]> file : content.entrySet()) {
+                Files.write(directory.resolve(file.getKey()), file.getValue());
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not store the markup of component at {}", path, e);
+        }
+    }
+
+    /**
+     * Retrieves the directory the files of the component with the given path are kept in
+     * @param path String value representing the path to the component's folder within the package
+     * @return {@code Path} object, or null if the component path is not valid
+     */
+    private Path getOutputDirectory(String path) {
+        String comparablePath = toComparablePath(path);
+        if (comparablePath.isEmpty()) {
+            return null;
+        }
+        Path result = outputPath.resolve(comparablePath).normalize();
+        return result.startsWith(outputPath) ? result : null;
+    }
+
+    /**
+     * Collects the classes that can affect the markup of an AEM component. These are the component class itself, its
+     * ancestors and interfaces, nested classes, types of the annotations, classes referenced in annotation properties,
+     * and types of fields and methods. Classes originating from outside the project's classpath are collected but not
+     * traversed any further
+     * @param componentClass {@code Class} object representing the AEM component
+     * @return Ordered set of classes
+     */
+    private Set<Class<?>> getReferencedClasses(Class<?> componentClass) {
+        Set<Class<?>> result = new TreeSet<>(Comparator.comparing(Class::getName));
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(componentClass);
+        while (!queue.isEmpty()) {
+            Class<?> current = queue.poll();
+            if (current.isArray()) {
+                current = current.getComponentType();
+            }
+            if (current.isPrimitive() || !result.add(current) || current.getClassLoader() != classLoader) {
+                continue;
+            }
+            Set<Class<?>> related = new HashSet<>();
+            try {
+                related.add(current.getSuperclass());
+                related.addAll(Arrays.asList(current.getInterfaces()));
+                related.addAll(Arrays.asList(current.getDeclaredClasses()));
+                collectAnnotationReferences(current, related);
+                for (Field field : current.getDeclaredFields()) {
+                    collectTypeReferences(field.getGenericType(), related);
+                    collectAnnotationReferences(field, related);
+                }
+                for (Method method : current.getDeclaredMethods()) {
+                    collectTypeReferences(method.getGenericReturnType(), related);
+                    collectAnnotationReferences(method, related);
+                }
+            } catch (LinkageError | TypeNotPresentException e) {
+                // Classes that cannot be resolved do not take part in rendering either, so they are skipped
+                LOG.debug("Could not introspect class {}", current.getName(), e);
+            }
+            related.stream().filter(Objects::nonNull).forEach(queue::add);
+        }
+        return result;
+    }
+
+    /* ---------------
+       Factory methods
+       --------------- */
+
+    /**
+     * Initializes a {@link FingerprintIndex} instance for the package of the given Maven project
+     * @param project  {@code MavenProject} instance
+     * @param settings Settings of the current plugin execution that take part in the index signature
+     * @return {@code FingerprintIndex} object
+     */
+    static FingerprintIndex forMavenProject(MavenProject project, String... settings) {
+        Path directory = Paths.get(project.getBuild().getDirectory()).resolve(INDEX_DIRECTORY);
+        return forDirectory(directory, project.getBuild().getFinalName(), settings);
+    }
+
+    /**
+     * Initializes a {@link FingerprintIndex} instance that stores its data in the given directory
+     * @param directory   {@code Path} to the directory that contains the index
+     * @param packageName Name of the package the index is related to
+     * @param settings    Settings of the current plugin execution that take part in the index signature
+     * @return {@code FingerprintIndex} object
+     */
+    static FingerprintIndex forDirectory(Path directory, String packageName, String... settings) {
+        return new FingerprintIndex(
+            directory.resolve(packageName + INDEX_EXTENSION),
+            directory.resolve(packageName + OUTPUT_EXTENSION).toAbsolutePath(),
+            getSignature(settings));
+    }
+
+    /* ---------------
+       Utility methods
+       --------------- */
+
+    /**
+     * Computes the string that summarizes the plugin settings, the plugin version, and the set of handlers and
+     * validators available in the current run
+     * @param settings Settings of the current plugin execution
+     * @return String value
+     */
+    private static String getSignature(String... settings) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        PluginInfo pluginInfo = PluginInfo.getInstance();
+        hasher.putString(pluginInfo.getVersion(), StandardCharsets.UTF_8);
+        hasher.putString(pluginInfo.getTimestamp(), StandardCharsets.UTF_8);
+        Arrays.stream(settings)
+            .map(StringUtils::defaultString)
+            .forEach(setting -> hasher.putString(setting, StandardCharsets.UTF_8).putChar('\n'));
+        ReflectionContextHelper reflection = PluginRuntime.context().getReflection();
+        List<Class<?>> extensions = new ArrayList<>();
+        reflection.getHandlers().forEach(handler -> extensions.add(handler.getClass()));
+        reflection.getValidators().forEach(validator -> extensions.add(validator.getClass()));
+        extensions.stream().sorted(Comparator.comparing(Class::getName)).forEach(extension -> {
+            hasher.putString(extension.getName(), StandardCharsets.UTF_8);
+            String resourceName = extension.getName().replace('.', '/') + CLASS_FILE_EXTENSION;
+            try (InputStream input = extension.getClassLoader().getResourceAsStream(resourceName)) {
+                if (input != null) {
+                    hasher.putBytes(ByteStreams.toByteArray(input));
+                }
+            } catch (IOException e) {
+                LOG.warn("Could not read class {}", extension.getName(), e);
+            }
+        });
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Computes the digest of the files of a component
+     * @param content {@code Map} of file names and contents
+     * @return String value
+     */
+    private static String getDigest(Map<String, byte[]> content) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        new TreeMap<>(content).forEach((name, bytes) -> hasher
+            .putString(name, StandardCharsets.UTF_8)
+            .putInt(bytes.length)
+            .putBytes(bytes));
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Converts the path of a component into the form suitable for comparison, i.e., without leading and trailing
+     * slashes
+     * @param path String value; can be null
+     * @return String value
+     */
+    private static String toComparablePath(String path) {
+        return StringUtils.strip(StringUtils.defaultString(path), CoreConstants.SEPARATOR_SLASH);
+    }
+
+    /**
+     * Composes the value of a component entry
+     * @param component   {@link ComponentSource} instance
+     * @param fingerprint The fingerprint computed for the component
+     * @return String value
+     */
+    private static String toEntryValue(ComponentSource component, String fingerprint) {
+        return String.join(
+            VALUE_SEPARATOR,
+            fingerprint,
+            component.getPath(),
+            String.valueOf(component.getWriteMode()));
+    }
+
+    /**
+     * Adds to the collection the types of annotations of the given element and the classes referenced in the
+     * annotation properties
+     * @param element {@link AnnotatedElement} object
+     * @param result  The collection to populate
+     */
+    private static void collectAnnotationReferences(AnnotatedElement element, Set<Class<?>> result) {
+        for (Annotation annotation : element.getDeclaredAnnotations()) {
+            collectAnnotationReferences(annotation, result);
+        }
+    }
+
+    /**
+     * Adds to the collection the type of the given annotation and the classes referenced in its properties, including
+     * the nested annotations
+     * @param annotation {@link Annotation} object
+     * @param result     The collection to populate
+     */
+    private static void collectAnnotationReferences(Annotation annotation, Set<Class<?>> result) {
+        result.add(annotation.annotationType());
+        for (Method property : annotation.annotationType().getDeclaredMethods()) {
+            Object value;
+            try {
+                value = property.invoke(annotation);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                continue;
+            }
+            Object[] values = value instanceof Object[] ? (Object[]) value : new Object[] {value};
+            for (Object entry : values) {
+                if (entry instanceof Class) {
+                    result.add((Class<?>) entry);
+                } else if (entry instanceof Annotation) {
+                    collectAnnotationReferences((Annotation) entry, result);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds to the collection the classes that constitute the given type, including the type arguments of a
+     * parameterized type
+     * @param type   {@link Type} object
+     * @param result The collection to populate
+     */
+    private static void collectTypeReferences(Type type, Set<Class<?>> result) {
+        if (type instanceof Class) {
+            result.add((Class<?>) type);
+        } else if (type instanceof ParameterizedType) {
+            collectTypeReferences(((ParameterizedType) type).getRawType(), result);
+            Arrays.stream(((ParameterizedType) type).getActualTypeArguments()).forEach(arg -> collectTypeReferences(arg, result));
+        } else if (type instanceof GenericArrayType) {
+            collectTypeReferences(((GenericArrayType) type).getGenericComponentType(), result);
+        }
+    }
+}
@@ -176,12 +176,16 @@ class JvmHelper {
         }
 
         /**
-         * Assigns a particular argument to be passed to the plugin
+         * Assigns a particular argument to be passed to the plugin. An argument with a null or blank value is skipped
+         * so that the plugin receives the default value rather than a literal {@code "null"}
          * @param key  The argument name
          * @param value The argument value
          * @return This instance
          */
         CommandLineBuilder argument(String key, String value) {
+            if (StringUtils.isBlank(value)) {
+                return this;
+            }
             if (arguments == null) {
                 arguments = new HashMap<>();
             }
@@ -20,6 +20,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import com.exadel.aem.toolkit.api.runtime.ExceptionHandler;
 import com.exadel.aem.toolkit.plugin.exceptions.PluginException;
 import com.exadel.aem.toolkit.plugin.exceptions.handlers.ExceptionHandlers;
+import com.exadel.aem.toolkit.plugin.runtime.ClasspathIndex;
 import com.exadel.aem.toolkit.plugin.runtime.ReflectionContextHelper;
 import com.exadel.aem.toolkit.plugin.runtime.XmlContextHelper;
 
@@ -33,7 +34,9 @@ class LoadedRuntimeContext implements PluginRuntimeContext {
     private PluginSettings settings;
     private ReflectionContextHelper pluginReflections;
     private ExceptionHandler exceptionHandler;
-    private XmlContextHelper xmlRuntime;
+    // The XML runtime is kept per thread so that components can be rendered concurrently, each thread building its
+    // own DOM documents
+    private final ThreadLocal<XmlContextHelper> xmlRuntime = ThreadLocal.withInitial(LoadedRuntimeContext::createXmlUtility);
 
     /**
      * {@inheritDoc}
@@ -64,7 +67,7 @@ class LoadedRuntimeContext implements PluginRuntimeContext {
      */
     @Override
     public XmlContextHelper getXmlUtility() {
-        return xmlRuntime;
+        return xmlRuntime.get();
     }
 
     /**
@@ -72,13 +75,22 @@ class LoadedRuntimeContext implements PluginRuntimeContext {
      */
     @Override
     public XmlContextHelper newXmlUtility() {
+        XmlContextHelper result = createXmlUtility();
+        xmlRuntime.set(result);
+        return result;
+    }
+
+    /**
+     * Creates a new {@link XmlContextHelper} instance
+     * @return {@code XmlContextHelper} object
+     */
+    private static XmlContextHelper createXmlUtility() {
         try {
-            xmlRuntime = new XmlContextHelper();
+            return new XmlContextHelper();
         } catch (ParserConfigurationException e) {
             // Cannot proceed with the plugin flow if the XML subsystem fails this early
             throw new PluginException(XML_EXCEPTION_MESSAGE, e);
         }
-        return xmlRuntime;
     }
 
     /**
@@ -144,7 +156,9 @@ class LoadedRuntimeContext implements PluginRuntimeContext {
             }
             LoadedRuntimeContext result = new LoadedRuntimeContext();
             result.settings = settings;
-            result.pluginReflections = ReflectionContextHelper.fromCodeScope(classPathElements);
+            result.pluginReflections = ReflectionContextHelper.fromCodeScope(
+                classPathElements,
+                new ClasspathIndex(settings.getScanCacheDirectory(), settings.getScanExclusions()));
             result.exceptionHandler = exceptionHandler != null
                 ? exceptionHandler
                 : ExceptionHandlers.forSetting(settings.getTerminateOnRule());
@@ -14,8 +14,10 @@
 package com.exadel.aem.toolkit.plugin.maven;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -73,11 +75,17 @@ public class PluginMojo extends AbstractMojo {
     private static final String CONFIG_KEY_PATH_BASE = "componentsPathBase";
     private static final String CONFIG_KEY_REFERENCE_BASE = "componentsReferenceBase";
     private static final String CONFIG_KEY_TERMINATE_ON = "terminateOn";
+    private static final String CONFIG_KEY_INCREMENTAL = "incremental";
+    private static final String CONFIG_KEY_THREADS = "threads";
+    private static final String CONFIG_KEY_SCAN_EXCLUSIONS = "scanExclusions";
+    private static final String CONFIG_KEY_SCAN_CACHE_DIRECTORY = "scanCacheDirectory";
+    private static final String CONFIG_KEY_COMPRESS_ENTRIES = "compressEntries";
 
     private static final String DEPENDENCY_RESOLUTION_EXCEPTION_MESSAGE = "Could not resolve dependencies of project %s: %s";
     private static final String PLUGIN_EXECUTION_EXCEPTION_MESSAGE = "%s in module %s: %s";
     private static final String PLUGIN_COMPLETION_MESSAGE = "Execution completed.";
     private static final String PLUGIN_COMPLETION_STATISTICS_MESSAGE = PLUGIN_COMPLETION_MESSAGE + " {} component(-s) processed.";
+    private static final String PLUGIN_INCREMENTAL_STATISTICS_MESSAGE = "{} component(-s) up to date, {} component(-s) removed.";
 
     private static final String PATTERN_COLOR_CODE = "[^A-Za-z0-0]\\[[0-9;]*m";
     private static final String PATTERN_LOG_LEVEL = "^\\s*\\[[A-Z]+]\\s+";
@@ -111,12 +119,29 @@ public class PluginMojo extends AbstractMojo {
     @Parameter(defaultValue = "java.io.IOException", property = "terminateOn")
     private String terminateOn;
 
+    @Parameter(defaultValue = "false", property = "incremental")
+    private boolean incremental;
+
+    @Parameter(defaultValue = "1", property = "threads")
+    private int threads;
+
+    @Parameter(property = "scanExclusions")
+    private String scanExclusions;
+
+    @Parameter(defaultValue = "${settings.localRepository}/.etoolbox-authoring-kit", property = "scanCacheDirectory")
+    private String scanCacheDirectory;
+
+    @Parameter(defaultValue = "true", property = "compressEntries")
+    private boolean compressEntries;
+
     /**
      * Executes the ToolKit Maven plugin. This is done by initializing {@link PluginRuntime} and then enumerating
      * classpath entries present in the Maven reactor. Relevant AEM component classes (POJOs or Sling models) are
      * extracted and processed with {@link PackageWriter} instance created for a particular Maven project; the result is
      * written down to the AEM package zip file. The method is run once for each package module that has the ToolKit
-     * plugin included in the POM file
+     * plugin included in the POM file. In the {@code incremental} mode, the components that have not changed since the
+     * previous run are skipped, and the entries of the components that no longer exist are removed. If {@code threads}
+     * is set to a value other than {@code 1}, the components are rendered concurrently
      * @throws MojoExecutionException if work on a package cannot proceed (due to, e.g., file system failure or improper
      *                                initialization) or in case an internal exception is thrown that corresponds to the
      *                                {@code terminateOn} setting
@@ -134,7 +159,9 @@ public class PluginMojo extends AbstractMojo {
 
         PluginSettings.Builder settingsBuilder = PluginSettings.builder()
             .terminateOn(terminateOn)
-            .defaultPathBase(componentsPathBase);
+            .defaultPathBase(componentsPathBase)
+            .scanExclusions(scanExclusions)
+            .scanCacheDirectory(scanCacheDirectory);
         populateReferenceEntries(settingsBuilder);
         PluginSettings pluginSettings = settingsBuilder.build();
 
@@ -144,10 +171,33 @@ public class PluginMojo extends AbstractMojo {
             .build();
 
         int processedCount = 0;
-        try (PackageWriter packageWriter = PackageWriter.forMavenProject(project)) {
+        int upToDateCount = 0;
+        int removedCount = 0;
+        FingerprintIndex fingerprintIndex = incremental
+            ? FingerprintIndex.forMavenProject(project, componentsPathBase, componentsReferenceBase, terminateOn)
+            : null;
+        try (PackageWriter packageWriter = PackageWriter.forMavenProject(project, compressEntries)) {
             packageWriter.writeInfo(PluginInfo.getInstance());
-            for (ComponentSource component : PluginRuntime.context().getReflection().getComponents(componentsReferenceBase)) {
-                processedCount += packageWriter.write(component) ? 1 : 0;
+            List<ComponentSource> components = PluginRuntime.context().getReflection().getComponents(componentsReferenceBase);
+            List<ComponentSource> pendingComponents = components;
+            Map<ComponentSource, String> fingerprints = new HashMap<>();
+            if (fingerprintIndex != null) {
+                pendingComponents = new ArrayList<>();
+                for (ComponentSource component : components) {
+                    String fingerprint = fingerprintIndex.getFingerprint(component);
+                    if (fingerprintIndex.isUpToDate(component, fingerprint, packageWriter)) {
+                        upToDateCount++;
+                    } else {
+                        pendingComponents.add(component);
+                        fingerprints.put(component, fingerprint);
+                    }
+                }
+            }
+            List<ComponentSource> writtenComponents = packageWriter.write(pendingComponents, getThreadCount());
+            processedCount = writtenComponents.size();
+            if (fingerprintIndex != null) {
+                writtenComponents.forEach(component -> fingerprintIndex.put(component, fingerprints.get(component), packageWriter));
+                removedCount = fingerprintIndex.removeStale(components, packageWriter);
             }
         } catch (PluginException e) {
             throw new MojoExecutionException(String.format(PLUGIN_EXECUTION_EXCEPTION_MESSAGE,
@@ -156,6 +206,11 @@ public class PluginMojo extends AbstractMojo {
                 e.getMessage()), e);
         }
 
+        if (fingerprintIndex != null) {
+            fingerprintIndex.save();
+            LOG.info(PLUGIN_INCREMENTAL_STATISTICS_MESSAGE, upToDateCount, removedCount);
+        }
+
         PluginRuntime.close();
 
         if (processedCount > 0) {
@@ -181,6 +236,11 @@ public class PluginMojo extends AbstractMojo {
             .argument(CONFIG_KEY_PATH_BASE, componentsPathBase)
             .argument(CONFIG_KEY_REFERENCE_BASE, componentsReferenceBase)
             .argument(CONFIG_KEY_TERMINATE_ON, terminateOn)
+            .argument(CONFIG_KEY_INCREMENTAL, String.valueOf(incremental))
+            .argument(CONFIG_KEY_THREADS, String.valueOf(threads))
+            .argument(CONFIG_KEY_SCAN_EXCLUSIONS, scanExclusions)
+            .argument(CONFIG_KEY_SCAN_CACHE_DIRECTORY, scanCacheDirectory)
+            .argument(CONFIG_KEY_COMPRESS_ENTRIES, String.valueOf(compressEntries))
             .build();
         LOG.info("Relaunching plugin with {}", commandline);
         try {
@@ -193,6 +253,15 @@ public class PluginMojo extends AbstractMojo {
         }
     }
 
+    /**
+     * Retrieves the number of threads used to render components. A non-positive {@code threads} setting stands for the
+     * number of available processors
+     * @return Integer value
+     */
+    private int getThreadCount() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
     /**
      * Retrieves the list of classpath elements for the current Maven project
      * @return {@code List} of {@code String} values
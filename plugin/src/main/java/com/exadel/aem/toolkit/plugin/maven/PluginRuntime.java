@@ -13,6 +13,8 @@
  */
 package com.exadel.aem.toolkit.plugin.maven;
 
+import java.util.concurrent.Callable;
+
 /**
  * The thread-local {@link PluginRuntimeContext} handler to be used within {@code PluginMojo} execution. Starts with
  * {@link EmptyRuntimeContext} and switches to the {@link LoadedRuntimeContext} upon proper runtime initialization
@@ -35,6 +37,26 @@ public class PluginRuntime {
         return INSTANCE.get();
     }
 
+    /**
+     * Wraps the given task so that it is executed with the {@link PluginRuntimeContext} of the current thread. This is
+     * used to run rendering routines in worker threads
+     * @param task {@code Callable} object representing the task
+     * @param <T>  Type of the task result
+     * @return {@code Callable} instance that can be executed in any thread
+     */
+    public static <T> Callable<T> bind(Callable<T> task) {
+        PluginRuntimeContext current = context();
+        return () -> {
+            PluginRuntimeContext previous = INSTANCE.get();
+            INSTANCE.set(current);
+            try {
+                return task.call();
+            } finally {
+                INSTANCE.set(previous);
+            }
+        };
+    }
+
     /**
      * Creates a Builder intended to accumulate plugin settings and produce a functional ("loaded") {@code PluginRuntimeContext}
      * @return {@link LoadedRuntimeContext.Builder} instance
@@ -13,13 +13,20 @@
  */
 package com.exadel.aem.toolkit.plugin.maven;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
+import com.exadel.aem.toolkit.core.CoreConstants;
 import com.exadel.aem.toolkit.plugin.exceptions.handlers.ExceptionHandlers;
 import com.exadel.aem.toolkit.plugin.utils.ClassUtil;
 import com.exadel.aem.toolkit.plugin.utils.DialogConstants;
@@ -40,6 +47,10 @@ public class PluginSettings {
 
     private String terminateOn;
 
+    private List<String> scanExclusions;
+
+    private String scanCacheDirectory;
+
     /**
      * Default (instantiation-restricting) constructor
      */
@@ -79,6 +90,24 @@ public class PluginSettings {
         return StringUtils.defaultIfEmpty(terminateOn, DialogConstants.VALUE_NONE);
     }
 
+    /**
+     * Retrieves the list of wildcard patterns matching the classpath JAR files that must not be scanned for AEM
+     * components, handlers, and validators
+     * @return A non-null list of string values; can be empty
+     */
+    public List<String> getScanExclusions() {
+        return scanExclusions != null ? scanExclusions : Collections.emptyList();
+    }
+
+    /**
+     * Retrieves the path to the directory where the index of scanned classpath elements is stored between the plugin
+     * runs
+     * @return Nullable {@code Path} value. If null, the index is not persisted
+     */
+    public Path getScanCacheDirectory() {
+        return StringUtils.isNotBlank(scanCacheDirectory) ? Paths.get(scanCacheDirectory) : null;
+    }
+
     /**
      * Initializes a {@code Builder} instance used to populate a {@link PluginSettings} object with values
      * @return {@code Builder} object
@@ -94,6 +123,8 @@ public class PluginSettings {
         private String pathBase;
         private Set<ReferenceEntry> referenceEntries;
         private String terminateOn;
+        private List<String> scanExclusions;
+        private String scanCacheDirectory;
 
         /**
          * Assigns the value that corresponds to the current path base ({@code componentsPathBase} in the plugin's
@@ -138,6 +169,32 @@ public class PluginSettings {
             return this;
         }
 
+        /**
+         * Assigns the comma-separated list of wildcard patterns matching the classpath JAR files that must not be
+         * scanned
+         * @param value Optional string value
+         * @return This instance
+         * @see PluginSettings#getScanExclusions()
+         */
+        public Builder scanExclusions(String value) {
+            scanExclusions = Arrays.stream(StringUtils.split(StringUtils.defaultString(value), CoreConstants.SEPARATOR_COMMA))
+                .map(String::trim)
+                .filter(StringUtils::isNotEmpty)
+                .collect(Collectors.toList());
+            return this;
+        }
+
+        /**
+         * Assigns the path to the directory where the index of scanned classpath elements is stored
+         * @param value Optional string value
+         * @return This instance
+         * @see PluginSettings#getScanCacheDirectory()
+         */
+        public Builder scanCacheDirectory(String value) {
+            scanCacheDirectory = value;
+            return this;
+        }
+
         /**
          * Creates and populates a {@link PluginSettings} object
          * @return {@code PluginSettings} instance
@@ -147,6 +204,8 @@ public class PluginSettings {
             result.defaultPathBase = this.pathBase;
             result.referenceEntries = this.referenceEntries;
             result.terminateOn = this.terminateOn;
+            result.scanExclusions = this.scanExclusions;
+            result.scanCacheDirectory = this.scanCacheDirectory;
             return result;
         }
     }
@@ -18,6 +18,7 @@ import java.lang.reflect.Array;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
@@ -25,9 +26,8 @@ import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Spliterator;
 import java.util.Spliterators;
-import java.util.function.BiFunction;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
-import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import org.apache.commons.lang3.ArrayUtils;
@@ -49,25 +49,14 @@ import com.exadel.aem.toolkit.plugin.utils.DialogConstants;
  */
 class MetadataHandler<T> implements InvocationHandler {
 
-    private static final String METHOD_ANNOTATION_TYPE = "annotationType";
-    private static final String METHOD_EQUALS = "equals";
-    private static final String METHOD_FOR_EACH = "forEach";
-    private static final String METHOD_GET = "getValue";
-    private static final String METHOD_GET_ANNOTATION = "getAnnotation";
-    private static final String METHOD_GET_ANY_ANNOTATION = "getAnyAnnotation";
-    private static final String METHOD_GET_PROPERTY = "getProperty";
-    private static final String METHOD_HAS_PROPERTY = "hasProperty";
-    private static final String METHOD_HASH_CODE = "hashCode";
-    private static final String METHOD_ITERATOR = "iterator";
-    private static final String METHOD_PUT = "putValue";
-    private static final String METHOD_SPLITERATOR = "spliterator";
-    private static final String METHOD_STREAM = "stream";
-    private static final String METHOD_TO_STRING = "toString";
-    private static final String METHOD_UNSET = "unsetValue";
-
     private static final String FIELD_SOURCE = "__source";
     private static final String FIELD_PROPERTIES = "__properties";
 
+    private static final String COMPOUND_PATH_SYMBOLS = CoreConstants.SEPARATOR_SLASH
+        + CoreConstants.SEPARATOR_DOT
+        + CoreConstants.ARRAY_OPENING
+        + "(";
+
     private static final String OPENING_SQUARE = CoreConstants.ARRAY_OPENING;
     private static final String CLOSING_SQUARE = CoreConstants.ARRAY_CLOSING;
 
@@ -77,9 +66,20 @@ class MetadataHandler<T> implements InvocationHandler {
     private static final int HASH_INITIAL_NUMBER = 17;
     private static final int HASH_MULTIPLIER = 37;
 
+    private static final Object ABSENT = new Object();
+
+    private static final ClassValue<Map<Method, Operation>> OPERATIONS = new ClassValue<Map<Method, Operation>>() {
+        @Override
+        protected Map<Method, Operation> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     private final T source;
     private final Class<?> type;
-    private final Map<String, Object> properties;
+    private final MetadataType metadataType;
+    private final Object[] properties;
+    private final Object[] sourceValues;
 
     /**
      * Constructs an instance of {@code InterfaceHandler} class with its type and the dictionary of property values set
@@ -113,7 +113,11 @@ class MetadataHandler<T> implements InvocationHandler {
     private MetadataHandler(T source, Class<?> type, Map<String, Object> properties) {
         this.source = source;
         this.type = type;
-        this.properties = new HashMap<>();
+        this.metadataType = MetadataType.of(type);
+        this.properties = new Object[metadataType.size()];
+        this.sourceValues = new Object[metadataType.size()];
+        Arrays.fill(this.properties, ABSENT);
+        Arrays.fill(this.sourceValues, ABSENT);
         if (properties != null) {
             properties.forEach((key, value) -> putValue(PropertyPath.parse(key), value));
         }
@@ -128,305 +132,81 @@ class MetadataHandler<T> implements InvocationHandler {
      */
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) {
-        InvocationResult invocation = tryInvokeStandardMember(method, args);
-        if (invocation.isDone()) {
-            return invocation.getResult();
-        }
-        invocation = tryInvokeMetadataMember(method, args);
-        if (invocation.isDone()) {
-            return invocation.getResult();
-        }
-        return getProperty(method.getName(), method.getName(), true, true).getValue();
-    }
-
-    /**
-     * Called from {@link MetadataHandler#invoke(Object, Method, Object[])} to check if the method requested for
-     * invocation is one of the standard OOTB methods of a Java object, and if so, retrieves the return value of such a
-     * method
-     * @param method The method to check
-     * @param args   An array of objects containing the values of the arguments passed to
-     *               {@link MetadataHandler#invoke(Object, Method, Object[])}
-     * @return {@code InvocationResult} instance containing either the return value or the
-     * {@link InvocationResult#NOT_DONE} which effectively tells that invocation attempts should continue
-     */
-    private InvocationResult tryInvokeStandardMember(Method method, Object[] args) {
-        if (method.getName().equals(METHOD_ANNOTATION_TYPE)) {
-            return InvocationResult.done(type);
-        }
-        if (method.getName().equals(METHOD_EQUALS) && ArrayUtils.isNotEmpty(args)) {
-            return InvocationResult.done(equals(args[0]));
-        }
-        if (method.getName().equals(METHOD_HASH_CODE)) {
-            return InvocationResult.done(hashCode());
-        }
-        if (method.getName().equals(METHOD_TO_STRING)) {
-            return InvocationResult.done(toString());
-        }
-        return InvocationResult.NOT_DONE;
-    }
-
-    /**
-     * Called from {@link MetadataHandler#invoke(Object, Method, Object[])} to check if the method requested for
-     * invocation is one of the methods handled by the current class, and if so, retrieves the return value of such a
-     * method
-     * @param method The method to check
-     * @param args   An array of objects containing the values of the arguments passed to
-     *               {@link MetadataHandler#invoke(Object, Method, Object[])}
-     * @return Either an {@code InvocationResult} instance containing the return value or the
-     * {@link InvocationResult#NOT_DONE} which effectively tells that invocation attempts should continue
-     */
-    private InvocationResult tryInvokeMetadataMember(Method method, Object[] args) {
-        return Stream.<BiFunction<Method, Object[], InvocationResult>>of(
-                this::tryInvokeGetAnnotation,
-                this::tryInvokeGetAnyAnnotation,
-                this::tryInvokeHasProperty,
-                this::tryInvokeGetValue,
-                this::tryInvokeGetProperty,
-                this::tryInvokePutValue,
-                this::tryInvokeUnsetValue,
-                this::tryInvokeIterator,
-                this::tryInvokeForEach,
-                this::tryInvokeSpliterator,
-                this::tryInvokeStream)
-            .map(func -> func.apply(method, args))
-            .filter(InvocationResult::isDone)
-            .findFirst()
-            .orElse(InvocationResult.NOT_DONE);
-    }
-
-    /**
-     * Tests if the requested method is {@code getAnnotation()} and retrieves the annotation value
-     * @param method The method to check
-     * @param args   An array of objects containing the values of the arguments passed to
-     *               {@link MetadataHandler#invoke(Object, Method, Object[])}
-     * @param <A>    Type of the annotation
-     * @return Either an {@code InvocationResult} instance containing the return value or the
-     * {@link InvocationResult#NOT_DONE} which effectively tells that invocation attempts should continue
-     */
-    private <A extends Annotation> InvocationResult tryInvokeGetAnnotation(Method method, Object[] args) {
-        if (matchesNameAndArgumentTypes(method, args, METHOD_GET_ANNOTATION, Class.class)) {
-            @SuppressWarnings("unchecked")
-            Annotation result = type.getDeclaredAnnotation((Class<A>) args[0]);
-            return InvocationResult.done(result);
-        }
-        return InvocationResult.NOT_DONE;
-    }
-
-    /**
-     * Tests if the requested method is {@code getAnyAnnotation()} and retrieves the matching annotation value. Consumes
-     * an array of annotation types
-     * @param method The method to check
-     * @param args   An array of objects containing the values of the arguments passed to
-     *               {@link MetadataHandler#invoke(Object, Method, Object[])}
-     * @param <A>    Type of the annotation
-     * @return Either an {@code InvocationResult} instance containing the return value or the
-     * {@link InvocationResult#NOT_DONE} which effectively tells that invocation attempts should continue
-     */
-    private <A extends Annotation> InvocationResult tryInvokeGetAnyAnnotation(Method method, Object[] args) {
-        if (matchesNameAndArgumentTypes(method, args, METHOD_GET_ANY_ANNOTATION, Class[].class)) {
-            for (Class<?> cls : (Class<?>[]) args[0]) {
-                @SuppressWarnings("unchecked")
-                Annotation result = type.getDeclaredAnnotation((Class<A>) cls);
-                if (result != null) {
-                    return InvocationResult.done(result);
-                }
-            }
-            return InvocationResult.done(null);
-        }
-        return InvocationResult.NOT_DONE;
-    }
-
-    /**
-     * Tests if the requested method is {@code hasProperty()} and retrieves whether the given property is present
-     * @param method The method to check
-     * @param args   An array of objects containing the values of the arguments passed to
-     *               {@link MetadataHandler#invoke(Object, Method, Object[])}
-     * @return Either an {@code InvocationResult} instance containing the return value or the
-     * {@link InvocationResult#NOT_DONE} which effectively tells that invocation attempts should continue
-     */
-    private InvocationResult tryInvokeHasProperty(Method method, Object[] args) {
-        if (matchesNameAndArgumentTypes(method, args, METHOD_HAS_PROPERTY, String.class)) {
-            Property result = getProperty((String) args[0], false);
-            return InvocationResult.done(result.getValue() != null);
-        } else if (matchesNameAndArgumentTypes(method, args, METHOD_HAS_PROPERTY, PropertyPath.class)) {
-            Property result = getProperty((PropertyPath) args[0], false);
-            return InvocationResult.done(result.getValue() != null);
-        }
-        return InvocationResult.NOT_DONE;
-    }
-
-    /**
-     * Tests if the requested method is {@code getValue()} and retrieves the value of a property of the source object by
-     * the given name or path
-     * @param method The method to check
-     * @param args   An array of objects containing the values of the arguments passed to
-     *               {@link MetadataHandler#invoke(Object, Method, Object[])}
-     * @return {@code InvocationResult} instance containing either the return value or the
-     * {@link InvocationResult#NOT_DONE} which effectively tells that invocation attempts should continue
-     */
-    private InvocationResult tryInvokeGetValue(Method method, Object[] args) {
-        if (matchesNameAndArgumentTypes(method, args, METHOD_GET, String.class)) {
-            Property result = getProperty((String) args[0], false);
-            return InvocationResult.done(result.getValue());
-        } else if (matchesNameAndArgumentTypes(method, args, METHOD_GET, PropertyPath.class)) {
-            Property result = getProperty((PropertyPath) args[0], false);
-            return InvocationResult.done(result.getValue());
-        }
-        return InvocationResult.NOT_DONE;
-    }
-
-    /**
-     * Tests if the requested method is {@code getProperty()} and retrieves the property of the source object by the
-     * given name or path
-     * @param method The method to check
-     * @param args   An array of objects containing the values of the arguments passed to
-     *               {@link MetadataHandler#invoke(Object, Method, Object[])}
-     * @return {@code InvocationResult} instance containing either the return value or the
-     * {@link InvocationResult#NOT_DONE} which tells that invocation attempts should continue
-     */
-    private InvocationResult tryInvokeGetProperty(Method method, Object[] args) {
-        if (matchesNameAndArgumentTypes(method, args, METHOD_GET_PROPERTY, String.class)) {
-            Property result = getProperty((String) args[0], true);
-            return InvocationResult.done(result);
-        } else if (matchesNameAndArgumentTypes(method, args, METHOD_GET_PROPERTY, PropertyPath.class)) {
-            Property result = getProperty((PropertyPath) args[0], true);
-            return InvocationResult.done(result);
+        switch (OPERATIONS.get(method.getDeclaringClass()).computeIfAbsent(method, Operation::from)) {
+            case ANNOTATION_TYPE:
+                return type;
+            case EQUALS:
+                return equals(args[0]);
+            case HASH_CODE:
+                return hashCode();
+            case TO_STRING:
+                return toString();
+            case GET_ANNOTATION:
+                return getAnnotation((Class<?>) args[0]);
+            case GET_ANY_ANNOTATION:
+                return getAnyAnnotation((Class<?>[]) args[0]);
+            case HAS_PROPERTY:
+                return getProperty(args[0], false).getValue() != null;
+            case GET_VALUE:
+                return getProperty(args[0], false).getValue();
+            case GET_PROPERTY:
+                return getProperty(args[0], true);
+            case PUT_VALUE:
+                return args[0] instanceof PropertyPath
+                    ? putValue((PropertyPath) args[0], args[1])
+                    : putValue((String) args[0], args[1]);
+            case UNSET_VALUE:
+                return putValue((String) args[0], null);
+            case ITERATOR:
+                return getIterator(args);
+            case FOR_EACH:
+                forEach(args[0]);
+                return null;
+            case SPLITERATOR:
+                return getSpliterator(args);
+            case STREAM:
+                return StreamSupport.stream(getSpliterator(args), false);
+            default:
+                return getPropertyValue(method.getName());
         }
-        return InvocationResult.NOT_DONE;
     }
 
     /**
-     * Tests if the requested method is {@code putValue()} and assigns a value to the property of the source object by
-     * the given name or path
-     * @param method The method to check
-     * @param args   An array of objects containing the values of the arguments passed to
-     *               {@link MetadataHandler#invoke(Object, Method, Object[])}
-     * @return {@code InvocationResult} instance containing either the return value of the method called or the
-     * {@link InvocationResult#NOT_DONE} which tells that invocation attempts should continue
+     * Called from {@link MetadataHandler#invoke(Object, Method, Object[])} to retrieve an annotation of the current
+     * type by the annotation class
+     * @param annotationType {@code Class} reference
+     * @param <A>            Type of the annotation
+     * @return A nullable {@code Annotation} object
      */
-    private InvocationResult tryInvokePutValue(Method method, Object[] args) {
-        if (matchesNameAndArgumentTypes(method, args, METHOD_PUT, String.class, Object.class)) {
-            Object result = putValue((String) args[0], args[1]);
-            return InvocationResult.done(result);
-        } else if (matchesNameAndArgumentTypes(method, args, METHOD_PUT, PropertyPath.class, Object.class)) {
-            Object result = putValue((PropertyPath) args[0], args[1]);
-            return InvocationResult.done(result);
-        }
-        return InvocationResult.NOT_DONE;
+    @SuppressWarnings("unchecked")
+    private <A extends Annotation> Annotation getAnnotation(Class<?> annotationType) {
+        return type.getDeclaredAnnotation((Class<A>) annotationType);
     }
 
     /**
-     * Tests if the requested method is {@code unsetValue()} and clears the "overriding" value previously assigned to a
+     * Called from {@link MetadataHandler#invoke(Object, Method, Object[])} to perform the given action for every
      * property of the source object
-     * @param method The method to check
-     * @param args   An array of objects containing the values of the arguments passed to
-     *               {@link MetadataHandler#invoke(Object, Method, Object[])}
-     * @return {@code InvocationResult} instance containing either the return value of the method called or the
-     * {@link InvocationResult#NOT_DONE} which tells that invocation attempts should continue
+     * @param action {@code Consumer} instance
      */
-    private InvocationResult tryInvokeUnsetValue(Method method, Object[] args) {
-        if (matchesNameAndArgumentTypes(method, args, METHOD_UNSET, String.class)) {
-            Object result = putValue((String) args[0], null);
-            return InvocationResult.done(result);
-        }
-        return InvocationResult.NOT_DONE;
-    }
-
-    /**
-     * Tests if the requested method is {@code iterator()} and performs appropriate invocation
-     * @param method The method to check
-     * @param args   An array of objects containing the values of the arguments passed to
-     *               {@link MetadataHandler#invoke(Object, Method, Object[])}
-     * @return {@code InvocationResult} instance containing either the return value of the method called or the
-     * {@link InvocationResult#NOT_DONE} which tells that invocation attempts should continue
-     */
-    private InvocationResult tryInvokeIterator(Method method, Object[] args) {
-        if (matchesNameAndArgumentTypes(method, args, METHOD_ITERATOR)
-            || matchesNameAndArgumentTypes(method, args, METHOD_ITERATOR, boolean.class, boolean.class)) {
-            Iterator result = getIterator(args);
-            return InvocationResult.done(result);
-        }
-        return InvocationResult.NOT_DONE;
-    }
-
-    /**
-     * Tests if the requested method is {@code forEach()} and performs appropriate invocation
-     * @param method The method to check
-     * @param args   An array of objects containing the values of the arguments passed to
-     *               {@link MetadataHandler#invoke(Object, Method, Object[])}
-     * @return {@code InvocationResult} instance containing either the return value of the method called or the
-     * {@link InvocationResult#NOT_DONE} which tells that invocation attempts should continue
-     */
-    private InvocationResult tryInvokeForEach(Method method, Object[] args) {
-        if (matchesNameAndArgumentTypes(method, args, METHOD_FOR_EACH, Consumer.class)) {
-            @SuppressWarnings("unchecked")
-            Consumer<? super Property> consumer = (Consumer<? super Property>) args[0];
-            new Iterator(false, false).forEachRemaining(consumer);
-            return InvocationResult.done(null);
-        }
-        return InvocationResult.NOT_DONE;
-    }
-
-    /**
-     * Tests if the requested method is {@code spliterator()} and performs appropriate invocation
-     * @param method The method to check
-     * @param args   An array of objects containing the values of the arguments passed to
-     *               {@link MetadataHandler#invoke(Object, Method, Object[])}
-     * @return {@code InvocationResult} instance containing either the return value of the method called or the
-     * {@link InvocationResult#NOT_DONE} which tells that invocation attempts should continue
-     */
-    private InvocationResult tryInvokeSpliterator(Method method, Object[] args) {
-        if (matchesNameAndArgumentTypes(method, args, METHOD_SPLITERATOR)
-            || matchesNameAndArgumentTypes(method, args, METHOD_SPLITERATOR, boolean.class, boolean.class)) {
-            Spliterator<Property> result = getSpliterator(args);
-            return InvocationResult.done(result);
-        }
-        return InvocationResult.NOT_DONE;
-    }
-
-    /**
-     * Tests if the requested method is {@code stream()} and performs appropriate invocation
-     * @param method The method to check
-     * @param args   An array of objects containing the values of the arguments passed to
-     *               {@link MetadataHandler#invoke(Object, Method, Object[])}
-     * @return {@code InvocationResult} instance containing either the return value of the method called or the
-     * {@link InvocationResult#NOT_DONE} which effectively tells that invocation attempts should continue
-     */
-    private InvocationResult tryInvokeStream(Method method, Object[] args) {
-        if (matchesNameAndArgumentTypes(method, args, METHOD_STREAM)
-            || matchesNameAndArgumentTypes(method, args, METHOD_STREAM, boolean.class, boolean.class)) {
-            Spliterator<Property> spliterator = getSpliterator(args);
-            Stream<Property> stream = StreamSupport.stream(spliterator, false);
-            return InvocationResult.done(stream);
-        }
-        return InvocationResult.NOT_DONE;
+    @SuppressWarnings("unchecked")
+    private void forEach(Object action) {
+        new Iterator(false, false).forEachRemaining((Consumer<? super Property>) action);
     }
 
     /**
-     * Tests whether the provided method and arguments correspond to the given method and argument types
-     * @param method   The method to check
-     * @param args     An array of objects containing the values of the arguments passed in the method invocation
-     * @param name     The name of the method to match
-     * @param argTypes The types of arguments to match
-     * @return True or false
+     * Called from {@link MetadataHandler#invoke(Object, Method, Object[])} to retrieve the first of the annotations of
+     * the current type that matches one of the given classes
+     * @param annotationTypes An array of {@code Class} references
+     * @return A nullable {@code Annotation} object
      */
-    private static boolean matchesNameAndArgumentTypes(Method method, Object[] args, String name, Class<?>... argTypes) {
-        if (!StringUtils.equals(method.getName(), name)) {
-            return false;
-        }
-        if (ArrayUtils.isEmpty(argTypes)) {
-            return true;
-        }
-        int argsLength = ArrayUtils.getLength(args);
-        if (argsLength < argTypes.length) {
-            return false;
-        }
-        for (int i = 0; i < argTypes.length; i++) {
-            if (args[i] == null || !ClassUtils.isAssignable(args[i].getClass(), argTypes[i])) {
-                return false;
+    private Annotation getAnyAnnotation(Class<?>[] annotationTypes) {
+        for (Class<?> cls : annotationTypes) {
+            Annotation result = getAnnotation(cls);
+            if (result != null) {
+                return result;
             }
         }
-        return true;
+        return null;
     }
 
     /* ---------------
@@ -474,12 +254,29 @@ class MetadataHandler<T> implements InvocationHandler {
        ----------------------- */
 
     /**
-     * Retrieves a {@link Property} object by the given path
+     * Retrieves a {@link Property} object by the given path which is either a string or a {@link PropertyPath} object
+     * @param path           The path within the current object to construct the property from
+     * @param throwOnMissing {@code True} to throw an exception if the property is not found
+     * @return A nullable {@code Property} object
+     */
+    private Property getProperty(Object path, boolean throwOnMissing) {
+        return path instanceof PropertyPath
+            ? getProperty((PropertyPath) path, throwOnMissing)
+            : getProperty((String) path, throwOnMissing);
+    }
+
+    /**
+     * Retrieves a {@link Property} object by the given path. If the path is a mere property name, the property is
+     * retrieved without parsing the path
      * @param path           The path within the current object to construct the property from
      * @param throwOnMissing {@code True} to throw an exception if the property is not found
      * @return A nullable {@code Property} object
      */
     private Property getProperty(String path, boolean throwOnMissing) {
+        if (!StringUtils.containsAny(path, COMPOUND_PATH_SYMBOLS)) {
+            Property serviceProperty = getServiceProperty(path);
+            return serviceProperty != null ? serviceProperty : getProperty(path, path, throwOnMissing, true);
+        }
         return getProperty(PropertyPath.parse(path), throwOnMissing);
     }
 
@@ -494,10 +291,9 @@ class MetadataHandler<T> implements InvocationHandler {
     private Property getProperty(PropertyPath path, boolean throwOnMissing) {
         PropertyPathElement element = path.getElements().remove();
         String name = element.getName();
-        if (FIELD_SOURCE.equals(name)) {
-            return new Property(name, source);
-        } else if (FIELD_PROPERTIES.equals(name)) {
-            return new Property(name, properties);
+        Property serviceProperty = getServiceProperty(name);
+        if (serviceProperty != null) {
+            return serviceProperty;
         }
         Property result = getProperty(path.getPath(), name, throwOnMissing, true);
         if (result.getValue() == null) {
@@ -527,26 +323,91 @@ class MetadataHandler<T> implements InvocationHandler {
      * @see PropertyPath
      */
     private Property getProperty(String path, String name, boolean throwOnMissingMethod, boolean substituteMissingValue) {
-        try {
-            Method method = type.getDeclaredMethod(name);
-            Object value = getDefaultReturnValue(method, substituteMissingValue);
-            if (source != null) {
-                value = method.invoke(source);
-            }
-            if (properties != null && properties.containsKey(name)) {
-                value = properties.get(method.getName());
-                value = value != null ? value : getDefaultReturnValue(method, substituteMissingValue);
-            }
-            return new MethodBackedProperty(path, method, value);
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
+        int slot = metadataType.getSlot(name);
+        if (slot < 0) {
             if (throwOnMissingMethod) {
                 PluginRuntime
                     .context()
                     .getExceptionHandler()
-                    .handle(new ReflectionException(String.format(VALUE_EXCEPTION_TEMPLATE, name), e));
+                    .handle(new ReflectionException(String.format(VALUE_EXCEPTION_TEMPLATE, name)));
+            }
+            return Property.EMPTY;
+        }
+        return new MethodBackedProperty(path, metadataType.getMethod(slot), getValue(slot, substituteMissingValue));
+    }
+
+    /**
+     * Retrieves a {@link Property} that exposes the internal state of the current object for comparison, such as the
+     * source object or the assigned property values
+     * @param name The name of the property
+     * @return {@code Property} object, or {@code null} if the name does not refer to the internal state
+     */
+    private Property getServiceProperty(String name) {
+        if (FIELD_SOURCE.equals(name)) {
+            return new Property(name, source);
+        } else if (FIELD_PROPERTIES.equals(name)) {
+            return new Property(name, getPropertiesMap());
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the value of the property with the given name. This is the shortcut for the case when a method of the
+     * underlying annotation is called through the proxy
+     * @param name The name of the property
+     * @return A nullable value
+     */
+    private Object getPropertyValue(String name) {
+        int slot = metadataType.getSlot(name);
+        if (slot < 0) {
+            return getProperty(name, name, true, true).getValue();
+        }
+        return getValue(slot, true);
+    }
+
+    /**
+     * Retrieves the value of the property with the given slot. The value assigned via {@code putValue()} has
+     * precedence over the value of the source object which, in turn, has precedence over the default value
+     * @param slot                   The slot of the property; a valid slot is expected
+     * @param substituteMissingValue {@code True} to generate missing objects, such as nested arrays of annotation
+     *                               instances
+     * @return A nullable value
+     */
+    private Object getValue(int slot, boolean substituteMissingValue) {
+        Method method = metadataType.getMethod(slot);
+        Object value = properties[slot];
+        if (value == ABSENT) {
+            value = source != null ? getSourceValue(slot) : null;
+        }
+        return value != null ? value : getDefaultReturnValue(method, substituteMissingValue);
+    }
+
+    /**
+     * Retrieves the value of the property with the given slot from the source object. The value is retrieved once and
+     * then reused. Array values are copied so that the cached value cannot be modified by the caller
+     * @param slot The slot of the property; a valid slot is expected
+     * @return A nullable value
+     */
+    private Object getSourceValue(int slot) {
+        if (sourceValues[slot] == ABSENT) {
+            sourceValues[slot] = invokeSilently(metadataType.getMethod(slot), source);
+        }
+        return MetadataType.copyIfArray(sourceValues[slot]);
+    }
+
+    /**
+     * Retrieves the values assigned to the properties of the current object in the form of a map. Used to expose the
+     * assigned values for comparison
+     * @return {@code Map} instance
+     */
+    private Map<String, Object> getPropertiesMap() {
+        Map<String, Object> result = new HashMap<>();
+        for (int i = 0; i < properties.length; i++) {
+            if (properties[i] != ABSENT) {
+                result.put(metadataType.getMethod(i).getName(), properties[i]);
             }
         }
-        return Property.EMPTY;
+        return result;
     }
 
     /**
@@ -563,8 +424,10 @@ class MetadataHandler<T> implements InvocationHandler {
      */
     @SuppressWarnings("unchecked")
     private static Object getDefaultReturnValue(Method method, boolean createMissingObjects) {
-        if (method.getDefaultValue() != null) {
-            return method.getDefaultValue();
+        MetadataType declaringType = MetadataType.of(method.getDeclaringClass());
+        Object defaultValue = declaringType.getDefaultValue(declaringType.getSlot(method.getName()));
+        if (defaultValue != null) {
+            return defaultValue;
         }
         if (method.getReturnType().isArray() && createMissingObjects) {
             return Array.newInstance(method.getReturnType().getComponentType(), 0);
@@ -637,13 +500,13 @@ class MetadataHandler<T> implements InvocationHandler {
                 currentProperty.getValue(),
                 currentProperty.getComponentType(),
                 element.getIndex());
-            properties.put(element.getName(), modifiedValue);
+            setValue(element.getName(), modifiedValue);
             Array.set(modifiedValue, element.getIndex(), value);
             return value;
         }
 
         if (validateValueType(element, path, value)) {
-            return properties.put(element.getName(), value);
+            return setValue(element.getName(), value);
         }
         return null;
     }
@@ -675,7 +538,7 @@ class MetadataHandler<T> implements InvocationHandler {
                 currentProperty.getValue(),
                 currentProperty.getComponentType(),
                 element.getIndex());
-            properties.put(element.getName(), existingValue);
+            setValue(element.getName(), existingValue);
             existingValue = Array.get(existingValue, element.getIndex());
         }
         if (!currentProperty.getComponentType().isAnnotation()) {
@@ -692,9 +555,9 @@ class MetadataHandler<T> implements InvocationHandler {
                 ? Metadata.from((Annotation) existingValue)
                 : (Metadata) Metadata.from((Class<? extends Annotation>) currentProperty.getComponentType());
             if (mustWriteToArray) {
-                Array.set(properties.get(element.getName()), element.getIndex(), metadata);
+                Array.set(properties[metadataType.getSlot(element.getName())], element.getIndex(), metadata);
             } else {
-                properties.put(element.getName(), metadata);
+                setValue(element.getName(), metadata);
             }
         } else {
             metadata = (Metadata) existingValue;
@@ -702,6 +565,19 @@ class MetadataHandler<T> implements InvocationHandler {
         return metadata.putValue(path, value);
     }
 
+    /**
+     * Stores the value assigned to the property with the given name. The name is expected to have been validated
+     * @param name  The name of the property
+     * @param value The value to assign
+     * @return The value previously assigned to the property, or {@code null}
+     */
+    private Object setValue(String name, Object value) {
+        int slot = metadataType.getSlot(name);
+        Object result = properties[slot];
+        properties[slot] = value;
+        return result != ABSENT ? result : null;
+    }
+
     /**
      * Called by a property-assigning routine to convert the provided source object into an array or else extend the
      * provided array and append to it a new {@link Metadata} object (probably a proxied annotation) built upon the
@@ -759,18 +635,16 @@ class MetadataHandler<T> implements InvocationHandler {
         if (value == null) {
             return true;
         }
-        boolean result;
-        try {
-            Method method = type.getDeclaredMethod(element.getName());
-            Class<?> methodType = method.getReturnType();
-            if (methodType.isArray() && !value.getClass().isArray() && lookUpArray) {
-                methodType = methodType.getComponentType();
-            }
-            result = ClassUtils.isAssignable(value.getClass(), methodType);
-        } catch (NoSuchMethodException e) {
-            // An exception is not expected here because the method name has already been trialed
+        int slot = metadataType.getSlot(element.getName());
+        if (slot < 0) {
+            // Not expected here because the method name has already been trialed
             return false;
         }
+        Class<?> methodType = metadataType.getMethod(slot).getReturnType();
+        if (methodType.isArray() && !value.getClass().isArray() && lookUpArray) {
+            methodType = methodType.getComponentType();
+        }
+        boolean result = ClassUtils.isAssignable(value.getClass(), methodType);
         if (!result) {
             PluginRuntime
                 .context()
@@ -834,15 +708,18 @@ class MetadataHandler<T> implements InvocationHandler {
      */
     @Override
     public String toString() {
-        if (source == null && properties.isEmpty()) {
+        if (source == null && Arrays.stream(properties).allMatch(value -> value == ABSENT)) {
             return String.valueOf(type);
         }
         StringBuilder result = new StringBuilder(CoreConstants.SEPARATOR_AT)
             .append(type.getName())
             .append(DialogConstants.OPENING_CURLY);
-        for (Method method : type.getDeclaredMethods()) {
-            Object methodValue = source != null ? invokeSilently(method, source) : null;
-            methodValue = properties.getOrDefault(method.getName(), methodValue);
+        for (int i = 0; i < metadataType.size(); i++) {
+            Method method = metadataType.getMethod(i);
+            Object methodValue = properties[i] != ABSENT ? properties[i] : null;
+            if (properties[i] == ABSENT && source != null) {
+                methodValue = getSourceValue(i);
+            }
             boolean isDefaultMethodValue = false;
             if (methodValue == null) {
                 methodValue = getDefaultReturnValue(method, true);
@@ -901,7 +778,7 @@ class MetadataHandler<T> implements InvocationHandler {
         return new EqualsBuilder()
             .append(source, that.getValue(FIELD_SOURCE))
             .append(type, that.annotationType())
-            .append(properties, that.getValue(FIELD_PROPERTIES))
+            .append(getPropertiesMap(), that.getValue(FIELD_PROPERTIES))
             .isEquals();
     }
 
@@ -913,7 +790,7 @@ class MetadataHandler<T> implements InvocationHandler {
         return new HashCodeBuilder(HASH_INITIAL_NUMBER, HASH_MULTIPLIER)
             .append(source)
             .append(type)
-            .append(properties)
+            .append(getPropertiesMap())
             .toHashCode();
     }
 
@@ -971,8 +848,8 @@ class MetadataHandler<T> implements InvocationHandler {
          */
         private void collect(Annotation target, String pathPrefix, Queue<Property> collection) {
             Method[] methods = target != null
-                ? target.annotationType().getDeclaredMethods()
-                : type.getDeclaredMethods();
+                ? MetadataType.of(target.annotationType()).getMethods()
+                : metadataType.getMethods();
             for (Method method : methods) {
                 collect(target, method, pathPrefix, collection);
             }
@@ -1019,10 +896,11 @@ class MetadataHandler<T> implements InvocationHandler {
          * @return A nullable value
          */
         private Object invokeInCurrentObjectSilently(Method method) {
-            if (MetadataHandler.this.properties != null && MetadataHandler.this.properties.containsKey(method.getName())) {
-                return MetadataHandler.this.properties.get(method.getName());
+            int slot = metadataType.getSlot(method.getName());
+            if (MetadataHandler.this.properties[slot] != ABSENT) {
+                return MetadataHandler.this.properties[slot];
             }
-            return source != null ? invokeSilently(method, source) : null;
+            return source != null ? getSourceValue(slot) : null;
         }
 
         /**
@@ -1037,4 +915,81 @@ class MetadataHandler<T> implements InvocationHandler {
                 + right;
         }
     }
+
+    /**
+     * Enumerates the operations that a {@link Metadata} proxy performs in response to a method call. The operation is
+     * resolved once per {@code Method} object and then reused so that the method name and argument types are not
+     * compared on every invocation. The resolved operations are stored per declaring class so that they do not keep
+     * the class from being unloaded
+     */
+    private enum Operation {
+        ANNOTATION_TYPE,
+        EQUALS,
+        HASH_CODE,
+        TO_STRING,
+        GET_ANNOTATION,
+        GET_ANY_ANNOTATION,
+        HAS_PROPERTY,
+        GET_VALUE,
+        GET_PROPERTY,
+        PUT_VALUE,
+        UNSET_VALUE,
+        ITERATOR,
+        FOR_EACH,
+        SPLITERATOR,
+        STREAM,
+        PROPERTY;
+
+        /**
+         * Resolves the operation for the given method. Methods declared in {@code Object}, {@code Annotation},
+         * {@code Iterable}, and {@link Metadata} are mapped to the corresponding operations, while any other method is
+         * treated as a property of the underlying annotation
+         * @param method {@code Method} object
+         * @return {@code Operation} value
+         */
+        static Operation from(Method method) {
+            Class<?> declaringClass = method.getDeclaringClass();
+            boolean isServiceMethod = Object.class.equals(declaringClass)
+                || Annotation.class.equals(declaringClass)
+                || Iterable.class.equals(declaringClass)
+                || Metadata.class.equals(declaringClass);
+            if (!isServiceMethod) {
+                return PROPERTY;
+            }
+            switch (method.getName()) {
+                case "annotationType":
+                    return ANNOTATION_TYPE;
+                case "equals":
+                    return EQUALS;
+                case "hashCode":
+                    return HASH_CODE;
+                case "toString":
+                    return TO_STRING;
+                case "getAnnotation":
+                    return GET_ANNOTATION;
+                case "getAnyAnnotation":
+                    return GET_ANY_ANNOTATION;
+                case "hasProperty":
+                    return HAS_PROPERTY;
+                case "getValue":
+                    return GET_VALUE;
+                case "getProperty":
+                    return GET_PROPERTY;
+                case "putValue":
+                    return PUT_VALUE;
+                case "unsetValue":
+                    return UNSET_VALUE;
+                case "iterator":
+                    return ITERATOR;
+                case "forEach":
+                    return FOR_EACH;
+                case "spliterator":
+                    return SPLITERATOR;
+                case "stream":
+                    return STREAM;
+                default:
+                    return PROPERTY;
+            }
+        }
+    }
 }
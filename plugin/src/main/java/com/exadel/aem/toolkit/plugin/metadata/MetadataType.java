@@ -0,0 +1,121 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.plugin.metadata;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contains the reflective data of an annotation type that is used by {@link MetadataHandler}: the list of the
+ * annotation's properties, the index (slot) of every property, and the default values of properties. The data is
+ * computed once per type and then shared between all the {@link Metadata} instances of this type
+ */
+class MetadataType {
+
+    private static final ClassValue<MetadataType> CACHE = new ClassValue<MetadataType>() {
+        @Override
+        protected MetadataType computeValue(Class<?> type) {
+            return new MetadataType(type);
+        }
+    };
+
+    private final Method[] methods;
+    private final Map<String, Integer> slots;
+    private final Object[] defaultValues;
+
+    /**
+     * Initializes a class instance with the type to introspect
+     * @param type {@code Class} reference, usually an annotation type
+     */
+    private MetadataType(Class<?> type) {
+        this.methods = type.getDeclaredMethods();
+        this.slots = new HashMap<>();
+        this.defaultValues = new Object[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            slots.put(methods[i].getName(), i);
+            defaultValues[i] = methods[i].getDefaultValue();
+        }
+    }
+
+    /**
+     * Retrieves the number of properties of the current type
+     * @return Integer value
+     */
+    int size() {
+        return methods.length;
+    }
+
+    /**
+     * Retrieves the methods that represent properties of the current type
+     * @return Array of {@code Method} objects. The array must not be modified by the caller
+     */
+    Method[] getMethods() {
+        return methods;
+    }
+
+    /**
+     * Retrieves the method that represents a property of the current type by the property's slot
+     * @param slot Integer value. A valid slot is expected
+     * @return {@code Method} object
+     */
+    Method getMethod(int slot) {
+        return methods[slot];
+    }
+
+    /**
+     * Retrieves the slot of the property with the given name
+     * @param name The name of the property
+     * @return A non-negative integer value, or {@code -1} if there is no such property
+     */
+    int getSlot(String name) {
+        Integer result = slots.get(name);
+        return result != null ? result : -1;
+    }
+
+    /**
+     * Retrieves the default value of the property with the given slot as declared in the annotation type. If the value
+     * is an array, a copy is returned so that the shared default value cannot be modified
+     * @param slot Integer value. A valid slot is expected
+     * @return A nullable value
+     */
+    Object getDefaultValue(int slot) {
+        return copyIfArray(defaultValues[slot]);
+    }
+
+    /**
+     * Retrieves the {@link MetadataType} instance for the given type
+     * @param type {@code Class} reference, usually an annotation type
+     * @return {@code MetadataType} object
+     */
+    static MetadataType of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    /**
+     * Creates a shallow copy of the given value if it is an array. Otherwise, returns the value as is
+     * @param value An arbitrary nullable value
+     * @return A nullable value
+     */
+    static Object copyIfArray(Object value) {
+        if (value == null || !value.getClass().isArray()) {
+            return value;
+        }
+        int length = Array.getLength(value);
+        Object result = Array.newInstance(value.getClass().getComponentType(), length);
+        System.arraycopy(value, 0, result, 0, length);
+        return result;
+    }
+}
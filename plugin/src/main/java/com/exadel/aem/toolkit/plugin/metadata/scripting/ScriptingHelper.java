@@ -18,7 +18,9 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -26,6 +28,7 @@ import org.mozilla.javascript.ClassShutter;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.ContextFactory;
 import org.mozilla.javascript.RhinoException;
+import org.mozilla.javascript.Script;
 import org.mozilla.javascript.Scriptable;
 import org.mozilla.javascript.ScriptableObject;
 import org.mozilla.javascript.Undefined;
@@ -58,6 +61,9 @@ public class ScriptingHelper {
 
     private static final String TOKEN_THIS = "this";
 
+    private static final ScriptableObject SHARED_SCOPE = createSharedScope();
+    private static final Map<String, Script> COMPILED_SCRIPTS = new ConcurrentHashMap<>();
+
     /**
      * Default (instantiation-restricted) constructor
      */
@@ -66,11 +72,13 @@ public class ScriptingHelper {
 
     /**
      * Replaces inline scripting templates in the provided {@link Metadata} instance with corresponding computed values
-     * using the provided {@link Source} as the context
+     * using the provided {@link Source} as the context. This method can be called concurrently from different threads:
+     * every call uses its own Rhino context and its own top-level scope, while the standard objects and the compiled
+     * scripts are shared
      * @param value  {@code Metadata} instance to process
      * @param source {@code Source} instance to be used as the data context
      */
-    public static synchronized void interpolate(Metadata value, Source source) {
+    public static void interpolate(Metadata value, Source source) {
         if (value == null) {
             return;
         }
@@ -90,12 +98,12 @@ public class ScriptingHelper {
 
         DataStack dataStack = source.adaptTo(DataStack.class);
 
-        try (Context context = CONTEXT_FACTORY.enterContext()) {
-            context.setLanguageVersion(Context.VERSION_ES6);
-            context.setClassShutter(DEFAULT_CLASS_SHUTTER);
-            Scriptable scope = context.initStandardObjects();
-            ScriptableObject.putProperty(scope, PN_SOURCE, Context.javaToJS(adapter, scope));
-            ScriptableObject.putProperty(scope, PN_SETTINGS, Context.javaToJS(new MapAdapter(dataStack.getData()), scope));
+        try (Context context = enterContext()) {
+            Scriptable scope = context.newObject(SHARED_SCOPE);
+            scope.setPrototype(SHARED_SCOPE);
+            scope.setParentScope(null);
+            scope.put(PN_SOURCE, scope, Context.javaToJS(adapter, scope));
+            scope.put(PN_SETTINGS, scope, Context.javaToJS(new MapAdapter(dataStack.getData()), scope));
             for (TemplatedProperty property : templatedProperties) {
                 String result = interpolate(property, context, scope, dataStack);
                 value.putValue(property.getPath(), result);
@@ -134,9 +142,11 @@ public class ScriptingHelper {
                         continue;
                     }
                     Object value = dataStack.getData().get(variable);
-                    ScriptableObject.putProperty(
-                        scope,
+                    // The value is put directly into the per-call scope so that the sealed shared scope is never
+                    // modified, even if the variable name coincides with the name of a standard object
+                    scope.put(
                         variable,
+                        scope,
                         value != null ? Context.javaToJS(value, scope) : Undefined.instance);
                 }
                 String scriptResult = runScript(context, scope, embedding.getScript());
@@ -171,7 +181,8 @@ public class ScriptingHelper {
     }
 
     /**
-     * Evaluates the provided {@code JavaScript}-coded string using the provided {@code Context} and scope
+     * Evaluates the provided {@code JavaScript}-coded string using the provided {@code Context} and scope. The script is
+     * compiled once and then reused for every subsequent evaluation of the same string
      * @param context {@link Context} instance used for the script evaluation
      * @param scope   {@link Scriptable} instance used for the script evaluation
      * @param script  The script to evaluate
@@ -179,7 +190,12 @@ public class ScriptingHelper {
      */
     private static String runScript(Context context, Scriptable scope, String script) {
         try {
-            Object result = context.evaluateString(scope, script, PATH_SCRIPT, 0, null);
+            Script compiledScript = COMPILED_SCRIPTS.get(script);
+            if (compiledScript == null) {
+                compiledScript = context.compileString(script, PATH_SCRIPT, 0, null);
+                COMPILED_SCRIPTS.putIfAbsent(script, compiledScript);
+            }
+            Object result = compiledScript.exec(context, scope);
             result = Context.jsToJava(result, String.class);
             return result != null && !Undefined.SCRIPTABLE_UNDEFINED.toString().equals(result.toString())
                 ? result.toString()
@@ -190,6 +206,28 @@ public class ScriptingHelper {
         return StringUtils.EMPTY;
     }
 
+    /**
+     * Enters a new Rhino {@link Context} for the current thread and configures it for evaluating inline scripts
+     * @return {@code Context} instance
+     */
+    private static Context enterContext() {
+        Context context = CONTEXT_FACTORY.enterContext();
+        context.setLanguageVersion(Context.VERSION_ES6);
+        context.setClassShutter(DEFAULT_CLASS_SHUTTER);
+        return context;
+    }
+
+    /**
+     * Creates the scope that contains the standard JavaScript objects. The scope is sealed so that it can be safely
+     * shared between threads as the prototype of per-call scopes
+     * @return {@link ScriptableObject} instance
+     */
+    private static ScriptableObject createSharedScope() {
+        try (Context context = enterContext()) {
+            return context.initStandardObjects(null, true);
+        }
+    }
+
     /* ---------------
        Utility classes
        --------------- */
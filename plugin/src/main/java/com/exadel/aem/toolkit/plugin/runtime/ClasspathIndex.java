@@ -0,0 +1,240 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.plugin.runtime;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.io.ByteStreams;
+
+import com.exadel.aem.toolkit.plugin.utils.DialogConstants;
+
+/**
+ * Decides which classpath elements need to be scanned for AEM components, handlers, and validators. Project output
+ * directories are always scanned. A JAR file is scanned only if it contains classes that refer to the ToolKit's API.
+ * The verdict for every JAR file is stored on disk and reused while the path, the size, and the modification time of
+ * the file stay the same. JAR files matching the user-defined exclusion patterns are never scanned
+ */
+public class ClasspathIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(DialogConstants.ARTIFACT_NAME);
+
+    private static final String INDEX_FILE_NAME = "classpath.index";
+    private static final String INDEX_COMMENT = "Generated by " + DialogConstants.ARTIFACT_NAME;
+
+    private static final byte[] API_REFERENCE = "com/exadel/aem/toolkit/api/".getBytes(StandardCharsets.UTF_8);
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    private static final String VALUE_SEPARATOR = "|";
+    private static final String VALUE_RELEVANT = "1";
+    private static final String VALUE_IRRELEVANT = "0";
+
+    private static final char WILDCARD_ANY = '*';
+    private static final char WILDCARD_SINGLE = '?';
+
+    private final Path indexPath;
+    private final List<Pattern> exclusions;
+    private final Properties entries;
+    private boolean modified;
+
+    /**
+     * Initializes a new {@link ClasspathIndex} instance
+     * @param directory  Nullable {@code Path} to the directory where the index is stored. If not provided, the index is
+     *                   not persisted, and every JAR file is scanned unless it is excluded
+     * @param exclusions Collection of wildcard patterns ({@code *} and {@code ?} are supported) matching the names or
+     *                   the paths of JAR files that must not be scanned
+     */
+    public ClasspathIndex(Path directory, Collection<String> exclusions) {
+        this.indexPath = directory != null ? directory.resolve(INDEX_FILE_NAME) : null;
+        this.exclusions = exclusions == null
+            ? Collections.emptyList()
+            : exclusions
+                .stream()
+                .filter(StringUtils::isNotBlank)
+                .map(String::trim)
+                .map(ClasspathIndex::toPattern)
+                .collect(Collectors.toList());
+        this.entries = new Properties();
+        load();
+    }
+
+    /**
+     * Gets whether the given classpath element needs to be scanned
+     * @param element {@code File} object representing a directory or a JAR file
+     * @return True or false
+     */
+    public boolean isRelevant(File element) {
+        if (element.isDirectory()) {
+            return true;
+        }
+        if (!element.isFile()) {
+            return false;
+        }
+        String path = toForwardSlashes(element.getAbsolutePath());
+        if (exclusions.stream().anyMatch(pattern -> pattern.matcher(element.getName()).matches() || pattern.matcher(path).matches())) {
+            return false;
+        }
+        if (indexPath == null) {
+            return true;
+        }
+        String signature = element.length() + VALUE_SEPARATOR + element.lastModified() + VALUE_SEPARATOR;
+        String storedValue = entries.getProperty(path);
+        if (StringUtils.startsWith(storedValue, signature)) {
+            return VALUE_RELEVANT.equals(StringUtils.substringAfterLast(storedValue, VALUE_SEPARATOR));
+        }
+        boolean result = containsApiReferences(element);
+        entries.setProperty(path, signature + (result ? VALUE_RELEVANT : VALUE_IRRELEVANT));
+        modified = true;
+        return result;
+    }
+
+    /**
+     * Stores the index to the file system if it has been modified. The file is replaced atomically so that concurrent
+     * builds sharing the same index do not read a partially written file
+     */
+    public void save() {
+        if (indexPath == null || !modified) {
+            return;
+        }
+        try {
+            Files.createDirectories(indexPath.getParent());
+            Path temporaryPath = Files.createTempFile(indexPath.getParent(), INDEX_FILE_NAME, null);
+            try (OutputStream output = Files.newOutputStream(temporaryPath)) {
+                entries.store(output, INDEX_COMMENT);
+            }
+            Files.move(temporaryPath, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            modified = false;
+        } catch (IOException e) {
+            LOG.warn("Could not store the classpath index {}", indexPath, e);
+        }
+    }
+
+    /**
+     * Reads the stored index, if any
+     */
+    private void load() {
+        if (indexPath == null || !Files.isRegularFile(indexPath)) {
+            return;
+        }
+        try (InputStream input = Files.newInputStream(indexPath)) {
+            entries.load(input);
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.warn("Could not read the classpath index {}", indexPath, e);
+            entries.clear();
+        }
+    }
+
+    /* ---------------
+       Utility methods
+       --------------- */
+
+    /**
+     * Gets whether the given JAR file contains at least one class that refers to the ToolKit's API. Such a reference
+     * is present in the constant pool of every class that is annotated with a ToolKit annotation or implements a
+     * ToolKit interface
+     * @param element {@code File} object representing a JAR file
+     * @return True or false. If the file cannot be read, true is returned so that the file is scanned as usual
+     */
+    private static boolean containsApiReferences(File element) {
+        try (ZipFile zipFile = new ZipFile(element)) {
+            Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+            while (zipEntries.hasMoreElements()) {
+                ZipEntry zipEntry = zipEntries.nextElement();
+                if (zipEntry.isDirectory() || !zipEntry.getName().endsWith(CLASS_FILE_EXTENSION)) {
+                    continue;
+                }
+                try (InputStream input = zipFile.getInputStream(zipEntry)) {
+                    if (contains(ByteStreams.toByteArray(input), API_REFERENCE)) {
+                        return true;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOG.debug("Could not read classpath element {}", element, e);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets whether the given byte array contains the given sequence of bytes
+     * @param data     Byte array to search in
+     * @param sequence Byte array to search for
+     * @return True or false
+     */
+    private static boolean contains(byte[] data, byte[] sequence) {
+        int lastStart = data.length - sequence.length;
+        for (int i = 0; i <= lastStart; i++) {
+            int j = 0;
+            while (j < sequence.length && data[i + j] == sequence[j]) {
+                j++;
+            }
+            if (j == sequence.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Converts a wildcard pattern to a regular expression
+     * @param value String value representing a wildcard pattern
+     * @return {@code Pattern} object
+     */
+    private static Pattern toPattern(String value) {
+        StringBuilder result = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char current : toForwardSlashes(value).toCharArray()) {
+            if (current != WILDCARD_ANY && current != WILDCARD_SINGLE) {
+                literal.append(current);
+                continue;
+            }
+            if (literal.length() > 0) {
+                result.append(Pattern.quote(literal.toString()));
+                literal.setLength(0);
+            }
+            result.append(current == WILDCARD_ANY ? ".*" : ".");
+        }
+        if (literal.length() > 0) {
+            result.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(result.toString());
+    }
+
+    /**
+     * Replaces Windows-style path separators with forward slashes
+     * @param value String value representing a file path
+     * @return String value
+     */
+    private static String toForwardSlashes(String value) {
+        return value.replace('\\', '/');
+    }
+}
@@ -21,11 +21,17 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.ClassUtils;
@@ -60,6 +66,8 @@ import com.exadel.aem.toolkit.plugin.utils.ordering.OrderingUtil;
 public class ReflectionContextHelper {
 
     private static final char SEPARATOR_COMMA = ',';
+    private static final char SEPARATOR_SCOPE = ':';
+
     private Reflections reflections;
 
     private ClassLoader classLoader;
@@ -70,6 +78,10 @@ public class ReflectionContextHelper {
 
     private List<Validator> validators;
 
+    private volatile Map<Class<?>, List<HandlerEntry>> handlersByAnnotationType;
+
+    private final Map<String, List<Handler>> handlersByKey = new ConcurrentHashMap<>();
+
     /**
      * Default (instantiation-restricting) constructor
      */
@@ -174,9 +186,7 @@ public class ReflectionContextHelper {
      */
     public boolean isHandled(Annotation annotation) {
         return annotation.annotationType().isAnnotationPresent(AnnotationRendering.class)
-            || getHandlers()
-            .stream()
-            .anyMatch(handler -> isHandlerMatches(handler, null, new Class<?>[]{annotation.annotationType()}));
+            || getHandlersByAnnotationType().containsKey(annotation.annotationType());
     }
 
     /**
@@ -188,24 +198,23 @@ public class ReflectionContextHelper {
      * @return {@code List} of handler instances, ordered
      */
     public List<Handler> getHandlers(String scope, Annotation[] annotations) {
-        List<Handler> result = getHandlers().stream()
-            .filter(handler -> isHandlerMatches(handler, scope, annotations))
-            .collect(Collectors.toList());
-        return OrderingUtil.sortHandlers(result);
+        return getHandlers(scope, Arrays.stream(annotations).map(Annotation::annotationType).toArray(Class<?>[]::new));
     }
 
     /**
      * Retrieves a list of {@link Handler} instances that match the provided annotation types and scope. The list is
-     * ordered in such a way as to honor the relations set by {@code before} and {@code after} anchors
+     * ordered in such a way as to honor the relations set by {@code before} and {@code after} anchors. The result is
+     * computed once per a combination of the scope and the annotation types and then reused
      * @param scope           A non-null string representing the scope that the handlers must match
      * @param annotationTypes Non-null array of {@code Class} objects
-     * @return {@code List} of handler instances, ordered
+     * @return {@code List} of handler instances, ordered. The list is a copy and can be modified by the caller
      */
     public List<Handler> getHandlers(String scope, Class<?>... annotationTypes) {
-        List<Handler> result = getHandlers().stream()
-            .filter(handler -> isHandlerMatches(handler, scope, annotationTypes))
-            .collect(Collectors.toList());
-        return OrderingUtil.sortHandlers(result);
+        String key = scope + SEPARATOR_SCOPE + Arrays.stream(annotationTypes)
+            .map(Class::getName)
+            .collect(Collectors.joining(String.valueOf(SEPARATOR_COMMA)));
+        List<Handler> result = handlersByKey.computeIfAbsent(key, k -> findHandlers(scope, annotationTypes));
+        return new ArrayList<>(result);
     }
 
     /**
@@ -226,55 +235,60 @@ public class ReflectionContextHelper {
     }
 
     /**
-     * Tests whether the given handler is suitable for the conditions defined by the set of manageable annotations and
-     * the {@code Scope} value
-     * @param scope       String value representing the scope that the handlers must match
-     * @param handler     {@code Handler} instance to test
-     * @param annotations An array of {@code Annotation} objects, usually representing annotations of a method or class
-     * @return True or false
+     * Retrieves the registry of handlers that have a {@code @Handles} or {@code @HandlesWidgets} annotation, grouped
+     * by the annotation types they handle. The registry is built once; within each group, the handlers retain the order
+     * in which they appear in {@link ReflectionContextHelper#getHandlers()}
+     * @return {@code Map} instance
      */
-    private static boolean isHandlerMatches(Handler handler, String scope, Annotation[] annotations) {
-        return isHandlerMatches(handler, scope, Arrays.stream(annotations).map(Annotation::annotationType).toArray(Class<?>[]::new));
+    private Map<Class<?>, List<HandlerEntry>> getHandlersByAnnotationType() {
+        if (handlersByAnnotationType != null) {
+            return handlersByAnnotationType;
+        }
+        Map<Class<?>, List<HandlerEntry>> result = new HashMap<>();
+        List<Handler> allHandlers = getHandlers();
+        for (int i = 0; i < allHandlers.size(); i++) {
+            HandlerEntry entry = HandlerEntry.from(allHandlers.get(i), i);
+            if (entry == null) {
+                continue;
+            }
+            for (Class<?> handledType : entry.getHandledTypes()) {
+                result.computeIfAbsent(handledType, type -> new ArrayList<>()).add(entry);
+            }
+        }
+        handlersByAnnotationType = result;
+        return result;
     }
 
     /**
-     * Tests whether the given handler is suitable for the conditions defined by the set of manageable annotations and
-     * the {@code Scope} value
-     * @param handler         {@code Handler} instance to test
+     * Selects the handlers that are suitable for the conditions defined by the set of manageable annotations and the
+     * {@code Scope} value, and orders them
      * @param scope           String value representing the scope that the handlers must match
      * @param annotationTypes An array of {@code Class} references, usually representing types of annotations of a
      *                        method or a class
-     * @return True or false
+     * @return {@code List} of handler instances, ordered
      */
-    @SuppressWarnings("deprecation") // HandlesWidgets processing is retained for compatibility and will be removed
-    // in a version after 2.0.2
-    private static boolean isHandlerMatches(Handler handler, String scope, Class<?>[] annotationTypes) {
-        Handles handles = handler.getClass().getDeclaredAnnotation(Handles.class);
-        HandlesWidgets handlesWidgets = handler.getClass().getDeclaredAnnotation(HandlesWidgets.class);
-        if (handles == null && handlesWidgets == null) {
-            return false;
-        }
-        Class<? extends Annotation>[] handledAnnotationTypes = handles != null
-            ? handles.value()
-            : handlesWidgets.value();
-        boolean isMatchByType = Arrays.stream(handledAnnotationTypes)
-            .anyMatch(annotationType -> Arrays.asList(annotationTypes).contains(annotationType));
-
-        String[] handlerScopes = handles != null ? handles.scope() : new String[]{Scopes.DEFAULT};
-        // Try to guess appropriate scopes for the handler judging by the annotations it handles
-        // (so that if it handles, e.g., {@code @ChildEditConfig}, the scope for the handler is exactly ChildEditConfig)
-        if (handles != null && handlerScopes.length == 1 && handlerScopes[0].equals(Scopes.DEFAULT)) {
-            handlerScopes = ScopeUtil.designate(handles.value());
+    private List<Handler> findHandlers(String scope, Class<?>[] annotationTypes) {
+        Map<Class<?>, List<HandlerEntry>> registry = getHandlersByAnnotationType();
+        List<HandlerEntry> candidates = Arrays.stream(annotationTypes)
+            .map(registry::get)
+            .filter(Objects::nonNull)
+            .flatMap(List::stream)
+            .distinct()
+            .sorted(Comparator.comparingInt(HandlerEntry::getPosition))
+            .collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            return Collections.emptyList();
         }
-        // If still no particular scopes, try to guess by the mere annotations added to the current class
+        // If a handler has no particular scopes, try to guess by the mere annotations added to the current class
         // (so that if there is, e.g., {@code @Dialog}, and the handler has no particular scope, it is assumed that
         // the handler is also for the dialog)
-        if (handlerScopes.length == 1 && handlerScopes[0].equals(Scopes.DEFAULT)) {
-            handlerScopes = ScopeUtil.designate(annotationTypes);
-        }
-        boolean isMatchByScope = scope == null || ScopeUtil.fits(scope, handlerScopes);
-
-        return isMatchByType && isMatchByScope;
+        String[] contextScopes = ScopeUtil.designate(annotationTypes);
+        List<Handler> result = candidates
+            .stream()
+            .filter(entry -> scope == null || ScopeUtil.fits(scope, entry.getScopes() != null ? entry.getScopes() : contextScopes))
+            .map(HandlerEntry::getHandler)
+            .collect(Collectors.toList());
+        return OrderingUtil.sortHandlers(result);
     }
 
     /**
@@ -365,19 +379,31 @@ public class ReflectionContextHelper {
      * @return {@link ReflectionContextHelper} instance
      */
     public static ReflectionContextHelper fromCodeScope(List<String> elements) {
-        URL[] urls = new URL[0];
-        if (elements != null) {
-            urls = elements.stream()
-                .map(File::new)
-                .map(File::toURI)
-                .map(ReflectionContextHelper::toUrl)
-                .filter(Objects::nonNull)
-                .toArray(URL[]::new);
+        return fromCodeScope(elements, null);
+    }
+
+    /**
+     * Used to initialize a {@code PluginReflectionUtility} instance based on the list of available classpath entries in
+     * the scope of this Maven plugin. All the entries are made available to the class loader, but only those deemed
+     * relevant by the provided {@link ClasspathIndex} are scanned for components, handlers, and validators
+     * @param elements List of classpath elements to be used in reflection routines
+     * @param index    Nullable {@code ClasspathIndex} instance. If not provided, all the classpath elements are scanned
+     * @return {@link ReflectionContextHelper} instance
+     */
+    public static ReflectionContextHelper fromCodeScope(List<String> elements, ClasspathIndex index) {
+        List<File> files = elements != null
+            ? elements.stream().map(File::new).collect(Collectors.toList())
+            : Collections.emptyList();
+        URL[] urls = toUrls(files);
+        URL[] scannedUrls = urls;
+        if (index != null) {
+            scannedUrls = toUrls(files.stream().filter(index::isRelevant).collect(Collectors.toList()));
+            index.save();
         }
         URLClassLoader classLoader = new URLClassLoader(urls, ReflectionContextHelper.class.getClassLoader());
         Reflections reflections = new Reflections(new ConfigurationBuilder()
             .addClassLoader(classLoader)
-            .setUrls(urls)
+            .setUrls(scannedUrls)
             .setScanners(new TypeAnnotationsScanner(), new SubTypesScanner()));
         ReflectionContextHelper newInstance = new ReflectionContextHelper();
         newInstance.classLoader = classLoader;
@@ -385,6 +411,19 @@ public class ReflectionContextHelper {
         return newInstance;
     }
 
+    /**
+     * Converts the list of classpath elements to an array of {@link URL} instances used by {@link Reflections}
+     * @param files List of {@code File} objects
+     * @return Array of {@code URL} values
+     */
+    private static URL[] toUrls(List<File> files) {
+        return files.stream()
+            .map(File::toURI)
+            .map(ReflectionContextHelper::toUrl)
+            .filter(Objects::nonNull)
+            .toArray(URL[]::new);
+    }
+
     /**
      * Converts {@link URI} parameter, such as of a classpath element, to an {@link URL} instance used by {@link
      * Reflections}
@@ -399,4 +438,102 @@ public class ReflectionContextHelper {
         }
         return null;
     }
+
+    /* ---------------
+       Service classes
+       --------------- */
+
+    /**
+     * Stores a {@link Handler} together with the annotation types and the scopes it is declared for, as retrieved once
+     * from the {@code @Handles} or {@code @HandlesWidgets} annotation
+     */
+    private static class HandlerEntry {
+        private final Handler handler;
+        private final int position;
+        private final Class<?>[] handledTypes;
+        private final String[] scopes;
+
+        /**
+         * Creates a new {@link HandlerEntry} instance
+         * @param handler      {@code Handler} object
+         * @param position     The position of the handler in the list of all handlers
+         * @param handledTypes Annotation types the handler is declared for
+         * @param scopes       Scopes the handler is declared for, or null if the scopes are to be guessed by the
+         *                     annotations of the current source
+         */
+        private HandlerEntry(Handler handler, int position, Class<?>[] handledTypes, String[] scopes) {
+            this.handler = handler;
+            this.position = position;
+            this.handledTypes = handledTypes;
+            this.scopes = scopes;
+        }
+
+        /**
+         * Retrieves the handler
+         * @return {@code Handler} object
+         */
+        Handler getHandler() {
+            return handler;
+        }
+
+        /**
+         * Retrieves the position of the handler in the list of all handlers
+         * @return Integer value
+         */
+        int getPosition() {
+            return position;
+        }
+
+        /**
+         * Retrieves the annotation types the handler is declared for
+         * @return Array of {@code Class} objects
+         */
+        Class<?>[] getHandledTypes() {
+            return handledTypes;
+        }
+
+        /**
+         * Retrieves the scopes the handler is declared for
+         * @return Array of strings, or null if the scopes are to be guessed by the annotations of the current source
+         */
+        String[] getScopes() {
+            return scopes;
+        }
+
+        /**
+         * Creates a new {@link HandlerEntry} for the given handler
+         * @param handler  {@code Handler} object
+         * @param position The position of the handler in the list of all handlers
+         * @return {@code HandlerEntry} instance, or null if the handler has neither {@code @Handles} nor
+         * {@code @HandlesWidgets} annotation
+         */
+        @SuppressWarnings("deprecation") // HandlesWidgets processing is retained for compatibility and will be removed
+        // in a version after 2.0.2
+        static HandlerEntry from(Handler handler, int position) {
+            Handles handles = handler.getClass().getDeclaredAnnotation(Handles.class);
+            HandlesWidgets handlesWidgets = handler.getClass().getDeclaredAnnotation(HandlesWidgets.class);
+            if (handles == null && handlesWidgets == null) {
+                return null;
+            }
+            Class<? extends Annotation>[] handledAnnotationTypes = handles != null
+                ? handles.value()
+                : handlesWidgets.value();
+            String[] handlerScopes = handles != null ? handles.scope() : new String[]{Scopes.DEFAULT};
+            // Try to guess appropriate scopes for the handler judging by the annotations it handles
+            // (so that if it handles, e.g., {@code @ChildEditConfig}, the scope for the handler is exactly ChildEditConfig)
+            if (handles != null && isDefault(handlerScopes)) {
+                handlerScopes = ScopeUtil.designate(handles.value());
+            }
+            return new HandlerEntry(handler, position, handledAnnotationTypes, isDefault(handlerScopes) ? null : handlerScopes);
+        }
+
+        /**
+         * Gets whether the given array of scopes consists of the sole default scope
+         * @param scopes Array of strings
+         * @return True or false
+         */
+        private static boolean isDefault(String[] scopes) {
+            return scopes.length == 1 && scopes[0].equals(Scopes.DEFAULT);
+        }
+    }
 }
@@ -13,10 +13,14 @@
  */
 package com.exadel.aem.toolkit.plugin.utils;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.w3c.dom.Element;
 import com.google.common.base.CaseFormat;
 
@@ -27,11 +31,15 @@ import com.exadel.aem.toolkit.plugin.runtime.XmlContextHelper;
 
 /**
  * Helper class for creating standard-compliant names for XML entities designed to work together
- * with {@link NamingUtil}
+ * with {@link NamingUtil}. Names that consist of ASCII letters, digits and underscores only are processed without
+ * engaging regular expressions. Other names are memoized in a bounded cache, since the same titles and member names
+ * are processed many times
  */
 class NamingHelper {
+    private static final int CACHE_SIZE = 1000;
+    private static final float LOAD_FACTOR = 0.75f;
+
     private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
-    private static final Pattern NODE_NAME_INDEX_PATTERN = Pattern.compile("\\d*$");
     private static final Pattern NAMESPACE_PATTERN = Pattern.compile("^\\w+:");
 
     private static final Pattern INVALID_FIELD_NAME_PATTERN = Pattern.compile("^\\W+|[^\\w-/]$|[^\\w-/:]+");
@@ -47,6 +55,14 @@ class NamingHelper {
     private boolean removeInvalidNamespace;
     private Pattern clearingPattern;
 
+    private final Map<Pair<String, String>, String> cache = Collections.synchronizedMap(
+        new LinkedHashMap<Pair<String, String>, String>(CACHE_SIZE, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Pair<String, String>, String> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        });
+
     /**
      * Default (instantiation-restricting) constructor
      */
@@ -69,7 +85,26 @@ class NamingHelper {
         if (StringUtils.isBlank(source)) {
             return StringUtils.defaultIfBlank(defaultValue, CoreConstants.NN_ITEM);
         }
+        if (isSimpleName(source)) {
+            return lowercaseFirst ? uncapitalize(source) : source;
+        }
+        Pair<String, String> key = Pair.of(source, defaultValue);
+        String result = cache.get(key);
+        if (result == null) {
+            result = createValidName(source, defaultValue);
+            cache.put(key, result);
+        }
+        return result;
+    }
 
+    /**
+     * Called by {@link NamingHelper#getValidName(String, String)} to transform the given string argument into a name
+     * compliant with XML entity naming rules
+     * @param source       Non-blank string value to transform
+     * @param defaultValue String value to be used as a default or a valid prefix
+     * @return String value
+     */
+    private String createValidName(String source, String defaultValue) {
         String result = source.trim();
         Matcher parentPathPrefixMatcher = preserveParentPath
                 ? PARENT_PATH_PREFIX_PATTERN.matcher(result)
@@ -101,8 +136,8 @@ class NamingHelper {
             result = removeInvalidNamespaces(result);
         }
 
-        if (lowercaseFirst && !result.chars().allMatch(Character::isUpperCase)) {
-            result = StringUtils.uncapitalize(result);
+        if (lowercaseFirst) {
+            result = uncapitalize(result);
         }
 
         if (StringUtils.isNotEmpty(parentPathPrefix)) {
@@ -126,7 +161,7 @@ class NamingHelper {
         }
         int index = 1;
         while (context.exists(result)) {
-            result = NODE_NAME_INDEX_PATTERN.matcher(result).replaceFirst(String.valueOf(index++));
+            result = replaceIndex(result, index++);
         }
         return result;
     }
@@ -146,11 +181,68 @@ class NamingHelper {
         }
         int index = 1;
         while (PluginRuntime.context().getXmlUtility().getChildElement(context, result) != null) {
-            result = NODE_NAME_INDEX_PATTERN.matcher(result).replaceFirst(String.valueOf(index++));
+            result = replaceIndex(result, index++);
         }
         return result;
     }
 
+    /**
+     * Called by {@link NamingHelper#getValidName(String, String)} to test whether the given string consists of ASCII
+     * letters, digits and underscores and starts with a letter. Such a string is already a valid name for any flavor of
+     * {@code NamingHelper}, so it does not need to be processed with regular expressions
+     * @param value Non-blank string value
+     * @return True or false
+     */
+    private static boolean isSimpleName(String value) {
+        if (!isAsciiLetter(value.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!isAsciiLetter(c) && !(c >= '0' && c <= '9') && c != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets whether the given character is an ASCII letter
+     * @param value Character value
+     * @return True or false
+     */
+    private static boolean isAsciiLetter(char value) {
+        return (value >= 'a' && value <= 'z') || (value >= 'A' && value <= 'Z');
+    }
+
+    /**
+     * Converts the first character of the given string to lower case unless the string consists of upper-case
+     * characters only
+     * @param value String value
+     * @return Same value, or a transformed string
+     */
+    private static String uncapitalize(String value) {
+        if (value.chars().allMatch(Character::isUpperCase)) {
+            return value;
+        }
+        return StringUtils.uncapitalize(value);
+    }
+
+    /**
+     * Called by the {@code getUniqueName()} methods to replace the trailing number of the given name (if any) with the
+     * provided index
+     * @param value String value
+     * @param index Integer value
+     * @return Transformed string
+     */
+    private static String replaceIndex(String value, int index) {
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) >= '0' && value.charAt(end - 1) <= '9') {
+            end--;
+        }
+        return value.substring(0, end) + index;
+    }
+
     /**
      * Called by {@link NamingHelper#getValidName(String, String)} to remove namespace sign ("{@code :}") from a name
      * source when a namespace prefix does not correspond to any registered XML namespace
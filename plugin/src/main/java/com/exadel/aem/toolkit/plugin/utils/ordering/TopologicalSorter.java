@@ -13,20 +13,41 @@
  */
 package com.exadel.aem.toolkit.plugin.utils.ordering;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Deque;
-import java.util.LinkedList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.exadel.aem.toolkit.plugin.utils.DialogConstants;
 
 /**
- * Implements topological sorting for the {@link OrderingUtil} methods. The two collections are internally managed:
- * {@code List<Orderable<T>>} - a collection of entities that must be sorted; and {@code List<List<Orderable<T>>>} -
- * a collection of ordered lists used to represent a finite graph (each list describing neighbors of a node in the graph)
+ * Implements topological sorting for the {@link OrderingUtil} methods. The {@code before} and {@code after} references
+ * of the entities are converted into a graph in which every node knows its predecessors and successors (both sorted by
+ * the initial position of entities) and keeps the number of predecessors that are not yet placed. An entity is placed
+ * as soon as this number drops to zero, in the manner of Kahn's algorithm. The entities are visited in their initial
+ * order; for every entity, its predecessors are placed first, then the entity itself, then the successors that have
+ * become ready. This way, connected entities stay close to each other, and the entities that are not connected retain
+ * their initial order. The sorting takes linear time relative to the number of entities and references. The graph is
+ * traversed with an explicit stack rather than recursively, so that long chains of references do not exhaust the call
+ * stack.
+ * <p>If there are circular references, the entities that form a cycle are reported and placed in their initial order
  * @param <T> Type of the sorted entities
  * @see OrderingUtil
  */
 class TopologicalSorter<T> {
 
+    private static final Logger LOG = LoggerFactory.getLogger(DialogConstants.ARTIFACT_NAME);
+
+    private static final String CYCLE_MESSAGE_TEMPLATE = "Circular ordering detected among the following members: {}."
+        + " Their order may not match the \"before\"/\"after\" settings";
+
     private final List<Orderable<T>> nodes;
 
     /**
@@ -42,102 +63,234 @@ class TopologicalSorter<T> {
      * @return List of entities with the sorting applied
      */
     public List<Orderable<T>> topologicalSort() {
-        List<Orderable<T>> sorted = new ArrayList<>();
+        List<Node<T>> graph = buildGraph();
+        List<Orderable<T>> sorted = new ArrayList<>(graph.size());
 
-        for (int i = 0; i < this.nodes.size(); i++) {
-            Orderable<T> orderable = nodes.get(i);
-            Deque<Orderable<T>> temp = new LinkedList<>();
+        for (Node<T> node : graph) {
+            visit(node, sorted);
+        }
+        if (sorted.size() == graph.size()) {
+            return sorted;
+        }
 
-            Deque<Orderable<T>> after = after(orderable, new ArrayList<>());
-            while (!after.isEmpty()) {
-                Orderable<T> tOrderable = after.removeLast();
-                if (!sorted.contains(tOrderable) && !temp.contains(tOrderable)) {
-                    temp.addFirst(tOrderable);
-                }
+        List<Node<T>> cycled = graph.stream().filter(node -> node.state != State.PLACED).collect(Collectors.toList());
+        LOG.warn(CYCLE_MESSAGE_TEMPLATE, cycled.stream().map(node -> node.orderable.getId()).collect(Collectors.joining(", ")));
+        for (Node<T> node : cycled) {
+            if (node.state != State.PLACED) {
+                place(node, sorted);
             }
+        }
+        return sorted;
+    }
 
-            Deque<Orderable<T>> before = before(orderable, new ArrayList<>());
-            while (!before.isEmpty()) {
-                Orderable<T> tOrderable = before.removeFirst();
-                if (!sorted.contains(tOrderable) && !temp.contains(tOrderable)) {
-                    temp.addLast(tOrderable);
-                }
+    /**
+     * Builds the graph of nodes out of the entities and their {@code before} and {@code after} references. References
+     * to entities that are not in the sorted collection are ignored
+     * @return List of graph nodes in the initial order of entities
+     */
+    private List<Node<T>> buildGraph() {
+        Map<Orderable<T>, Node<T>> index = new IdentityHashMap<>(nodes.size() * 2);
+        List<Node<T>> result = new ArrayList<>(nodes.size());
+        for (Orderable<T> orderable : nodes) {
+            if (!index.containsKey(orderable)) {
+                Node<T> node = new Node<>(orderable, result.size());
+                index.put(orderable, node);
+                result.add(node);
             }
-
-            if (!sorted.contains(orderable) && !temp.contains(orderable)) {
-                temp.addLast(orderable);
+        }
+        for (Node<T> node : result) {
+            for (Orderable<T> before : node.orderable.getBefore()) {
+                link(node, index.get(before));
+            }
+            for (Orderable<T> after : node.orderable.getAfter()) {
+                link(index.get(after), node);
             }
-
-            sorted.addAll(temp);
         }
-        return sorted;
+        for (Node<T> node : result) {
+            node.predecessors = sortDistinct(node.predecessors);
+            node.successors = sortDistinct(node.successors);
+            node.pending = node.predecessors.size();
+        }
+        return result;
     }
 
     /**
-     * Called by {@link TopologicalSorter#topologicalSort()} to get all entities connected to
-     * the entity as 'after' relationship
-     * @param orderable Orderable entity
-     * @param values List of all already used entities in sort
-     * @return Deque of connected entities
+     * Called by {@link TopologicalSorter#topologicalSort()} to place the predecessors of the given node, and then the
+     * node itself if all the predecessors are placed
+     * @param node   Graph node
+     * @param sorted List of entities with the sorting applied
      */
-    private Deque<Orderable<T>> after(Orderable<T> orderable, List<Orderable<T>> values) {
-        Deque<Orderable<T>> deque = new LinkedList<>();
-        if (orderable == null) {
-            return deque;
+    private void visit(Node<T> node, List<Orderable<T>> sorted) {
+        if (node.state != State.NEW) {
+            return;
         }
-        for (Orderable<T> orderable1 : orderable.getAfter()) {
-            if (!values.contains(orderable1)) {
-                values.add(orderable1);
-                Deque<Orderable<T>> after = after(orderable1, values);
-                while (!after.isEmpty()) {
-                    deque.addFirst(after.removeLast());
+        Deque<Frame<T>> stack = new ArrayDeque<>();
+        pushVisiting(stack, node);
+        traverse(stack, sorted);
+    }
+
+    /**
+     * Called by {@link TopologicalSorter#topologicalSort()} to add the given node to the sorted collection, and then
+     * to proceed with the successors of the node
+     * @param node   Graph node
+     * @param sorted List of entities with the sorting applied
+     */
+    private void place(Node<T> node, List<Orderable<T>> sorted) {
+        Deque<Frame<T>> stack = new ArrayDeque<>();
+        pushPlacing(stack, node, sorted);
+        traverse(stack, sorted);
+    }
+
+    /**
+     * Processes the frames of the given stack until it is empty. A visiting frame proceeds to the predecessors of its
+     * node one by one; when they are exhausted, the node is placed if it has no pending predecessors. A placing frame
+     * proceeds to the successors of its node one by one, visiting the new ones and placing the ones that have become
+     * ready. The order of placement is the same as that of a depth-first recursive traversal
+     * @param stack  Stack of frames
+     * @param sorted List of entities with the sorting applied
+     */
+    private void traverse(Deque<Frame<T>> stack, List<Orderable<T>> sorted) {
+        while (!stack.isEmpty()) {
+            Frame<T> frame = stack.peek();
+            Node<T> node = frame.node;
+            if (frame.isPlacing && frame.index < node.successors.size()) {
+                Node<T> successor = node.successors.get(frame.index++);
+                successor.pending--;
+                if (successor.state == State.NEW) {
+                    pushVisiting(stack, successor);
+                } else if (successor.state == State.VISITED && successor.pending == 0) {
+                    pushPlacing(stack, successor, sorted);
                 }
-                Deque<Orderable<T>> before = before(orderable1, values);
-                while (!before.isEmpty()) {
-                    Orderable<T> tOrderable = before.removeFirst();
-                    if (!deque.contains(tOrderable)) {
-                        deque.addLast(tOrderable);
+            } else if (!frame.isPlacing && frame.index < node.predecessors.size()) {
+                Node<T> predecessor = node.predecessors.get(frame.index++);
+                if (predecessor.state == State.NEW) {
+                    pushVisiting(stack, predecessor);
+                }
+            } else {
+                stack.pop();
+                if (!frame.isPlacing) {
+                    node.state = State.VISITED;
+                    if (node.pending == 0) {
+                        pushPlacing(stack, node, sorted);
                     }
                 }
             }
         }
-        if (!deque.contains(orderable)) {
-            deque.addLast(orderable);
+    }
+
+    /**
+     * Marks the given node as being visited and pushes a visiting frame for it to the stack
+     * @param stack Stack of frames
+     * @param node  Graph node
+     */
+    private void pushVisiting(Deque<Frame<T>> stack, Node<T> node) {
+        node.state = State.VISITING;
+        stack.push(new Frame<>(node, false));
+    }
+
+    /**
+     * Adds the given node to the sorted collection and pushes a placing frame for it to the stack
+     * @param stack  Stack of frames
+     * @param node   Graph node
+     * @param sorted List of entities with the sorting applied
+     */
+    private void pushPlacing(Deque<Frame<T>> stack, Node<T> node, List<Orderable<T>> sorted) {
+        node.state = State.PLACED;
+        sorted.add(node.orderable);
+        stack.push(new Frame<>(node, true));
+    }
+
+    /* ---------------
+       Utility methods
+       --------------- */
+
+    /**
+     * Registers an edge of the graph that makes the first node precede the second one
+     * @param from Preceding node, nullable
+     * @param to   Following node, nullable
+     * @param <T>  Type of the sorted entities
+     */
+    private static <T> void link(Node<T> from, Node<T> to) {
+        if (from == null || to == null || from == to) {
+            return;
         }
-        return deque;
+        from.successors.add(to);
+        to.predecessors.add(from);
     }
 
     /**
-     * Called by {@link TopologicalSorter#topologicalSort()} to get all entities connected to
-     * the entity as 'before' relationship
-     * @param orderable Orderable entity
-     * @param values List of all already used entities in sort
-     * @return Deque of connected entities
+     * Sorts the given list of nodes by their initial position and removes the duplicates
+     * @param nodes List of graph nodes
+     * @param <T>   Type of the sorted entities
+     * @return List of graph nodes
      */
-    private Deque<Orderable<T>> before(Orderable<T> orderable, List<Orderable<T>> values) {
-        Deque<Orderable<T>> deque = new LinkedList<>();
-        if (orderable == null) {
-            return deque;
+    private static <T> List<Node<T>> sortDistinct(List<Node<T>> nodes) {
+        if (nodes.size() < 2) {
+            return nodes;
         }
-        for (Orderable<T> orderable1 : orderable.getBefore()) {
-            if (!values.contains(orderable1)) {
-                values.add(orderable1);
-                Deque<Orderable<T>> after = after(orderable1, values);
-                while (!after.isEmpty()) {
-                    deque.addFirst(after.removeLast());
-                }
-                Deque<Orderable<T>> before = before(orderable1, values);
-                while (!before.isEmpty()) {
-                    Orderable<T> tOrderable = before.removeFirst();
-                    if (!deque.contains(tOrderable)) {
-                        deque.addLast(tOrderable);
-                    }
-                }
+        nodes.sort(Comparator.comparingInt(node -> node.position));
+        List<Node<T>> result = new ArrayList<>(nodes.size());
+        for (Node<T> node : nodes) {
+            if (result.isEmpty() || result.get(result.size() - 1) != node) {
+                result.add(node);
             }
         }
-        if (!deque.contains(orderable)) {
-            deque.addFirst(orderable);
+        return result;
+    }
+
+    /* ---------------
+       Utility classes
+       --------------- */
+
+    /**
+     * Enumerates the states of a graph node during the sorting
+     */
+    private enum State {
+        NEW, VISITING, VISITED, PLACED
+    }
+
+    /**
+     * Represents a graph node that wraps a sorted entity
+     * @param <T> Type of the sorted entity
+     */
+    private static class Node<T> {
+        private final Orderable<T> orderable;
+        private final int position;
+        private List<Node<T>> predecessors = new ArrayList<>();
+        private List<Node<T>> successors = new ArrayList<>();
+        private int pending;
+        private State state = State.NEW;
+
+        /**
+         * Initializes a class instance
+         * @param orderable The wrapped entity
+         * @param position  Initial position of the entity
+         */
+        Node(Orderable<T> orderable, int position) {
+            this.orderable = orderable;
+            this.position = position;
+        }
+    }
+
+    /**
+     * Represents a step of the graph traversal: a node together with the position of the next neighbor to process. A
+     * visiting frame iterates over the predecessors of the node, and a placing frame iterates over its successors
+     * @param <T> Type of the sorted entity
+     */
+    private static class Frame<T> {
+        private final Node<T> node;
+        private final boolean isPlacing;
+        private int index;
+
+        /**
+         * Initializes a class instance
+         * @param node      Graph node
+         * @param isPlacing True if the frame iterates over the successors of the node; false if it iterates over the
+         *                  predecessors
+         */
+        Frame(Node<T> node, boolean isPlacing) {
+            this.node = node;
+            this.isPlacing = isPlacing;
         }
-        return deque;
     }
 }
@@ -0,0 +1,1006 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.plugin.writers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.exadel.aem.toolkit.core.CoreConstants;
+
+/**
+ * Provides access to the content of an AEM package without opening the package as a zip file system. The folders of
+ * the package that are about to be modified are extracted into a staging directory where they can be read and written
+ * with the usual file system routines. When the archive is closed, it is rebuilt in a single pass: the entries that
+ * have not changed are transferred as raw compressed bytes, and only new or modified entries are compressed. If nothing
+ * has changed, the archive is not rewritten at all. New and modified entries are stamped with a fixed time so that the
+ * result is reproducible. If the rebuilt package would need ZIP64 extensions, the staged folders are written back
+ * through a zip file system instead
+ */
+class PackageArchive implements Closeable {
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_HEADER_SIGNATURE = 0x06054b50;
+    private static final int DATA_DESCRIPTOR_SIGNATURE = 0x08074b50;
+
+    private static final int LOCAL_HEADER_LENGTH = 30;
+    private static final int LOCAL_NAME_LENGTH_OFFSET = 26;
+    private static final int LOCAL_EXTRA_LENGTH_OFFSET = 28;
+
+    private static final int CENTRAL_HEADER_LENGTH = 46;
+    private static final int CENTRAL_FLAGS_OFFSET = 8;
+    private static final int CENTRAL_METHOD_OFFSET = 10;
+    private static final int CENTRAL_CRC_OFFSET = 16;
+    private static final int CENTRAL_COMPRESSED_SIZE_OFFSET = 20;
+    private static final int CENTRAL_SIZE_OFFSET = 24;
+    private static final int CENTRAL_NAME_LENGTH_OFFSET = 28;
+    private static final int CENTRAL_EXTRA_LENGTH_OFFSET = 30;
+    private static final int CENTRAL_COMMENT_LENGTH_OFFSET = 32;
+    private static final int CENTRAL_LOCAL_OFFSET_OFFSET = 42;
+
+    private static final int END_HEADER_LENGTH = 22;
+    private static final int END_DISK_OFFSET = 4;
+    private static final int END_ENTRIES_OFFSET = 10;
+    private static final int END_DIRECTORY_SIZE_OFFSET = 12;
+    private static final int END_DIRECTORY_OFFSET_OFFSET = 16;
+    private static final int END_COMMENT_LENGTH_OFFSET = 20;
+
+    private static final int DATA_DESCRIPTOR_LENGTH = 12;
+    private static final int MAX_SHORT_VALUE = 0xFFFF;
+    private static final long MAX_INT_VALUE = 0xFFFFFFFFL;
+
+    private static final int FLAG_DATA_DESCRIPTOR = 0x08;
+    private static final int FLAG_UTF8 = 0x0800;
+    private static final int VERSION_STORED = 10;
+    private static final int VERSION_DEFLATED = 20;
+    private static final int ATTRIBUTE_DIRECTORY = 0x10;
+
+    private static final int DOS_YEAR_BASE = 1980;
+    private static final int DOS_YEAR_SHIFT = 9;
+    private static final int DOS_MONTH_SHIFT = 5;
+    private static final int DOS_HOUR_SHIFT = 11;
+    private static final int DOS_MINUTE_SHIFT = 5;
+    private static final LocalDateTime DOS_EPOCH = LocalDateTime.of(DOS_YEAR_BASE, 1, 1, 0, 0);
+
+    private static final String LEGACY_NAME_CHARSET = "IBM437";
+    private static final String FILESYSTEM_PREFIX = "jar:";
+    private static final Map<String, String> FILESYSTEM_OPTIONS = Collections.singletonMap("create", "true");
+
+    private final Path archivePath;
+    private final Path stagingRoot;
+    private final boolean compressEntries;
+    private final LocalDateTime timestamp;
+    private final List<Record> records;
+    private final Set<String> checkouts;
+    private byte[] comment;
+    private FileChannel archiveChannel;
+
+    /**
+     * Initializes a new {@link PackageArchive} instance
+     * @param archivePath     {@code Path} to the package file
+     * @param stagingRoot     {@code Path} to the directory the modified folders are extracted to
+     * @param compressEntries True to deflate new and modified entries; false to store them uncompressed
+     * @param timestamp       The modification time in UTC assigned to new and modified entries
+     */
+    private PackageArchive(Path archivePath, Path stagingRoot, boolean compressEntries, LocalDateTime timestamp) {
+        this.archivePath = archivePath;
+        this.stagingRoot = stagingRoot;
+        this.compressEntries = compressEntries;
+        this.timestamp = timestamp;
+        this.records = new ArrayList<>();
+        this.checkouts = new LinkedHashSet<>();
+        this.comment = new byte[0];
+    }
+
+    /* ----------------
+       Instance members
+       ---------------- */
+
+    /**
+     * Retrieves the root of the staging directory. Only the folders that have been checked out are present in it
+     * @return {@code Path} object
+     */
+    Path getRoot() {
+        return stagingRoot;
+    }
+
+    /**
+     * Extracts the entries of the package folder with the given path into the staging directory, unless it has already
+     * been done, and retrieves the path to the folder within the staging directory. The folder is not created if the
+     * package does not contain it
+     * @param path String value representing a folder within the package
+     * @return {@code Path} object
+     * @throws IOException if the entries cannot be extracted
+     */
+    Path checkout(String path) throws IOException {
+        String name = StringUtils.strip(path, CoreConstants.SEPARATOR_SLASH);
+        String prefix = name.isEmpty() ? StringUtils.EMPTY : name + CoreConstants.SEPARATOR_SLASH;
+        Path result = stagingRoot.resolve(name).normalize();
+        if (!result.startsWith(stagingRoot) || isCheckedOut(prefix)) {
+            return result;
+        }
+        for (Record record : records) {
+            if (record.getName().startsWith(prefix) && !isCheckedOut(record.getName())) {
+                extract(record);
+            }
+        }
+        checkouts.removeIf(checkout -> checkout.startsWith(prefix));
+        checkouts.add(prefix);
+        return result;
+    }
+
+    /**
+     * Rebuilds the package file if any of the checked-out folders have been modified, and removes the staging
+     * directory. If the number of entries or the size of the rebuilt package exceeds the limits of the ZIP format
+     * without extensions, the package is updated through a zip file system
+     * @throws IOException if the package cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            List<PlannedEntry> plan = getPlan();
+            boolean isModified = !Files.exists(archivePath)
+                || plan.size() != records.size()
+                || plan.stream().anyMatch(entry -> entry.getRecord() == null);
+            if (!isModified) {
+                return;
+            }
+            boolean isWritten = false;
+            if (plan.size() < MAX_SHORT_VALUE) {
+                plan.parallelStream().filter(entry -> entry.getRecord() == null).forEach(this::prepare);
+                isWritten = write(plan);
+            }
+            if (!isWritten) {
+                writeFileSystem();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            if (archiveChannel != null) {
+                archiveChannel.close();
+            }
+            deleteRecursively(stagingRoot);
+        }
+    }
+
+    /**
+     * Gets whether the package entry with the given name belongs to a folder that has been checked out
+     * @param name Name of a package entry
+     * @return True or false
+     */
+    private boolean isCheckedOut(String name) {
+        return checkouts.stream().anyMatch(name::startsWith);
+    }
+
+    /**
+     * Reads the central directory of the package file
+     * @return True if the package has been read; false if it uses ZIP64 extensions or spans several disks
+     * @throws IOException if the package cannot be read
+     */
+    private boolean readDirectory() throws IOException {
+        try (FileChannel input = FileChannel.open(archivePath, StandardOpenOption.READ)) {
+            ByteBuffer endHeader = findEndHeader(input);
+            if (endHeader == null) {
+                throw new IOException("Invalid package file " + archivePath);
+            }
+            int count = Short.toUnsignedInt(endHeader.getShort(END_ENTRIES_OFFSET));
+            long directorySize = Integer.toUnsignedLong(endHeader.getInt(END_DIRECTORY_SIZE_OFFSET));
+            long directoryOffset = Integer.toUnsignedLong(endHeader.getInt(END_DIRECTORY_OFFSET_OFFSET));
+            if (endHeader.getInt(END_DISK_OFFSET) != 0
+                || count == MAX_SHORT_VALUE
+                || directorySize == MAX_INT_VALUE
+                || directoryOffset == MAX_INT_VALUE) {
+                return false;
+            }
+            comment = new byte[Short.toUnsignedInt(endHeader.getShort(END_COMMENT_LENGTH_OFFSET))];
+            ((ByteBuffer) endHeader.position(END_HEADER_LENGTH)).get(comment);
+            List<Record> directory = readRecords(readFully(input, directoryOffset, (int) directorySize), count);
+            if (directory == null) {
+                return false;
+            }
+            records.addAll(directory);
+            return true;
+        }
+    }
+
+    /**
+     * Extracts the given package entry into the staging directory
+     * @param record {@link Record} object representing the package entry
+     * @throws IOException if the entry cannot be extracted
+     */
+    private void extract(Record record) throws IOException {
+        Path target = stagingRoot.resolve(record.getName()).normalize();
+        if (!target.startsWith(stagingRoot)) {
+            return;
+        }
+        if (record.isDirectory()) {
+            Files.createDirectories(target);
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        if (archiveChannel == null) {
+            archiveChannel = FileChannel.open(archivePath, StandardOpenOption.READ);
+        }
+        if (record.getCompressedSize() > Integer.MAX_VALUE) {
+            throw new IOException("Entry is too large to be extracted: " + record.getName());
+        }
+        ByteBuffer data = readFully(archiveChannel, getDataOffset(archiveChannel, record), (int) record.getCompressedSize());
+        InputStream input = new ByteArrayInputStream(data.array());
+        if (record.getMethod() == ZipEntry.DEFLATED) {
+            Inflater inflater = new Inflater(true);
+            try (InputStream inflaterInput = new InflaterInputStream(input, inflater)) {
+                Files.copy(inflaterInput, target, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                inflater.end();
+            }
+        } else if (record.getMethod() == ZipEntry.STORED) {
+            Files.copy(input, target, StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            throw new IOException("Unsupported compression method of entry " + record.getName());
+        }
+    }
+
+    /* ----------------
+       Archive building
+       ---------------- */
+
+    /**
+     * Composes the sequence of entries of the rebuilt package. The original order of entries is retained. The entries
+     * that belong to a checked-out folder are replaced with the staged files if those have changed, and are omitted if
+     * the staged files have been deleted. The staged files and folders that were not present in the package are
+     * appended to the end
+     * @return List of {@link PlannedEntry} objects
+     * @throws IOException if the staging directory cannot be read
+     */
+    private List<PlannedEntry> getPlan() throws IOException {
+        List<PlannedEntry> result = new ArrayList<>();
+        if (checkouts.isEmpty()) {
+            records.forEach(record -> result.add(new PlannedEntry(record)));
+            return result;
+        }
+        Set<String> knownNames = new HashSet<>();
+        for (Record record : records) {
+            knownNames.add(record.getName());
+            addParentNames(record.getName(), knownNames);
+            PlannedEntry entry = getPlannedEntry(record);
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        if (!Files.isDirectory(stagingRoot)) {
+            return result;
+        }
+        try (Stream<Path> stagedPaths = Files.walk(stagingRoot)) {
+            stagedPaths
+                .filter(path -> !path.equals(stagingRoot))
+                .sorted(Comparator.comparing(PackageArchive::toSlashSeparated))
+                .map(path -> new PlannedEntry(toEntryName(path), path))
+                .filter(entry -> !knownNames.contains(entry.getName()))
+                .forEach(result::add);
+        }
+        return result;
+    }
+
+    /**
+     * Decides how the given original entry is represented in the rebuilt package
+     * @param record {@link Record} object representing the original package entry
+     * @return {@link PlannedEntry} object, or null if the entry must be omitted
+     * @throws IOException if the staged file cannot be read
+     */
+    private PlannedEntry getPlannedEntry(Record record) throws IOException {
+        if (!isCheckedOut(record.getName())) {
+            return new PlannedEntry(record);
+        }
+        Path stagedPath = stagingRoot.resolve(record.getName());
+        if (record.isDirectory()) {
+            return Files.isDirectory(stagedPath) ? new PlannedEntry(record) : null;
+        }
+        if (!Files.isRegularFile(stagedPath)) {
+            return null;
+        }
+        boolean isUnchanged = Files.size(stagedPath) == record.getSize() && getCrc(stagedPath) == record.getCrc();
+        return isUnchanged ? new PlannedEntry(record) : new PlannedEntry(record.getName(), stagedPath);
+    }
+
+    /**
+     * Reads and, if needed, compresses the content of a new or modified entry
+     * @param entry {@link PlannedEntry} object
+     */
+    private void prepare(PlannedEntry entry) {
+        if (entry.isDirectory()) {
+            entry.setContent(new byte[0], 0, 0L, false);
+            return;
+        }
+        try {
+            byte[] content = Files.readAllBytes(entry.getSource());
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            if (!compressEntries) {
+                entry.setContent(content, content.length, crc.getValue(), false);
+                return;
+            }
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            try (DeflaterOutputStream deflaterOutput = new DeflaterOutputStream(output, deflater)) {
+                deflaterOutput.write(content);
+            } finally {
+                deflater.end();
+            }
+            entry.setContent(output.toByteArray(), content.length, crc.getValue(), true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the rebuilt package into a temporary file and then replaces the original package with it
+     * @param plan List of {@link PlannedEntry} objects
+     * @return True if the package has been written; false if it requires ZIP64 extensions, so that the original package
+     * is left intact
+     * @throws IOException if the package cannot be written
+     */
+    private boolean write(List<PlannedEntry> plan) throws IOException {
+        Path temporaryPath = Files.createTempFile(archivePath.toAbsolutePath().getParent(), archivePath.getFileName().toString(), null);
+        try {
+            try (
+                FileChannel output = FileChannel.open(temporaryPath, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                FileChannel input = Files.exists(archivePath) ? FileChannel.open(archivePath, StandardOpenOption.READ) : null
+            ) {
+                ByteArrayOutputStream centralDirectory = new ByteArrayOutputStream();
+                for (PlannedEntry entry : plan) {
+                    long offset = output.position();
+                    if (offset >= MAX_INT_VALUE) {
+                        return false;
+                    }
+                    byte[] centralHeader = entry.getRecord() != null
+                        ? writeRaw(input, output, entry.getRecord(), offset)
+                        : writeNew(output, entry, offset);
+                    centralDirectory.write(centralHeader);
+                }
+                long directoryOffset = output.position();
+                if (directoryOffset + centralDirectory.size() >= MAX_INT_VALUE) {
+                    return false;
+                }
+                writeFully(output, ByteBuffer.wrap(centralDirectory.toByteArray()));
+                writeFully(output, createEndHeader(plan.size(), centralDirectory.size(), directoryOffset));
+            }
+            Files.move(temporaryPath, archivePath, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    /**
+     * Writes the content of the checked-out folders back to the package through a zip file system. This is the way to
+     * update a package that needs ZIP64 extensions. The entries that have been deleted from the staging directory are
+     * removed from the package; the staged files and folders are copied into it
+     * @throws IOException if the package cannot be written
+     */
+    private void writeFileSystem() throws IOException {
+        URI uri = URI.create(FILESYSTEM_PREFIX + archivePath.toUri());
+        FileTime fileTime = FileTime.from(timestamp.toInstant(ZoneOffset.UTC));
+        try (FileSystem fileSystem = FileSystems.newFileSystem(uri, FILESYSTEM_OPTIONS)) {
+            for (String checkout : checkouts) {
+                Path source = stagingRoot.resolve(checkout);
+                Path target = fileSystem.getPath(CoreConstants.SEPARATOR_SLASH + checkout);
+                if (Files.exists(target)) {
+                    List<Path> existingPaths;
+                    try (Stream<Path> walk = Files.walk(target)) {
+                        existingPaths = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+                    }
+                    for (Path existingPath : existingPaths) {
+                        String name = toSlashSeparated(target.relativize(existingPath));
+                        if (!Files.exists(source.resolve(name))) {
+                            Files.delete(existingPath);
+                        }
+                    }
+                }
+                if (!Files.isDirectory(source)) {
+                    continue;
+                }
+                List<Path> stagedPaths;
+                try (Stream<Path> walk = Files.walk(source)) {
+                    stagedPaths = walk.sorted(Comparator.comparing(PackageArchive::toSlashSeparated)).collect(Collectors.toList());
+                }
+                for (Path stagedPath : stagedPaths) {
+                    Path targetPath = target.resolve(toSlashSeparated(source.relativize(stagedPath)));
+                    if (Files.isDirectory(stagedPath)) {
+                        Files.createDirectories(targetPath);
+                    } else {
+                        Files.copy(stagedPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+                        Files.setLastModifiedTime(targetPath, fileTime);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies an unchanged entry from the original package as raw bytes
+     * @param input  {@code FileChannel} for reading the original package
+     * @param output {@code FileChannel} for writing the rebuilt package
+     * @param record {@link Record} object representing the original package entry
+     * @param offset The position of the entry in the rebuilt package
+     * @return Byte array representing the central directory header of the entry
+     * @throws IOException if the entry cannot be copied
+     */
+    private static byte[] writeRaw(FileChannel input, FileChannel output, Record record, long offset) throws IOException {
+        long dataEnd = getDataOffset(input, record) + record.getCompressedSize();
+        long length = dataEnd - record.getLocalOffset();
+        if ((record.getFlags() & FLAG_DATA_DESCRIPTOR) != 0) {
+            boolean hasSignature = readFully(input, dataEnd, Integer.BYTES).getInt(0) == DATA_DESCRIPTOR_SIGNATURE;
+            length += DATA_DESCRIPTOR_LENGTH + (hasSignature ? Integer.BYTES : 0);
+        }
+        long transferred = 0;
+        while (transferred < length) {
+            transferred += input.transferTo(record.getLocalOffset() + transferred, length - transferred, output);
+        }
+        ByteBuffer result = ByteBuffer.wrap(record.getCentralHeader().clone()).order(ByteOrder.LITTLE_ENDIAN);
+        result.putInt(CENTRAL_LOCAL_OFFSET_OFFSET, (int) offset);
+        return result.array();
+    }
+
+    /**
+     * Writes a new or modified entry
+     * @param output {@code FileChannel} for writing the rebuilt package
+     * @param entry  {@link PlannedEntry} object with the prepared content
+     * @param offset The position of the entry in the rebuilt package
+     * @return Byte array representing the central directory header of the entry
+     * @throws IOException if the entry cannot be written
+     */
+    private byte[] writeNew(FileChannel output, PlannedEntry entry, long offset) throws IOException {
+        byte[] name = entry.getName().getBytes(StandardCharsets.UTF_8);
+        int version = entry.isCompressed() ? VERSION_DEFLATED : VERSION_STORED;
+        int method = entry.isCompressed() ? ZipEntry.DEFLATED : ZipEntry.STORED;
+        int time = (timestamp.getHour() << DOS_HOUR_SHIFT) | (timestamp.getMinute() << DOS_MINUTE_SHIFT) | (timestamp.getSecond() / 2);
+        int date = ((timestamp.getYear() - DOS_YEAR_BASE) << DOS_YEAR_SHIFT)
+            | (timestamp.getMonthValue() << DOS_MONTH_SHIFT)
+            | timestamp.getDayOfMonth();
+
+        ByteBuffer localHeader = ByteBuffer.allocate(LOCAL_HEADER_LENGTH + name.length).order(ByteOrder.LITTLE_ENDIAN);
+        localHeader
+            .putInt(LOCAL_HEADER_SIGNATURE)
+            .putShort((short) version)
+            .putShort((short) FLAG_UTF8)
+            .putShort((short) method)
+            .putShort((short) time)
+            .putShort((short) date)
+            .putInt((int) entry.getCrc())
+            .putInt(entry.getContent().length)
+            .putInt(entry.getSize())
+            .putShort((short) name.length)
+            .putShort((short) 0)
+            .put(name)
+            .flip();
+        writeFully(output, localHeader);
+        writeFully(output, ByteBuffer.wrap(entry.getContent()));
+
+        ByteBuffer result = ByteBuffer.allocate(CENTRAL_HEADER_LENGTH + name.length).order(ByteOrder.LITTLE_ENDIAN);
+        result
+            .putInt(CENTRAL_HEADER_SIGNATURE)
+            .putShort((short) VERSION_DEFLATED)
+            .putShort((short) version)
+            .putShort((short) FLAG_UTF8)
+            .putShort((short) method)
+            .putShort((short) time)
+            .putShort((short) date)
+            .putInt((int) entry.getCrc())
+            .putInt(entry.getContent().length)
+            .putInt(entry.getSize())
+            .putShort((short) name.length)
+            .putShort((short) 0)
+            .putShort((short) 0)
+            .putShort((short) 0)
+            .putShort((short) 0)
+            .putInt(entry.isDirectory() ? ATTRIBUTE_DIRECTORY : 0)
+            .putInt((int) offset)
+            .put(name);
+        return result.array();
+    }
+
+    /**
+     * Creates the "end of central directory" record of the rebuilt package. The original archive comment is retained
+     * @param count           The number of entries
+     * @param directorySize   The size of the central directory
+     * @param directoryOffset The position of the central directory
+     * @return {@code ByteBuffer} object ready for writing
+     */
+    private ByteBuffer createEndHeader(int count, int directorySize, long directoryOffset) {
+        ByteBuffer result = ByteBuffer.allocate(END_HEADER_LENGTH + comment.length).order(ByteOrder.LITTLE_ENDIAN);
+        result
+            .putInt(END_HEADER_SIGNATURE)
+            .putShort((short) 0)
+            .putShort((short) 0)
+            .putShort((short) count)
+            .putShort((short) count)
+            .putInt(directorySize)
+            .putInt((int) directoryOffset)
+            .putShort((short) comment.length)
+            .put(comment)
+            .flip();
+        return result;
+    }
+
+    /* ---------------
+       Factory methods
+       --------------- */
+
+    /**
+     * Opens the package file with the given path. If the file does not exist, it will be created on closing
+     * @param archivePath     {@code Path} to the package file
+     * @param stagingRoot     {@code Path} to the directory the modified folders are extracted to. The directory is
+     *                        cleared upon opening and removed upon closing
+     * @param compressEntries True to deflate new and modified entries; false to store them uncompressed
+     * @param timestamp       The modification time in UTC assigned to new and modified entries. If null, the current
+     *                        time is used. If earlier than the beginning of 1980, the earliest time the ZIP format can
+     *                        store is used
+     * @return {@code PackageArchive} instance, or null if the package uses ZIP64 extensions or spans several disks, so
+     * that it must be processed in a different way
+     * @throws IOException if the package cannot be read
+     */
+    static PackageArchive open(Path archivePath, Path stagingRoot, boolean compressEntries, LocalDateTime timestamp) throws IOException {
+        deleteRecursively(stagingRoot);
+        Files.createDirectories(stagingRoot);
+        LocalDateTime effectiveTimestamp = timestamp != null ? timestamp : LocalDateTime.now(ZoneOffset.UTC);
+        if (effectiveTimestamp.isBefore(DOS_EPOCH)) {
+            effectiveTimestamp = DOS_EPOCH;
+        }
+        PackageArchive result = new PackageArchive(archivePath, stagingRoot, compressEntries, effectiveTimestamp);
+        if (!Files.exists(archivePath)) {
+            return result;
+        }
+        return result.readDirectory() ? result : null;
+    }
+
+    /* ---------------
+       Utility methods
+       --------------- */
+
+    /**
+     * Locates the "end of central directory" record of the package
+     * @param input {@code FileChannel} for reading the package
+     * @return {@code ByteBuffer} containing the record and the archive comment, or null if the record is not found
+     * @throws IOException if the package cannot be read
+     */
+    private static ByteBuffer findEndHeader(FileChannel input) throws IOException {
+        long size = input.size();
+        int tailLength = (int) Math.min(size, END_HEADER_LENGTH + MAX_SHORT_VALUE);
+        ByteBuffer tail = readFully(input, size - tailLength, tailLength);
+        for (int position = tailLength - END_HEADER_LENGTH; position >= 0; position--) {
+            if (tail.getInt(position) == END_HEADER_SIGNATURE) {
+                ByteBuffer result = ByteBuffer.allocate(tailLength - position).order(ByteOrder.LITTLE_ENDIAN);
+                result.put(tail.array(), position, tailLength - position).flip();
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses the central directory of the package
+     * @param directory {@code ByteBuffer} containing the central directory
+     * @param count     The expected number of entries
+     * @return List of {@link Record} objects, or null if the directory contains entries that require ZIP64 extensions
+     * @throws IOException if the central directory is malformed
+     */
+    private static List<Record> readRecords(ByteBuffer directory, int count) throws IOException {
+        List<Record> result = new ArrayList<>(count);
+        int position = 0;
+        while (position + CENTRAL_HEADER_LENGTH <= directory.limit() && directory.getInt(position) == CENTRAL_HEADER_SIGNATURE) {
+            int length = CENTRAL_HEADER_LENGTH
+                + Short.toUnsignedInt(directory.getShort(position + CENTRAL_NAME_LENGTH_OFFSET))
+                + Short.toUnsignedInt(directory.getShort(position + CENTRAL_EXTRA_LENGTH_OFFSET))
+                + Short.toUnsignedInt(directory.getShort(position + CENTRAL_COMMENT_LENGTH_OFFSET));
+            if (position + length > directory.limit()) {
+                break;
+            }
+            byte[] centralHeader = new byte[length];
+            ((ByteBuffer) directory.position(position)).get(centralHeader);
+            Record record = new Record(centralHeader);
+            if (record.getSize() == MAX_INT_VALUE
+                || record.getCompressedSize() == MAX_INT_VALUE
+                || record.getLocalOffset() == MAX_INT_VALUE) {
+                return null;
+            }
+            result.add(record);
+            position += length;
+        }
+        if (result.size() != count) {
+            throw new IOException("Malformed central directory of the package");
+        }
+        return result;
+    }
+
+    /**
+     * Locates the compressed content of the given entry by reading its local header
+     * @param input  {@code FileChannel} for reading the package
+     * @param record {@link Record} object representing the package entry
+     * @return The position of the compressed content in the package
+     * @throws IOException if the local header is malformed
+     */
+    private static long getDataOffset(FileChannel input, Record record) throws IOException {
+        ByteBuffer localHeader = readFully(input, record.getLocalOffset(), LOCAL_HEADER_LENGTH);
+        if (localHeader.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+            throw new IOException("Invalid local header of entry " + record.getName());
+        }
+        return record.getLocalOffset()
+            + LOCAL_HEADER_LENGTH
+            + Short.toUnsignedInt(localHeader.getShort(LOCAL_NAME_LENGTH_OFFSET))
+            + Short.toUnsignedInt(localHeader.getShort(LOCAL_EXTRA_LENGTH_OFFSET));
+    }
+
+    /**
+     * Retrieves the charset the names of the entries that are not flagged as UTF-8 are encoded with. According to the
+     * ZIP specification, this is the IBM code page 437
+     * @return {@code Charset} object
+     */
+    private static Charset getLegacyNameCharset() {
+        return Charset.isSupported(LEGACY_NAME_CHARSET) ? Charset.forName(LEGACY_NAME_CHARSET) : StandardCharsets.ISO_8859_1;
+    }
+
+    /**
+     * Reads the given number of bytes from the given position of a file
+     * @param input    {@code FileChannel} to read from
+     * @param position The position to start reading at
+     * @param length   The number of bytes to read
+     * @return {@code ByteBuffer} object in the little-endian byte order
+     * @throws IOException if the data cannot be read
+     */
+    private static ByteBuffer readFully(FileChannel input, long position, int length) throws IOException {
+        ByteBuffer result = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (result.hasRemaining()) {
+            if (input.read(result, position + result.position()) < 0) {
+                throw new IOException("Unexpected end of the package file");
+            }
+        }
+        result.flip();
+        return result;
+    }
+
+    /**
+     * Writes the remaining content of the given buffer to a file
+     * @param output {@code FileChannel} to write to
+     * @param buffer {@code ByteBuffer} object
+     * @throws IOException if the data cannot be written
+     */
+    private static void writeFully(FileChannel output, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            output.write(buffer);
+        }
+    }
+
+    /**
+     * Computes the CRC-32 checksum of a file
+     * @param path {@code Path} to the file
+     * @return Long value
+     * @throws IOException if the file cannot be read
+     */
+    private static long getCrc(Path path) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(Files.readAllBytes(path));
+        return crc.getValue();
+    }
+
+    /**
+     * Adds the names of the folders that contain the given entry to the given set. This is needed because a package
+     * may contain files without having separate entries for their folders
+     * @param name   Name of a package entry
+     * @param target {@code Set} to add the names to
+     */
+    private static void addParentNames(String name, Set<String> target) {
+        int separatorPosition = name.indexOf(CoreConstants.SEPARATOR_SLASH);
+        while (separatorPosition > 0 && separatorPosition < name.length() - 1) {
+            target.add(name.substring(0, separatorPosition + 1));
+            separatorPosition = name.indexOf(CoreConstants.SEPARATOR_SLASH, separatorPosition + 1);
+        }
+    }
+
+    /**
+     * Converts a path within the staging directory into the name of a package entry. Names of folders end with a
+     * slash
+     * @param path {@code Path} object
+     * @return String value
+     */
+    private String toEntryName(Path path) {
+        String result = toSlashSeparated(stagingRoot.relativize(path));
+        return Files.isDirectory(path) ? result + CoreConstants.SEPARATOR_SLASH : result;
+    }
+
+    /**
+     * Converts the given path into a string with forward slashes as separators
+     * @param path {@code Path} object
+     * @return String value
+     */
+    private static String toSlashSeparated(Path path) {
+        return StreamSupport.stream(path.spliterator(), false)
+            .map(Path::toString)
+            .collect(Collectors.joining(CoreConstants.SEPARATOR_SLASH));
+    }
+
+    /**
+     * Removes the given directory with all its content
+     * @param directory {@code Path} to the directory
+     * @throws IOException if the directory cannot be removed
+     */
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            paths = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /* ---------------
+       Service classes
+       --------------- */
+
+    /**
+     * Represents an entry of the original package as described by the central directory
+     */
+    private static class Record {
+        private final byte[] centralHeader;
+        private final String name;
+
+        /**
+         * Creates a new {@link Record} instance
+         * @param centralHeader Byte array representing the central directory header of the entry, including the name,
+         *                      the extra field, and the comment
+         */
+        Record(byte[] centralHeader) {
+            this.centralHeader = centralHeader;
+            this.name = new String(
+                centralHeader,
+                CENTRAL_HEADER_LENGTH,
+                Short.toUnsignedInt(getBuffer().getShort(CENTRAL_NAME_LENGTH_OFFSET)),
+                (getFlags() & FLAG_UTF8) != 0 ? StandardCharsets.UTF_8 : getLegacyNameCharset());
+        }
+
+        /**
+         * Retrieves the central directory header of the entry. The array must not be modified by the caller
+         * @return Byte array
+         */
+        byte[] getCentralHeader() {
+            return centralHeader;
+        }
+
+        /**
+         * Retrieves the name of the entry
+         * @return String value
+         */
+        String getName() {
+            return name;
+        }
+
+        /**
+         * Gets whether the entry represents a folder
+         * @return True or false
+         */
+        boolean isDirectory() {
+            return name.endsWith(CoreConstants.SEPARATOR_SLASH);
+        }
+
+        /**
+         * Retrieves the general purpose flags of the entry
+         * @return Integer value
+         */
+        int getFlags() {
+            return Short.toUnsignedInt(getBuffer().getShort(CENTRAL_FLAGS_OFFSET));
+        }
+
+        /**
+         * Retrieves the compression method of the entry
+         * @return Integer value
+         */
+        int getMethod() {
+            return Short.toUnsignedInt(getBuffer().getShort(CENTRAL_METHOD_OFFSET));
+        }
+
+        /**
+         * Retrieves the CRC-32 checksum of the uncompressed content of the entry
+         * @return Long value
+         */
+        long getCrc() {
+            return Integer.toUnsignedLong(getBuffer().getInt(CENTRAL_CRC_OFFSET));
+        }
+
+        /**
+         * Retrieves the size of the compressed content of the entry
+         * @return Long value
+         */
+        long getCompressedSize() {
+            return Integer.toUnsignedLong(getBuffer().getInt(CENTRAL_COMPRESSED_SIZE_OFFSET));
+        }
+
+        /**
+         * Retrieves the size of the uncompressed content of the entry
+         * @return Long value
+         */
+        long getSize() {
+            return Integer.toUnsignedLong(getBuffer().getInt(CENTRAL_SIZE_OFFSET));
+        }
+
+        /**
+         * Retrieves the position of the local header of the entry in the original package
+         * @return Long value
+         */
+        long getLocalOffset() {
+            return Integer.toUnsignedLong(getBuffer().getInt(CENTRAL_LOCAL_OFFSET_OFFSET));
+        }
+
+        /**
+         * Wraps the central directory header into a buffer for reading numeric fields
+         * @return {@code ByteBuffer} object in the little-endian byte order
+         */
+        private ByteBuffer getBuffer() {
+            return ByteBuffer.wrap(centralHeader).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Represents an entry of the rebuilt package. The entry is either copied from the original package as is, or
+     * created from a file or a folder of the staging directory
+     */
+    private static class PlannedEntry {
+        private final Record record;
+        private final String name;
+        private final Path source;
+        private byte[] content;
+        private int size;
+        private long crc;
+        private boolean compressed;
+
+        /**
+         * Creates a new {@link PlannedEntry} instance that is copied from the original package
+         * @param record {@link Record} object representing the original package entry
+         */
+        PlannedEntry(Record record) {
+            this.record = record;
+            this.name = record.getName();
+            this.source = null;
+        }
+
+        /**
+         * Creates a new {@link PlannedEntry} instance that is created from the staging directory
+         * @param name   Name of the entry
+         * @param source {@code Path} to a file or a folder in the staging directory
+         */
+        PlannedEntry(String name, Path source) {
+            this.record = null;
+            this.name = name;
+            this.source = source;
+        }
+
+        /**
+         * Retrieves the original package entry
+         * @return {@link Record} object, or null if the entry is new or modified
+         */
+        Record getRecord() {
+            return record;
+        }
+
+        /**
+         * Retrieves the name of the entry
+         * @return String value
+         */
+        String getName() {
+            return name;
+        }
+
+        /**
+         * Retrieves the staged file or folder the entry is created from
+         * @return Nullable {@code Path} object
+         */
+        Path getSource() {
+            return source;
+        }
+
+        /**
+         * Gets whether the entry represents a folder
+         * @return True or false
+         */
+        boolean isDirectory() {
+            return name.endsWith(CoreConstants.SEPARATOR_SLASH);
+        }
+
+        /**
+         * Retrieves the prepared, possibly compressed, content of the entry
+         * @return Byte array
+         */
+        byte[] getContent() {
+            return content;
+        }
+
+        /**
+         * Retrieves the size of the uncompressed content of the entry
+         * @return Integer value
+         */
+        int getSize() {
+            return size;
+        }
+
+        /**
+         * Retrieves the CRC-32 checksum of the uncompressed content of the entry
+         * @return Long value
+         */
+        long getCrc() {
+            return crc;
+        }
+
+        /**
+         * Gets whether the prepared content is deflated
+         * @return True or false
+         */
+        boolean isCompressed() {
+            return compressed;
+        }
+
+        /**
+         * Assigns the prepared content of the entry
+         * @param value          Byte array representing the content to store
+         * @param uncompressed   The size of the uncompressed content
+         * @param checksum       The CRC-32 checksum of the uncompressed content
+         * @param isDeflated     True if the content is deflated
+         */
+        void setContent(byte[] value, int uncompressed, long checksum, boolean isDeflated) {
+            this.content = value;
+            this.size = uncompressed;
+            this.crc = checksum;
+            this.compressed = isDeflated;
+        }
+    }
+}
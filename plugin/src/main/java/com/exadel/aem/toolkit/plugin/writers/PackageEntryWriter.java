@@ -16,6 +16,7 @@ package com.exadel.aem.toolkit.plugin.writers;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -34,6 +35,7 @@ import com.exadel.aem.toolkit.api.annotations.meta.Scopes;
 import com.exadel.aem.toolkit.api.handlers.Source;
 import com.exadel.aem.toolkit.api.handlers.Target;
 import com.exadel.aem.toolkit.plugin.adapters.DomAdapter;
+import com.exadel.aem.toolkit.plugin.adapters.XmlStreamAdapter;
 import com.exadel.aem.toolkit.plugin.handlers.Handlers;
 import com.exadel.aem.toolkit.plugin.handlers.common.DomHandler;
 import com.exadel.aem.toolkit.plugin.maven.PluginRuntime;
@@ -171,45 +173,114 @@ abstract class PackageEntryWriter {
     }
 
     /**
-     * Used to store XML markup filled with annotation data taken from the current {@code Source} instance
+     * Used to store XML markup filled with annotation data taken from the current {@code Source} instance. Unless the
+     * markup is merged with a patch or is processed by DOM-level handlers, it is streamed to the file system directly
+     * without building a DOM document
      * @param source {@link Source} instance that delivers the rendering data
      * @param path   {@link Path} representing a file system entry the data is written to
      * @param patch Optional {@link Document} to be merged into the resulting XML markup
      */
     final void writeXml(Source source, Path path, Document patch) {
+        Target target = createTarget(source);
+        if (!canStream(source, target, patch)) {
+            writeXml(serializeXml(createDocument(source, target), patch, transformer), path);
+            return;
+        }
         try (Writer writer = Files.newBufferedWriter(path.resolve(getScope()), StandardOpenOption.CREATE)) {
-            writeXml(source, writer, patch);
+            target.adaptTo(XmlStreamAdapter.class).writeDocument(writer);
         } catch (IOException e) {
             PluginRuntime.context().getExceptionHandler().handle(e);
         }
     }
 
     /**
-     * Used to store XML markup filled with annotation data taken from current {@code Source} instance
-     * @param source {@link Source} instance that delivers the rendering data
-     * @param writer {@link Writer} managing the data storage procedure
-     * @param patch Optional {@link Document} to be merged into the resulting XML markup
+     * Used to store previously rendered XML markup
+     * @param content String value representing the XML markup
+     * @param path    {@link Path} representing a file system entry the data is written to
+     */
+    final void writeXml(String content, Path path) {
+        try (Writer writer = Files.newBufferedWriter(path.resolve(getScope()), StandardOpenOption.CREATE)) {
+            writer.write(content);
+        } catch (IOException e) {
+            PluginRuntime.context().getExceptionHandler().handle(e);
+        }
+    }
+
+    /**
+     * Renders XML markup out of a {@code Target} previously populated with annotation data taken from the current
+     * {@code Source} instance. This method does not access the file system and can be called from a worker thread
+     * provided that the {@code Transformer} is not shared between threads
+     * @param source     {@link Source} instance that delivers the rendering data
+     * @param target     {@link Target} instance created with {@link PackageEntryWriter#createTarget(Source)}
+     * @param patch      Optional {@link Document} to be merged into the resulting XML markup
+     * @param serializer {@code Transformer} instance used to serialize the XML document
+     * @return String value representing the XML markup
+     */
+    final String renderXml(Source source, Target target, Document patch, Transformer serializer) {
+        if (!canStream(source, target, patch)) {
+            return serializeXml(createDocument(source, target), patch, serializer);
+        }
+        StringWriter writer = new StringWriter();
+        try {
+            target.adaptTo(XmlStreamAdapter.class).writeDocument(writer);
+        } catch (IOException e) {
+            PluginRuntime.context().getExceptionHandler().handle(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Merges the given DOM document with the optional patch and serializes the result
+     * @param document   {@link Document} instance that reflects the data provided by the component class
+     * @param patch      Optional {@code Document} to be merged into the resulting XML markup
+     * @param serializer {@code Transformer} instance used to serialize the XML document
+     * @return String value representing the XML markup
      */
-    private void writeXml(Source source, Writer writer, Document patch) {
-        Document document = createDocument(source);
+    private static String serializeXml(Document document, Document patch, Transformer serializer) {
         XmlMergeHelper.merge(document, patch);
+        StringWriter writer = new StringWriter();
         try {
-            transformer.transform(new DOMSource(document), new StreamResult(writer));
+            serializer.transform(new DOMSource(document), new StreamResult(writer));
         } catch (TransformerException e) {
             PluginRuntime.context().getExceptionHandler().handle(e);
         }
+        return writer.toString();
     }
 
     /**
-     * Creates a DOM document that reflects the data that is provided by the component class and is relevant to the
-     * scope of the current writer
+     * Gets whether the given {@code Target} can be rendered directly to a character stream. This is possible when there
+     * is no patch to merge and there are no DOM-level handlers that would modify the rendered document
      * @param source {@link Source} instance that delivers the rendering data
-     * @return {@link Document} created
+     * @param target {@link Target} instance populated with the rendering data
+     * @param patch  Optional {@link Document} to be merged into the resulting XML markup
+     * @return True or false
+     */
+    private boolean canStream(Source source, Target target, Document patch) {
+        return patch == null
+            && !DOM_HANDLER.isApplicable(source, getScope())
+            && target.adaptTo(XmlStreamAdapter.class).isStreamable();
+    }
+
+    /**
+     * Creates a {@link Target} instance that reflects the data that is provided by the component class and is relevant
+     * to the scope of the current writer. This method does not access the file system and can be called from a worker
+     * thread
+     * @param source {@link Source} instance that delivers the rendering data
+     * @return {@code Target} instance
      */
-    private Document createDocument(Source source) {
+    final Target createTarget(Source source) {
         Target target = Targets.newRoot(getScope());
         getHandlers().accept(source, target);
+        return target;
+    }
 
+    /**
+     * Creates a DOM document from the given {@code Target} and applies DOM-level handlers to it
+     * @param source {@link Source} instance that delivers the rendering data
+     * @param target {@link Target} instance populated with the rendering data
+     * @return {@link Document} created
+     */
+    private Document createDocument(Source source, Target target) {
         Document result = target
             .adaptTo(DomAdapter.class)
             .composeDocument(PluginRuntime.context().newXmlUtility().getDocument());
@@ -23,11 +23,27 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 
@@ -39,6 +55,7 @@ import com.google.common.collect.ImmutableMap;
 import com.exadel.aem.toolkit.api.annotations.main.WriteMode;
 import com.exadel.aem.toolkit.api.annotations.meta.Scopes;
 import com.exadel.aem.toolkit.api.handlers.Source;
+import com.exadel.aem.toolkit.api.handlers.Target;
 import com.exadel.aem.toolkit.plugin.exceptions.InvalidSettingException;
 import com.exadel.aem.toolkit.plugin.exceptions.MissingResourceException;
 import com.exadel.aem.toolkit.plugin.exceptions.PluginException;
@@ -57,9 +74,16 @@ public class PackageWriter implements AutoCloseable {
     private static final String FILESYSTEM_PREFIX = "jar:";
     private static final Map<String, String> FILESYSTEM_OPTIONS = ImmutableMap.of("create", "true");
 
+    private static final String OUTPUT_TIMESTAMP_PROPERTY = "project.build.outputTimestamp";
+
+    private static final String STAGING_DIRECTORY = "etoolbox-authoring-kit";
+    private static final String STAGING_DIRECTORY_EXTENSION = ".staging";
+
     private static final String PACKAGE_INFO_DIRECTORY = "META-INF/etoolbox-authoring-kit";
     private static final String PACKAGE_INFO_FILE_NAME = "version.info";
 
+    private static final String THREAD_NAME_PREFIX = "etoolbox-authoring-kit-writer-";
+
     private static final String CANNOT_WRITE_TO_PACKAGE_EXCEPTION_MESSAGE = "Cannot write to package ";
     private static final String COMPONENT_DATA_MISSING_EXCEPTION_MESSAGE = "No data to build .content.xml file while processing component ";
     private static final String COMPONENT_PATH_MISSING_EXCEPTION_MESSAGE = "Component path missing in class ";
@@ -71,17 +95,22 @@ public class PackageWriter implements AutoCloseable {
        ----------------------------- */
 
     private final FileSystem fileSystem;
+    private final PackageArchive archive;
     private final List<PackageEntryWriter> writers;
     private final EmptyCqEditConfigWriter emptyEditConfigWriter;
 
     /**
      * Initializes a new {@link PackageWriter} instance
-     * @param fileSystem The {@link FileSystem} to create {@code PackageWriter} for
+     * @param fileSystem The {@link FileSystem} to create {@code PackageWriter} for. Expected to be null if an archive
+     *                   is specified
+     * @param archive    The {@link PackageArchive} to create {@code PackageWriter} for. Expected to be null if a file
+     *                   system is specified
      * @param writers    Collection of {@link PackageEntryWriter} objects that are invoked one by one for storing
      *                   rendered file data
      */
-    private PackageWriter(FileSystem fileSystem, List<PackageEntryWriter> writers) {
+    private PackageWriter(FileSystem fileSystem, PackageArchive archive, List<PackageEntryWriter> writers) {
         this.fileSystem = fileSystem;
+        this.archive = archive;
         this.writers = writers;
         this.emptyEditConfigWriter = new EmptyCqEditConfigWriter(writers.get(0).getTransformer());
     }
@@ -93,7 +122,11 @@ public class PackageWriter implements AutoCloseable {
     @Override
     public void close() {
         try {
-            fileSystem.close();
+            if (archive != null) {
+                archive.close();
+            } else {
+                fileSystem.close();
+            }
         } catch (IOException e) {
             throw new PluginException(CANNOT_WRITE_TO_PACKAGE_EXCEPTION_MESSAGE, e);
         }
@@ -108,11 +141,17 @@ public class PackageWriter implements AutoCloseable {
      * @param info {@link PluginInfo} object
      */
     public void writeInfo(PluginInfo info) {
-        Path rootPath = fileSystem.getRootDirectories().iterator().next();
+        Path rootPath = archive != null ? archive.getRoot() : fileSystem.getRootDirectories().iterator().next();
         if (!Files.isWritable(rootPath)) {
             return;
         }
-        Path infoDirPath = rootPath.resolve(PACKAGE_INFO_DIRECTORY);
+        Path infoDirPath;
+        try {
+            infoDirPath = archive != null ? archive.checkout(PACKAGE_INFO_DIRECTORY) : rootPath.resolve(PACKAGE_INFO_DIRECTORY);
+        } catch (IOException e) {
+            PluginRuntime.context().getExceptionHandler().handle(e);
+            return;
+        }
         Path infoFilePath = infoDirPath.resolve(PACKAGE_INFO_FILE_NAME);
         try {
             Files.createDirectories(infoDirPath);
@@ -142,16 +181,90 @@ public class PackageWriter implements AutoCloseable {
      * @return True if at least one file/node was stored in the component's folder; otherwise, false
      */
     public boolean write(ComponentSource component) {
+        List<PackageEntry> entries = getEntries(component);
+        if (entries == null) {
+            return false;
+        }
+        List<Document> patches = entries.stream().map(PackageEntry::readPatch).collect(Collectors.toList());
+        for (int i = 0; i < entries.size(); i++) {
+            PackageEntry entry = entries.get(i);
+            entry.getWriter().cleanUp(entry.getPath());
+            entry.getWriter().writeXml(entry.getView(), entry.getPath(), patches.get(i));
+        }
+        return true;
+    }
+
+    /**
+     * Stores the authoring markup of several AEM components into the package. If more than one thread is requested,
+     * the markup is rendered concurrently, each worker thread using its own XML document builder and transformer.
+     * The file system operations, including reading the existing markup of the components set to be merged, are
+     * performed in the current thread in the order of the components. Therefore, the resulting entries are the same as
+     * produced by calling {@link PackageWriter#write(ComponentSource)} for every component in sequence
+     * @param components List of {@link ComponentSource} instances representing the component classes
+     * @param threads    The number of threads used for rendering. A value less than 2 means sequential processing
+     * @return List of components for which at least one file/node was stored; can be empty
+     */
+    public List<ComponentSource> write(List<ComponentSource> components, int threads) {
+        if (threads < 2) {
+            return components.stream().filter(this::write).collect(Collectors.toList());
+        }
+        // The reflection registries are initialized lazily; this must happen before the worker threads start
+        PluginRuntime.context().getReflection().getHandlers();
+        PluginRuntime.context().getReflection().getValidators();
+
+        Map<ComponentSource, List<PackageEntry>> entriesByComponent = new LinkedHashMap<>();
+        for (ComponentSource component : components) {
+            List<PackageEntry> entries = getEntries(component);
+            if (entries != null) {
+                entriesByComponent.put(component, entries);
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, newThreadFactory());
+        ThreadLocal<Transformer> transformers = ThreadLocal.withInitial(PackageWriter::newTransformer);
+        try {
+            entriesByComponent
+                .values()
+                .stream()
+                .flatMap(List::stream)
+                .forEach(entry -> entry.setRendering(executor.submit(PluginRuntime.bind(() -> {
+                    entry.render(transformers.get());
+                    return null;
+                }))));
+            for (List<PackageEntry> entries : entriesByComponent.values()) {
+                // The existing markup is read after the preceding components have been stored, the same way as in
+                // the sequential mode, so that a component merges into the output of the components declared before
+                List<Document> patches = entries.stream().map(PackageEntry::readPatch).collect(Collectors.toList());
+                for (int i = 0; i < entries.size(); i++) {
+                    PackageEntry entry = entries.get(i);
+                    String content = entry.getContent(patches.get(i));
+                    entry.getWriter().cleanUp(entry.getPath());
+                    entry.getWriter().writeXml(content, entry.getPath());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new ArrayList<>(entriesByComponent.keySet());
+    }
+
+    /**
+     * Collects the package entries to be stored for the given AEM component. Checks that the component has a valid
+     * path and matches each of the component's views to an appropriate {@link PackageEntryWriter}
+     * @param component {@link ComponentSource} instance representing the component class
+     * @return List of {@link PackageEntry} objects, or null if the component cannot be written
+     */
+    private List<PackageEntry> getEntries(ComponentSource component) {
         if (StringUtils.isBlank(component.getPath())) {
             String exceptionMessage = COMPONENT_PATH_MISSING_EXCEPTION_MESSAGE + component.adaptTo(Class.class).getSimpleName();
             ValidationException validationException = new ValidationException(exceptionMessage);
             PluginRuntime.context().getExceptionHandler().handle(validationException);
-            return false;
+            return null;
         }
 
-        Path fileSystemPath = fileSystem.getPath(component.getPath());
-        if (!ensureTargetPath(component, fileSystemPath)) {
-            return false;
+        Path fileSystemPath = getPath(component.getPath());
+        if (fileSystemPath == null || !ensureTargetPath(component, fileSystemPath)) {
+            return null;
         }
 
         Map<PackageEntryWriter, Source> viewsByWriter = getViewsByWriter(component);
@@ -176,15 +289,100 @@ public class PackageWriter implements AutoCloseable {
             viewsByWriter.put(emptyEditConfigWriter, component);
         }
 
-        viewsByWriter.forEach((writer, view) -> {
-            Document existingDocument = (component.getWriteMode() == WriteMode.MERGE)
-                ? writer.openXml(fileSystemPath)
-                : null;
-            writer.cleanUp(fileSystemPath);
-            writer.writeXml(view, fileSystemPath, existingDocument);
-        });
+        List<PackageEntry> result = new ArrayList<>();
+        boolean merge = component.getWriteMode() == WriteMode.MERGE;
+        viewsByWriter.forEach((writer, view) -> result.add(new PackageEntry(writer, view, fileSystemPath, merge)));
+        return result;
+    }
 
-        return true;
+    /**
+     * Removes from the package the authoring markup previously stored for an AEM component, e.g., when the component
+     * class no longer exists. The component's folder is removed as well if it has no other content
+     * @param componentPath String value representing the path to the component's folder within the package
+     */
+    public void remove(String componentPath) {
+        if (StringUtils.isBlank(componentPath)) {
+            return;
+        }
+        Path fileSystemPath = getPath(componentPath);
+        if (fileSystemPath == null || !Files.isDirectory(fileSystemPath)) {
+            return;
+        }
+        writers.forEach(writer -> writer.cleanUp(fileSystemPath));
+        try (Stream<Path> remainingEntries = Files.list(fileSystemPath)) {
+            if (!remainingEntries.findAny().isPresent()) {
+                Files.delete(fileSystemPath);
+            }
+        } catch (IOException e) {
+            PluginRuntime.context().getExceptionHandler().handle(e);
+        }
+    }
+
+    /**
+     * Reads the files that the {@link PackageEntryWriter}s manage in the folder of an AEM component, such as {@code
+     * .content.xml}, {@code _cq_dialog.xml}, etc. Other content of the folder is not read
+     * @param componentPath String value representing the path to the component's folder within the package
+     * @return {@code Map} of file names and contents sorted by the file name; can be empty
+     */
+    public Map<String, byte[]> readEntries(String componentPath) {
+        Path fileSystemPath = StringUtils.isNotBlank(componentPath) ? getPath(componentPath) : null;
+        if (fileSystemPath == null || !Files.isDirectory(fileSystemPath)) {
+            return Collections.emptyMap();
+        }
+        Map<String, byte[]> result = new TreeMap<>();
+        try {
+            for (PackageEntryWriter writer : writers) {
+                Path filePath = fileSystemPath.resolve(writer.getScope());
+                if (!result.containsKey(writer.getScope()) && Files.isRegularFile(filePath)) {
+                    result.put(writer.getScope(), Files.readAllBytes(filePath));
+                }
+            }
+        } catch (IOException e) {
+            PluginRuntime.context().getExceptionHandler().handle(e);
+            return Collections.emptyMap();
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the files that the {@link PackageEntryWriter}s manage in the folder of an AEM component with the given
+     * ones. The folder is created if missing. Used to restore the markup previously read with {@link
+     * PackageWriter#readEntries(String)}
+     * @param componentPath String value representing the path to the component's folder within the package
+     * @param entries       {@code Map} of file names and contents
+     */
+    public void writeEntries(String componentPath, Map<String, byte[]> entries) {
+        Path fileSystemPath = StringUtils.isNotBlank(componentPath) ? getPath(componentPath) : null;
+        if (fileSystemPath == null) {
+            return;
+        }
+        writers.forEach(writer -> writer.cleanUp(fileSystemPath));
+        try {
+            Files.createDirectories(fileSystemPath);
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                Files.write(fileSystemPath.resolve(entry.getKey()), entry.getValue());
+            }
+        } catch (IOException e) {
+            PluginRuntime.context().getExceptionHandler().handle(e);
+        }
+    }
+
+    /**
+     * Retrieves the {@link Path} object that represents the given location within the package. If the package is
+     * managed by a {@link PackageArchive}, the content of the location is made available in the staging directory
+     * @param path String value representing a location within the package
+     * @return {@code Path} object, or null if the location cannot be accessed
+     */
+    private Path getPath(String path) {
+        if (archive == null) {
+            return fileSystem.getPath(path);
+        }
+        try {
+            return archive.checkout(path);
+        } catch (IOException e) {
+            PluginRuntime.context().getExceptionHandler().handle(e);
+            return null;
+        }
     }
 
     /**
@@ -244,6 +442,57 @@ public class PackageWriter implements AutoCloseable {
         return result;
     }
 
+    /**
+     * Waits for a rendering task to complete. If the task failed, the original exception is rethrown in the current
+     * thread
+     * @param rendering {@code Future} object representing the rendering task
+     */
+    private static void await(Future<?> rendering) {
+        try {
+            rendering.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PluginException(CANNOT_WRITE_TO_PACKAGE_EXCEPTION_MESSAGE, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new PluginException(CANNOT_WRITE_TO_PACKAGE_EXCEPTION_MESSAGE, e);
+        }
+    }
+
+    /**
+     * Creates a {@link ThreadFactory} for the rendering threads. The threads are assigned the context class loader of
+     * the current thread, since the plugin classes and the classes of the processed project are resolved through it
+     * @return {@code ThreadFactory} object
+     */
+    private static ThreadFactory newThreadFactory() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + counter.incrementAndGet());
+            thread.setContextClassLoader(classLoader);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Creates a new {@link Transformer} instance with the {@code TransformerFactory} of the current thread
+     * @return {@code Transformer} object
+     */
+    private static Transformer newTransformer() {
+        try {
+            return PluginRuntime.context().getXmlUtility().getTransformerFactory().newTransformer();
+        } catch (TransformerConfigurationException e) {
+            // Exceptions caught here are due to possible XXE security vulnerabilities, so no further handling
+            throw new PluginException(CANNOT_WRITE_TO_PACKAGE_EXCEPTION_MESSAGE, e);
+        }
+    }
+
     /* ---------------
        Factory methods
        --------------- */
@@ -255,19 +504,63 @@ public class PackageWriter implements AutoCloseable {
      * @return {@code PackageWriter} instance
      */
     public static PackageWriter forMavenProject(MavenProject project) {
+        return forMavenProject(project, true);
+    }
+
+    /**
+     * Initializes an instance of {@link PackageWriter} profiled for the current {@link MavenProject} and the tree of
+     * folders storing AEM components' data. The package is rebuilt upon closing the writer so that only the entries
+     * that have been modified are compressed anew, while the rest are copied as raw bytes. New and modified entries are
+     * stamped with the time specified by the {@code project.build.outputTimestamp} property, or with a fixed time if
+     * the property is not set, so that the build is reproducible. If the package uses ZIP64 extensions, it is opened as
+     * a zip file system instead
+     * @param project         {@code MavenProject instance}
+     * @param compressEntries True to deflate the new and modified entries; false to store them uncompressed
+     * @return {@code PackageWriter} instance
+     */
+    public static PackageWriter forMavenProject(MavenProject project, boolean compressEntries) {
         if (project == null) {
             throw new PluginException(INVALID_PROJECT_EXCEPTION_MESSAGE);
         }
 
-        String packageFileName = project.getBuild().getFinalName() + PACKAGE_EXTENSION;
-        Path path = Paths.get(project.getBuild().getDirectory()).resolve(packageFileName);
-        URI uri = URI.create(FILESYSTEM_PREFIX + path.toUri());
+        String projectName = project.getBuild().getFinalName();
+        Path buildPath = Paths.get(project.getBuild().getDirectory());
+        Path path = buildPath.resolve(projectName + PACKAGE_EXTENSION);
+        Path stagingPath = buildPath.resolve(STAGING_DIRECTORY).resolve(projectName + STAGING_DIRECTORY_EXTENSION);
         try {
+            PackageArchive archive = PackageArchive.open(path, stagingPath, compressEntries, getOutputTimestamp(project));
+            if (archive != null) {
+                return new PackageWriter(null, archive, createWriters(projectName));
+            }
+            URI uri = URI.create(FILESYSTEM_PREFIX + path.toUri());
             FileSystem fs = FileSystems.newFileSystem(uri, FILESYSTEM_OPTIONS);
-            return forFileSystem(fs, project.getBuild().getFinalName());
+            return forFileSystem(fs, projectName);
         } catch (IOException e) {
             // Exceptions caught here are critical for the execution, so no further handling
-            throw new PluginException(CANNOT_WRITE_TO_PACKAGE_EXCEPTION_MESSAGE + project.getBuild().getFinalName(), e);
+            throw new PluginException(CANNOT_WRITE_TO_PACKAGE_EXCEPTION_MESSAGE + projectName, e);
+        }
+    }
+
+    /**
+     * Retrieves the time to stamp the new and modified package entries with from the {@code
+     * project.build.outputTimestamp} property of the project. The property is expected to contain either an ISO 8601
+     * date and time with an offset, or the number of seconds since the epoch
+     * @param project {@code MavenProject instance}
+     * @return {@code LocalDateTime} value in UTC, or null if the property is not set or cannot be parsed
+     */
+    private static LocalDateTime getOutputTimestamp(MavenProject project) {
+        String value = project.getProperties() != null ? project.getProperties().getProperty(OUTPUT_TIMESTAMP_PROPERTY) : null;
+        if (StringUtils.length(value) < 2) {
+            // A one-character value is used to disable the reproducible build mode
+            return null;
+        }
+        try {
+            Instant instant = StringUtils.isNumeric(value)
+                ? Instant.ofEpochSecond(Long.parseLong(value))
+                : OffsetDateTime.parse(value).toInstant();
+            return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+        } catch (DateTimeException | NumberFormatException e) {
+            return null;
         }
     }
 
@@ -279,6 +572,15 @@ public class PackageWriter implements AutoCloseable {
      * @return {@code PackageWriter} instance
      */
     public static PackageWriter forFileSystem(FileSystem fileSystem, String projectName) {
+        return new PackageWriter(fileSystem, null, createWriters(projectName));
+    }
+
+    /**
+     * Creates the collection of {@link PackageEntryWriter} objects that store rendered file data
+     * @param projectName Name of the project the package is created for
+     * @return List of {@code PackageEntryWriter} instances
+     */
+    private static List<PackageEntryWriter> createWriters(String projectName) {
         List<PackageEntryWriter> writers;
         try {
             Transformer transformer = PluginRuntime.context().getXmlUtility().getTransformerFactory().newTransformer();
@@ -294,6 +596,106 @@ public class PackageWriter implements AutoCloseable {
             // Exceptions caught here are due to possible XXE security vulnerabilities, so no further handling
             throw new PluginException(CANNOT_WRITE_TO_PACKAGE_EXCEPTION_MESSAGE + projectName, e);
         }
-        return new PackageWriter(fileSystem, writers);
+        return writers;
+    }
+
+    /* ---------------
+       Service classes
+       --------------- */
+
+    /**
+     * Represents a single XML entry to be stored into a component's folder, together with the writer and the data
+     * needed to render it
+     */
+    private static class PackageEntry {
+        private final PackageEntryWriter writer;
+        private final Source view;
+        private final Path path;
+        private final boolean merge;
+        private Target target;
+        private String content;
+        private Future<?> rendering;
+
+        /**
+         * Creates a new {@link PackageEntry} instance
+         * @param writer {@link PackageEntryWriter} that renders and stores the entry
+         * @param view   {@link Source} instance that delivers the rendering data
+         * @param path   {@link Path} representing the component's folder
+         * @param merge  True if the entry is to be merged with the existing markup
+         */
+        PackageEntry(PackageEntryWriter writer, Source view, Path path, boolean merge) {
+            this.writer = writer;
+            this.view = view;
+            this.path = path;
+            this.merge = merge;
+        }
+
+        /**
+         * Retrieves the writer of this entry
+         * @return {@code PackageEntryWriter} object
+         */
+        PackageEntryWriter getWriter() {
+            return writer;
+        }
+
+        /**
+         * Retrieves the source of the rendering data
+         * @return {@code Source} object
+         */
+        Source getView() {
+            return view;
+        }
+
+        /**
+         * Retrieves the path of the component's folder
+         * @return {@code Path} object
+         */
+        Path getPath() {
+            return path;
+        }
+
+        /**
+         * Reads the existing markup to be merged into the entry. This method accesses the file system and must be called
+         * in the thread that stores the entries
+         * @return Nullable {@code Document} object
+         */
+        Document readPatch() {
+            return merge ? writer.openXml(path) : null;
+        }
+
+        /**
+         * Assigns the task that renders this entry in a worker thread
+         * @param rendering {@code Future} object representing the rendering task
+         */
+        void setRendering(Future<?> rendering) {
+            this.rendering = rendering;
+        }
+
+        /**
+         * Populates the {@link Target} of this entry with the rendering data. Unless the entry is to be merged with the
+         * existing markup, also renders the resulting XML. This method does not access the file system and can be
+         * called from a worker thread
+         * @param serializer {@code Transformer} instance that is not shared between threads
+         */
+        void render(Transformer serializer) {
+            target = writer.createTarget(view);
+            if (!merge) {
+                content = writer.renderXml(view, target, null, serializer);
+            }
+        }
+
+        /**
+         * Waits for the rendering of this entry to complete and retrieves the resulting XML markup. If the entry is to
+         * be merged with the existing markup, the merging is performed in the current thread
+         * @param patch Optional {@link Document} to be merged into the resulting XML markup
+         * @return String value representing the XML markup
+         */
+        String getContent(Document patch) {
+            await(rendering);
+            if (!merge) {
+                return content;
+            }
+            return writer.renderXml(view, target, patch, writer.getTransformer());
+        }
     }
 }
@@ -33,18 +33,26 @@ import com.exadel.aem.toolkit.plugin.handlers.placement.InheritanceTest;
 import com.exadel.aem.toolkit.plugin.handlers.placement.OrderingTest;
 import com.exadel.aem.toolkit.plugin.handlers.placement.ReplacementTest;
 import com.exadel.aem.toolkit.plugin.handlers.placement.layouts.LayoutTest;
+import com.exadel.aem.toolkit.plugin.handlers.placement.registries.MembersRegistryTest;
 import com.exadel.aem.toolkit.plugin.handlers.widgets.WidgetsTest;
 import com.exadel.aem.toolkit.plugin.handlers.widgets.common.WidgetsMetaTest;
+import com.exadel.aem.toolkit.plugin.maven.FingerprintIndexTest;
+import com.exadel.aem.toolkit.plugin.maven.JvmHelperTest;
 import com.exadel.aem.toolkit.plugin.maven.PluginContextRule;
+import com.exadel.aem.toolkit.plugin.maven.ReflectionContextHelperTest;
 import com.exadel.aem.toolkit.plugin.metadata.MetadataTest;
 import com.exadel.aem.toolkit.plugin.metadata.RenderingFilterTest;
 import com.exadel.aem.toolkit.plugin.metadata.scripting.ScriptingHelperTest;
 import com.exadel.aem.toolkit.plugin.sources.SourcesTest;
 import com.exadel.aem.toolkit.plugin.targets.TargetsTest;
+import com.exadel.aem.toolkit.plugin.utils.NamingHelperTest;
 import com.exadel.aem.toolkit.plugin.utils.XmlMergeHelperTest;
 import com.exadel.aem.toolkit.plugin.utils.ordering.TopologicalSorterTest;
 import com.exadel.aem.toolkit.plugin.validators.ValidatorsTest;
+import com.exadel.aem.toolkit.plugin.writers.PackageArchiveTest;
+import com.exadel.aem.toolkit.plugin.writers.PackageEntryWriterTest;
 import com.exadel.aem.toolkit.plugin.writers.PackageInfoTest;
+import com.exadel.aem.toolkit.plugin.writers.PackageWriterTest;
 
 /**
  * Shortcut class for running all available test cases in a batch
@@ -56,6 +64,7 @@ import com.exadel.aem.toolkit.plugin.writers.PackageInfoTest;
     RenderingFilterTest.class,
     ScriptingHelperTest.class,
     XmlMergeHelperTest.class,
+    NamingHelperTest.class,
     TerminateOnTest.class,
 
     ComponentsTest.class,
@@ -70,6 +79,7 @@ import com.exadel.aem.toolkit.plugin.writers.PackageInfoTest;
 
     LayoutTest.class,
     ReplacementTest.class,
+    MembersRegistryTest.class,
     IgnoreTest.class,
     InheritanceTest.class,
     CoincidenceTest.class,
@@ -79,6 +89,12 @@ import com.exadel.aem.toolkit.plugin.writers.PackageInfoTest;
     ValidatorsTest.class,
     MetadataTest.class,
     PackageInfoTest.class,
+    PackageArchiveTest.class,
+    PackageEntryWriterTest.class,
+    PackageWriterTest.class,
+    FingerprintIndexTest.class,
+    JvmHelperTest.class,
+    ReflectionContextHelperTest.class,
 })
 public class AllTests {
     @BeforeClass
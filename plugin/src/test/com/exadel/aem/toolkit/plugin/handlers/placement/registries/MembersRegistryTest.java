@@ -0,0 +1,125 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.plugin.handlers.placement.registries;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.exadel.aem.toolkit.api.handlers.Source;
+import com.exadel.aem.toolkit.plugin.sources.Sources;
+
+public class MembersRegistryTest {
+
+    private Source first;
+    private Source second;
+    private Source third;
+    private Source fourth;
+
+    @Before
+    public void setUp() throws NoSuchFieldException, NoSuchMethodException {
+        first = getField("first");
+        second = getField("second");
+        third = getField("third");
+        fourth = Sources.fromMember(Members.class.getDeclaredMethod("getFourth"));
+    }
+
+    @Test
+    public void testTracksAvailableMembersInOrder() {
+        MembersRegistry registry = new MembersRegistry(Arrays.asList(first, second, third, fourth));
+        Assert.assertEquals(Arrays.asList(first, second, third, fourth), registry.getAvailable());
+        Assert.assertSame(first, registry.getFirstAvailable());
+
+        registry.checkOut(second);
+        Assert.assertEquals(Arrays.asList(first, third, fourth), registry.getAvailable());
+        Assert.assertSame(first, registry.getFirstAvailable());
+
+        registry.checkOut(first);
+        registry.softCheckOut(third);
+        Assert.assertEquals(Collections.singletonList(fourth), registry.getAvailable());
+        Assert.assertEquals(Arrays.asList(third, fourth), registry.getAllAvailable());
+        Assert.assertSame(fourth, registry.getFirstAvailable());
+
+        registry.checkOut(third);
+        registry.checkOut(fourth);
+        Assert.assertTrue(registry.getAvailable().isEmpty());
+        Assert.assertTrue(registry.getAllAvailable().isEmpty());
+        Assert.assertNull(registry.getFirstAvailable());
+    }
+
+    @Test
+    public void testIgnoresUnregisteredMembers() throws NoSuchFieldException {
+        MembersRegistry registry = new MembersRegistry(Arrays.asList(first, second));
+        registry.checkOut(third);
+        registry.softCheckOut(getField("first"));
+        Assert.assertEquals(Arrays.asList(first, second), registry.getAvailable());
+    }
+
+    @Test
+    public void testSharesStateWithUpstream() {
+        MembersRegistry upstream = new MembersRegistry(Arrays.asList(first, second, third));
+        MembersRegistry downstream = new MembersRegistry(upstream, Arrays.asList(second, fourth));
+
+        downstream.checkOut(second);
+        Assert.assertEquals(Arrays.asList(first, third), upstream.getAvailable());
+        Assert.assertEquals(Collections.singletonList(fourth), downstream.getAvailable());
+
+        upstream.checkOut(first);
+        upstream.softCheckOut(third);
+        Assert.assertSame(fourth, downstream.getFirstAvailable());
+        Assert.assertNull(upstream.getFirstAvailable());
+        Assert.assertEquals(Collections.singletonList(third), upstream.getAllAvailable());
+    }
+
+    @Test
+    public void testAddsOnlyNewMembers() throws NoSuchFieldException {
+        MembersRegistry registry = new MembersRegistry(Arrays.asList(first, second));
+        registry.checkOut(first);
+
+        List<Source> additional = Arrays.asList(getField("first"), getField("second"), third);
+        registry.add(additional);
+        Assert.assertEquals(Arrays.asList(second, third), registry.getAvailable());
+        Assert.assertSame(second, registry.getFirstAvailable());
+
+        registry.add(Collections.singletonList(fourth));
+        Assert.assertEquals(Arrays.asList(second, third, fourth), registry.getAvailable());
+    }
+
+    /* ---------------
+       Service methods
+       --------------- */
+
+    private static Source getField(String name) throws NoSuchFieldException {
+        return Sources.fromMember(Members.class.getDeclaredField(name));
+    }
+
+    /* ---------------
+       Service classes
+       --------------- */
+
+    @SuppressWarnings("unused")
+    private static class Members {
+        private String first;
+        private String second;
+        private String third;
+
+        public String getFourth() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.plugin.maven;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.exadel.aem.toolkit.plugin.maven.cases.IncrementalTestCases;
+import com.exadel.aem.toolkit.plugin.sources.ComponentSource;
+import com.exadel.aem.toolkit.plugin.sources.Sources;
+import com.exadel.aem.toolkit.plugin.writers.PackageWriter;
+
+public class FingerprintIndexTest {
+
+    private static final String INDEX_DIRECTORY = "/index";
+    private static final String CONTENT_XML = ".content.xml";
+    private static final String CHANGED_VALUE = "changed";
+    private static final String RENAMED_SUFFIX = "-renamed";
+
+    private static final ComponentSource CREATED_COMPONENT = Sources.fromComponentClass(IncrementalTestCases.CreatedComponent.class);
+    private static final ComponentSource RELOCATED_COMPONENT = Sources.fromComponentClass(IncrementalTestCases.RelocatedComponent.class);
+
+    private static boolean adHocInitialization;
+
+    @Rule
+    public FileSystemRule fileSystemHost = new FileSystemRule();
+
+    @BeforeClass
+    public static void setUp() {
+        adHocInitialization = PluginRuntime.context() instanceof EmptyRuntimeContext;
+        if (adHocInitialization) {
+            PluginContextRule.initializeContext();
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (adHocInitialization) {
+            PluginContextRule.closeContext();
+        }
+    }
+
+    @Test
+    public void testSkipsUnchangedComponent() throws IOException {
+        Assert.assertEquals(Collections.singletonList(CREATED_COMPONENT), run(CREATED_COMPONENT));
+        String content = readContentXml();
+
+        Assert.assertTrue(run(CREATED_COMPONENT).isEmpty());
+        Assert.assertEquals(content, readContentXml());
+    }
+
+    @Test
+    public void testRewritesChangedComponent() throws IOException {
+        run(CREATED_COMPONENT);
+
+        FingerprintIndex index = FingerprintIndex.forDirectory(getIndexDirectory(), TestConstants.DEFAULT_PROJECT_NAME);
+        PackageWriter packageWriter = PackageWriter.forFileSystem(fileSystemHost.getFileSystem(), TestConstants.DEFAULT_PROJECT_NAME);
+        Assert.assertFalse(index.isUpToDate(CREATED_COMPONENT, CHANGED_VALUE, packageWriter));
+
+        List<ComponentSource> components = Collections.singletonList(CREATED_COMPONENT);
+        Assert.assertEquals(components, run(components, CHANGED_VALUE));
+        Assert.assertTrue(run(components, CHANGED_VALUE).isEmpty());
+    }
+
+    @Test
+    public void testRestoresUnchangedComponentAfterRebuild() throws IOException {
+        run(CREATED_COMPONENT);
+        String content = readContentXml();
+
+        PackageWriter.forFileSystem(fileSystemHost.getFileSystem(), TestConstants.DEFAULT_PROJECT_NAME)
+            .remove(CREATED_COMPONENT.getPath());
+        Assert.assertFalse(Files.exists(getComponentPath()));
+
+        Assert.assertTrue(run(CREATED_COMPONENT).isEmpty());
+        Assert.assertEquals(content, readContentXml());
+    }
+
+    @Test
+    public void testRemovesStaleComponent() {
+        run(CREATED_COMPONENT);
+        Assert.assertTrue(Files.exists(getComponentPath().resolve(CONTENT_XML)));
+
+        Assert.assertTrue(run().isEmpty());
+        Assert.assertFalse(Files.exists(getComponentPath()));
+    }
+
+    @Test
+    public void testKeepsSharedPathOfStaleComponent() throws IOException {
+        run(CREATED_COMPONENT);
+
+        Assert.assertEquals(Collections.singletonList(RELOCATED_COMPONENT), run(RELOCATED_COMPONENT));
+        Assert.assertTrue(readContentXml().contains(IncrementalTestCases.ALTERNATIVE_COMPONENT_TITLE));
+
+        Assert.assertTrue(run(RELOCATED_COMPONENT).isEmpty());
+        Assert.assertTrue(readContentXml().contains(IncrementalTestCases.ALTERNATIVE_COMPONENT_TITLE));
+    }
+
+    @Test
+    public void testRemovesFormerPathOfRenamedComponent() throws IOException {
+        run(CREATED_COMPONENT);
+        String content = readContentXml();
+
+        ComponentSource renamedComponent = rename(CREATED_COMPONENT);
+        List<ComponentSource> writtenComponents = run(renamedComponent);
+        Assert.assertEquals(1, writtenComponents.size());
+        Assert.assertSame(renamedComponent, writtenComponents.get(0));
+        Assert.assertFalse(Files.exists(getComponentPath()));
+        Assert.assertTrue(Files.exists(getRenamedComponentPath().resolve(CONTENT_XML)));
+
+        Assert.assertTrue(run(renamedComponent).isEmpty());
+        Assert.assertFalse(Files.exists(getComponentPath()));
+
+        Assert.assertEquals(Collections.singletonList(CREATED_COMPONENT), run(CREATED_COMPONENT));
+        Assert.assertEquals(content, readContentXml());
+        Assert.assertFalse(Files.exists(getRenamedComponentPath()));
+    }
+
+    private List<ComponentSource> run(ComponentSource... components) {
+        return run(Arrays.asList(components));
+    }
+
+    private List<ComponentSource> run(List<ComponentSource> components, String... settings) {
+        FingerprintIndex index = FingerprintIndex.forDirectory(getIndexDirectory(), TestConstants.DEFAULT_PROJECT_NAME, settings);
+        PackageWriter packageWriter = PackageWriter.forFileSystem(fileSystemHost.getFileSystem(), TestConstants.DEFAULT_PROJECT_NAME);
+        List<ComponentSource> pendingComponents = new ArrayList<>();
+        Map<ComponentSource, String> fingerprints = new HashMap<>();
+        for (ComponentSource component : components) {
+            String fingerprint = index.getFingerprint(component);
+            if (!index.isUpToDate(component, fingerprint, packageWriter)) {
+                pendingComponents.add(component);
+                fingerprints.put(component, fingerprint);
+            }
+        }
+        List<ComponentSource> result = packageWriter.write(pendingComponents, 1);
+        result.forEach(component -> index.put(component, fingerprints.get(component), packageWriter));
+        index.removeStale(components, packageWriter);
+        index.save();
+        return result;
+    }
+
+    private Path getIndexDirectory() {
+        return fileSystemHost.getFileSystem().getPath(INDEX_DIRECTORY);
+    }
+
+    private Path getComponentPath() {
+        return fileSystemHost.getFileSystem().getPath(TestConstants.PACKAGE_ROOT_PATH, TestConstants.NONEXISTENT_COMPONENT_NAME);
+    }
+
+    private Path getRenamedComponentPath() {
+        return fileSystemHost.getFileSystem().getPath(
+            TestConstants.PACKAGE_ROOT_PATH,
+            TestConstants.NONEXISTENT_COMPONENT_NAME + RENAMED_SUFFIX);
+    }
+
+    private String readContentXml() throws IOException {
+        return new String(Files.readAllBytes(getComponentPath().resolve(CONTENT_XML)), StandardCharsets.UTF_8);
+    }
+
+    private static ComponentSource rename(ComponentSource component) {
+        String path = component.getPath() + RENAMED_SUFFIX;
+        return (ComponentSource) Proxy.newProxyInstance(
+            FingerprintIndexTest.class.getClassLoader(),
+            new Class<?>[] {ComponentSource.class},
+            (proxy, method, args) -> {
+                if ("getPath".equals(method.getName())) {
+                    return path;
+                }
+                try {
+                    return method.invoke(component, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.plugin.maven;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JvmHelperTest {
+
+    private static final String EXECUTABLE = "java";
+    private static final String DIRECTORY = "/project";
+
+    @Test
+    public void testSkipsMissingArguments() {
+        List<String> arguments = Arrays.asList(JvmHelper
+            .commandLine()
+            .executable(EXECUTABLE)
+            .directory(DIRECTORY)
+            .pluginCommand("plugin:goal")
+            .argument("present", "value")
+            .argument("missing", null)
+            .argument("blank", " ")
+            .build()
+            .getArguments());
+
+        Assert.assertTrue(arguments.contains("-Dpresent=value"));
+        Assert.assertTrue(arguments.stream().noneMatch(argument -> argument.startsWith("-Dmissing")));
+        Assert.assertTrue(arguments.stream().noneMatch(argument -> argument.startsWith("-Dblank")));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.plugin.maven;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.exadel.aem.toolkit.api.annotations.main.Dialog;
+import com.exadel.aem.toolkit.api.annotations.meta.Scopes;
+import com.exadel.aem.toolkit.api.handlers.Handler;
+import com.exadel.aem.toolkit.api.handlers.Handles;
+import com.exadel.aem.toolkit.api.handlers.HandlesWidgets;
+import com.exadel.aem.toolkit.plugin.runtime.ReflectionContextHelper;
+import com.exadel.aem.toolkit.plugin.utils.ScopeUtil;
+import com.exadel.aem.toolkit.plugin.utils.ordering.OrderingUtil;
+
+public class ReflectionContextHelperTest {
+
+    private static final String[] SCOPES = new String[] {
+        null,
+        Scopes.COMPONENT,
+        Scopes.CQ_DIALOG,
+        Scopes.CQ_DESIGN_DIALOG,
+        Scopes.CQ_EDIT_CONFIG,
+        Scopes.CQ_CHILD_EDIT_CONFIG
+    };
+
+    private static boolean adHocInitialization;
+
+    @BeforeClass
+    public static void setUp() {
+        adHocInitialization = PluginRuntime.context() instanceof EmptyRuntimeContext;
+        if (adHocInitialization) {
+            PluginContextRule.initializeContext();
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (adHocInitialization) {
+            PluginContextRule.closeContext();
+        }
+    }
+
+    @Test
+    public void testSelectsSameHandlersAsFullScan() {
+        ReflectionContextHelper reflection = PluginRuntime.context().getReflection();
+        Set<Class<?>> handledTypes = getHandledTypes(reflection.getHandlers());
+        Assert.assertFalse(handledTypes.isEmpty());
+
+        Class<?>[] allTypes = handledTypes.toArray(new Class<?>[0]);
+        for (String scope : SCOPES) {
+            for (Class<?> handledType : handledTypes) {
+                assertMatchesFullScan(reflection, scope, handledType);
+                assertMatchesFullScan(reflection, scope, handledType, Dialog.class);
+            }
+            assertMatchesFullScan(reflection, scope, allTypes);
+            assertMatchesFullScan(reflection, scope, Object.class);
+        }
+    }
+
+    @Test
+    public void testReturnsIndependentCopies() {
+        ReflectionContextHelper reflection = PluginRuntime.context().getReflection();
+        Class<?>[] allTypes = getHandledTypes(reflection.getHandlers()).toArray(new Class<?>[0]);
+
+        List<Handler> handlers = reflection.getHandlers(Scopes.CQ_DIALOG, allTypes);
+        Assert.assertFalse(handlers.isEmpty());
+        List<Handler> expected = Arrays.asList(handlers.toArray(new Handler[0]));
+
+        handlers.clear();
+        List<Handler> repeated = reflection.getHandlers(Scopes.CQ_DIALOG, allTypes);
+        Assert.assertEquals(expected, repeated);
+        Assert.assertNotSame(handlers, repeated);
+    }
+
+    /* ---------------
+       Service methods
+       --------------- */
+
+    private static void assertMatchesFullScan(ReflectionContextHelper reflection, String scope, Class<?>... annotationTypes) {
+        List<Handler> expected = OrderingUtil.sortHandlers(reflection.getHandlers()
+            .stream()
+            .filter(handler -> isHandlerMatches(handler, scope, annotationTypes))
+            .collect(Collectors.toList()));
+        Assert.assertEquals(expected, reflection.getHandlers(scope, annotationTypes));
+    }
+
+    @SuppressWarnings("deprecation") // HandlesWidgets processing is retained for compatibility and will be removed
+    // in a version after 2.0.2
+    private static Set<Class<?>> getHandledTypes(List<Handler> handlers) {
+        Set<Class<?>> result = new LinkedHashSet<>();
+        for (Handler handler : handlers) {
+            Handles handles = handler.getClass().getDeclaredAnnotation(Handles.class);
+            HandlesWidgets handlesWidgets = handler.getClass().getDeclaredAnnotation(HandlesWidgets.class);
+            if (handles != null) {
+                result.addAll(Arrays.asList(handles.value()));
+            } else if (handlesWidgets != null) {
+                result.addAll(Arrays.asList(handlesWidgets.value()));
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("deprecation") // Same as above
+    private static boolean isHandlerMatches(Handler handler, String scope, Class<?>[] annotationTypes) {
+        Handles handles = handler.getClass().getDeclaredAnnotation(Handles.class);
+        HandlesWidgets handlesWidgets = handler.getClass().getDeclaredAnnotation(HandlesWidgets.class);
+        if (handles == null && handlesWidgets == null) {
+            return false;
+        }
+        Class<? extends Annotation>[] handledAnnotationTypes = handles != null
+            ? handles.value()
+            : handlesWidgets.value();
+        boolean isMatchByType = Arrays.stream(handledAnnotationTypes)
+            .anyMatch(annotationType -> Arrays.asList(annotationTypes).contains(annotationType));
+
+        String[] handlerScopes = handles != null ? handles.scope() : new String[] {Scopes.DEFAULT};
+        if (handles != null && handlerScopes.length == 1 && handlerScopes[0].equals(Scopes.DEFAULT)) {
+            handlerScopes = ScopeUtil.designate(handles.value());
+        }
+        if (handlerScopes.length == 1 && handlerScopes[0].equals(Scopes.DEFAULT)) {
+            handlerScopes = ScopeUtil.designate(annotationTypes);
+        }
+        boolean isMatchByScope = scope == null || ScopeUtil.fits(scope, handlerScopes);
+
+        return isMatchByType && isMatchByScope;
+    }
+}
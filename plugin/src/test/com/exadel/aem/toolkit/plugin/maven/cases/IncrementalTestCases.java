@@ -0,0 +1,56 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.plugin.maven.cases;
+
+import com.exadel.aem.toolkit.api.annotations.main.AemComponent;
+import com.exadel.aem.toolkit.api.annotations.main.Dialog;
+import com.exadel.aem.toolkit.api.annotations.main.WriteMode;
+import com.exadel.aem.toolkit.api.annotations.widgets.DialogField;
+import com.exadel.aem.toolkit.api.annotations.widgets.TextField;
+import com.exadel.aem.toolkit.plugin.maven.TestConstants;
+
+@SuppressWarnings("unused")
+public class IncrementalTestCases {
+
+    public static final String ALTERNATIVE_COMPONENT_TITLE = "Alternative Component";
+
+    private IncrementalTestCases() {
+    }
+
+    @AemComponent(
+        path = TestConstants.NONEXISTENT_COMPONENT_NAME,
+        title = TestConstants.DEFAULT_COMPONENT_TITLE,
+        writeMode = WriteMode.CREATE
+    )
+    @Dialog
+    public static class CreatedComponent {
+
+        @DialogField(label = "Text input")
+        @TextField
+        private String text;
+    }
+
+    @AemComponent(
+        path = TestConstants.NONEXISTENT_COMPONENT_NAME,
+        title = ALTERNATIVE_COMPONENT_TITLE,
+        writeMode = WriteMode.CREATE
+    )
+    @Dialog
+    public static class RelocatedComponent {
+
+        @DialogField(label = "Text input")
+        @TextField
+        private String text;
+    }
+}
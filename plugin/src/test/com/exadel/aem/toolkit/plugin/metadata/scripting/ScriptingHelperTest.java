@@ -16,6 +16,11 @@ package com.exadel.aem.toolkit.plugin.metadata.scripting;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -28,6 +33,7 @@ import com.exadel.aem.toolkit.api.handlers.Source;
 import com.exadel.aem.toolkit.core.CoreConstants;
 import com.exadel.aem.toolkit.plugin.handlers.common.cases.components.ScriptedFieldset1;
 import com.exadel.aem.toolkit.plugin.handlers.common.cases.components.ScriptedFieldset2;
+import com.exadel.aem.toolkit.plugin.maven.PluginRuntime;
 import com.exadel.aem.toolkit.plugin.sources.Sources;
 import com.exadel.aem.toolkit.plugin.utils.DialogConstants;
 
@@ -36,6 +42,10 @@ public class ScriptingHelperTest {
     private static final String SCRIPT_CONTAINER = "Lorem {ipsum dolor} ${sit amet}, consectetur \"${adipiscing} elit\","
         + "sed do @{eiusmod tempor} incididunt ut @labore et @dolore 'magna @aliqua'";
 
+    private static final int REPEAT_COUNT = 3;
+    private static final int THREAD_COUNT = 4;
+    private static final int TASK_COUNT = 64;
+
     @Test
     public void testInlineScriptExtraction() {
         SubstringMatcher substringMatcher = new SubstringMatcher(
@@ -107,4 +117,39 @@ public class ScriptingHelperTest {
         Assert.assertEquals("Extension text", dialogField.label());
         Assert.assertEquals("Has parent interface", dialogField.description());
     }
+
+    @Test
+    public void testRepeatedInterpolation() throws NoSuchFieldException {
+        for (int i = 0; i < REPEAT_COUNT; i++) {
+            testInterpolateReflectiveData1();
+            testInterpolateReflectiveData2();
+        }
+    }
+
+    @Test
+    public void testConcurrentInterpolation() throws InterruptedException, ExecutionException {
+        List<Callable<String[]>> tasks = new ArrayList<>();
+        for (int i = 0; i < TASK_COUNT; i++) {
+            String fieldName = i % 2 == 0 ? "text" : "extensionText";
+            tasks.add(PluginRuntime.bind(() -> {
+                DialogField dialogField = Sources
+                    .fromMember(ScriptedFieldset2.class.getDeclaredField(fieldName))
+                    .adaptTo(DialogField.class);
+                return new String[] {fieldName, dialogField.label(), dialogField.description()};
+            }));
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            for (Future<String[]> future : executorService.invokeAll(tasks)) {
+                String[] result = future.get();
+                if ("text".equals(result[0])) {
+                    Assert.assertArrayEquals(new String[] {"text", "Field text", "In class ScriptedFieldset2"}, result);
+                } else {
+                    Assert.assertArrayEquals(new String[] {"extensionText", "Extension text", "Has parent interface"}, result);
+                }
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,97 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.plugin.utils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NamingHelperTest {
+
+    private static final List<String> SIMPLE_NAMES = Arrays.asList(
+        "a",
+        "Z",
+        "field",
+        "Field",
+        "FIELD",
+        "camelCase",
+        "snake_case",
+        "UPPER_CASE",
+        "item2",
+        "Item_2_b");
+
+    private static final List<String> DEFAULT_VALUES = Arrays.asList(null, "", "item", "default_");
+
+    @Test
+    public void testSimpleNamesMatchFullProcessing() throws ReflectiveOperationException {
+        Method createValidName = NamingHelper.class.getDeclaredMethod("createValidName", String.class, String.class);
+        createValidName.setAccessible(true);
+        for (NamingHelper helper : getHelpers()) {
+            for (String name : SIMPLE_NAMES) {
+                for (String defaultValue : DEFAULT_VALUES) {
+                    Assert.assertEquals(
+                        name,
+                        createValidName.invoke(helper, name, defaultValue),
+                        helper.getValidName(name, defaultValue));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLowercasesSimpleNames() {
+        NamingHelper helper = NamingHelper.forNodeName();
+        Assert.assertEquals("field", helper.getValidName("Field", null));
+        Assert.assertEquals("fIELD_name", helper.getValidName("FIELD_name", null));
+        Assert.assertEquals("FIELD", helper.getValidName("FIELD", null));
+        Assert.assertEquals("Field", NamingHelper.forPlainName().getValidName("Field", null));
+    }
+
+    @Test
+    public void testMemoizesComplexNames() {
+        NamingHelper helper = NamingHelper.forPlainName();
+        String result = helper.getValidName("Lorem ipsum, dolor!", null);
+        Assert.assertEquals("loremIpsumDolor", result);
+        Assert.assertSame(result, helper.getValidName("Lorem ipsum, dolor!", null));
+
+        Assert.assertEquals("item1st", helper.getValidName("1st", "item"));
+        Assert.assertEquals("field1st", helper.getValidName("1st", "field"));
+        Assert.assertEquals("item1st", helper.getValidName("1st", "item"));
+    }
+
+    @Test
+    public void testProcessesComplexNames() {
+        Assert.assertEquals("../../field", NamingHelper.forFieldName().getValidName("../../field", null));
+        Assert.assertEquals("../../", NamingHelper.forFieldNamePrefix().getValidName("../../", "item"));
+        Assert.assertEquals("granite:class", NamingHelper.forNodeName().getValidName("granite:class", null));
+        Assert.assertEquals("unknownclass", NamingHelper.forNodeName().getValidName("unknown:class", null));
+        Assert.assertEquals("item", NamingHelper.forNodeName().getValidName("  ", null));
+    }
+
+    /* ---------------
+       Service methods
+       --------------- */
+
+    private static List<NamingHelper> getHelpers() {
+        return Arrays.asList(
+            NamingHelper.forFieldName(),
+            NamingHelper.forFieldNamePrefix(),
+            NamingHelper.forFieldNamePostfix(),
+            NamingHelper.forNodeName(),
+            NamingHelper.forPlainName());
+    }
+}
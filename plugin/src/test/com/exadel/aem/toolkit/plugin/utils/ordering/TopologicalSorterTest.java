@@ -17,7 +17,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -27,20 +29,22 @@ import org.junit.Test;
 
 public class TopologicalSorterTest {
 
+    private static final long RANDOM_SEED = 42L;
+
     private static final List<String> CYCLED_GRAPH_SEQUENCE_2 = Arrays.asList(
         "Handler0",
-        "Handler6",
         "Handler5",
+        "Handler6",
+        "Handler1",
         "Handler2",
         "Handler3",
-        "Handler4",
-        "Handler1");
+        "Handler4");
 
     private static final List<String> CYCLED_GRAPH_SEQUENCE_1 = Arrays.asList(
         "Handler0",
+        "Handler1",
         "Handler2",
         "Handler3",
-        "Handler1",
         "Handler4");
 
     private static final List<String> SIMPLE_CYCLED_GRAPH_SEQUENCE = Arrays.asList(
@@ -93,6 +97,40 @@ public class TopologicalSorterTest {
         assertOnlyUniqueValues(answer);
     }
 
+    // Test, that every "before" and "after" reference is respected in a random graph without cycles
+    @Test
+    public void testRandomAcyclicGraph() {
+        List<Orderable<String>> list = getRandomAcyclicList(1000);
+
+        List<Orderable<String>> answer = getTopologicalSorted(list);
+
+        Assert.assertEquals(list.size(), answer.size());
+        Map<Orderable<String>, Integer> positions = new IdentityHashMap<>();
+        for (int i = 0; i < answer.size(); i++) {
+            positions.put(answer.get(i), i);
+        }
+        for (Orderable<String> orderable : answer) {
+            int position = positions.get(orderable);
+            orderable.getBefore().forEach(before -> Assert.assertTrue(positions.get(before) > position));
+            orderable.getAfter().forEach(after -> Assert.assertTrue(positions.get(after) < position));
+        }
+    }
+
+    // Test, that a long chain of references is sorted without exhausting the call stack
+    @Test
+    public void testLongChain() {
+        List<Orderable<String>> list = getList(100_000);
+        for (int i = 0; i < list.size() - 1; i++) {
+            list.get(i).getAfter().add(list.get(i + 1));
+        }
+
+        List<Orderable<String>> answer = getTopologicalSorted(list);
+
+        List<Orderable<String>> expected = new ArrayList<>(list);
+        Collections.reverse(expected);
+        Assert.assertEquals(expected, answer);
+    }
+
     @Test
     public void testGraphWithCycleInside1() {
         List<Orderable<String>> list = getList(5);
@@ -243,7 +281,7 @@ public class TopologicalSorterTest {
     @SuppressWarnings("SameParameterValue")
     private List<Orderable<String>> getRandomList(int size) {
         List<Orderable<String>> list = new ArrayList<>(size);
-        Random random = new Random();
+        Random random = new Random(RANDOM_SEED);
         for (int i = 0; i < size; i++) {
             list.add(new Orderable<>("Handler" + i, "Handler" + i));
         }
@@ -269,6 +307,32 @@ public class TopologicalSorterTest {
         return list;
     }
 
+    // Inits list with random edges that follow a shuffled sequence of nodes, so that no cycles are formed
+    @SuppressWarnings("SameParameterValue")
+    private List<Orderable<String>> getRandomAcyclicList(int size) {
+        List<Orderable<String>> list = getList(size);
+        List<Orderable<String>> sequence = new ArrayList<>(list);
+        Random random = new Random(RANDOM_SEED);
+        Collections.shuffle(sequence, random);
+        for (int i = 0; i < size * 2; i++) {
+            int first = random.nextInt(size);
+            int second = random.nextInt(size);
+            if (first == second) {
+                continue;
+            }
+            Orderable<String> preceding = sequence.get(Math.min(first, second));
+            Orderable<String> following = sequence.get(Math.max(first, second));
+            if (random.nextBoolean()) {
+                preceding.getBefore().add(following);
+                following.getAfter().add(preceding);
+            } else {
+                following.getAfter().add(preceding);
+                preceding.getBefore().add(0, following);
+            }
+        }
+        return list;
+    }
+
     private List<Orderable<String>> getTopologicalSorted(List<Orderable<String>> list) {
         return new TopologicalSorter<>(list).topologicalSort();
     }
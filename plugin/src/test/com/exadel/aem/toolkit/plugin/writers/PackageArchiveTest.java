@@ -0,0 +1,276 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.plugin.writers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import com.google.common.io.ByteStreams;
+
+public class PackageArchiveTest {
+
+    private static final String FOLDER_ONE = "jcr_root/apps/eak/one";
+    private static final String FOLDER_TWO = "jcr_root/apps/eak/two";
+    private static final String FOLDER_LEGACY = "jcr_root/apps/eak/café";
+
+    private static final String CONTENT_XML = "/.content.xml";
+    private static final String DIALOG_XML = "/_cq_dialog.xml";
+    private static final String EDIT_CONFIG_XML = "/_cq_editConfig.xml";
+    private static final String ICON_PNG = "/icon.png";
+    private static final String PROPERTIES_XML = "META-INF/vault/properties.xml";
+
+    private static final String ORIGINAL_CONTENT = "<jcr:root xmlns:jcr=\"http://www.jcp.org/jcr/1.0\" jcr:title=\"Original\"/>";
+    private static final String MODIFIED_CONTENT = "<jcr:root xmlns:jcr=\"http://www.jcp.org/jcr/1.0\" jcr:title=\"Modified\"/>";
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2020, 2, 2, 10, 20, 30);
+    private static final int LARGE_ENTRY_COUNT = 65533;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testRebuildMatchesFileSystem() throws IOException {
+        Path original = createPackage();
+        Path expected = copy(original, "expected.zip");
+        Path actual = copy(original, "actual.zip");
+
+        try (FileSystem fileSystem = openFileSystem(expected)) {
+            modify(fileSystem.getPath("/" + FOLDER_ONE));
+        }
+        try (PackageArchive archive = open(actual, TIMESTAMP)) {
+            modify(archive.checkout(FOLDER_ONE));
+        }
+
+        Map<String, String> expectedEntries = readEntries(expected);
+        Assert.assertEquals(expectedEntries, readEntries(actual));
+        Assert.assertEquals(expectedEntries, readEntriesSequentially(actual));
+
+        try (ZipFile originalFile = new ZipFile(original.toFile()); ZipFile actualFile = new ZipFile(actual.toFile())) {
+            for (String name : new String[] {PROPERTIES_XML, FOLDER_TWO + CONTENT_XML, FOLDER_TWO + ICON_PNG}) {
+                ZipEntry originalEntry = originalFile.getEntry(name);
+                ZipEntry actualEntry = actualFile.getEntry(name);
+                Assert.assertEquals(originalEntry.getMethod(), actualEntry.getMethod());
+                Assert.assertEquals(originalEntry.getCompressedSize(), actualEntry.getCompressedSize());
+                Assert.assertEquals(originalEntry.getLastModifiedTime(), actualEntry.getLastModifiedTime());
+            }
+        }
+    }
+
+    @Test
+    public void testSkipsUnchangedPackage() throws IOException {
+        Path original = createPackage();
+        Path actual = copy(original, "actual.zip");
+
+        try (PackageArchive archive = open(actual, null)) {
+            archive.checkout(FOLDER_ONE);
+            archive.checkout(FOLDER_TWO);
+        }
+        Assert.assertArrayEquals(Files.readAllBytes(original), Files.readAllBytes(actual));
+    }
+
+    @Test
+    public void testRebuildIsReproducible() throws IOException {
+        Path original = createPackage();
+        Path first = copy(original, "first.zip");
+        Path second = copy(original, "second.zip");
+
+        try (PackageArchive archive = open(first, TIMESTAMP)) {
+            modify(archive.checkout(FOLDER_ONE));
+        }
+        try (PackageArchive archive = open(second, TIMESTAMP)) {
+            modify(archive.checkout(FOLDER_ONE));
+        }
+        Assert.assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(second));
+
+        try (ZipFile zipFile = new ZipFile(first.toFile())) {
+            ZipEntry modifiedEntry = zipFile.getEntry(FOLDER_ONE + CONTENT_XML);
+            Assert.assertEquals(
+                TIMESTAMP,
+                LocalDateTime.ofInstant(modifiedEntry.getLastModifiedTime().toInstant(), ZoneId.systemDefault()));
+        }
+    }
+
+    @Test
+    public void testStampsModifiedEntriesWithCurrentTime() throws IOException {
+        Path actual = copy(createPackage(), "actual.zip");
+        // The ZIP format stores the time with a precision of two seconds
+        LocalDateTime start = LocalDateTime.now(ZoneOffset.UTC).withNano(0).minusSeconds(2);
+
+        try (PackageArchive archive = open(actual, null)) {
+            modify(archive.checkout(FOLDER_ONE));
+        }
+
+        try (ZipFile zipFile = new ZipFile(actual.toFile())) {
+            ZipEntry modifiedEntry = zipFile.getEntry(FOLDER_ONE + CONTENT_XML);
+            LocalDateTime modified = LocalDateTime.ofInstant(modifiedEntry.getLastModifiedTime().toInstant(), ZoneId.systemDefault());
+            Assert.assertFalse(modified.isBefore(start));
+        }
+    }
+
+    @Test
+    public void testReadsLegacyEncodedNames() throws IOException {
+        Path actual = temporaryFolder.getRoot().toPath().resolve("legacy.zip");
+        try (ZipOutputStream output = new ZipOutputStream(Files.newOutputStream(actual), Charset.forName("IBM437"))) {
+            output.putNextEntry(new ZipEntry(FOLDER_LEGACY + CONTENT_XML));
+            output.write(ORIGINAL_CONTENT.getBytes(StandardCharsets.UTF_8));
+            output.closeEntry();
+        }
+
+        try (PackageArchive archive = open(actual, TIMESTAMP)) {
+            Path folder = archive.checkout(FOLDER_LEGACY);
+            Assert.assertEquals(ORIGINAL_CONTENT, new String(Files.readAllBytes(folder.resolve(".content.xml")), StandardCharsets.UTF_8));
+            Files.write(folder.resolve(".content.xml"), MODIFIED_CONTENT.getBytes(StandardCharsets.UTF_8));
+        }
+        Assert.assertEquals(
+            Collections.singletonMap(FOLDER_LEGACY + CONTENT_XML, describe(MODIFIED_CONTENT.getBytes(StandardCharsets.UTF_8))),
+            readEntries(actual));
+    }
+
+    @Test
+    public void testFallsBackToFileSystemForLargePackage() throws IOException {
+        Path actual = temporaryFolder.getRoot().toPath().resolve("large.zip");
+        try (ZipOutputStream output = new ZipOutputStream(Files.newOutputStream(actual))) {
+            for (int i = 0; i < LARGE_ENTRY_COUNT; i++) {
+                output.putNextEntry(new ZipEntry("jcr_root/content/eak/entry" + i));
+                output.closeEntry();
+            }
+            output.putNextEntry(new ZipEntry(FOLDER_ONE + CONTENT_XML));
+            output.write(ORIGINAL_CONTENT.getBytes(StandardCharsets.UTF_8));
+            output.closeEntry();
+        }
+
+        try (PackageArchive archive = open(actual, TIMESTAMP)) {
+            Assert.assertNotNull(archive);
+            Path folder = archive.checkout(FOLDER_ONE);
+            Files.write(folder.resolve(".content.xml"), MODIFIED_CONTENT.getBytes(StandardCharsets.UTF_8));
+            Files.write(folder.resolve("_cq_dialog.xml"), ORIGINAL_CONTENT.getBytes(StandardCharsets.UTF_8));
+            Files.write(folder.resolve("_cq_editConfig.xml"), ORIGINAL_CONTENT.getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (ZipFile zipFile = new ZipFile(actual.toFile())) {
+            Assert.assertEquals(LARGE_ENTRY_COUNT + 3, zipFile.size());
+            Assert.assertEquals(MODIFIED_CONTENT, read(zipFile, FOLDER_ONE + CONTENT_XML));
+            Assert.assertEquals(ORIGINAL_CONTENT, read(zipFile, FOLDER_ONE + DIALOG_XML));
+            Assert.assertEquals(ORIGINAL_CONTENT, read(zipFile, FOLDER_ONE + EDIT_CONFIG_XML));
+        }
+    }
+
+    private Path createPackage() throws IOException {
+        Path result = temporaryFolder.getRoot().toPath().resolve("original.zip");
+        byte[] icon = new byte[4096];
+        new Random(0).nextBytes(icon);
+        try (FileSystem fileSystem = openFileSystem(result)) {
+            write(fileSystem.getPath("/" + PROPERTIES_XML), "<properties/>".getBytes(StandardCharsets.UTF_8));
+            write(fileSystem.getPath("/" + FOLDER_ONE + CONTENT_XML), ORIGINAL_CONTENT.getBytes(StandardCharsets.UTF_8));
+            write(fileSystem.getPath("/" + FOLDER_ONE + DIALOG_XML), ORIGINAL_CONTENT.getBytes(StandardCharsets.UTF_8));
+            write(fileSystem.getPath("/" + FOLDER_TWO + CONTENT_XML), ORIGINAL_CONTENT.getBytes(StandardCharsets.UTF_8));
+            write(fileSystem.getPath("/" + FOLDER_TWO + ICON_PNG), icon);
+        }
+        return result;
+    }
+
+    private Path copy(Path source, String name) throws IOException {
+        return Files.copy(source, temporaryFolder.getRoot().toPath().resolve(name), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private PackageArchive open(Path path, LocalDateTime timestamp) throws IOException {
+        return PackageArchive.open(path, temporaryFolder.getRoot().toPath().resolve("staging"), true, timestamp);
+    }
+
+    private static FileSystem openFileSystem(Path path) throws IOException {
+        return FileSystems.newFileSystem(URI.create("jar:" + path.toUri()), Collections.singletonMap("create", "true"));
+    }
+
+    private static void modify(Path folder) throws IOException {
+        Files.write(folder.resolve(".content.xml"), MODIFIED_CONTENT.getBytes(StandardCharsets.UTF_8));
+        Files.delete(folder.resolve("_cq_dialog.xml"));
+        Files.write(folder.resolve("_cq_editConfig.xml"), ORIGINAL_CONTENT.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void write(Path path, byte[] content) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.write(path, content);
+    }
+
+    private static String read(ZipFile zipFile, String name) throws IOException {
+        try (InputStream input = zipFile.getInputStream(zipFile.getEntry(name))) {
+            return new String(ByteStreams.toByteArray(input), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> readEntries(Path path) throws IOException {
+        Map<String, String> result = new TreeMap<>();
+        try (ZipFile zipFile = new ZipFile(path.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                try (InputStream input = zipFile.getInputStream(entry)) {
+                    byte[] content = ByteStreams.toByteArray(input);
+                    Assert.assertEquals(entry.getName(), entry.getSize(), content.length);
+                    Assert.assertEquals(entry.getName(), entry.getCrc(), getCrc(content));
+                    result.put(entry.getName(), describe(content));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, String> readEntriesSequentially(Path path) throws IOException {
+        Map<String, String> result = new TreeMap<>();
+        try (ZipInputStream input = new ZipInputStream(Files.newInputStream(path))) {
+            ZipEntry entry = input.getNextEntry();
+            while (entry != null) {
+                result.put(entry.getName(), describe(ByteStreams.toByteArray(input)));
+                entry = input.getNextEntry();
+            }
+        }
+        return result;
+    }
+
+    private static String describe(byte[] content) {
+        return getCrc(content) + ":" + content.length + ":" + Base64.getEncoder().encodeToString(content);
+    }
+
+    private static long getCrc(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.plugin.writers;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+import com.exadel.aem.toolkit.api.annotations.meta.Scopes;
+import com.exadel.aem.toolkit.api.handlers.Source;
+import com.exadel.aem.toolkit.api.handlers.Target;
+import com.exadel.aem.toolkit.plugin.adapters.DomAdapter;
+import com.exadel.aem.toolkit.plugin.adapters.XmlStreamAdapter;
+import com.exadel.aem.toolkit.plugin.handlers.common.cases.WriteModeTestCases;
+import com.exadel.aem.toolkit.plugin.handlers.common.cases.components.ComplexComponent1;
+import com.exadel.aem.toolkit.plugin.handlers.common.cases.components.ComplexComponent2;
+import com.exadel.aem.toolkit.plugin.handlers.common.cases.components.ComponentWithTabsAsNestedClasses;
+import com.exadel.aem.toolkit.plugin.maven.EvaluationRule;
+import com.exadel.aem.toolkit.plugin.maven.PluginRuntime;
+import com.exadel.aem.toolkit.plugin.sources.ComponentSource;
+import com.exadel.aem.toolkit.plugin.sources.Sources;
+import com.exadel.aem.toolkit.plugin.targets.Targets;
+
+public class PackageEntryWriterTest {
+
+    @Rule
+    public EvaluationRule evaluation = new EvaluationRule();
+
+    @Test
+    public void testStreamedMarkupMatchesDom() throws Exception {
+        Transformer transformer = PluginRuntime.context().getXmlUtility().getTransformerFactory().newTransformer();
+        List<PackageEntryWriter> writers = Arrays.asList(
+            new ContentXmlWriter(transformer),
+            new CqDialogWriter(transformer, Scopes.CQ_DIALOG),
+            new CqDialogWriter(transformer, Scopes.CQ_DESIGN_DIALOG),
+            new CqEditConfigWriter(transformer),
+            new CqChildEditConfigWriter(transformer),
+            new CqHtmlTagWriter(transformer));
+
+        int comparisons = 0;
+        for (Class<?> componentClass : Arrays.asList(
+            ComplexComponent1.class,
+            ComplexComponent2.class,
+            ComponentWithTabsAsNestedClasses.class,
+            WriteModeTestCases.MergingComponent.class)) {
+
+            ComponentSource component = Sources.fromComponentClass(componentClass);
+            for (Source view : component.getViews()) {
+                for (PackageEntryWriter writer : writers) {
+                    if (!writer.canProcess(view)) {
+                        continue;
+                    }
+                    Target target = writer.createTarget(view);
+                    if (!target.adaptTo(XmlStreamAdapter.class).isStreamable()) {
+                        continue;
+                    }
+                    Assert.assertEquals(
+                        componentClass.getSimpleName() + " " + writer.getScope(),
+                        serialize(target.adaptTo(DomAdapter.class).composeDocument(null), transformer),
+                        stream(target));
+                    comparisons++;
+                }
+            }
+        }
+        Assert.assertTrue(comparisons > 0);
+    }
+
+    @Test
+    public void testInvalidNamesAreNotStreamed() {
+        Target target = Targets.newRoot(Scopes.COMPONENT).attribute("jcr:title", "Title");
+        target.getOrCreateTarget("child").attribute("sling:resourceType", "granite/ui/components/coral/foundation/container");
+        Assert.assertTrue(target.adaptTo(XmlStreamAdapter.class).isStreamable());
+
+        target.getOrCreateTarget("child").attribute("1st value", "value");
+        Assert.assertFalse(target.adaptTo(XmlStreamAdapter.class).isStreamable());
+    }
+
+    private static String stream(Target target) throws IOException {
+        StringWriter writer = new StringWriter();
+        target.adaptTo(XmlStreamAdapter.class).writeDocument(writer);
+        return writer.toString();
+    }
+
+    private static String serialize(Document document, Transformer transformer) throws TransformerException {
+        StringWriter writer = new StringWriter();
+        transformer.transform(new DOMSource(document), new StreamResult(writer));
+        return writer.toString();
+    }
+}
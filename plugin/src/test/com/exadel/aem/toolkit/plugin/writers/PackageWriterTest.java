@@ -0,0 +1,104 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exadel.aem.toolkit.plugin.writers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.exadel.aem.toolkit.plugin.handlers.common.cases.WriteModeTestCases;
+import com.exadel.aem.toolkit.plugin.handlers.common.cases.components.ComplexComponent1;
+import com.exadel.aem.toolkit.plugin.handlers.common.cases.components.ComplexComponent2;
+import com.exadel.aem.toolkit.plugin.handlers.common.cases.components.ComponentWithTabsAsNestedClasses;
+import com.exadel.aem.toolkit.plugin.maven.EvaluationRule;
+import com.exadel.aem.toolkit.plugin.maven.FileSystemRule;
+import com.exadel.aem.toolkit.plugin.maven.TestConstants;
+import com.exadel.aem.toolkit.plugin.maven.cases.IncrementalTestCases;
+import com.exadel.aem.toolkit.plugin.sources.ComponentSource;
+import com.exadel.aem.toolkit.plugin.sources.Sources;
+
+public class PackageWriterTest {
+
+    private static final int THREADS = 4;
+
+    @Rule
+    public EvaluationRule evaluation = new EvaluationRule();
+
+    @Rule
+    public FileSystemRule sequentialFileSystemHost = new FileSystemRule();
+
+    @Rule
+    public FileSystemRule concurrentFileSystemHost = new FileSystemRule();
+
+    @Test
+    public void testConcurrentWritingMatchesSequential() throws IOException {
+        // Several components share the same path, and some of them merge into the markup stored by the preceding ones,
+        // so the result depends on the order in which the components are written
+        List<Class<?>> componentClasses = Arrays.asList(
+            ComplexComponent1.class,
+            WriteModeTestCases.MergingComponent.class,
+            ComponentWithTabsAsNestedClasses.class,
+            ComplexComponent2.class,
+            WriteModeTestCases.MergingComponent.class,
+            IncrementalTestCases.CreatedComponent.class,
+            IncrementalTestCases.RelocatedComponent.class);
+
+        List<Class<?>> sequentiallyWritten = write(sequentialFileSystemHost.getFileSystem(), componentClasses, 1);
+        List<Class<?>> concurrentlyWritten = write(concurrentFileSystemHost.getFileSystem(), componentClasses, THREADS);
+        Assert.assertEquals(componentClasses, sequentiallyWritten);
+        Assert.assertEquals(sequentiallyWritten, concurrentlyWritten);
+
+        Map<String, String> sequentialEntries = readEntries(sequentialFileSystemHost.getFileSystem());
+        Map<String, String> concurrentEntries = readEntries(concurrentFileSystemHost.getFileSystem());
+        Assert.assertFalse(sequentialEntries.isEmpty());
+        Assert.assertEquals(sequentialEntries, concurrentEntries);
+    }
+
+    private static List<Class<?>> write(FileSystem fileSystem, List<Class<?>> componentClasses, int threads) {
+        List<ComponentSource> components = componentClasses
+            .stream()
+            .map(Sources::fromComponentClass)
+            .collect(Collectors.toList());
+        // The writer is not closed because closing it would close the testing file system
+        PackageWriter packageWriter = PackageWriter.forFileSystem(fileSystem, TestConstants.DEFAULT_PROJECT_NAME);
+        return packageWriter
+            .write(components, threads)
+            .stream()
+            .map(component -> (Class<?>) component.adaptTo(Class.class))
+            .collect(Collectors.toList());
+    }
+
+    private static Map<String, String> readEntries(FileSystem fileSystem) throws IOException {
+        Map<String, String> result = new TreeMap<>();
+        Path root = fileSystem.getPath(TestConstants.PACKAGE_ROOT_PATH);
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                result.put(root.relativize(path).toString(), new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+            }
+        }
+        return result;
+    }
+}